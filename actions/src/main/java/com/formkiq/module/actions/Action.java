@@ -54,6 +54,9 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
   /** Record inserted date. */
   @Reflectable
   private Date insertedDate;
+  /** Lease Expiry. */
+  @Reflectable
+  private Date leaseExpiry;
   /** Action Message. */
   @Reflectable
   private String message;
@@ -176,6 +179,10 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
       attrs.put("startDate", AttributeValue.fromS(df.format(this.startDate)));
     }
 
+    if (this.leaseExpiry != null) {
+      attrs.put("leaseExpiry", AttributeValue.fromN(String.valueOf(this.leaseExpiry.getTime())));
+    }
+
     addS(attrs, "message", this.message);
     addS(attrs, "queueId", this.queueId);
     addS(attrs, "workflowId", this.workflowId);
@@ -242,6 +249,10 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
     record = record.completedDate(getDate(df, attrs, "completedDate"));
     record = record.startDate(getDate(df, attrs, "startDate"));
 
+    if (attrs.containsKey("leaseExpiry")) {
+      record.leaseExpiry(new Date(Long.parseLong(attrs.get("leaseExpiry").n())));
+    }
+
     return record;
   }
 
@@ -285,6 +296,26 @@ public class Action implements DynamodbRecord<Action>, DbKeys {
     return this;
   }
 
+  /**
+   * Get Lease Expiry, the time a RUNNING {@link Action} can be claimed again.
+   * 
+   * @return {@link Date}
+   */
+  public Date leaseExpiry() {
+    return this.leaseExpiry;
+  }
+
+  /**
+   * Set Lease Expiry.
+   * 
+   * @param date {@link Date}
+   * @return {@link Action}
+   */
+  public Action leaseExpiry(final Date date) {
+    this.leaseExpiry = date;
+    return this;
+  }
+
   /**
    * Get Action Message.
    * 
@@ -37,6 +37,18 @@ import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
  */
 public interface ActionsService {
 
+  /**
+   * Claim an {@link Action} by moving it to RUNNING with a lease. The claim only succeeds if the
+   * {@link Action} is still PENDING, or is RUNNING with a lease that has expired.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param action {@link Action}
+   * @param leaseTime long lease duration in milliseconds
+   * @return boolean whether the {@link Action} was claimed
+   */
+  boolean claimAction(String siteId, String documentId, Action action, long leaseTime);
+
   /**
    * Delete Document Actions.
    * 
@@ -121,6 +133,18 @@ public interface ActionsService {
   void insertBeforeAction(String siteId, String documentId, List<Action> actions,
       Action currentAction, Action insertedAction);
 
+  /**
+   * Extend the lease of a claimed {@link Action}. Only succeeds if the {@link Action} is still
+   * RUNNING with the lease it was claimed or last renewed with.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param action {@link Action}
+   * @param leaseTime long lease duration in milliseconds
+   * @return boolean whether the lease was renewed
+   */
+  boolean renewActionLease(String siteId, String documentId, Action action, long leaseTime);
+
   /**
    * Save {@link Action}.
    * 
@@ -167,6 +191,20 @@ public interface ActionsService {
    */
   void updateActionStatus(String siteId, String documentId, Action action);
 
+  /**
+   * Update the {@link ActionStatus} of an {@link Action} and start the next {@link Action} in a
+   * single transaction, along with the Document Workflow status when the {@link Action} is part of
+   * a workflow.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param action {@link Action}
+   * @param nextAction {@link Action}
+   * @return boolean false when the caller no longer holds the {@link Action} lease or the next
+   *         {@link Action} is no longer PENDING, in which case nothing is updated
+   */
+  boolean updateActionStatus(String siteId, String documentId, Action action, Action nextAction);
+
   /**
    * Update Document Workflow Status.
    * 
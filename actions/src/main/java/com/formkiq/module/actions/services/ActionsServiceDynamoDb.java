@@ -25,18 +25,17 @@ package com.formkiq.module.actions.services;
 
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isEmpty;
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromN;
 import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
-import com.formkiq.aws.dynamodb.AttributeValuesToWriteRequests;
 import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
@@ -46,6 +45,7 @@ import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.QueryConfig;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
+import com.formkiq.aws.dynamodb.WriteRequestBuilder;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.module.actions.Action;
@@ -57,13 +57,18 @@ import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeAction;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
-import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest.Builder;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
-import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
+import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
 
 /**
  * 
@@ -72,6 +77,12 @@ import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
  */
 public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
 
+  /** Action Lease Expiry attribute. */
+  private static final String LEASE_EXPIRY = "leaseExpiry";
+  /** Expression attribute names used by lease conditions. */
+  private static final Map<String, String> LEASE_NAMES =
+      Map.of("#status", "status", "#lease", LEASE_EXPIRY);
+
   /** {@link DynamoDbService}. */
   private DynamoDbService db;
   /** {@link DynamoDbClient}. */
@@ -97,6 +108,57 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     this.db = new DynamoDbServiceImpl(this.dbClient, documentsTable);
   }
 
+  /**
+   * Add {@link Action} lease expiry update, a lease is only kept while the {@link Action} is
+   * RUNNING.
+   * 
+   * @param attrs {@link Map}
+   * @param action {@link Action}
+   * @param updates {@link Map}
+   */
+  private void addLeaseUpdate(final Map<String, AttributeValue> attrs, final Action action,
+      final Map<String, AttributeValueUpdate> updates) {
+
+    if (!ActionStatus.RUNNING.equals(action.status())) {
+      action.leaseExpiry(null);
+      updates.put(LEASE_EXPIRY,
+          AttributeValueUpdate.builder().action(AttributeAction.DELETE).build());
+    } else if (attrs.containsKey(LEASE_EXPIRY)) {
+      updates.put(LEASE_EXPIRY,
+          AttributeValueUpdate.builder().value(attrs.get(LEASE_EXPIRY)).build());
+    }
+  }
+
+  @Override
+  public boolean claimAction(final String siteId, final String documentId, final Action action,
+      final long leaseTime) {
+
+    long now = System.currentTimeMillis();
+    ActionStatus status = action.status();
+    Date leaseExpiry = action.leaseExpiry();
+
+    action.status(ActionStatus.RUNNING).leaseExpiry(new Date(now + leaseTime));
+
+    Map<String, AttributeValue> values =
+        Map.of(":pending", fromS(ActionStatus.PENDING.name()), ":running",
+            fromS(ActionStatus.RUNNING.name()), ":now", fromN(String.valueOf(now)));
+
+    Update update = toStatusUpdate(siteId, action,
+        "#status = :pending OR (#status = :running AND #lease < :now)", values);
+
+    boolean claimed = updateItem(UpdateItemRequest.builder().tableName(update.tableName())
+        .key(update.key()).updateExpression(update.updateExpression())
+        .conditionExpression(update.conditionExpression())
+        .expressionAttributeNames(update.expressionAttributeNames())
+        .expressionAttributeValues(update.expressionAttributeValues()).build());
+
+    if (!claimed) {
+      action.status(status).leaseExpiry(leaseExpiry);
+    }
+
+    return claimed;
+  }
+
   private void deleteAction(final String siteId, final Action action) {
     String pk = action.pk(siteId);
     String sk = action.sk();
@@ -270,6 +332,35 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     return new PaginationResults<>(actions, pagination);
   }
 
+  @Override
+  public boolean renewActionLease(final String siteId, final String documentId,
+      final Action action, final long leaseTime) {
+
+    boolean renewed = false;
+
+    if (action.leaseExpiry() != null) {
+
+      Date leaseExpiry = new Date(System.currentTimeMillis() + leaseTime);
+
+      Map<String, AttributeValue> key =
+          Map.of(PK, fromS(action.pk(siteId)), SK, fromS(action.sk()));
+      Map<String, AttributeValue> values = Map.of(":running", fromS(ActionStatus.RUNNING.name()),
+          ":lease", fromN(String.valueOf(action.leaseExpiry().getTime())), ":expiry",
+          fromN(String.valueOf(leaseExpiry.getTime())));
+
+      renewed = updateItem(UpdateItemRequest.builder().tableName(this.documentTableName).key(key)
+          .updateExpression("SET #lease = :expiry")
+          .conditionExpression("#status = :running AND #lease = :lease")
+          .expressionAttributeNames(LEASE_NAMES).expressionAttributeValues(values).build());
+
+      if (renewed) {
+        action.leaseExpiry(leaseExpiry);
+      }
+    }
+
+    return renewed;
+  }
+
   @Override
   public void saveAction(final String siteId, final Action action) {
 
@@ -310,11 +401,8 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     }
 
     if (!values.isEmpty()) {
-      Map<String, Collection<WriteRequest>> items =
-          new AttributeValuesToWriteRequests(this.documentTableName).apply(values);
-
-      BatchWriteItemRequest batch = BatchWriteItemRequest.builder().requestItems(items).build();
-      this.dbClient.batchWriteItem(batch);
+      new WriteRequestBuilder().appends(this.documentTableName, values)
+          .batchWriteItem(this.dbClient);
     }
   }
 
@@ -342,18 +430,21 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     }
 
     if (!values.isEmpty()) {
-      Map<String, Collection<WriteRequest>> items =
-          new AttributeValuesToWriteRequests(this.documentTableName).apply(values);
-
-      BatchWriteItemRequest batch = BatchWriteItemRequest.builder().requestItems(items).build();
-      this.dbClient.batchWriteItem(batch);
+      new WriteRequestBuilder().appends(this.documentTableName, values)
+          .batchWriteItem(this.dbClient);
     }
 
     return values;
   }
 
-  @Override
-  public void updateActionStatus(final String siteId, final String documentId,
+  /**
+   * Get {@link Action} status attribute updates.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link Action}
+   * @return {@link Map}
+   */
+  private Map<String, AttributeValueUpdate> getStatusUpdates(final String siteId,
       final Action action) {
 
     if (ActionStatus.COMPLETE.equals(action.status())
@@ -381,6 +472,8 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
           AttributeValueUpdate.builder().value(attrs.get("completedDate")).build());
     }
 
+    addLeaseUpdate(attrs, action, updates);
+
     for (String index : Arrays.asList(GSI1, GSI2)) {
 
       if (attrs.containsKey(index + PK) && attrs.containsKey(index + SK)) {
@@ -396,12 +489,129 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
       }
     }
 
-    this.db.updateItem(attrs.get(PK), attrs.get(SK), updates);
+    return updates;
+  }
+
+  /**
+   * Convert {@link Action} status change to a conditional transaction {@link Update}.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link Action}
+   * @param condition {@link String} status and lease condition expression
+   * @param conditionValues {@link Map} condition expression values
+   * @return {@link Update}
+   */
+  private Update toStatusUpdate(final String siteId, final Action action,
+      final String condition, final Map<String, AttributeValue> conditionValues) {
+
+    Map<String, String> names = new HashMap<>();
+    Map<String, AttributeValue> values = new HashMap<>(conditionValues);
+
+    // only names used by the condition, DynamoDb rejects unused expression attribute names
+    LEASE_NAMES.forEach((name, attribute) -> {
+      if (condition.contains(name)) {
+        names.put(name, attribute);
+      }
+    });
+    List<String> sets = new ArrayList<>();
+    List<String> removes = new ArrayList<>();
+
+    int i = 0;
+    for (Map.Entry<String, AttributeValueUpdate> e : getStatusUpdates(siteId, action)
+        .entrySet()) {
+
+      String name = "#a" + i;
+      names.put(name, e.getKey());
+
+      if (AttributeAction.DELETE.equals(e.getValue().action())) {
+        removes.add(name);
+      } else {
+        String value = ":v" + i;
+        values.put(value, e.getValue().value());
+        sets.add(name + " = " + value);
+      }
+
+      i++;
+    }
+
+    String expression = "SET " + String.join(", ", sets)
+        + (!removes.isEmpty() ? " REMOVE " + String.join(", ", removes) : "");
+
+    Map<String, AttributeValue> key =
+        Map.of(PK, fromS(action.pk(siteId)), SK, fromS(action.sk()));
+
+    return Update.builder().tableName(this.documentTableName).key(key)
+        .updateExpression(expression).conditionExpression(condition)
+        .expressionAttributeNames(names).expressionAttributeValues(values).build();
   }
 
   @Override
-  public void updateDocumentWorkflowStatus(final String siteId, final String documentId,
+  public void updateActionStatus(final String siteId, final String documentId,
       final Action action) {
+    Map<String, AttributeValueUpdate> updates = getStatusUpdates(siteId, action);
+    this.db.updateItem(fromS(action.pk(siteId)), fromS(action.sk()), updates);
+  }
+
+  @Override
+  public boolean updateActionStatus(final String siteId, final String documentId,
+      final Action action, final Action nextAction) {
+
+    // the caller must still hold the lease it claimed the action with
+    String condition = "#status = :running";
+    Map<String, AttributeValue> values = new HashMap<>();
+    values.put(":running", fromS(ActionStatus.RUNNING.name()));
+
+    if (action.leaseExpiry() != null) {
+      condition += " AND #lease = :lease";
+      values.put(":lease", fromN(String.valueOf(action.leaseExpiry().getTime())));
+    }
+
+    List<TransactWriteItem> items = new ArrayList<>();
+    items.add(TransactWriteItem.builder()
+        .update(toStatusUpdate(siteId, action, condition, values)).build());
+
+    if (nextAction != null) {
+      items.add(TransactWriteItem.builder().update(toStatusUpdate(siteId, nextAction,
+          "#status = :pending", Map.of(":pending", fromS(ActionStatus.PENDING.name())))).build());
+    }
+
+    if (!isEmpty(action.workflowId()) && !isEmpty(action.workflowStepId())) {
+      Map<String, AttributeValue> workflow =
+          getDocumentWorkflowAttributes(siteId, documentId, action);
+      items.add(TransactWriteItem.builder()
+          .put(Put.builder().tableName(this.documentTableName).item(workflow).build()).build());
+    }
+
+    boolean updated = true;
+
+    try {
+      this.dbClient
+          .transactWriteItems(TransactWriteItemsRequest.builder().transactItems(items).build());
+    } catch (TransactionCanceledException e) {
+
+      boolean conditionFailed = e.cancellationReasons().stream()
+          .anyMatch(r -> "ConditionalCheckFailed".equals(r.code()));
+
+      if (!conditionFailed) {
+        throw e;
+      }
+
+      updated = false;
+    }
+
+    return updated;
+  }
+
+  /**
+   * Get Document Workflow attributes for an {@link Action}.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param action {@link Action}
+   * @return {@link Map}
+   */
+  private Map<String, AttributeValue> getDocumentWorkflowAttributes(final String siteId,
+      final String documentId, final Action action) {
     String workflowId = action.workflowId();
     String stepId = action.workflowStepId();
 
@@ -420,6 +630,31 @@ public class ActionsServiceDynamoDb implements ActionsService, DbKeys {
     r = new DocumentWorkflowRecord().getFromAttributes(siteId, attrs).status(status)
         .currentStepId(stepId).actionPk(action.pk(siteId)).actionSk(action.sk());
 
-    this.db.putItem(r.getAttributes(siteId));
+    return r.getAttributes(siteId);
+  }
+
+  /**
+   * Conditionally update an item.
+   * 
+   * @param request {@link UpdateItemRequest}
+   * @return boolean whether the condition passed and the item was updated
+   */
+  private boolean updateItem(final UpdateItemRequest request) {
+
+    boolean updated = true;
+
+    try {
+      this.dbClient.updateItem(request);
+    } catch (ConditionalCheckFailedException e) {
+      updated = false;
+    }
+
+    return updated;
+  }
+
+  @Override
+  public void updateDocumentWorkflowStatus(final String siteId, final String documentId,
+      final Action action) {
+    this.db.putItem(getDocumentWorkflowAttributes(siteId, documentId, action));
   }
 }
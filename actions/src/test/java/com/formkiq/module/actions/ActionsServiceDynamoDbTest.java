@@ -58,6 +58,8 @@ public class ActionsServiceDynamoDbTest {
 
   /** {@link DocumentService}. */
   private static DocumentService documentService;
+  /** Lease Time. */
+  private static final long LEASE_TIME = 60000;
   /** Limit. */
   private static final int LIMIT = 10;
   /** {@link ActionsService}. */
@@ -99,6 +101,76 @@ public class ActionsServiceDynamoDbTest {
     }
   }
 
+  /**
+   * Claim PENDING Action.
+   */
+  @Test
+  public void testClaimAction01() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe")));
+
+      Action action0 = service.getActions(siteId, documentId).get(0);
+      Action action1 = service.getActions(siteId, documentId).get(0);
+
+      // when
+      boolean claim0 = service.claimAction(siteId, documentId, action0, LEASE_TIME);
+      boolean claim1 = service.claimAction(siteId, documentId, action1, LEASE_TIME);
+
+      // then
+      assertTrue(claim0);
+      assertFalse(claim1);
+      assertEquals(ActionStatus.PENDING, action1.status());
+
+      Action action = service.getActions(siteId, documentId).get(0);
+      assertEquals(ActionStatus.RUNNING, action.status());
+      assertNotNull(action.startDate());
+      assertEquals(action0.leaseExpiry(), action.leaseExpiry());
+
+      // given
+      action.status(ActionStatus.COMPLETE);
+
+      // when
+      service.updateActionStatus(siteId, documentId, action);
+
+      // then
+      action = service.getActions(siteId, documentId).get(0);
+      assertEquals(ActionStatus.COMPLETE, action.status());
+      assertNull(action.leaseExpiry());
+    }
+  }
+
+  /**
+   * Claim RUNNING Action with an expired lease.
+   */
+  @Test
+  public void testClaimAction02() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe")));
+
+      Action action0 = service.getActions(siteId, documentId).get(0);
+      assertTrue(service.claimAction(siteId, documentId, action0, -LEASE_TIME));
+
+      Action action1 = service.getActions(siteId, documentId).get(0);
+      assertEquals(ActionStatus.RUNNING, action1.status());
+
+      // when
+      boolean claim1 = service.claimAction(siteId, documentId, action1, LEASE_TIME);
+      boolean renew0 = service.renewActionLease(siteId, documentId, action0, LEASE_TIME);
+
+      // then
+      assertTrue(claim1);
+      assertFalse(renew0);
+      assertEquals(action1.leaseExpiry(),
+          service.getActions(siteId, documentId).get(0).leaseExpiry());
+    }
+  }
+
   /**
    * Test Delete Document & Document Actions.
    */
@@ -309,6 +381,37 @@ public class ActionsServiceDynamoDbTest {
     }
   }
 
+  /**
+   * Renew Action Lease.
+   */
+  @Test
+  public void testRenewActionLease01() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe")));
+
+      Action action0 = service.getActions(siteId, documentId).get(0);
+      assertFalse(service.renewActionLease(siteId, documentId, action0, LEASE_TIME));
+      assertTrue(service.claimAction(siteId, documentId, action0, LEASE_TIME));
+
+      Action action1 = service.getActions(siteId, documentId).get(0);
+      Date leaseExpiry = action0.leaseExpiry();
+
+      // when
+      boolean renew0 = service.renewActionLease(siteId, documentId, action0, LEASE_TIME * 2);
+      boolean renew1 = service.renewActionLease(siteId, documentId, action1, LEASE_TIME * 2);
+
+      // then
+      assertTrue(renew0);
+      assertFalse(renew1);
+      assertTrue(action0.leaseExpiry().after(leaseExpiry));
+      assertEquals(action0.leaseExpiry(),
+          service.getActions(siteId, documentId).get(0).leaseExpiry());
+    }
+  }
+
   /**
    * Update Action Status.
    */
@@ -418,4 +521,103 @@ public class ActionsServiceDynamoDbTest {
       assertEquals(0, results.getResults().size());
     }
   }
+
+  /**
+   * Complete a claimed Action and start the next Action in one transaction.
+   */
+  @Test
+  public void testUpdateActionStatus04() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe"),
+              new Action().type(ActionType.FULLTEXT).userId("joe")));
+
+      List<Action> actions = service.getActions(siteId, documentId);
+      Action action0 = actions.get(0);
+      assertTrue(service.claimAction(siteId, documentId, action0, LEASE_TIME));
+
+      action0.status(ActionStatus.COMPLETE);
+      Action action1 = actions.get(1).status(ActionStatus.RUNNING)
+          .leaseExpiry(new Date(System.currentTimeMillis() + LEASE_TIME));
+
+      // when
+      boolean updated = service.updateActionStatus(siteId, documentId, action0, action1);
+
+      // then
+      assertTrue(updated);
+      actions = service.getActions(siteId, documentId);
+      assertEquals(ActionStatus.COMPLETE, actions.get(0).status());
+      assertNull(actions.get(0).leaseExpiry());
+      assertEquals(ActionStatus.RUNNING, actions.get(1).status());
+      assertEquals(action1.leaseExpiry(), actions.get(1).leaseExpiry());
+    }
+  }
+
+  /**
+   * Complete an Action whose expired lease was reclaimed by another consumer.
+   */
+  @Test
+  public void testUpdateActionStatus05() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe"),
+              new Action().type(ActionType.FULLTEXT).userId("joe")));
+
+      List<Action> actions = service.getActions(siteId, documentId);
+      Action action0 = actions.get(0);
+      assertTrue(service.claimAction(siteId, documentId, action0, -LEASE_TIME));
+
+      Action reclaimed = service.getActions(siteId, documentId).get(0);
+      assertTrue(service.claimAction(siteId, documentId, reclaimed, LEASE_TIME));
+
+      action0.status(ActionStatus.COMPLETE);
+      Action action1 = actions.get(1).status(ActionStatus.RUNNING)
+          .leaseExpiry(new Date(System.currentTimeMillis() + LEASE_TIME));
+
+      // when
+      boolean updated = service.updateActionStatus(siteId, documentId, action0, action1);
+
+      // then
+      assertFalse(updated);
+      actions = service.getActions(siteId, documentId);
+      assertEquals(ActionStatus.RUNNING, actions.get(0).status());
+      assertEquals(reclaimed.leaseExpiry(), actions.get(0).leaseExpiry());
+      assertEquals(ActionStatus.PENDING, actions.get(1).status());
+    }
+  }
+
+  /**
+   * Start a next Action that is no longer PENDING.
+   */
+  @Test
+  public void testUpdateActionStatus06() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = UUID.randomUUID().toString();
+      service.saveNewActions(siteId, documentId,
+          Arrays.asList(new Action().type(ActionType.OCR).userId("joe"),
+              new Action().type(ActionType.FULLTEXT).userId("joe")));
+
+      List<Action> actions = service.getActions(siteId, documentId);
+      Action action0 = actions.get(0);
+      assertTrue(service.claimAction(siteId, documentId, action0, LEASE_TIME));
+      assertTrue(service.claimAction(siteId, documentId,
+          service.getActions(siteId, documentId).get(1), LEASE_TIME));
+
+      action0.status(ActionStatus.COMPLETE);
+      Action action1 = actions.get(1).status(ActionStatus.RUNNING)
+          .leaseExpiry(new Date(System.currentTimeMillis() + LEASE_TIME));
+
+      // when
+      boolean updated = service.updateActionStatus(siteId, documentId, action0, action1);
+
+      // then
+      assertFalse(updated);
+      assertEquals(ActionStatus.RUNNING, service.getActions(siteId, documentId).get(0).status());
+    }
+  }
 }
@@ -0,0 +1,178 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.net.URI;
+import java.time.Duration;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.ProfileCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
+
+/**
+ * 
+ * DynamoDB Async Connection Builder. Unless set with {@link #setHttpClient(SdkAsyncHttpClient)},
+ * the client uses an {@link AwsCrtAsyncHttpClient} with the configured max concurrency and
+ * connection timeout.
+ *
+ */
+public class AsyncDynamoDbConnectionBuilder {
+
+  /** Default Connection Timeout. */
+  private static final Duration DEFAULT_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+  /** Default Max Concurrency. */
+  private static final int DEFAULT_MAX_CONCURRENCY = 50;
+
+  /** {@link DynamoDbAsyncClientBuilder}. */
+  private DynamoDbAsyncClientBuilder builder;
+  /** Connection Timeout. */
+  private Duration connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+  /** {@link DynamoDbAsyncClient}. */
+  private DynamoDbAsyncClient dbClient = null;
+  /** {@link SdkAsyncHttpClient} set by the caller. */
+  private SdkAsyncHttpClient client = null;
+  /** Max number of concurrent requests. */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+  /**
+   * constructor.
+   */
+  public AsyncDynamoDbConnectionBuilder() {
+    this.builder = DynamoDbAsyncClient.builder()
+        .overrideConfiguration(ClientOverrideConfiguration.builder().build());
+  }
+
+  /**
+   * Build {@link DynamoDbAsyncClient}.
+   * 
+   * @return {@link DynamoDbAsyncClient}
+   */
+  public DynamoDbAsyncClient build() {
+    initDbClient();
+    return this.dbClient;
+  }
+
+  /**
+   * Initializes the {@link DynamoDbAsyncClient}.
+   */
+  public synchronized void initDbClient() {
+    if (this.dbClient == null) {
+
+      if (this.client != null) {
+        this.builder = this.builder.httpClient(this.client);
+      } else {
+        this.builder = this.builder.httpClientBuilder(AwsCrtAsyncHttpClient.builder()
+            .maxConcurrency(Integer.valueOf(this.maxConcurrency))
+            .connectionTimeout(this.connectionTimeout));
+      }
+
+      this.dbClient = this.builder.build();
+    }
+  }
+
+  /**
+   * Set Connection Timeout, ignored when {@link #setHttpClient(SdkAsyncHttpClient)} is used.
+   * 
+   * @param timeout {@link Duration}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setConnectionTimeout(final Duration timeout) {
+    this.connectionTimeout = timeout;
+    return this;
+  }
+
+  /**
+   * Set Credentials.
+   * 
+   * @param cred {@link AwsCredentialsProvider}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setCredentials(final AwsCredentialsProvider cred) {
+    this.builder = this.builder.credentialsProvider(cred);
+    return this;
+  }
+
+  /**
+   * Set Credentials.
+   * 
+   * @param credentials {@link String}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setCredentials(final String credentials) {
+    try (ProfileCredentialsProvider prov =
+        ProfileCredentialsProvider.builder().profileName(credentials).build()) {
+      return setCredentials(prov);
+    }
+  }
+
+  /**
+   * Set Endpoint Override.
+   * 
+   * @param uri {@link URI}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setEndpointOverride(final URI uri) {
+    this.builder = this.builder.endpointOverride(uri);
+    return this;
+  }
+
+  /**
+   * Set the {@link SdkAsyncHttpClient}, configured with the caller's max concurrency and timeouts,
+   * instead of the default {@link AwsCrtAsyncHttpClient}.
+   * 
+   * @param httpClient {@link SdkAsyncHttpClient}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setHttpClient(final SdkAsyncHttpClient httpClient) {
+    this.client = httpClient;
+    return this;
+  }
+
+  /**
+   * Set the max number of requests in flight at once, ignored when
+   * {@link #setHttpClient(SdkAsyncHttpClient)} is used.
+   * 
+   * @param concurrency int
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setMaxConcurrency(final int concurrency) {
+    this.maxConcurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Set Region.
+   * 
+   * @param region {@link Region}
+   * @return {@link AsyncDynamoDbConnectionBuilder}
+   */
+  public AsyncDynamoDbConnectionBuilder setRegion(final Region region) {
+    this.builder = this.builder.region(region);
+    return this;
+  }
+}
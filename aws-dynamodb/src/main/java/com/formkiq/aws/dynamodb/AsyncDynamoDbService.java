@@ -0,0 +1,128 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * 
+ * Non-blocking DynamoDB Wrapper Service, mirrors {@link DynamoDbService}.
+ *
+ */
+public interface AsyncDynamoDbService {
+
+  /**
+   * Delete Items.
+   * 
+   * @param attrs {@link Collection} {@link Map} {@link AttributeValue}
+   * @return {@link CompletableFuture} {@link Boolean}
+   */
+  CompletableFuture<Boolean> deleteItems(Collection<Map<String, AttributeValue>> attrs);
+
+  /**
+   * Gets DynamoDB Record.
+   * 
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @return {@link CompletableFuture} {@link Map}
+   */
+  CompletableFuture<Map<String, AttributeValue>> get(AttributeValue pk, AttributeValue sk);
+
+  /**
+   * Gets DynamoDB Record.
+   * 
+   * @param config {@link QueryConfig}
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @return {@link CompletableFuture} {@link Map}
+   */
+  CompletableFuture<Map<String, AttributeValue>> get(QueryConfig config, AttributeValue pk,
+      AttributeValue sk);
+
+  /**
+   * Batch Get a number of Keys.
+   * 
+   * @param config {@link BatchGetConfig}
+   * @param keys {@link List}
+   * @return {@link CompletableFuture} {@link List}
+   */
+  CompletableFuture<List<Map<String, AttributeValue>>> getBatch(BatchGetConfig config,
+      List<Map<String, AttributeValue>> keys);
+
+  /**
+   * Get Table Name.
+   * 
+   * @return {@link String}
+   */
+  String getTableName();
+
+  /**
+   * Put DynamoDb Records.
+   * 
+   * @param attrs {@link List} {@link Map} {@link AttributeValue}
+   * @return {@link CompletableFuture}
+   */
+  CompletableFuture<Void> putItems(List<Map<String, AttributeValue>> attrs);
+
+  /**
+   * Query DynamoDB Records.
+   * 
+   * @param config {@link QueryConfig}
+   * @param pk {@link AttributeValue}
+   * @param exclusiveStartKey {@link Map}
+   * @param limit int
+   * @return {@link CompletableFuture} {@link QueryResponse}
+   */
+  CompletableFuture<QueryResponse> query(QueryConfig config, AttributeValue pk,
+      Map<String, AttributeValue> exclusiveStartKey, int limit);
+
+  /**
+   * Query DynamoDB Records.
+   * 
+   * @param config {@link QueryConfig}
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @param exclusiveStartKey {@link Map}
+   * @param limit int
+   * @return {@link CompletableFuture} {@link QueryResponse}
+   */
+  CompletableFuture<QueryResponse> queryBeginsWith(QueryConfig config, AttributeValue pk,
+      AttributeValue sk, Map<String, AttributeValue> exclusiveStartKey, int limit);
+
+  /**
+   * Update DynamoDB Record.
+   * 
+   * @param pk {@link AttributeValue}
+   * @param sk {@link AttributeValue}
+   * @param updateValues {@link Map}
+   * @return {@link CompletableFuture} {@link Map}
+   */
+  CompletableFuture<Map<String, AttributeValue>> updateValues(AttributeValue pk,
+      AttributeValue sk, Map<String, AttributeValue> updateValues);
+}
@@ -0,0 +1,344 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.objects.Objects;
+import com.formkiq.aws.dynamodb.objects.Strings;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValueUpdate;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteRequest;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * 
+ * Implementation of {@link AsyncDynamoDbService} using {@link DynamoDbAsyncClient}.
+ *
+ */
+public class AsyncDynamoDbServiceImpl implements AsyncDynamoDbService {
+
+  /** Max BatchGetItem Size. */
+  private static final int MAX_READ_BATCH_SIZE = 100;
+  /** Max BatchWriteItem Size. */
+  private static final int MAX_WRITE_BATCH_SIZE = 25;
+
+  /** {@link DynamoDbAsyncClient}. */
+  private DynamoDbAsyncClient dbClient;
+  /** Table Name. */
+  private String tableName;
+  /** {@link BatchWriteConfig}. */
+  private BatchWriteConfig writeConfig = new BatchWriteConfig();
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link AsyncDynamoDbConnectionBuilder}
+   * @param dynamoDbTableName {@link String}
+   */
+  public AsyncDynamoDbServiceImpl(final AsyncDynamoDbConnectionBuilder connection,
+      final String dynamoDbTableName) {
+    this(connection.build(), dynamoDbTableName);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbAsyncClient}
+   * @param dynamoDbTableName {@link String}
+   */
+  public AsyncDynamoDbServiceImpl(final DynamoDbAsyncClient client,
+      final String dynamoDbTableName) {
+    if (dynamoDbTableName == null) {
+      throw new IllegalArgumentException("Table name is null");
+    }
+
+    this.dbClient = client;
+    this.tableName = dynamoDbTableName;
+  }
+
+  private CompletableFuture<List<Map<String, AttributeValue>>> batchGet(
+      final BatchGetConfig config, final ExponentialBackoff backoff,
+      final Map<String, KeysAndAttributes> items, final int attempt) {
+
+    BatchGetItemRequest request = BatchGetItemRequest.builder().requestItems(items).build();
+
+    return this.dbClient.batchGetItem(request).thenCompose(response -> {
+
+      List<Map<String, AttributeValue>> results = response.hasResponses()
+          ? Objects.notNull(response.responses().get(this.tableName))
+          : Collections.emptyList();
+
+      Map<String, KeysAndAttributes> unprocessed =
+          response.hasUnprocessedKeys() ? response.unprocessedKeys() : Collections.emptyMap();
+
+      CompletableFuture<List<Map<String, AttributeValue>>> future;
+
+      if (unprocessed.isEmpty()) {
+        future = CompletableFuture.completedFuture(results);
+      } else if (attempt >= config.maxRetries()) {
+        future = CompletableFuture.failedFuture(DynamoDbException.builder()
+            .message("Unable to read keys from " + this.tableName).build());
+      } else {
+        future = delay(backoff, attempt + 1)
+            .thenCompose(v -> batchGet(config, backoff, unprocessed, attempt + 1))
+            .thenApply(more -> {
+              List<Map<String, AttributeValue>> list = new ArrayList<>(results);
+              list.addAll(more);
+              return list;
+            });
+      }
+
+      return future;
+    });
+  }
+
+  private CompletableFuture<Void> batchWrite(final List<WriteRequest> writes) {
+
+    ExponentialBackoff backoff =
+        new ExponentialBackoff(this.writeConfig.baseDelay(), this.writeConfig.maxDelay());
+
+    List<WriteRequest> unique = new ArrayList<>(new LinkedHashSet<>(writes));
+
+    CompletableFuture<?>[] futures = Objects.parition(unique, MAX_WRITE_BATCH_SIZE).stream()
+        .map(list -> batchWrite(backoff, Map.of(this.tableName, list), 0))
+        .toArray(CompletableFuture[]::new);
+
+    return CompletableFuture.allOf(futures);
+  }
+
+  private CompletableFuture<Void> batchWrite(final ExponentialBackoff backoff,
+      final Map<String, List<WriteRequest>> items, final int attempt) {
+
+    BatchWriteItemRequest request = BatchWriteItemRequest.builder().requestItems(items).build();
+
+    return this.dbClient.batchWriteItem(request).thenCompose(response -> {
+
+      Map<String, List<WriteRequest>> unprocessed =
+          response.hasUnprocessedItems() ? response.unprocessedItems() : Collections.emptyMap();
+
+      CompletableFuture<Void> future;
+
+      if (unprocessed.isEmpty()) {
+        future = CompletableFuture.completedFuture(null);
+      } else if (attempt >= this.writeConfig.maxRetries()) {
+        future = CompletableFuture.failedFuture(DynamoDbException.builder()
+            .message("Unable to write items to " + this.tableName).build());
+      } else {
+        future = delay(backoff, attempt + 1)
+            .thenCompose(v -> batchWrite(backoff, unprocessed, attempt + 1));
+      }
+
+      return future;
+    });
+  }
+
+  /**
+   * Completes after the backoff delay, without blocking a thread.
+   * 
+   * @param backoff {@link ExponentialBackoff}
+   * @param attempt int
+   * @return {@link CompletableFuture}
+   */
+  private CompletableFuture<Void> delay(final ExponentialBackoff backoff, final int attempt) {
+    return CompletableFuture.supplyAsync(() -> (Void) null,
+        CompletableFuture.delayedExecutor(backoff.delay(attempt), TimeUnit.MILLISECONDS));
+  }
+
+  @Override
+  public CompletableFuture<Boolean> deleteItems(
+      final Collection<Map<String, AttributeValue>> attrs) {
+
+    CompletableFuture<Boolean> future = CompletableFuture.completedFuture(Boolean.FALSE);
+
+    if (!attrs.isEmpty()) {
+
+      List<WriteRequest> writes = attrs.stream().map(
+          a -> WriteRequest.builder().deleteRequest(DeleteRequest.builder().key(a).build()).build())
+          .collect(Collectors.toList());
+
+      future = batchWrite(writes).thenApply(v -> Boolean.TRUE);
+    }
+
+    return future;
+  }
+
+  @Override
+  public CompletableFuture<Map<String, AttributeValue>> get(final AttributeValue pk,
+      final AttributeValue sk) {
+    return get(new QueryConfig(), pk, sk);
+  }
+
+  @Override
+  public CompletableFuture<Map<String, AttributeValue>> get(final QueryConfig config,
+      final AttributeValue pk, final AttributeValue sk) {
+    Map<String, AttributeValue> key = Map.of(PK, pk, SK, sk);
+    return this.dbClient.getItem(GetItemRequest.builder().tableName(this.tableName).key(key)
+        .projectionExpression(config.projectionExpression())
+        .expressionAttributeNames(config.expressionAttributeNames()).consistentRead(Boolean.TRUE)
+        .build()).thenApply(GetItemResponse::item);
+  }
+
+  @Override
+  public CompletableFuture<List<Map<String, AttributeValue>>> getBatch(final BatchGetConfig config,
+      final List<Map<String, AttributeValue>> keys) {
+
+    ExponentialBackoff backoff = new ExponentialBackoff(config.baseDelay(), config.maxDelay());
+    List<Map<String, AttributeValue>> unique = new ArrayList<>(new LinkedHashSet<>(keys));
+
+    List<CompletableFuture<List<Map<String, AttributeValue>>>> futures =
+        Objects.parition(unique, MAX_READ_BATCH_SIZE).stream()
+            .map(list -> batchGet(config, backoff, Map.of(this.tableName,
+                KeysAndAttributes.builder().keys(list)
+                    .projectionExpression(config.projectionExpression())
+                    .expressionAttributeNames(config.expressionAttributeNames()).build()),
+                0))
+            .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenApply(v -> {
+
+      Map<String, Map<String, AttributeValue>> data = new HashMap<>();
+      List<Map<String, AttributeValue>> unkeyed = new ArrayList<>();
+
+      futures.forEach(f -> f.join().forEach(l -> {
+        String key = getKey(l);
+        if (key != null) {
+          data.put(key, l);
+        } else {
+          unkeyed.add(l);
+        }
+      }));
+
+      List<Map<String, AttributeValue>> results = keys.stream().map(k -> data.get(getKey(k)))
+          .filter(k -> k != null).collect(Collectors.toList());
+
+      // projection without PK / SK, items can not be matched to their keys
+      results.addAll(unkeyed);
+      return results;
+    });
+  }
+
+  /**
+   * Get PK / SK key of the item, null when the projection does not include them.
+   * 
+   * @param attr {@link Map}
+   * @return {@link String}
+   */
+  private String getKey(final Map<String, AttributeValue> attr) {
+    AttributeValue pk = attr.get(PK);
+    AttributeValue sk = attr.get(SK);
+    return pk != null && sk != null ? pk.s() + "#" + sk.s() : null;
+  }
+
+  @Override
+  public String getTableName() {
+    return this.tableName;
+  }
+
+  @Override
+  public CompletableFuture<Void> putItems(final List<Map<String, AttributeValue>> attrs) {
+
+    List<WriteRequest> writes = attrs.stream()
+        .map(a -> WriteRequest.builder().putRequest(PutRequest.builder().item(a).build()).build())
+        .collect(Collectors.toList());
+
+    return batchWrite(writes);
+  }
+
+  @Override
+  public CompletableFuture<QueryResponse> query(final QueryConfig config, final AttributeValue pk,
+      final Map<String, AttributeValue> exclusiveStartKey, final int limit) {
+
+    String expression = PK + " = :pk";
+    Map<String, AttributeValue> values = Map.of(":pk", pk);
+
+    QueryRequest q = QueryRequest.builder().tableName(this.tableName).indexName(config.indexName())
+        .expressionAttributeNames(config.expressionAttributeNames())
+        .keyConditionExpression(expression).projectionExpression(config.projectionExpression())
+        .expressionAttributeValues(values).scanIndexForward(config.isScanIndexForward())
+        .exclusiveStartKey(exclusiveStartKey).limit(Integer.valueOf(limit)).build();
+
+    return this.dbClient.query(q);
+  }
+
+  @Override
+  public CompletableFuture<QueryResponse> queryBeginsWith(final QueryConfig config,
+      final AttributeValue pk, final AttributeValue sk,
+      final Map<String, AttributeValue> exclusiveStartKey, final int limit) {
+
+    String gsi = Strings.isEmpty(config.indexName()) ? "" : config.indexName();
+    String expression = gsi + PK + " = :pk and begins_with(" + gsi + SK + ",:sk)";
+
+    if (sk == null) {
+      expression = gsi + PK + " = :pk";
+    }
+
+    Map<String, AttributeValue> values =
+        sk != null ? Map.of(":pk", pk, ":sk", sk) : Map.of(":pk", pk);
+
+    QueryRequest q =
+        QueryRequest.builder().tableName(this.tableName).keyConditionExpression(expression)
+            .expressionAttributeValues(values).scanIndexForward(config.isScanIndexForward())
+            .projectionExpression(config.projectionExpression()).indexName(config.indexName())
+            .exclusiveStartKey(exclusiveStartKey).limit(Integer.valueOf(limit)).build();
+
+    return this.dbClient.query(q);
+  }
+
+  @Override
+  public CompletableFuture<Map<String, AttributeValue>> updateValues(final AttributeValue pk,
+      final AttributeValue sk, final Map<String, AttributeValue> updateValues) {
+
+    Map<String, AttributeValueUpdate> values = new HashMap<>();
+    updateValues.forEach((key, value) -> {
+      values.put(key, AttributeValueUpdate.builder().value(value).build());
+    });
+
+    Map<String, AttributeValue> dbKey = Map.of(PK, pk, SK, sk);
+    return this.dbClient.updateItem(UpdateItemRequest.builder().tableName(this.tableName)
+        .key(dbKey).attributeUpdates(values).build()).thenApply(UpdateItemResponse::attributes);
+  }
+}
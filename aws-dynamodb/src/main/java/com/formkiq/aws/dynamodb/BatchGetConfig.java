@@ -30,8 +30,27 @@ import java.util.Map;
  */
 public class BatchGetConfig {
 
+  /** Default Base Backoff Delay (ms). */
+  private static final long DEFAULT_BASE_DELAY = 50;
+  /** Default Max Backoff Delay (ms). */
+  private static final long DEFAULT_MAX_DELAY = 2000;
+  /** Default Max Concurrency. */
+  private static final int DEFAULT_MAX_CONCURRENCY = 4;
+  /** Default Max Retries. */
+  private static final int DEFAULT_MAX_RETRIES = 10;
+
+  /** Base Backoff Delay (ms). */
+  private long baseDelay = DEFAULT_BASE_DELAY;
+  /** Strongly consistent reads. */
+  private boolean consistentRead;
   /** {@link Map}. */
   private Map<String, String> expressionAttributeNames;
+  /** Max Backoff Delay (ms). */
+  private long maxDelay = DEFAULT_MAX_DELAY;
+  /** Max number of partitions read concurrently. */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  /** Max number of times unprocessed keys are resubmitted. */
+  private int maxRetries = DEFAULT_MAX_RETRIES;
   /** Projection Expression. */
   private String projectionExpression;
 
@@ -42,6 +61,46 @@ public class BatchGetConfig {
 
   }
 
+  /**
+   * Get Base Backoff Delay (ms).
+   * 
+   * @return long
+   */
+  public long baseDelay() {
+    return this.baseDelay;
+  }
+
+  /**
+   * Set Base Backoff Delay (ms).
+   * 
+   * @param delay long
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig baseDelay(final long delay) {
+    this.baseDelay = delay;
+    return this;
+  }
+
+  /**
+   * Get Consistent Read.
+   * 
+   * @return boolean
+   */
+  public boolean consistentRead() {
+    return this.consistentRead;
+  }
+
+  /**
+   * Set Consistent Read.
+   * 
+   * @param consistent boolean
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig consistentRead(final boolean consistent) {
+    this.consistentRead = consistent;
+    return this;
+  }
+
   /**
    * Get Expression Attribute Names.
    * 
@@ -62,6 +121,66 @@ public class BatchGetConfig {
     return this;
   }
 
+  /**
+   * Get Max Backoff Delay (ms).
+   * 
+   * @return long
+   */
+  public long maxDelay() {
+    return this.maxDelay;
+  }
+
+  /**
+   * Set Max Backoff Delay (ms).
+   * 
+   * @param delay long
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig maxDelay(final long delay) {
+    this.maxDelay = delay;
+    return this;
+  }
+
+  /**
+   * Get Max Concurrency.
+   * 
+   * @return int
+   */
+  public int maxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Set Max Concurrency.
+   * 
+   * @param concurrency int
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig maxConcurrency(final int concurrency) {
+    this.maxConcurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Get Max Retries.
+   * 
+   * @return int
+   */
+  public int maxRetries() {
+    return this.maxRetries;
+  }
+
+  /**
+   * Set Max Retries.
+   * 
+   * @param retries int
+   * @return {@link BatchGetConfig}
+   */
+  public BatchGetConfig maxRetries(final int retries) {
+    this.maxRetries = retries;
+    return this;
+  }
+
   /**
    * Get Projection Expression.
    * 
@@ -81,5 +200,4 @@ public class BatchGetConfig {
     this.projectionExpression = projection;
     return this;
   }
-
 }
@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+/**
+ * Batch Write Configuration.
+ */
+public class BatchWriteConfig {
+
+  /** Default Base Backoff Delay (ms). */
+  private static final long DEFAULT_BASE_DELAY = 50;
+  /** Default Max Backoff Delay (ms). */
+  private static final long DEFAULT_MAX_DELAY = 2000;
+  /** Default Max Concurrency. */
+  private static final int DEFAULT_MAX_CONCURRENCY = 4;
+  /** Default Max Retries. */
+  private static final int DEFAULT_MAX_RETRIES = 10;
+
+  /** Base Backoff Delay (ms). */
+  private long baseDelay = DEFAULT_BASE_DELAY;
+  /** Max Backoff Delay (ms). */
+  private long maxDelay = DEFAULT_MAX_DELAY;
+  /** Max number of batches sent concurrently. */
+  private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+  /** Max number of times unprocessed items are resubmitted. */
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+
+  /**
+   * constructor.
+   */
+  public BatchWriteConfig() {
+
+  }
+
+  /**
+   * Get Base Backoff Delay (ms).
+   * 
+   * @return long
+   */
+  public long baseDelay() {
+    return this.baseDelay;
+  }
+
+  /**
+   * Set Base Backoff Delay (ms).
+   * 
+   * @param delay long
+   * @return {@link BatchWriteConfig}
+   */
+  public BatchWriteConfig baseDelay(final long delay) {
+    this.baseDelay = delay;
+    return this;
+  }
+
+  /**
+   * Get Max Backoff Delay (ms).
+   * 
+   * @return long
+   */
+  public long maxDelay() {
+    return this.maxDelay;
+  }
+
+  /**
+   * Set Max Backoff Delay (ms).
+   * 
+   * @param delay long
+   * @return {@link BatchWriteConfig}
+   */
+  public BatchWriteConfig maxDelay(final long delay) {
+    this.maxDelay = delay;
+    return this;
+  }
+
+  /**
+   * Get Max Concurrency.
+   * 
+   * @return int
+   */
+  public int maxConcurrency() {
+    return this.maxConcurrency;
+  }
+
+  /**
+   * Set Max Concurrency.
+   * 
+   * @param concurrency int
+   * @return {@link BatchWriteConfig}
+   */
+  public BatchWriteConfig maxConcurrency(final int concurrency) {
+    this.maxConcurrency = concurrency;
+    return this;
+  }
+
+  /**
+   * Get Max Retries.
+   * 
+   * @return int
+   */
+  public int maxRetries() {
+    return this.maxRetries;
+  }
+
+  /**
+   * Set Max Retries.
+   * 
+   * @param retries int
+   * @return {@link BatchWriteConfig}
+   */
+  public BatchWriteConfig maxRetries(final int retries) {
+    this.maxRetries = retries;
+    return this;
+  }
+}
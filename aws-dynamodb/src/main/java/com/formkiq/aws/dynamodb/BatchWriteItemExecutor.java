@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import com.formkiq.aws.dynamodb.objects.Objects;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+
+/**
+ * Executes {@link WriteRequest} as 25 item {@link BatchWriteItemRequest}, sending several batches
+ * at once and resubmitting any unprocessed items with jittered exponential backoff.
+ */
+public class BatchWriteItemExecutor {
+
+  /** Max Batch Size. */
+  private static final int MAX_BATCH_SIZE = 25;
+
+  /** {@link ExponentialBackoff}. */
+  private final ExponentialBackoff backoff;
+  /** {@link BatchWriteConfig}. */
+  private final BatchWriteConfig config;
+  /** {@link DynamoDbClient}. */
+  private final DynamoDbClient dbClient;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param batchConfig {@link BatchWriteConfig}
+   */
+  public BatchWriteItemExecutor(final DynamoDbClient client, final BatchWriteConfig batchConfig) {
+    this.dbClient = client;
+    this.config = batchConfig;
+    this.backoff = new ExponentialBackoff(batchConfig.baseDelay(), batchConfig.maxDelay());
+  }
+
+  private double consumedCapacity(final BatchWriteItemResponse response) {
+    return response.hasConsumedCapacity() ? response.consumedCapacity().stream()
+        .map(ConsumedCapacity::capacityUnits).filter(c -> c != null).mapToDouble(c -> c).sum() : 0;
+  }
+
+  private int count(final Map<String, List<WriteRequest>> items) {
+    return items.values().stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * Write {@link WriteRequest}.
+   * 
+   * @param items {@link Map} of table name to {@link List} {@link WriteRequest}
+   * @return {@link List} {@link BatchWriteMetrics} one per batch sent
+   */
+  public List<BatchWriteMetrics> execute(final Map<String, List<WriteRequest>> items) {
+
+    List<Callable<BatchWriteMetrics>> tasks = new ArrayList<>();
+
+    for (Map.Entry<String, List<WriteRequest>> e : items.entrySet()) {
+
+      List<WriteRequest> wrs = new ArrayList<>(new LinkedHashSet<>(e.getValue()));
+
+      for (List<WriteRequest> writelist : Objects.parition(wrs, MAX_BATCH_SIZE)) {
+        tasks.add(() -> writeBatch(e.getKey(), writelist));
+      }
+    }
+
+    return BoundedExecutor.invokeAll(this.config.maxConcurrency(), tasks);
+  }
+
+  private BatchWriteMetrics writeBatch(final String tableName, final List<WriteRequest> writes) {
+
+    BatchWriteMetrics metrics =
+        new BatchWriteMetrics().tableName(tableName).itemCount(writes.size());
+
+    int attempts = 0;
+    int retriedItems = 0;
+    double capacity = 0;
+    Map<String, List<WriteRequest>> pending = Map.of(tableName, writes);
+
+    while (!pending.isEmpty()) {
+
+      if (attempts > this.config.maxRetries()) {
+        throw DynamoDbException.builder().message("Unable to write " + count(pending)
+            + " items to " + tableName + " after " + attempts + " attempts").build();
+      }
+
+      if (attempts > 0) {
+        retriedItems += count(pending);
+        this.backoff.sleep(attempts);
+      }
+
+      attempts++;
+
+      BatchWriteItemResponse response =
+          this.dbClient.batchWriteItem(BatchWriteItemRequest.builder().requestItems(pending)
+              .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build());
+
+      capacity += consumedCapacity(response);
+      pending = response.hasUnprocessedItems() ? response.unprocessedItems()
+          : Collections.emptyMap();
+    }
+
+    return metrics.attempts(attempts).retriedItems(retriedItems).consumedCapacity(capacity);
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+/**
+ * Metrics for a single {@link software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest}
+ * batch.
+ */
+public class BatchWriteMetrics {
+
+  /** Number of BatchWriteItem calls made. */
+  private int attempts;
+  /** Total Consumed Capacity Units. */
+  private double consumedCapacity;
+  /** Number of items in the batch. */
+  private int itemCount;
+  /** Number of unprocessed items that were resubmitted. */
+  private int retriedItems;
+  /** Table Name. */
+  private String tableName;
+
+  /**
+   * constructor.
+   */
+  public BatchWriteMetrics() {
+
+  }
+
+  /**
+   * Get Attempts.
+   * 
+   * @return int
+   */
+  public int attempts() {
+    return this.attempts;
+  }
+
+  /**
+   * Set Attempts.
+   * 
+   * @param count int
+   * @return {@link BatchWriteMetrics}
+   */
+  public BatchWriteMetrics attempts(final int count) {
+    this.attempts = count;
+    return this;
+  }
+
+  /**
+   * Get Consumed Capacity Units.
+   * 
+   * @return double
+   */
+  public double consumedCapacity() {
+    return this.consumedCapacity;
+  }
+
+  /**
+   * Set Consumed Capacity Units.
+   * 
+   * @param capacity double
+   * @return {@link BatchWriteMetrics}
+   */
+  public BatchWriteMetrics consumedCapacity(final double capacity) {
+    this.consumedCapacity = capacity;
+    return this;
+  }
+
+  /**
+   * Get Item Count.
+   * 
+   * @return int
+   */
+  public int itemCount() {
+    return this.itemCount;
+  }
+
+  /**
+   * Set Item Count.
+   * 
+   * @param count int
+   * @return {@link BatchWriteMetrics}
+   */
+  public BatchWriteMetrics itemCount(final int count) {
+    this.itemCount = count;
+    return this;
+  }
+
+  /**
+   * Get Retries.
+   * 
+   * @return int
+   */
+  public int retries() {
+    return Math.max(0, this.attempts - 1);
+  }
+
+  /**
+   * Get Retried Items.
+   * 
+   * @return int
+   */
+  public int retriedItems() {
+    return this.retriedItems;
+  }
+
+  /**
+   * Set Retried Items.
+   * 
+   * @param count int
+   * @return {@link BatchWriteMetrics}
+   */
+  public BatchWriteMetrics retriedItems(final int count) {
+    this.retriedItems = count;
+    return this;
+  }
+
+  /**
+   * Get Table Name.
+   * 
+   * @return {@link String}
+   */
+  public String tableName() {
+    return this.tableName;
+  }
+
+  /**
+   * Set Table Name.
+   * 
+   * @param table {@link String}
+   * @return {@link BatchWriteMetrics}
+   */
+  public BatchWriteMetrics tableName(final String table) {
+    this.tableName = table;
+    return this;
+  }
+}
@@ -0,0 +1,160 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+/**
+ * Runs a {@link List} of {@link Callable} with a bounded number of threads, returning the results
+ * in the same order as the tasks. Tasks run on a shared, lazily created {@link ExecutorService} of
+ * daemon threads, so threads are reused across calls.
+ */
+public final class BoundedExecutor {
+
+  /** Shared {@link ExecutorService}. */
+  private static volatile ExecutorService executor;
+
+  /**
+   * Get the shared {@link ExecutorService}, creating it on first use.
+   * 
+   * @return {@link ExecutorService}
+   */
+  private static ExecutorService getExecutor() {
+
+    ExecutorService e = executor;
+
+    if (e == null) {
+      synchronized (BoundedExecutor.class) {
+        e = executor;
+        if (e == null) {
+          e = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "bounded-executor");
+            t.setDaemon(true);
+            return t;
+          });
+          executor = e;
+        }
+      }
+    }
+
+    return e;
+  }
+
+  /**
+   * Invoke all {@link Callable}.
+   * 
+   * @param <T> Type of result
+   * @param maxConcurrency max number of tasks running at the same time
+   * @param tasks {@link List} {@link Callable}
+   * @return {@link List}
+   */
+  public static <T> List<T> invokeAll(final int maxConcurrency,
+      final List<? extends Callable<T>> tasks) {
+
+    int threads = Math.min(maxConcurrency, tasks.size());
+    return threads <= 1 ? invokeSequential(tasks) : invokeParallel(threads, tasks);
+  }
+
+  /**
+   * Run tasks on the shared {@link ExecutorService}, each of the workers taking the next task until
+   * all are done, which bounds the concurrency of this call to the number of workers.
+   * 
+   * @param <T> Type of result
+   * @param threads number of workers
+   * @param tasks {@link List} {@link Callable}
+   * @return {@link List}
+   */
+  private static <T> List<T> invokeParallel(final int threads,
+      final List<? extends Callable<T>> tasks) {
+
+    AtomicInteger next = new AtomicInteger(0);
+    AtomicReferenceArray<T> results = new AtomicReferenceArray<>(tasks.size());
+    List<Future<?>> workers = new ArrayList<>(threads);
+
+    Callable<Void> worker = () -> {
+      for (int i = next.getAndIncrement(); i < tasks.size(); i = next.getAndIncrement()) {
+        results.set(i, tasks.get(i).call());
+      }
+      return null;
+    };
+
+    for (int i = 0; i < threads; i++) {
+      workers.add(getExecutor().submit(worker));
+    }
+
+    try {
+
+      for (Future<?> future : workers) {
+        future.get();
+      }
+
+    } catch (ExecutionException e) {
+      throw unwrap(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw DynamoDbException.builder().message("interrupted").cause(e).build();
+    } finally {
+      // stop remaining tasks being started on failure
+      next.set(tasks.size());
+      workers.forEach(w -> w.cancel(true));
+    }
+
+    List<T> list = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      list.add(results.get(i));
+    }
+
+    return list;
+  }
+  private static <T> List<T> invokeSequential(final List<? extends Callable<T>> tasks) {
+
+    List<T> results = new ArrayList<>(tasks.size());
+
+    for (Callable<T> task : tasks) {
+      try {
+        results.add(task.call());
+      } catch (Exception e) {
+        throw unwrap(e);
+      }
+    }
+
+    return results;
+  }
+
+  private static RuntimeException unwrap(final Throwable e) {
+    return e instanceof RuntimeException ? (RuntimeException) e
+        : DynamoDbException.builder().message(e.getMessage()).cause(e).build();
+  }
+
+  private BoundedExecutor() {}
+}
@@ -24,6 +24,7 @@
 package com.formkiq.aws.dynamodb;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Map;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceRegistry;
@@ -47,5 +48,23 @@ public class DynamoDbAwsServiceRegistry implements AwsServiceRegistry {
 
     serviceCache.register(DynamoDbConnectionBuilder.class,
         new DynamoDbConnectionBuilderExtension(db));
+
+    AsyncDynamoDbConnectionBuilder adb =
+        new AsyncDynamoDbConnectionBuilder().setRegion(serviceCache.region())
+            .setCredentials(credentialsProvider)
+            .setEndpointOverride(awsServiceEndpoints.get("dynamodb"));
+
+    String maxConcurrency = serviceCache.environment("DYNAMODB_MAX_CONCURRENCY");
+    if (maxConcurrency != null) {
+      adb.setMaxConcurrency(Integer.parseInt(maxConcurrency));
+    }
+
+    String connectionTimeout = serviceCache.environment("DYNAMODB_CONNECTION_TIMEOUT_MS");
+    if (connectionTimeout != null) {
+      adb.setConnectionTimeout(Duration.ofMillis(Long.parseLong(connectionTimeout)));
+    }
+
+    serviceCache.register(AsyncDynamoDbConnectionBuilder.class,
+        new AsyncDynamoDbConnectionBuilderExtension(adb));
   }
 }
@@ -0,0 +1,77 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import java.util.concurrent.ThreadLocalRandom;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+/**
+ * Exponential backoff with full jitter, used when resubmitting unprocessed batch items.
+ */
+public class ExponentialBackoff {
+
+  /** Max backoff exponent, prevents overflow. */
+  private static final int MAX_EXPONENT = 20;
+
+  /** Base Delay (ms). */
+  private final long baseDelay;
+  /** Max Delay (ms). */
+  private final long maxDelay;
+
+  /**
+   * constructor.
+   * 
+   * @param base base delay in milliseconds
+   * @param max max delay in milliseconds
+   */
+  public ExponentialBackoff(final long base, final long max) {
+    this.baseDelay = base;
+    this.maxDelay = max;
+  }
+
+  /**
+   * Get a random delay between 0 and min(max, base * 2^attempt).
+   * 
+   * @param attempt int
+   * @return long
+   */
+  public long delay(final int attempt) {
+    long cap = Math.min(this.maxDelay, this.baseDelay * (1L << Math.min(attempt, MAX_EXPONENT)));
+    return ThreadLocalRandom.current().nextLong(Math.max(cap, 0) + 1);
+  }
+
+  /**
+   * Sleep for the backoff delay of the attempt.
+   * 
+   * @param attempt int
+   */
+  public void sleep(final int attempt) {
+    try {
+      Thread.sleep(delay(attempt));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw DynamoDbException.builder().message("interrupted").cause(e).build();
+    }
+  }
+}
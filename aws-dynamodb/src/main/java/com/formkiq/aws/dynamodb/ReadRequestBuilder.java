@@ -25,15 +25,19 @@ package com.formkiq.aws.dynamodb;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import com.formkiq.aws.dynamodb.objects.Objects;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
 import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
@@ -69,14 +73,15 @@ public class ReadRequestBuilder {
       Collection<Map<String, AttributeValue>> values = this.items.get(tableName);
       values.addAll(keys);
     } else {
-      this.items.put(tableName, new HashSet<>(keys));
+      this.items.put(tableName, new LinkedHashSet<>(keys));
     }
 
     return this;
   }
 
   /**
-   * Batch Read Items.
+   * Batch Read Items. Partitions are read concurrently, unprocessed keys are retried with backoff
+   * and results are returned in the same order as the appended keys.
    * 
    * @param dbClient {@link DynamoDbClient}
    * @param config {@link BatchGetConfig}
@@ -85,60 +90,111 @@ public class ReadRequestBuilder {
   public Map<String, List<Map<String, AttributeValue>>> batchReadItems(
       final DynamoDbClient dbClient, final BatchGetConfig config) {
 
-    Map<String, List<Map<String, AttributeValue>>> map = new HashMap<>();
+    ExponentialBackoff backoff = new ExponentialBackoff(config.baseDelay(), config.maxDelay());
+
+    List<String> tableNames = new ArrayList<>();
+    List<Callable<List<Map<String, AttributeValue>>>> tasks = new ArrayList<>();
 
     for (Map.Entry<String, Collection<Map<String, AttributeValue>>> e : this.items.entrySet()) {
 
-      if (e.getValue().size() > MAX_BATCH_SIZE) {
+      List<List<Map<String, AttributeValue>>> parition =
+          Objects.parition(new ArrayList<>(e.getValue()), MAX_BATCH_SIZE);
 
-        Collection<List<Map<String, AttributeValue>>> parition =
-            Objects.parition(new ArrayList<>(e.getValue()), MAX_BATCH_SIZE);
+      for (List<Map<String, AttributeValue>> list : parition) {
+        tableNames.add(e.getKey());
+        tasks.add(() -> batchReadItems(dbClient, e.getKey(), config, backoff, list));
+      }
+    }
 
-        for (List<Map<String, AttributeValue>> list : parition) {
+    List<List<Map<String, AttributeValue>>> results =
+        BoundedExecutor.invokeAll(config.maxConcurrency(), tasks);
 
-          Map<String, List<Map<String, AttributeValue>>> values =
-              batchReadItems(dbClient, e.getKey(), config, list).responses();
+    Map<String, List<Map<String, AttributeValue>>> map = new HashMap<>();
+    this.items.keySet().forEach(tableName -> map.put(tableName, new ArrayList<>()));
 
-          for (Map.Entry<String, List<Map<String, AttributeValue>>> ee : values.entrySet()) {
+    for (int i = 0; i < results.size(); i++) {
+      map.get(tableNames.get(i)).addAll(results.get(i));
+    }
 
-            if (map.containsKey(ee.getKey())) {
-              map.get(ee.getKey()).addAll(ee.getValue());
-            } else {
-              map.put(ee.getKey(), new ArrayList<>(ee.getValue()));
-            }
-          }
-        }
+    return map;
+  }
 
-      } else {
+  private List<Map<String, AttributeValue>> batchReadItems(final DynamoDbClient dbClient,
+      final String tableName, final BatchGetConfig config, final ExponentialBackoff backoff,
+      final List<Map<String, AttributeValue>> keys) {
+
+    List<Map<String, AttributeValue>> results = new ArrayList<>();
+
+    int attempts = 0;
+    Map<String, KeysAndAttributes> pending = Map.of(tableName,
+        KeysAndAttributes.builder().keys(keys).projectionExpression(config.projectionExpression())
+            .expressionAttributeNames(config.expressionAttributeNames())
+            .consistentRead(Boolean.valueOf(config.consistentRead())).build());
+
+    while (!pending.isEmpty()) {
 
-        BatchGetItemResponse response = batchReadItems(dbClient, e.getKey(), config, e.getValue());
-        if (response != null) {
-          map = response.responses();
-        } else {
-          map.put(e.getKey(), new ArrayList<>());
-        }
+      if (attempts > config.maxRetries()) {
+        throw DynamoDbException.builder()
+            .message("Unable to read keys from " + tableName + " after " + attempts + " attempts")
+            .build();
       }
+
+      if (attempts > 0) {
+        backoff.sleep(attempts);
+      }
+
+      attempts++;
+
+      BatchGetItemResponse response = dbClient
+          .batchGetItem(BatchGetItemRequest.builder().requestItems(pending).build());
+
+      if (response.hasResponses()) {
+        results.addAll(Objects.notNull(response.responses().get(tableName)));
+      }
+
+      pending = response.hasUnprocessedKeys() ? response.unprocessedKeys() : Collections.emptyMap();
     }
 
-    return map;
+    return sortByKeys(keys, results);
   }
 
-  private BatchGetItemResponse batchReadItems(final DynamoDbClient dbClient, final String tableName,
-      final BatchGetConfig config, final Collection<Map<String, AttributeValue>> keys) {
+  /**
+   * Sort results into the order of the requested keys. Results whose key attributes were not
+   * projected are appended to the end.
+   * 
+   * @param keys {@link List}
+   * @param results {@link List}
+   * @return {@link List}
+   */
+  private List<Map<String, AttributeValue>> sortByKeys(final List<Map<String, AttributeValue>> keys,
+      final List<Map<String, AttributeValue>> results) {
+
+    Set<String> keyNames = keys.get(0).keySet();
+    List<Map<String, AttributeValue>> unmatched = new ArrayList<>();
+    Map<Map<String, AttributeValue>, Map<String, AttributeValue>> byKey = new HashMap<>();
 
-    BatchGetItemResponse batchResponse = null;
+    for (Map<String, AttributeValue> result : results) {
 
-    if (!keys.isEmpty()) {
-      Map<String, KeysAndAttributes> requestedItems = Map.of(tableName,
-          KeysAndAttributes.builder().keys(keys).projectionExpression(config.projectionExpression())
-              .expressionAttributeNames(config.expressionAttributeNames()).build());
+      if (result.keySet().containsAll(keyNames)) {
+        Map<String, AttributeValue> key = new HashMap<>();
+        keyNames.forEach(k -> key.put(k, result.get(k)));
+        byKey.put(key, result);
+      } else {
+        unmatched.add(result);
+      }
+    }
+
+    List<Map<String, AttributeValue>> sorted = new ArrayList<>(results.size());
 
-      BatchGetItemRequest batchReq =
-          BatchGetItemRequest.builder().requestItems(requestedItems).build();
-      batchResponse = dbClient.batchGetItem(batchReq);
+    for (Map<String, AttributeValue> key : keys) {
+      Map<String, AttributeValue> result = byKey.get(key);
+      if (result != null) {
+        sorted.add(result);
+      }
     }
 
-    return batchResponse;
+    sorted.addAll(unmatched);
+    return sorted;
   }
 
   /**
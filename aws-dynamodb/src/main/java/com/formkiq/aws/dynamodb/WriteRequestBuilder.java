@@ -26,15 +26,11 @@ package com.formkiq.aws.dynamodb;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
-import com.formkiq.aws.dynamodb.objects.Objects;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
 
 /**
@@ -43,8 +39,6 @@ import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
  */
 public class WriteRequestBuilder {
 
-  /** Max Batch Size. */
-  private static final int MAX_BATCH_SIZE = 25;
   /** {@link Map} of {@link WriteRequest}. */
   private Map<String, List<WriteRequest>> items = new HashMap<>();
 
@@ -147,29 +141,19 @@ public class WriteRequestBuilder {
    * @return boolean
    */
   public boolean batchWriteItem(final DynamoDbClient dbClient) {
+    return !batchWriteItem(dbClient, new BatchWriteConfig()).isEmpty();
+  }
 
-    boolean write = false;
-
-    Map<String, List<WriteRequest>> map = new HashMap<>(getItems());
-
-    for (Map.Entry<String, List<WriteRequest>> e : map.entrySet()) {
-
-      Set<WriteRequest> wrs = new HashSet<>(e.getValue());
-      List<List<WriteRequest>> parition = Objects.parition(new ArrayList<>(wrs), MAX_BATCH_SIZE);
-
-      for (List<WriteRequest> writelist : parition) {
-
-        if (!writelist.isEmpty()) {
-          BatchWriteItemRequest batch =
-              BatchWriteItemRequest.builder().requestItems(Map.of(e.getKey(), writelist)).build();
-          dbClient.batchWriteItem(batch);
-
-          write = true;
-        }
-      }
-    }
-
-    return write;
+  /**
+   * Batch Write Items, resubmitting any unprocessed items.
+   * 
+   * @param dbClient {@link DynamoDbClient}
+   * @param config {@link BatchWriteConfig}
+   * @return {@link List} {@link BatchWriteMetrics}
+   */
+  public List<BatchWriteMetrics> batchWriteItem(final DynamoDbClient dbClient,
+      final BatchWriteConfig config) {
+    return new BatchWriteItemExecutor(dbClient, config).execute(getItems());
   }
 
   /**
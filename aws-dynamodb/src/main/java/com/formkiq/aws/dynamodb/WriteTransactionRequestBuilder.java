@@ -36,6 +36,7 @@ import software.amazon.awssdk.services.dynamodb.model.Put;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItem;
 import software.amazon.awssdk.services.dynamodb.model.TransactWriteItemsRequest;
 import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+import software.amazon.awssdk.services.dynamodb.model.Update;
 
 /**
  * Helper class for building {@link TransactWriteItem}.
@@ -66,6 +67,17 @@ public class WriteTransactionRequestBuilder {
     return this;
   }
 
+  /**
+   * Append {@link Update} request to transaction.
+   * 
+   * @param update {@link Update}
+   * @return {@link WriteTransactionRequestBuilder}
+   */
+  public WriteTransactionRequestBuilder append(final Update update) {
+    this.items.add(TransactWriteItem.builder().update(update).build());
+    return this;
+  }
+
   /**
    * Batch Write Items.
    * 
@@ -0,0 +1,92 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.dynamodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test {@link BoundedExecutor}.
+ *
+ */
+class BoundedExecutorTest {
+
+  /**
+   * Results are in task order and concurrency is bounded.
+   */
+  @Test
+  void testInvokeAll01() {
+    // given
+    final int count = 50;
+    final int maxConcurrency = 4;
+    AtomicInteger running = new AtomicInteger(0);
+    AtomicInteger maxRunning = new AtomicInteger(0);
+
+    List<Callable<Integer>> tasks = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      final int n = i;
+      tasks.add(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(2);
+        running.decrementAndGet();
+        return Integer.valueOf(n);
+      });
+    }
+
+    // when
+    List<Integer> results = BoundedExecutor.invokeAll(maxConcurrency, tasks);
+
+    // then
+    assertEquals(count, results.size());
+    for (int i = 0; i < count; i++) {
+      assertEquals(i, results.get(i).intValue());
+    }
+    assertTrue(maxRunning.get() <= maxConcurrency);
+  }
+
+  /**
+   * Task failure is rethrown.
+   */
+  @Test
+  void testInvokeAll02() {
+    // given
+    List<Callable<Integer>> tasks = List.of(() -> Integer.valueOf(1), () -> {
+      throw new IllegalStateException("failed");
+    }, () -> Integer.valueOf(2));
+
+    // when
+    IllegalStateException e =
+        assertThrows(IllegalStateException.class, () -> BoundedExecutor.invokeAll(2, tasks));
+
+    // then
+    assertEquals("failed", e.getMessage());
+  }
+}
@@ -0,0 +1,290 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.s3;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link OutputStream} that uploads to S3 as it is written. Each filled part is uploaded on the
+ * {@link ExecutorService} while writing continues, with at most a fixed number of parts in flight,
+ * so memory use is bounded by the part size regardless of the object size. Objects smaller than a
+ * single part are uploaded with a single PutObject.
+ */
+public class S3MultipartOutputStream extends OutputStream {
+
+  /** Default maximum number of parts in flight. */
+  public static final int DEFAULT_MAX_PARTS_IN_FLIGHT = 4;
+  /** Minimum S3 part size, for all but the last part. */
+  public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+  /** Whether the upload was aborted. */
+  private boolean aborted;
+  /** S3 Bucket. */
+  private final String bucket;
+  /** Current part buffer. */
+  private byte[] buffer;
+  /** Whether the stream is closed. */
+  private boolean closed;
+  /** Content Type. */
+  private String contentType;
+  /** {@link ExecutorService}. */
+  private final ExecutorService executor;
+  /** Limits the number of parts in flight. */
+  private Semaphore inFlight;
+  /** S3 Key. */
+  private final String key;
+  /** Maximum number of parts in flight. */
+  private int maxParts = DEFAULT_MAX_PARTS_IN_FLIGHT;
+  /** Object Metadata. */
+  private Map<String, String> metadata;
+  /** Last part number. */
+  private int partNumber;
+  /** Part size. */
+  private int partSize = MIN_PART_SIZE;
+  /** Position in buffer. */
+  private int position;
+  /** {@link S3Service}. */
+  private final S3Service s3;
+  /** {@link S3MultipartUploader}. */
+  private final S3MultipartUploader uploader;
+  /** Multipart Upload Id, null until the first part is full. */
+  private String uploadId;
+  /** Part uploads. */
+  private final List<Future<?>> uploads = new ArrayList<>();
+
+  /**
+   * constructor.
+   * 
+   * @param s3Service {@link S3Service}
+   * @param multipartUploader {@link S3MultipartUploader}
+   * @param executorService {@link ExecutorService}
+   * @param s3Bucket {@link String}
+   * @param s3Key {@link String}
+   */
+  public S3MultipartOutputStream(final S3Service s3Service,
+      final S3MultipartUploader multipartUploader, final ExecutorService executorService,
+      final String s3Bucket, final String s3Key) {
+    this.s3 = s3Service;
+    this.uploader = multipartUploader;
+    this.executor = executorService;
+    this.bucket = s3Bucket;
+    this.key = s3Key;
+  }
+
+  /**
+   * Abort the upload. Nothing is written to S3 and {@link #close()} does nothing.
+   */
+  public void abort() {
+    if (!this.aborted && !this.closed) {
+      this.aborted = true;
+      this.uploads.forEach(f -> f.cancel(true));
+
+      if (this.uploadId != null) {
+        this.uploader.abortMultipartUpload(this.uploadId);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+
+    if (!this.closed && !this.aborted) {
+
+      if (this.uploadId == null) {
+        byte[] data =
+            this.buffer != null ? Arrays.copyOf(this.buffer, this.position) : new byte[0];
+        this.s3.putObject(this.bucket, this.key, data, this.contentType, this.metadata);
+      } else {
+
+        if (this.position > 0) {
+          uploadBuffer();
+        }
+
+        waitForUploads();
+        this.uploader.completeUpload(this.uploadId);
+      }
+
+      this.closed = true;
+      this.buffer = null;
+    }
+  }
+
+  /**
+   * Set Object Content Type.
+   * 
+   * @param objectContentType {@link String}
+   * @return {@link S3MultipartOutputStream}
+   */
+  public S3MultipartOutputStream contentType(final String objectContentType) {
+    this.contentType = objectContentType;
+    return this;
+  }
+
+  /**
+   * Check the stream is writable and allocate the part buffer on first write.
+   * 
+   * @throws IOException IOException
+   */
+  private void ensureOpen() throws IOException {
+    if (this.closed || this.aborted) {
+      throw new IOException("stream is closed");
+    }
+
+    if (this.buffer == null) {
+      this.buffer = new byte[this.partSize];
+      this.inFlight = new Semaphore(this.maxParts);
+    }
+  }
+
+  /**
+   * Set the maximum number of parts uploading at once.
+   * 
+   * @param maxPartsInFlight int
+   * @return {@link S3MultipartOutputStream}
+   */
+  public S3MultipartOutputStream maxPartsInFlight(final int maxPartsInFlight) {
+    this.maxParts = maxPartsInFlight;
+    return this;
+  }
+
+  /**
+   * Set Object Metadata.
+   * 
+   * @param objectMetadata {@link Map}
+   * @return {@link S3MultipartOutputStream}
+   */
+  public S3MultipartOutputStream metadata(final Map<String, String> objectMetadata) {
+    this.metadata = objectMetadata;
+    return this;
+  }
+
+  /**
+   * Set Part Size.
+   * 
+   * @param size int, at least {@link #MIN_PART_SIZE}
+   * @return {@link S3MultipartOutputStream}
+   */
+  public S3MultipartOutputStream partSize(final int size) {
+
+    if (size < MIN_PART_SIZE) {
+      throw new IllegalArgumentException("part size must be at least " + MIN_PART_SIZE);
+    }
+
+    this.partSize = size;
+    return this;
+  }
+
+  /**
+   * Hand off the current buffer as the next part.
+   * 
+   * @throws IOException IOException
+   */
+  private void uploadBuffer() throws IOException {
+
+    if (this.uploadId == null) {
+      this.uploadId =
+          this.uploader.initializeUpload(this.bucket, this.key, this.contentType, this.metadata);
+    }
+
+    try {
+      this.inFlight.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abort();
+      throw new IOException(e);
+    }
+
+    final byte[] part = this.position == this.buffer.length ? this.buffer
+        : Arrays.copyOf(this.buffer, this.position);
+    final int number = ++this.partNumber;
+    final String id = this.uploadId;
+
+    this.uploads.add(this.executor.submit(() -> {
+      try {
+        this.uploader.uploadPart(id, number, part);
+      } finally {
+        this.inFlight.release();
+      }
+    }));
+
+    this.buffer = new byte[this.buffer.length];
+    this.position = 0;
+  }
+
+  /**
+   * Wait for all part uploads, aborting the upload if any failed.
+   * 
+   * @throws IOException IOException
+   */
+  private void waitForUploads() throws IOException {
+    try {
+      for (Future<?> upload : this.uploads) {
+        upload.get();
+      }
+    } catch (ExecutionException e) {
+      abort();
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      abort();
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+
+    ensureOpen();
+
+    int offset = off;
+    int remaining = len;
+
+    while (remaining > 0) {
+
+      int count = Math.min(remaining, this.buffer.length - this.position);
+      System.arraycopy(b, offset, this.buffer, this.position, count);
+      this.position += count;
+      offset += count;
+      remaining -= count;
+
+      if (this.position == this.buffer.length) {
+        uploadBuffer();
+      }
+    }
+  }
+
+  @Override
+  public void write(final int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+}
@@ -34,9 +34,13 @@ import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
 
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * S3 Multipart Uploader.
@@ -49,15 +53,15 @@ public class S3MultipartUploader {
   /**
    * Maps uploadId to its uploaded parts.
    */
-  private final HashMap<String, Collection<CompletedPart>> uploadIdCompletedParts;
+  private final Map<String, Collection<CompletedPart>> uploadIdCompletedParts;
   /**
    * Maps uploadId to its request metadata (bucket, object key etc.).
    */
-  private final HashMap<String, CreateMultipartUploadResponse> uploadIdMetadata;
+  private final Map<String, CreateMultipartUploadResponse> uploadIdMetadata;
   /**
    * Maps uploadId to its recently uploaded part number.
    */
-  private final HashMap<String, Integer> uploadIdPartNumber;
+  private final Map<String, Integer> uploadIdPartNumber;
 
   /**
    * constructor.
@@ -66,9 +70,9 @@ public class S3MultipartUploader {
    */
   public S3MultipartUploader(final S3ConnectionBuilder builder) {
     this.s3 = builder.build();
-    this.uploadIdCompletedParts = new HashMap<>();
-    this.uploadIdMetadata = new HashMap<>();
-    this.uploadIdPartNumber = new HashMap<>();
+    this.uploadIdCompletedParts = new ConcurrentHashMap<>();
+    this.uploadIdMetadata = new ConcurrentHashMap<>();
+    this.uploadIdPartNumber = new ConcurrentHashMap<>();
   }
 
   /**
@@ -79,13 +83,38 @@ public class S3MultipartUploader {
    * @return {@link String}
    */
   public String initializeUpload(final String bucket, final String key) {
-    CreateMultipartUploadRequest uploadRequest =
-        CreateMultipartUploadRequest.builder().bucket(bucket).key(key).build();
+    return initializeUpload(bucket, key, null, null);
+  }
+
+  /**
+   * Initialize Multipart upload.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param contentType {@link String}
+   * @param metadata {@link Map}
+   * @return {@link String}
+   */
+  public String initializeUpload(final String bucket, final String key, final String contentType,
+      final Map<String, String> metadata) {
+
+    CreateMultipartUploadRequest.Builder build =
+        CreateMultipartUploadRequest.builder().bucket(bucket).key(key);
+
+    if (contentType != null) {
+      build.contentType(contentType);
+    }
+
+    if (metadata != null) {
+      build.metadata(metadata);
+    }
+
+    CreateMultipartUploadRequest uploadRequest = build.build();
     final CreateMultipartUploadResponse uploadMetadata =
         this.s3.createMultipartUpload(uploadRequest);
     final String uploadId = uploadMetadata.uploadId();
     this.uploadIdMetadata.put(uploadId, uploadMetadata);
-    this.uploadIdCompletedParts.put(uploadId, new ArrayList<>());
+    this.uploadIdCompletedParts.put(uploadId, Collections.synchronizedList(new ArrayList<>()));
     this.uploadIdPartNumber.put(uploadId, Integer.valueOf(1));
     return uploadId;
   }
@@ -97,28 +126,40 @@ public class S3MultipartUploader {
    * @param chunk byte[]
    */
   public void uploadChunk(final String uploadId, final byte[] chunk) {
-    final CreateMultipartUploadResponse metadata = this.uploadIdMetadata.get(uploadId);
-    final String bucketName = metadata.bucket();
-    final String objectKey = metadata.key();
-
     try {
       int partNumber = this.uploadIdPartNumber.get(uploadId).intValue();
-      UploadPartRequest uploadPartRequest = UploadPartRequest.builder().bucket(bucketName)
-          .key(objectKey).uploadId(uploadId).partNumber(Integer.valueOf(partNumber))
-          .contentLength(Long.valueOf(chunk.length)).build();
-
-      UploadPartResponse uploadPartResponse =
-          this.s3.uploadPart(uploadPartRequest, RequestBody.fromBytes(chunk));
-
-      this.uploadIdCompletedParts.get(uploadId).add(CompletedPart.builder()
-          .partNumber(Integer.valueOf(partNumber)).eTag(uploadPartResponse.eTag()).build());
-      this.uploadIdPartNumber.put(uploadId, Integer.valueOf(++partNumber));
+      uploadPart(uploadId, partNumber, chunk);
+      this.uploadIdPartNumber.put(uploadId, Integer.valueOf(partNumber + 1));
     } catch (Exception e) {
       this.abortMultipartUpload(uploadId);
       throw e;
     }
   }
 
+  /**
+   * Upload a numbered part. Parts of the same upload can be uploaded concurrently and in any
+   * order.
+   * 
+   * @param uploadId {@link String}
+   * @param partNumber int
+   * @param chunk byte[]
+   */
+  public void uploadPart(final String uploadId, final int partNumber, final byte[] chunk) {
+    final CreateMultipartUploadResponse metadata = this.uploadIdMetadata.get(uploadId);
+    final String bucketName = metadata.bucket();
+    final String objectKey = metadata.key();
+
+    UploadPartRequest uploadPartRequest = UploadPartRequest.builder().bucket(bucketName)
+        .key(objectKey).uploadId(uploadId).partNumber(Integer.valueOf(partNumber))
+        .contentLength(Long.valueOf(chunk.length)).build();
+
+    UploadPartResponse uploadPartResponse =
+        this.s3.uploadPart(uploadPartRequest, RequestBody.fromBytes(chunk));
+
+    this.uploadIdCompletedParts.get(uploadId).add(CompletedPart.builder()
+        .partNumber(Integer.valueOf(partNumber)).eTag(uploadPartResponse.eTag()).build());
+  }
+
   /**
    * Complete Upload.
    * 
@@ -128,7 +169,10 @@ public class S3MultipartUploader {
     final CreateMultipartUploadResponse metadata = this.uploadIdMetadata.get(uploadId);
     final String bucketName = metadata.bucket();
     final String objectKey = metadata.key();
-    final Collection<CompletedPart> completedParts = this.uploadIdCompletedParts.get(uploadId);
+    // parts may have completed out of order, S3 requires them in ascending order
+    final List<CompletedPart> completedParts =
+        new ArrayList<>(this.uploadIdCompletedParts.get(uploadId));
+    completedParts.sort(Comparator.comparing(CompletedPart::partNumber));
 
     CompletedMultipartUpload completedMultipartUpload =
         CompletedMultipartUpload.builder().parts(completedParts).build();
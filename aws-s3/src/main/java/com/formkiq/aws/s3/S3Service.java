@@ -298,6 +298,21 @@ public class S3Service {
     return response.asInputStream();
   }
 
+  /**
+   * Get Content as a stream, without reading the object into memory. The returned
+   * {@link InputStream} must be closed.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param range {@link String}, optional byte range
+   * @return {@link InputStream}
+   */
+  public InputStream getContentStream(final String bucket, final String key,
+      final String range) {
+    GetObjectRequest get = GetObjectRequest.builder().bucket(bucket).key(key).range(range).build();
+    return this.s3Client.getObject(get);
+  }
+
   /**
    * Get Bucket's Notifications.
    * 
@@ -381,12 +396,29 @@ public class S3Service {
    * @return {@link ListObjectsResponse}
    */
   public ListObjectsResponse listObjects(final String bucket, final String prefix) {
+    return listObjects(bucket, prefix, null);
+  }
+
+  /**
+   * List S3 Objects, starting after a marker.
+   * 
+   * @param bucket {@link String}
+   * @param prefix {@link String}
+   * @param marker {@link String} key to start listing after
+   * @return {@link ListObjectsResponse}
+   */
+  public ListObjectsResponse listObjects(final String bucket, final String prefix,
+      final String marker) {
     Builder listbuilder = ListObjectsRequest.builder().bucket(bucket);
 
     if (prefix != null) {
       listbuilder = listbuilder.prefix(prefix);
     }
 
+    if (marker != null) {
+      listbuilder = listbuilder.marker(marker);
+    }
+
     ListObjectsResponse listObjects = this.s3Client.listObjects(listbuilder.build());
     return listObjects;
   }
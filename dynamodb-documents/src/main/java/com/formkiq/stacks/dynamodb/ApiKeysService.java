@@ -24,6 +24,7 @@
 package com.formkiq.stacks.dynamodb;
 
 import java.util.Collection;
+import java.util.Date;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
 
@@ -64,6 +65,14 @@ public interface ApiKeysService {
    */
   ApiKey get(String apiKey, boolean masked);
 
+  /**
+   * Get the {@link ApiKey#hash()} of API Keys revoked on or after a date.
+   * 
+   * @param since {@link Date}
+   * @return {@link Collection} {@link String}
+   */
+  Collection<String> getRevokedApiKeys(Date since);
+
   /**
    * Get List of API Keys.
    * 
@@ -25,6 +25,9 @@ package com.formkiq.stacks.dynamodb;
 
 import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
 import java.security.SecureRandom;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
@@ -50,6 +53,18 @@ import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
  */
 public class ApiKeysServiceDynamoDb implements ApiKeysService, DbKeys {
 
+  /** Revocation Marker Partition Key. */
+  private static final String REVOKED_PK = "apikeys" + TAG_DELIMINATOR + "revoked";
+  /** Revocation Marker Sort Key Prefix. */
+  private static final String REVOKED_SK = "revoked" + TAG_DELIMINATOR;
+  /** How long revocation markers are kept, in seconds. */
+  private static final long REVOKED_TTL_SECONDS = 86400L;
+  /** Fixed width UTC format, so revocation markers sort chronologically. */
+  private static final DateTimeFormatter REVOKED_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+  /** Revocation Markers read per query. */
+  private static final int REVOKED_LIMIT = 100;
+
   /**
    * Generate Random String.
    * 
@@ -113,11 +128,27 @@ public class ApiKeysServiceDynamoDb implements ApiKeysService, DbKeys {
     if (!response.items().isEmpty()) {
       Map<String, AttributeValue> map = response.items().get(0);
       deleted = this.db.deleteItem(map.get(PK), map.get(SK));
+
+      if (deleted) {
+        String sk = map.get(SK).s();
+        String value = sk.substring(sk.indexOf(TAG_DELIMINATOR) + 1);
+        writeRevocationMarker(new ApiKey().apiKey(value).hash());
+      }
     }
 
     return deleted;
   }
 
+  /**
+   * Format a revocation {@link Date} so markers sort chronologically.
+   * 
+   * @param date {@link Date}
+   * @return {@link String}
+   */
+  private String formatRevokedDate(final Date date) {
+    return REVOKED_DATE_FORMAT.format(date.toInstant());
+  }
+
   @Override
   public ApiKey get(final String apiKey, final boolean masked) {
 
@@ -140,6 +171,36 @@ public class ApiKeysServiceDynamoDb implements ApiKeysService, DbKeys {
     return key;
   }
 
+  @Override
+  public Collection<String> getRevokedApiKeys(final Date since) {
+
+    Collection<String> hashes = new ArrayList<>();
+    String from = REVOKED_SK + formatRevokedDate(since);
+    QueryConfig config = new QueryConfig().scanIndexForward(Boolean.FALSE);
+
+    Map<String, AttributeValue> startKey = null;
+    boolean done = false;
+
+    while (!done) {
+      QueryResponse response =
+          this.db.queryBeginsWith(config, fromS(REVOKED_PK), fromS(REVOKED_SK), startKey,
+              REVOKED_LIMIT);
+
+      for (Map<String, AttributeValue> item : response.items()) {
+        if (item.get(SK).s().compareTo(from) < 0) {
+          done = true;
+          break;
+        }
+        hashes.add(item.get("apiKeyHash").s());
+      }
+
+      startKey = response.lastEvaluatedKey();
+      done = done || startKey == null || startKey.isEmpty();
+    }
+
+    return hashes;
+  }
+
   @Override
   public PaginationResults<ApiKey> list(final String siteId, final PaginationMapToken token,
       final int limit) {
@@ -168,4 +229,20 @@ public class ApiKeysServiceDynamoDb implements ApiKeysService, DbKeys {
   public String mask(final String apiKey) {
     return new ApiKey().apiKey(apiKey).mask();
   }
+
+  /**
+   * Write a revocation marker so warm caches holding the API Key can drop it.
+   * 
+   * @param hash {@link String}
+   */
+  private void writeRevocationMarker(final String hash) {
+    Date now = new Date();
+    long ttl = now.toInstant().getEpochSecond() + REVOKED_TTL_SECONDS;
+
+    Map<String, AttributeValue> marker = Map.of(PK, fromS(REVOKED_PK), SK,
+        fromS(REVOKED_SK + formatRevokedDate(now) + TAG_DELIMINATOR + hash), "apiKeyHash",
+        fromS(hash), "TimeToLive", AttributeValue.fromN(String.valueOf(ttl)));
+
+    this.db.putItem(marker);
+  }
 }
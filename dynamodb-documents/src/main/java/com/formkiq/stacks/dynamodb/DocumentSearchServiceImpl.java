@@ -48,6 +48,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
@@ -55,6 +56,7 @@ import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
 import com.formkiq.aws.dynamodb.PaginationToAttributeValue;
 import com.formkiq.aws.dynamodb.QueryResponseToPagination;
+import com.formkiq.aws.dynamodb.ReadRequestBuilder;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
@@ -67,9 +69,6 @@ import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.plugins.tagschema.DocumentTagSchemaPlugin;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
-import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 import software.amazon.awssdk.utils.StringUtils;
@@ -212,15 +211,11 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
             AttributeValue.builder().s(PREFIX_TAGS + tagKey).build()))
         .collect(Collectors.toList());
 
-    Map<String, KeysAndAttributes> items =
-        Map.of(this.documentTableName, KeysAndAttributes.builder().keys(keys).build());
-    BatchGetItemRequest batchReq = BatchGetItemRequest.builder().requestItems(items).build();
-    BatchGetItemResponse batchResponse = this.dbClient.batchGetItem(batchReq);
+    if (!keys.isEmpty()) {
 
-    Collection<List<Map<String, AttributeValue>>> values = batchResponse.responses().values();
-
-    if (!values.isEmpty()) {
-      List<Map<String, AttributeValue>> list = values.iterator().next();
+      List<Map<String, AttributeValue>> list =
+          new ReadRequestBuilder().append(this.documentTableName, keys)
+              .batchReadItems(this.dbClient, new BatchGetConfig()).get(this.documentTableName);
 
       list.forEach(m -> {
 
@@ -354,28 +349,27 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   }
 
   /**
-   * Find Document that match tagKey & tagValues.
+   * Find Document that match tagKey & any of the tagValues.
    *
    * @param siteId DynamoDB PK siteId
    * @param query {@link SearchQuery}
    * @param key {@link String}
    * @param eqOr {@link Collection} {@link String}
+   * @param token {@link PaginationMapToken}
    * @param maxresults int
    * @param projectionExpression {@link String}
    * @return {@link PaginationResults}
    */
   private PaginationResults<DynamicDocumentItem> findDocumentsWithTagAndValues(final String siteId,
       final SearchQuery query, final String key, final Collection<String> eqOr,
-      final int maxresults, final String projectionExpression) {
+      final PaginationMapToken token, final int maxresults, final String projectionExpression) {
 
-    List<DynamicDocumentItem> list = new ArrayList<>();
-    for (String eq : eqOr) {
-      PaginationResults<DynamicDocumentItem> result = findDocumentsWithTagAndValue(siteId, query,
-          key, eq, null, maxresults, projectionExpression);
-      list.addAll(result.getResults());
-    }
+    PaginationResults<Map<String, AttributeValue>> result =
+        new TagValuesQueryMerge(this.dbClient, this.documentTableName).query(siteId, key,
+            new ArrayList<>(eqOr), token, maxresults, projectionExpression);
 
-    return new PaginationResults<DynamicDocumentItem>(list, null);
+    return toSearchResults(siteId, query, result.getResults(), projectionExpression,
+        result.getToken());
   }
 
   @Override
@@ -539,9 +533,37 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
     SearchTagCriteria search = csearch;
 
     if (this.tagSchemaPlugin != null) {
-      search = this.tagSchemaPlugin.createMultiTagSearch(query);
+      SearchTagCriteria multiTagSearch = this.tagSchemaPlugin.createMultiTagSearch(query);
+      search = multiTagSearch != null ? multiTagSearch : csearch;
+    }
+
+    PaginationResults<DynamicDocumentItem> result = null;
+
+    if (search == null && notNull(query.tags()).size() > 1) {
+      result = searchByTags(siteId, query, token, maxresults, projectionExpression);
+    } else {
+      result =
+          searchByTagCriteria(siteId, query, search, token, maxresults, projectionExpression);
     }
 
+    return result;
+  }
+
+  /**
+   * Search for Documents matching a single {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param query {@link SearchQuery}
+   * @param search {@link SearchTagCriteria}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> searchByTagCriteria(final String siteId,
+      final SearchQuery query, final SearchTagCriteria search, final PaginationMapToken token,
+      final int maxresults, final String projectionExpression) {
+
     String key = getSearchKey(search);
 
     PaginationResults<DynamicDocumentItem> result = null;
@@ -573,8 +595,8 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
     } else {
 
       if (!Objects.notNull(search.eqOr()).isEmpty()) {
-        result = findDocumentsWithTagAndValues(siteId, query, key, search.eqOr(), maxresults,
-            projectionExpression);
+        result = findDocumentsWithTagAndValues(siteId, query, key, search.eqOr(), token,
+            maxresults, projectionExpression);
       } else if (search.eq() != null) {
         result = findDocumentsWithTagAndValue(siteId, query, key, search.eq(), token, maxresults,
             projectionExpression);
@@ -593,6 +615,32 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
     return result;
   }
 
+  /**
+   * Search for Documents matching ALL of the {@link SearchQuery} tags.
+   * 
+   * @param siteId {@link String}
+   * @param query {@link SearchQuery}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> searchByTags(final String siteId,
+      final SearchQuery query, final PaginationMapToken token, final int maxresults,
+      final String projectionExpression) {
+
+    TagIntersectionQuery intersection =
+        new TagIntersectionQuery(this.dbClient, this.documentTableName);
+    Collection<String> documentIds = query.documentIds();
+
+    PaginationResults<Map<String, AttributeValue>> items = !notNull(documentIds).isEmpty()
+        ? new PaginationResults<>(intersection.filter(siteId, query.tags(), documentIds), null)
+        : intersection.query(siteId, query.tags(), token, maxresults);
+
+    return toSearchResults(siteId, query, items.getResults(), projectionExpression,
+        items.getToken());
+  }
+
   @Override
   public PaginationResults<String> searchForDocumentIds(final String siteId,
       final SearchTagCriteria criteria, final PaginationMapToken token, final int maxresults) {
@@ -619,45 +667,9 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   private PaginationResults<DynamicDocumentItem> searchForDocuments(final QueryRequest q,
       final String siteId, final SearchQuery query) {
 
-    String projectionExpression = q.projectionExpression();
     QueryResponse result = this.dbClient.query(q);
-
-    List<String> documentIds = result.items().stream().map(i -> i.get("documentId").s()).distinct()
-        .collect(Collectors.toList());
-
-    Map<String, DocumentTag> tags = transformToDocumentTagMap(result);
-
-    PaginationResults<DynamicDocumentItem> ret = null;
-
-    if (projectionExpression == null || !"documentId".equals(projectionExpression)) {
-
-      List<DocumentItem> list = this.docService.findDocuments(siteId, documentIds);
-
-      List<DynamicDocumentItem> results =
-          list != null ? list.stream().map(l -> new DocumentItemToDynamicDocumentItem().apply(l))
-              .collect(Collectors.toList()) : Collections.emptyList();
-
-      results.forEach(r -> {
-
-        DocumentTag tag = tags.get(r.getDocumentId());
-        r.put("matchedTag", new DocumentTagToDynamicDocumentTag().apply(tag));
-
-        if (!notNull(query.tags()).isEmpty()) {
-          updateToMatchedTags(query, r);
-        }
-      });
-
-      ret = new PaginationResults<>(results, new QueryResponseToPagination().apply(result));
-
-    } else {
-
-      List<DynamicDocumentItem> results = documentIds.stream()
-          .map(d -> new DynamicDocumentItem(Map.of("documentId", d))).collect(Collectors.toList());
-
-      ret = new PaginationResults<>(results, new QueryResponseToPagination().apply(result));
-    }
-
-    return ret;
+    return toSearchResults(siteId, query, result.items(), q.projectionExpression(),
+        new QueryResponseToPagination().apply(result));
   }
 
   /**
@@ -698,15 +710,64 @@ public class DocumentSearchServiceImpl implements DocumentSearchService {
   }
 
   /**
-   * Transform {@link QueryResponse} to {@link DocumentTag} {@link Map}.
+   * Convert Document Tag records to Search Results.
+   *
+   * @param siteId DynamoDB PK siteId
+   * @param query {@link SearchQuery}
+   * @param items {@link List} of Document Tag records
+   * @param projectionExpression {@link String}
+   * @param token {@link PaginationMapToken}
+   * @return {@link PaginationResults}
+   */
+  private PaginationResults<DynamicDocumentItem> toSearchResults(final String siteId,
+      final SearchQuery query, final List<Map<String, AttributeValue>> items,
+      final String projectionExpression, final PaginationMapToken token) {
+
+    List<String> documentIds = items.stream().map(i -> i.get("documentId").s()).distinct()
+        .collect(Collectors.toList());
+
+    Map<String, DocumentTag> tags = transformToDocumentTagMap(items);
+
+    List<DynamicDocumentItem> results = null;
+
+    if (projectionExpression == null || !"documentId".equals(projectionExpression)) {
+
+      List<DocumentItem> list = this.docService.findDocuments(siteId, documentIds);
+
+      results =
+          list != null ? list.stream().map(l -> new DocumentItemToDynamicDocumentItem().apply(l))
+              .collect(Collectors.toList()) : Collections.emptyList();
+
+      results.forEach(r -> {
+
+        DocumentTag tag = tags.get(r.getDocumentId());
+        r.put("matchedTag", new DocumentTagToDynamicDocumentTag().apply(tag));
+
+        if (!notNull(query.tags()).isEmpty()) {
+          updateToMatchedTags(query, r);
+        }
+      });
+
+    } else {
+
+      results = documentIds.stream().map(d -> new DynamicDocumentItem(Map.of("documentId", d)))
+          .collect(Collectors.toList());
+    }
+
+    return new PaginationResults<>(results, token);
+  }
+
+  /**
+   * Transform Document Tag records to {@link DocumentTag} {@link Map}.
    * 
-   * @param result {@link QueryResponse}
+   * @param items {@link List} of Document Tag records
    * @return {@link Map} {@link DocumentTag}
    */
-  private Map<String, DocumentTag> transformToDocumentTagMap(final QueryResponse result) {
+  private Map<String, DocumentTag> transformToDocumentTagMap(
+      final List<Map<String, AttributeValue>> items) {
 
     Map<String, DocumentTag> tags = new HashMap<>();
-    result.items().forEach(s -> {
+    items.forEach(s -> {
 
       if (s.containsKey("documentId")) {
         String documentId = s.get("documentId").s();
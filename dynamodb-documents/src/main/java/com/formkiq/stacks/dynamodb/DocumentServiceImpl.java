@@ -71,18 +71,14 @@ import com.formkiq.aws.dynamodb.model.DocumentTag;
 import com.formkiq.aws.dynamodb.model.DocumentTagType;
 import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
-import com.formkiq.aws.dynamodb.objects.Objects;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
-import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
-import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
-import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
 import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
 import software.amazon.awssdk.services.dynamodb.model.QueryRequest.Builder;
@@ -92,8 +88,6 @@ import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
 /** Implementation of the {@link DocumentService}. */
 public class DocumentServiceImpl implements DocumentService, DbKeys {
 
-  /** Maximum number of Records DynamoDb can be queries for at a time. */
-  private static final int MAX_QUERY_RECORDS = 100;
   /** {@link DynamoDbClient}. */
   private DynamoDbClient dbClient;
   /** {@link DynamoDbService}. */
@@ -676,20 +670,10 @@ public class DocumentServiceImpl implements DocumentService, DbKeys {
       });
     });
 
-    List<List<Map<String, AttributeValue>>> paritions = Objects.parition(keys, MAX_QUERY_RECORDS);
+    if (!keys.isEmpty()) {
 
-    for (List<Map<String, AttributeValue>> partition : paritions) {
-
-      Map<String, KeysAndAttributes> requestedItems =
-          Map.of(this.documentTableName, KeysAndAttributes.builder().keys(partition).build());
-
-      BatchGetItemRequest batchReq =
-          BatchGetItemRequest.builder().requestItems(requestedItems).build();
-      BatchGetItemResponse batchResponse = this.dbClient.batchGetItem(batchReq);
-
-      Collection<List<Map<String, AttributeValue>>> values = batchResponse.responses().values();
       List<Map<String, AttributeValue>> result =
-          !values.isEmpty() ? values.iterator().next() : Collections.emptyList();
+          getBatch(new BatchGetConfig(), keys).get(this.documentTableName);
 
       AttributeValueToDocumentTag toDocumentTag = new AttributeValueToDocumentTag(siteId);
       List<DocumentTag> list =
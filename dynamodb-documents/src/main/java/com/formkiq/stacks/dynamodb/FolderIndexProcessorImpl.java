@@ -41,13 +41,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import com.formkiq.aws.dynamodb.AttributeValueToDynamicObject;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.BoundedExecutor;
 import com.formkiq.aws.dynamodb.DbKeys;
 import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.DynamoDbService;
 import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import com.formkiq.aws.dynamodb.ReadRequestBuilder;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.objects.Strings;
@@ -70,6 +74,11 @@ import software.amazon.awssdk.utils.StringUtils;
  */
 public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
+  /** Default number of sub folders loaded into the cache on a cache miss. */
+  public static final int DEFAULT_PREFETCH_LIMIT = 100;
+  /** Max number of GSI1 queries in flight. */
+  private static final int MAX_CONCURRENCY = 10;
+
   /**
    * Is File Token.
    * 
@@ -111,6 +120,10 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
   private String documentTableName;
   /** {@link DynamoDbService}. */
   private DynamoDbService dynamoDb;
+  /** {@link FolderPathCache}. */
+  private FolderPathCache folderCache;
+  /** Number of sub folders loaded into the cache on a cache miss, 0 to disable. */
+  private int prefetchLimit;
 
   /**
    * constructor.
@@ -120,9 +133,24 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
    */
   public FolderIndexProcessorImpl(final DynamoDbConnectionBuilder connection,
       final String documentsTable) {
+    this(connection, documentsTable, new FolderPathCache(), DEFAULT_PREFETCH_LIMIT);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbClient}
+   * @param documentsTable {@link String}
+   * @param cache {@link FolderPathCache}
+   * @param folderPrefetchLimit int
+   */
+  public FolderIndexProcessorImpl(final DynamoDbConnectionBuilder connection,
+      final String documentsTable, final FolderPathCache cache, final int folderPrefetchLimit) {
     this.dbClient = connection.build();
     this.documentTableName = documentsTable;
     this.dynamoDb = new DynamoDbServiceImpl(connection, documentsTable);
+    this.folderCache = cache;
+    this.prefetchLimit = folderPrefetchLimit;
   }
 
   private void checkParentId(final FolderIndexRecord record, final String parentId) {
@@ -247,6 +275,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
       if (!hasFiles(siteId, documentId)) {
         this.dynamoDb.deleteItem(AttributeValue.fromS(pk), AttributeValue.fromS(sk));
+        this.folderCache.invalidate(pk, sk);
         deleted = true;
       } else {
         throw new IOException("folder is not empty");
@@ -281,41 +310,32 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
   private Map<String, Map<String, AttributeValue>> generateFileKeys(final String siteId,
       final String path, final String[] tokens, final String documentId) throws IOException {
 
-    int i = 0;
-    String lastUuid = "";
-    int len = tokens.length;
     boolean allDirectories = path != null && path.endsWith("/");
+    int fileIndex = !allDirectories ? tokens.length - 1 : -1;
 
-    Map<String, Map<String, AttributeValue>> uuids = new HashMap<>();
-
-    for (String folder : tokens) {
-
-      String pk = getPk(siteId, lastUuid);
-
-      if (!allDirectories && isFileToken(folder, i, len)) {
-
-        String sk = getSk(folder, true);
-        String docId = documentId;
-        FolderIndexRecord record = null;
-        if (docId == null) {
-          record = getFolderId(siteId, pk, sk, folder);
-        } else {
-          record = new FolderIndexRecord().documentId(docId).type("file").parentDocumentId(lastUuid)
-              .path(folder);
-        }
+    String[] lookup = fileIndex > -1 && documentId != null
+        ? Arrays.copyOf(tokens, tokens.length - 1)
+        : tokens;
 
-        uuids.put(folder, record.getAttributes(siteId));
+    List<Map<String, AttributeValue>> records = findPath(siteId, lookup, fileIndex);
 
-      } else {
+    if (records.size() < lookup.length) {
+      throw new IOException(
+          String.format("index for '%s' does not exist", lookup[records.size()]));
+    }
 
-        String sk = getSk(folder, false);
+    Map<String, Map<String, AttributeValue>> uuids = new HashMap<>();
 
-        FolderIndexRecord record = getFolderId(siteId, pk, sk, folder);
-        lastUuid = record.documentId();
-        uuids.put(folder, record.getAttributes(siteId));
-      }
+    for (int i = 0; i < records.size(); i++) {
+      FolderIndexRecord record = new FolderIndexRecord().getFromAttributes(siteId, records.get(i));
+      uuids.put(tokens[i], record.getAttributes(siteId));
+    }
 
-      i++;
+    if (lookup.length < tokens.length) {
+      String parentId = !records.isEmpty() ? last(records).get("documentId").s() : "";
+      FolderIndexRecord record = new FolderIndexRecord().documentId(documentId).type("file")
+          .parentDocumentId(parentId).path(tokens[fileIndex]);
+      uuids.put(tokens[fileIndex], record.getAttributes(siteId));
     }
 
     return uuids;
@@ -365,7 +385,9 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
     int i = 0;
     int len = tokens.length;
+    int fileIndex = "file".equals(pathType) ? len - 1 : -1;
 
+    List<Map<String, AttributeValue>> found = findPath(siteId, tokens, fileIndex);
     List<FolderIndexRecordExtended> list = new ArrayList<>();
 
     for (String token : tokens) {
@@ -375,8 +397,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
       FolderIndexRecord record =
           new FolderIndexRecord().parentDocumentId(parentId).documentId("").path(token).type(type);
 
-      Map<String, AttributeValue> attrs = this.dynamoDb.get(AttributeValue.fromS(record.pk(siteId)),
-          AttributeValue.fromS(record.sk()));
+      Map<String, AttributeValue> attrs = i < found.size() ? found.get(i) : Collections.emptyMap();
 
       if (!attrs.isEmpty()) {
 
@@ -432,42 +453,127 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
   public Map<String, FolderIndexRecord> getFolderByDocumentIds(final String siteId,
       final List<String> documentIds) {
 
-    List<Map<String, AttributeValue>> responses = documentIds.stream()
-        .map(documentId -> queryForFolderByDocumentId(siteId, documentId))
-        .filter(r -> !r.items().isEmpty()).map(r -> r.items().get(0)).collect(Collectors.toList());
+    List<Callable<Map<String, AttributeValue>>> tasks = documentIds.stream().distinct()
+        .map(documentId -> (Callable<Map<String, AttributeValue>>) () -> {
+          QueryResponse response = queryForFolderByDocumentId(siteId, documentId);
+          Map<String, AttributeValue> item =
+              !response.items().isEmpty() ? response.items().get(0) : null;
+          return item != null ? Map.of(PK, item.get(PK), SK, item.get(SK)) : null;
+        }).collect(Collectors.toList());
+
+    List<Map<String, AttributeValue>> keys = BoundedExecutor.invokeAll(MAX_CONCURRENCY, tasks)
+        .stream().filter(k -> k != null).collect(Collectors.toList());
+
+    Map<String, FolderIndexRecord> recordMap = new HashMap<>();
 
-    Map<String, FolderIndexRecord> recordMap =
-        responses.stream().map(map -> this.dynamoDb.get(map.get(PK), map.get(SK)))
-            .map(attr -> new FolderIndexRecord().getFromAttributes(siteId, attr))
-            .collect(Collectors.toMap(r -> r.documentId(), r -> r));
+    if (!keys.isEmpty()) {
+
+      List<Map<String, AttributeValue>> items =
+          new ReadRequestBuilder().append(this.documentTableName, keys)
+              .batchReadItems(this.dbClient, new BatchGetConfig()).get(this.documentTableName);
+
+      for (Map<String, AttributeValue> attr : items) {
+        FolderIndexRecord record = new FolderIndexRecord().getFromAttributes(siteId, attr);
+        recordMap.put(record.documentId(), record);
+        cacheFolder(attr);
+      }
+    }
 
     return recordMap;
+  }
 
+  /**
+   * Add Folder Index record to the {@link FolderPathCache}, files are not cached.
+   * 
+   * @param attrs {@link Map}
+   */
+  private void cacheFolder(final Map<String, AttributeValue> attrs) {
+    if (attrs.containsKey("documentId") && isFolderSk(attrs.get(SK).s())) {
+      this.folderCache.put(attrs.get(PK).s(), attrs.get(SK).s(), attrs);
+    }
   }
 
   /**
-   * Get Folder Id.
+   * Read a Folder Index record. For folders the parent's sub folders are prefetched into the
+   * {@link FolderPathCache}.
    * 
-   * @param siteId {@link String}
    * @param pk {@link String}
    * @param sk {@link String}
-   * @param folder {@link String}
-   * @return {@link FolderIndexRecord}
-   * @throws IOException IOException
+   * @return {@link Map}
    */
-  private FolderIndexRecord getFolderId(final String siteId, final String pk, final String sk,
-      final String folder) throws IOException {
+  private Map<String, AttributeValue> fetchAttributes(final String pk, final String sk) {
 
-    Map<String, AttributeValue> map =
-        this.dynamoDb.get(AttributeValue.fromS(pk), AttributeValue.fromS(sk));
+    Map<String, AttributeValue> attrs =
+        isFolderSk(sk) && this.prefetchLimit > 0 ? prefetchFolders(pk, sk) : null;
 
-    if (!map.containsKey("documentId")) {
-      throw new IOException(String.format("index for '%s' does not exist", folder));
+    if (attrs == null) {
+      attrs = this.dynamoDb.get(AttributeValue.fromS(pk), AttributeValue.fromS(sk));
+      cacheFolder(attrs);
     }
 
-    FolderIndexRecord record = new FolderIndexRecord().getFromAttributes(siteId, map);
+    return attrs;
+  }
+
+  /**
+   * Find the Folder Index records of a path. The keys of the path segments that are in the
+   * {@link FolderPathCache} are predicted and read with a single consistent BatchGet, so cached
+   * entries are always verified. A stale entry is dropped and resolution continues from the last
+   * verified segment.
+   * 
+   * @param siteId {@link String}
+   * @param tokens {@link String} path segments
+   * @param fileIndex int index of the file segment or -1
+   * @return {@link List} of records, stopping before the first segment that does not exist
+   */
+  private List<Map<String, AttributeValue>> findPath(final String siteId, final String[] tokens,
+      final int fileIndex) {
 
-    return record;
+    boolean missing = false;
+    String parentId = "";
+    List<Map<String, AttributeValue>> found = new ArrayList<>();
+
+    while (!missing && found.size() < tokens.length) {
+
+      List<Map<String, AttributeValue>> keys = new ArrayList<>();
+      List<String> cachedIds = new ArrayList<>();
+      String id = parentId;
+
+      for (int i = found.size(); i < tokens.length && keys.size() == cachedIds.size(); i++) {
+        String pk = getPk(siteId, id);
+        String sk = getSk(tokens[i], i == fileIndex);
+        keys.add(Map.of(PK, AttributeValue.fromS(pk), SK, AttributeValue.fromS(sk)));
+
+        Map<String, AttributeValue> cached = isFolderSk(sk) ? this.folderCache.get(pk, sk) : null;
+        if (cached != null) {
+          id = cached.get("documentId").s();
+          cachedIds.add(id);
+        }
+      }
+
+      List<Map<String, AttributeValue>> items = cachedIds.isEmpty()
+          ? Arrays.asList(fetchAttributes(keys.get(0).get(PK).s(), keys.get(0).get(SK).s()))
+          : readKeys(keys);
+
+      for (int i = 0; i < keys.size() && !missing; i++) {
+
+        Map<String, AttributeValue> item = items.get(i);
+        missing = !item.containsKey("documentId");
+
+        if (missing) {
+          this.folderCache.invalidate(keys.get(i).get(PK).s(), keys.get(i).get(SK).s());
+        } else {
+          cacheFolder(item);
+          found.add(item);
+          parentId = item.get("documentId").s();
+
+          if (i < cachedIds.size() && !cachedIds.get(i).equals(parentId)) {
+            break;
+          }
+        }
+      }
+    }
+
+    return found;
   }
 
   @Override
@@ -571,25 +677,23 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
     return !response.items().isEmpty();
   }
 
+  private boolean isFolderSk(final String sk) {
+    return sk.startsWith(FolderIndexRecord.INDEX_FOLDER_SK);
+  }
+
   @Override
   public boolean isFolderIdInPath(final String siteId, final String path, final String folderId)
       throws IOException {
 
-    boolean found = false;
-    String lastUuid = "";
     String[] folders = tokens(path);
+    List<Map<String, AttributeValue>> records = findPath(siteId, folders, -1);
 
-    for (String folder : folders) {
-      String pk = getPk(siteId, lastUuid);
-      String sk = getSk(folder, false);
-      FolderIndexRecord record = getFolderId(siteId, pk, sk, folder);
-
-      lastUuid = record.documentId();
+    boolean found =
+        records.stream().anyMatch(r -> folderId.equals(r.get("documentId").s()));
 
-      if (folderId.equals(lastUuid)) {
-        found = true;
-        break;
-      }
+    if (!found && records.size() < folders.length) {
+      throw new IOException(
+          String.format("index for '%s' does not exist", folders[records.size()]));
     }
 
     return found;
@@ -686,6 +790,7 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
 
     this.dynamoDb.deleteItem(AttributeValue.fromS(source.pk(siteId)),
         AttributeValue.fromS(source.sk()));
+    this.folderCache.invalidate(source.pk(siteId), source.sk());
 
     // String site = siteId != null ? siteId : DEFAULT_SITE_ID;
     // final FolderEvent event = new FolderEvent().siteId(site).documentId(source.documentId())
@@ -724,6 +829,58 @@ public class FolderIndexProcessorImpl implements FolderIndexProcessor, DbKeys {
     }
   }
 
+  /**
+   * Load the sub folders of a parent folder into the {@link FolderPathCache} with a single query.
+   * 
+   * @param pk {@link String}
+   * @param sk {@link String}
+   * @return {@link Map} requested folder, empty if it does not exist or null if not loaded
+   */
+  private Map<String, AttributeValue> prefetchFolders(final String pk, final String sk) {
+
+    String expression = PK + " = :pk and begins_with(" + SK + ", :sk)";
+    Map<String, AttributeValue> values = Map.of(":pk", AttributeValue.fromS(pk), ":sk",
+        AttributeValue.fromS(FolderIndexRecord.INDEX_FOLDER_SK));
+
+    QueryRequest q = QueryRequest.builder().tableName(this.documentTableName)
+        .keyConditionExpression(expression).expressionAttributeValues(values)
+        .consistentRead(Boolean.TRUE).limit(Integer.valueOf(this.prefetchLimit)).build();
+
+    QueryResponse response = this.dbClient.query(q);
+
+    Map<String, AttributeValue> attrs =
+        response.lastEvaluatedKey().isEmpty() ? Collections.emptyMap() : null;
+
+    for (Map<String, AttributeValue> item : response.items()) {
+      cacheFolder(item);
+      if (sk.equals(item.get(SK).s())) {
+        attrs = item;
+      }
+    }
+
+    return attrs;
+  }
+
+  /**
+   * Read Folder Index records with a consistent BatchGet.
+   * 
+   * @param keys {@link List} {@link Map}
+   * @return {@link List} records in the order of the keys, empty {@link Map} for missing records
+   */
+  private List<Map<String, AttributeValue>> readKeys(final List<Map<String, AttributeValue>> keys) {
+
+    List<Map<String, AttributeValue>> items = new ReadRequestBuilder()
+        .append(this.documentTableName, keys)
+        .batchReadItems(this.dbClient, new BatchGetConfig().consistentRead(true))
+        .get(this.documentTableName);
+
+    Map<Map<String, AttributeValue>, Map<String, AttributeValue>> byKey = new HashMap<>();
+    items.forEach(i -> byKey.put(Map.of(PK, i.get(PK), SK, i.get(SK)), i));
+
+    return keys.stream().map(k -> byKey.getOrDefault(k, Collections.emptyMap()))
+        .collect(Collectors.toList());
+  }
+
   /**
    * Query GSI1 for Folder by DocumentId.
    * 
@@ -0,0 +1,161 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * 
+ * LRU cache, with time to live, of resolved Folder Index records. Entries are keyed by the Folder
+ * Index record PK (siteId and parent documentId) and SK (folder name).
+ *
+ */
+public class FolderPathCache {
+
+  /** Default Max Entries. */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  /** Default Time To Live. */
+  public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+  /** Initial Capacity. */
+  private static final int INITIAL_CAPACITY = 16;
+  /** Load Factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** Cache Entries in access order. */
+  private final LinkedHashMap<String, Entry> entries;
+  /** Time to live in nanoseconds. */
+  private final long ttlNanos;
+
+  /**
+   * constructor.
+   */
+  public FolderPathCache() {
+    this(DEFAULT_MAX_SIZE, DEFAULT_TTL);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param maxSize int
+   * @param ttl {@link Duration}
+   */
+  public FolderPathCache(final int maxSize, final Duration ttl) {
+    this.ttlNanos = ttl.toNanos();
+    this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * Clear all entries.
+   */
+  public synchronized void clear() {
+    this.entries.clear();
+  }
+
+  /**
+   * Get Folder Index record.
+   * 
+   * @param pk {@link String}
+   * @param sk {@link String}
+   * @return {@link Map} or null if not cached or expired
+   */
+  public synchronized Map<String, AttributeValue> get(final String pk, final String sk) {
+
+    String key = key(pk, sk);
+    Entry entry = this.entries.get(key);
+
+    if (entry != null && System.nanoTime() - entry.created > this.ttlNanos) {
+      this.entries.remove(key);
+      entry = null;
+    }
+
+    return entry != null ? entry.attributes : null;
+  }
+
+  /**
+   * Remove Folder Index record.
+   * 
+   * @param pk {@link String}
+   * @param sk {@link String}
+   */
+  public synchronized void invalidate(final String pk, final String sk) {
+    this.entries.remove(key(pk, sk));
+  }
+
+  private String key(final String pk, final String sk) {
+    return pk + "\n" + sk;
+  }
+
+  /**
+   * Add Folder Index record.
+   * 
+   * @param pk {@link String}
+   * @param sk {@link String}
+   * @param attributes {@link Map}
+   */
+  public synchronized void put(final String pk, final String sk,
+      final Map<String, AttributeValue> attributes) {
+    if (this.ttlNanos > 0) {
+      this.entries.put(key(pk, sk), new Entry(Map.copyOf(attributes)));
+    }
+  }
+
+  /**
+   * Number of entries.
+   * 
+   * @return int
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * Cache Entry.
+   */
+  private static class Entry {
+
+    /** Folder Index record. */
+    private final Map<String, AttributeValue> attributes;
+    /** Created time in nanoseconds. */
+    private final long created = System.nanoTime();
+
+    /**
+     * constructor.
+     * 
+     * @param attrs {@link Map}
+     */
+    Entry(final Map<String, AttributeValue> attrs) {
+      this.attributes = attrs;
+    }
+  }
+}
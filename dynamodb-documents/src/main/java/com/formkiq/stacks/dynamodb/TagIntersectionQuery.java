@@ -0,0 +1,485 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_PK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_SK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2_PK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI2_SK;
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_DOCS;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAG;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAGS;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.BoundedExecutor;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import com.formkiq.aws.dynamodb.ReadRequestBuilder;
+import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
+import com.formkiq.aws.dynamodb.objects.Objects;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.Select;
+
+/**
+ * Searches for Documents that match ALL of a number of {@link SearchTagCriteria}. The selectivity
+ * of every criteria is estimated by a concurrent COUNT probe, the most selective criteria drives
+ * the GSI1 / GSI2 query and the remaining criteria are checked against the Document Tag records
+ * with batched lookups. The returned {@link PaginationMapToken} contains the driving criteria and
+ * its cursor, so the next page resumes where the last one stopped.
+ */
+public class TagIntersectionQuery {
+
+  /** Index Key attributes. */
+  private static final List<String> KEYS = List.of(PK, SK, GSI1_PK, GSI1_SK, GSI2_PK, GSI2_SK);
+  /** Max number of probe queries in flight. */
+  private static final int MAX_CONCURRENCY = 10;
+  /** Max number of driving queries per page. */
+  private static final int MAX_QUERIES = 20;
+  /** Minimum number of items read per driving query. */
+  private static final int MIN_PAGE_SIZE = 25;
+  /** Number of items a probe counts before a criteria is treated as unselective. */
+  private static final int PROBE_LIMIT = 100;
+  /** Token Key of the driving criteria. */
+  private static final String TOKEN_DRIVER = "and.driver";
+  /** Token Key Prefix of the driving query cursor. */
+  private static final String TOKEN_PREFIX = "and.";
+
+  /** {@link DynamoDbClient}. */
+  private DynamoDbClient dbClient;
+  /** Documents Table Name. */
+  private String documentTableName;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param tableName {@link String}
+   */
+  public TagIntersectionQuery(final DynamoDbClient client, final String tableName) {
+    this.dbClient = client;
+    this.documentTableName = tableName;
+  }
+
+  /**
+   * Create the driving {@link QueryRequest} for a {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param search {@link SearchTagCriteria}
+   * @return {@link QueryRequest}
+   */
+  private QueryRequest createQuery(final String siteId, final SearchTagCriteria search) {
+
+    Map<String, AttributeValue> values = new HashMap<>();
+    QueryRequest.Builder q = QueryRequest.builder().tableName(this.documentTableName)
+        .scanIndexForward(Boolean.FALSE);
+
+    if (isGsi1(search)) {
+
+      values.put(":pk", AttributeValue.fromS(
+          createDatabaseKey(siteId, PREFIX_TAG + search.key() + TAG_DELIMINATOR + search.eq())));
+      q.indexName(GSI1).keyConditionExpression(GSI1_PK + " = :pk");
+
+    } else {
+
+      String expression = GSI2_PK + " = :pk";
+      values.put(":pk", AttributeValue.fromS(createDatabaseKey(siteId, PREFIX_TAG + search.key())));
+
+      if (!Objects.notNull(search.eqOr()).isEmpty()) {
+
+        List<String> names = new ArrayList<>();
+        for (String value : search.eqOr()) {
+          names.add(":v" + names.size());
+          values.put(names.get(names.size() - 1), AttributeValue.fromS(value));
+        }
+        q.filterExpression("tagValue IN (" + String.join(",", names) + ")");
+
+      } else if (search.beginsWith() != null) {
+        expression += " and begins_with(" + GSI2_SK + ", :sk)";
+        values.put(":sk", AttributeValue.fromS(search.beginsWith()));
+      } else if (search.range() != null) {
+        expression += " and " + GSI2_SK + " between :start and :end";
+        values.put(":start", AttributeValue.fromS(search.range().getStart()));
+        values.put(":end", AttributeValue.fromS(search.range().getEnd()));
+        q.scanIndexForward(Boolean.TRUE);
+      }
+
+      q.indexName(GSI2).keyConditionExpression(expression);
+    }
+
+    return q.expressionAttributeValues(values).build();
+  }
+
+  private Map<String, AttributeValue> cursor(final PaginationMapToken token) {
+
+    Map<String, AttributeValue> cursor = null;
+
+    if (token != null) {
+      for (String key : KEYS) {
+        Object value = token.getAttributeMap().get(TOKEN_PREFIX + key);
+        if (value != null) {
+          cursor = cursor != null ? cursor : new HashMap<>();
+          cursor.put(key, AttributeValue.fromS(value.toString()));
+        }
+      }
+    }
+
+    return cursor;
+  }
+
+  /**
+   * Estimate the number of Documents matching a {@link SearchTagCriteria}, up to the probe limit.
+   * 
+   * @param siteId {@link String}
+   * @param search {@link SearchTagCriteria}
+   * @return int
+   */
+  private int estimate(final String siteId, final SearchTagCriteria search) {
+
+    QueryRequest q = createQuery(siteId, search).toBuilder().select(Select.COUNT)
+        .limit(Integer.valueOf(PROBE_LIMIT)).build();
+    QueryResponse response = this.dbClient.query(q);
+
+    return response.lastEvaluatedKey().isEmpty() ? response.count().intValue() : PROBE_LIMIT + 1;
+  }
+
+  /**
+   * Filter a list of Document Ids to those matching all {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param documentIds {@link Collection} {@link String}
+   * @return {@link List} of the first criteria's Document Tag records, in Document Id order
+   */
+  public List<Map<String, AttributeValue>> filter(final String siteId,
+      final List<SearchTagCriteria> criteria, final Collection<String> documentIds) {
+
+    Map<String, Map<String, Map<String, AttributeValue>>> tags =
+        findDocumentsTags(siteId, criteria, documentIds);
+    String key = criteria.get(0).key();
+
+    return documentIds.stream().distinct().filter(id -> isMatch(criteria, tags.get(id)))
+        .map(id -> tags.get(id).get(key)).collect(Collectors.toList());
+  }
+
+  /**
+   * Find the Document Tag records of every {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param documentIds {@link Collection} {@link String}
+   * @return {@link Map} of DocumentId to Tag Key to Document Tag record
+   */
+  private Map<String, Map<String, Map<String, AttributeValue>>> findDocumentsTags(
+      final String siteId, final List<SearchTagCriteria> criteria,
+      final Collection<String> documentIds) {
+
+    Set<String> tagKeys = criteria.stream().map(c -> c.key()).collect(Collectors.toSet());
+    List<Map<String, AttributeValue>> keys = new ArrayList<>();
+
+    for (String documentId : new LinkedHashSet<>(documentIds)) {
+      for (String tagKey : tagKeys) {
+        keys.add(
+            Map.of(PK, AttributeValue.fromS(createDatabaseKey(siteId, PREFIX_DOCS + documentId)),
+                SK, AttributeValue.fromS(PREFIX_TAGS + tagKey)));
+      }
+    }
+
+    Map<String, Map<String, Map<String, AttributeValue>>> map = new HashMap<>();
+
+    if (!keys.isEmpty()) {
+
+      List<Map<String, AttributeValue>> list =
+          new ReadRequestBuilder().append(this.documentTableName, keys)
+              .batchReadItems(this.dbClient, new BatchGetConfig()).get(this.documentTableName);
+
+      list.forEach(m -> map.computeIfAbsent(m.get("documentId").s(), id -> new HashMap<>())
+          .put(m.get("tagKey").s(), m));
+    }
+
+    return map;
+  }
+
+  /**
+   * Whether a Document Tag record is the record of the first of the Document's tag values matching
+   * the driving {@link SearchTagCriteria}. Multi-value tags have a record per value, so only one of
+   * them is used and the Document is returned once, even when its records span pages.
+   * 
+   * @param search {@link SearchTagCriteria}
+   * @param item {@link Map}
+   * @return boolean
+   */
+  private boolean isFirstMatch(final SearchTagCriteria search,
+      final Map<String, AttributeValue> item) {
+
+    AttributeValue values = item.get("tagValues");
+    AttributeValue value = item.get("tagValue");
+    boolean first = true;
+
+    if (values != null && value != null) {
+      first = values.l().stream().map(v -> v.s()).filter(v -> isMatch(search, v)).findFirst()
+          .map(v -> Boolean.valueOf(v.equals(value.s()))).orElse(Boolean.TRUE).booleanValue();
+    }
+
+    return first;
+  }
+
+  /**
+   * Whether the {@link SearchTagCriteria} is queried on GSI1 (tag key and value) instead of GSI2
+   * (tag key).
+   * 
+   * @param search {@link SearchTagCriteria}
+   * @return boolean
+   */
+  private boolean isGsi1(final SearchTagCriteria search) {
+    return Objects.notNull(search.eqOr()).isEmpty() && search.eq() != null;
+  }
+
+  /**
+   * Does Document Tag records match all {@link SearchTagCriteria}.
+   * 
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param tags {@link Map} of Tag Key to Document Tag record
+   * @return boolean
+   */
+  private boolean isMatch(final List<SearchTagCriteria> criteria,
+      final Map<String, Map<String, AttributeValue>> tags) {
+    return tags != null && criteria.stream()
+        .allMatch(c -> tags.containsKey(c.key()) && isMatch(c, tags.get(c.key())));
+  }
+
+  /**
+   * Does a Document Tag record match a {@link SearchTagCriteria}. Multi-value tags match when any
+   * of their values match.
+   * 
+   * @param search {@link SearchTagCriteria}
+   * @param tag {@link Map}
+   * @return boolean
+   */
+  private boolean isMatch(final SearchTagCriteria search, final Map<String, AttributeValue> tag) {
+
+    List<String> values;
+    if (tag.containsKey("tagValues")) {
+      values = tag.get("tagValues").l().stream().map(v -> v.s()).collect(Collectors.toList());
+    } else {
+      AttributeValue value = tag.get("tagValue");
+      values = Collections.singletonList(value != null ? value.s() : "");
+    }
+
+    return values.stream().anyMatch(v -> isMatch(search, v));
+  }
+
+  private boolean isMatch(final SearchTagCriteria search, final String value) {
+
+    boolean match = true;
+
+    if (!Objects.notNull(search.eqOr()).isEmpty()) {
+      match = search.eqOr().contains(value);
+    } else if (search.eq() != null) {
+      match = value.equals(search.eq());
+    } else if (search.beginsWith() != null) {
+      match = value.startsWith(search.beginsWith());
+    } else if (search.range() != null) {
+      match = value.compareTo(search.range().getStart()) >= 0
+          && value.compareTo(search.range().getEnd()) <= 0;
+    }
+
+    return match;
+  }
+
+  /**
+   * Query for Documents that match all {@link SearchTagCriteria}.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @return {@link PaginationResults} of the driving criteria's Document Tag records
+   */
+  public PaginationResults<Map<String, AttributeValue>> query(final String siteId,
+      final List<SearchTagCriteria> criteria, final PaginationMapToken token,
+      final int maxresults) {
+
+    Object tokenDriver = token != null ? token.getAttributeMap().get(TOKEN_DRIVER) : null;
+    int driver = tokenDriver != null ? Integer.parseInt(tokenDriver.toString())
+        : selectDriver(siteId, criteria);
+
+    List<Map<String, AttributeValue>> results = new ArrayList<>();
+    Map<String, AttributeValue> next = null;
+
+    if (driver >= 0) {
+
+      QueryRequest request = createQuery(siteId, criteria.get(driver));
+      Set<String> documentIds = new HashSet<>();
+      Map<String, AttributeValue> startKey = cursor(token);
+      int limit = Math.max(maxresults, MIN_PAGE_SIZE);
+
+      for (int i = 0; i < MAX_QUERIES && (i == 0 || startKey != null)
+          && results.size() < maxresults; i++) {
+
+        QueryResponse response = this.dbClient
+            .query(request.toBuilder().exclusiveStartKey(startKey).limit(Integer.valueOf(limit))
+                .build());
+
+        next = read(siteId, criteria, driver, response, documentIds, results, maxresults);
+        startKey = next;
+      }
+    }
+
+    return new PaginationResults<>(results, toToken(driver, next));
+  }
+
+  /**
+   * Add the driving query items that match the other {@link SearchTagCriteria} to the results.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @param driver index of the driving criteria
+   * @param response {@link QueryResponse}
+   * @param documentIds {@link Set} of Document Ids already in results
+   * @param results {@link List}
+   * @param maxresults int
+   * @return {@link Map} the cursor of the next driving query
+   */
+  private Map<String, AttributeValue> read(final String siteId,
+      final List<SearchTagCriteria> criteria, final int driver, final QueryResponse response,
+      final Set<String> documentIds, final List<Map<String, AttributeValue>> results,
+      final int maxresults) {
+
+    List<SearchTagCriteria> others = new ArrayList<>(criteria);
+    SearchTagCriteria driving = others.remove(driver);
+
+    List<String> candidates = response.items().stream().map(i -> i.get("documentId").s())
+        .filter(id -> !documentIds.contains(id)).collect(Collectors.toList());
+
+    Map<String, Map<String, Map<String, AttributeValue>>> tags =
+        others.isEmpty() ? Collections.emptyMap() : findDocumentsTags(siteId, others, candidates);
+
+    Map<String, AttributeValue> next =
+        !response.lastEvaluatedKey().isEmpty() ? response.lastEvaluatedKey() : null;
+    Map<String, AttributeValue> last = null;
+
+    for (Map<String, AttributeValue> item : response.items()) {
+
+      if (results.size() >= maxresults) {
+        next = toCursor(isGsi1(driving), last);
+        break;
+      }
+
+      String documentId = item.get("documentId").s();
+      if (!documentIds.contains(documentId) && isFirstMatch(driving, item)
+          && (others.isEmpty() || isMatch(others, tags.get(documentId)))) {
+        documentIds.add(documentId);
+        results.add(item);
+      }
+
+      last = item;
+    }
+
+    return next;
+  }
+
+  /**
+   * Select the most selective {@link SearchTagCriteria} to drive the query. Ties are broken by the
+   * criteria order.
+   * 
+   * @param siteId {@link String}
+   * @param criteria {@link List} {@link SearchTagCriteria}
+   * @return int the index of the driving criteria or -1 when a criteria matches no Documents
+   */
+  private int selectDriver(final String siteId, final List<SearchTagCriteria> criteria) {
+
+    List<Callable<Integer>> tasks = criteria.stream()
+        .map(c -> (Callable<Integer>) () -> Integer.valueOf(estimate(siteId, c)))
+        .collect(Collectors.toList());
+
+    List<Integer> counts = BoundedExecutor.invokeAll(MAX_CONCURRENCY, tasks);
+
+    int driver = 0;
+    for (int i = 1; i < counts.size(); i++) {
+      if (counts.get(i).intValue() < counts.get(driver).intValue()) {
+        driver = i;
+      }
+    }
+
+    return counts.get(driver).intValue() > 0 ? driver : -1;
+  }
+
+  /**
+   * Create the cursor of an item, the Table and Index Key attributes.
+   * 
+   * @param gsi1 whether the item is from GSI1 or GSI2
+   * @param item {@link Map}
+   * @return {@link Map}
+   */
+  private Map<String, AttributeValue> toCursor(final boolean gsi1,
+      final Map<String, AttributeValue> item) {
+
+    List<String> keys = gsi1 ? List.of(PK, SK, GSI1_PK, GSI1_SK)
+        : List.of(PK, SK, GSI2_PK, GSI2_SK);
+
+    Map<String, AttributeValue> cursor = new HashMap<>();
+    keys.forEach(k -> cursor.put(k, item.get(k)));
+    return cursor;
+  }
+
+  /**
+   * Create {@link PaginationMapToken} with the driving criteria and its cursor.
+   * 
+   * @param driver int
+   * @param cursor {@link Map}
+   * @return {@link PaginationMapToken}
+   */
+  private PaginationMapToken toToken(final int driver, final Map<String, AttributeValue> cursor) {
+
+    PaginationMapToken token = null;
+
+    if (cursor != null) {
+      Map<String, Object> map = new HashMap<>();
+      map.put(TOKEN_DRIVER, String.valueOf(driver));
+      cursor.forEach((k, v) -> map.put(TOKEN_PREFIX + k, v.s()));
+      token = new PaginationMapToken(map);
+    }
+
+    return token;
+  }
+}
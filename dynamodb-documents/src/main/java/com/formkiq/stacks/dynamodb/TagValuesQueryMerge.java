@@ -0,0 +1,278 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_PK;
+import static com.formkiq.aws.dynamodb.DbKeys.GSI1_SK;
+import static com.formkiq.aws.dynamodb.DbKeys.PK;
+import static com.formkiq.aws.dynamodb.DbKeys.PREFIX_TAG;
+import static com.formkiq.aws.dynamodb.DbKeys.SK;
+import static com.formkiq.aws.dynamodb.DbKeys.TAG_DELIMINATOR;
+import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.createDatabaseKey;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import com.formkiq.aws.dynamodb.BoundedExecutor;
+import com.formkiq.aws.dynamodb.PaginationMapToken;
+import com.formkiq.aws.dynamodb.PaginationResults;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * Searches a Tag Key for any of a number of Tag Values. Each value is queried on GSI1 concurrently
+ * and the results are merged (k-way) by the GSI1 sort key, so they come back in the same order as a
+ * single value search. The returned {@link PaginationMapToken} contains the cursor of every value,
+ * so the next page resumes each value where it stopped.
+ */
+public class TagValuesQueryMerge {
+
+  /** Token value for a value with no more results. */
+  private static final String DONE = "done";
+  /** Index Key attributes. */
+  private static final List<String> KEYS = List.of(PK, SK, GSI1_PK, GSI1_SK);
+  /** Max number of value queries in flight. */
+  private static final int MAX_CONCURRENCY = 10;
+  /** Token Key Prefix. */
+  private static final String TOKEN_PREFIX = "eqOr.";
+
+  /** {@link DynamoDbClient}. */
+  private DynamoDbClient dbClient;
+  /** Documents Table Name. */
+  private String documentTableName;
+
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbClient}
+   * @param tableName {@link String}
+   */
+  public TagValuesQueryMerge(final DynamoDbClient client, final String tableName) {
+    this.dbClient = client;
+    this.documentTableName = tableName;
+  }
+
+  private Map<String, AttributeValue> cursor(final PaginationMapToken token, final int index) {
+
+    Map<String, AttributeValue> cursor = null;
+
+    if (token != null) {
+      String prefix = TOKEN_PREFIX + index + ".";
+      for (String key : KEYS) {
+        Object value = token.getAttributeMap().get(prefix + key);
+        if (value != null) {
+          cursor = cursor != null ? cursor : new HashMap<>();
+          cursor.put(key, AttributeValue.fromS(value.toString()));
+        }
+      }
+    }
+
+    return cursor;
+  }
+
+  private void fetch(final Branch branch, final int maxresults) {
+
+    QueryRequest q = branch.request.toBuilder().exclusiveStartKey(branch.lastEvaluatedKey)
+        .limit(Integer.valueOf(maxresults)).build();
+    QueryResponse response = this.dbClient.query(q);
+
+    branch.items.addAll(response.items());
+    branch.lastEvaluatedKey =
+        !response.lastEvaluatedKey().isEmpty() ? response.lastEvaluatedKey() : null;
+  }
+
+  private boolean isDone(final PaginationMapToken token, final int index) {
+    return token != null && DONE.equals(token.getAttributeMap().get(TOKEN_PREFIX + index));
+  }
+
+  /**
+   * Merge the heads of all {@link Branch} in descending GSI1 sort key order.
+   * 
+   * @param queue {@link PriorityQueue}
+   * @param maxresults int
+   * @return {@link List}
+   */
+  private List<Map<String, AttributeValue>> merge(final PriorityQueue<Branch> queue,
+      final int maxresults) {
+
+    Set<String> documentIds = new HashSet<>();
+    List<Map<String, AttributeValue>> results = new ArrayList<>();
+    String lastSortKey = null;
+
+    while (!queue.isEmpty()) {
+
+      Branch branch = queue.peek();
+      Map<String, AttributeValue> item = branch.items.peekFirst();
+      String documentId = item.get("documentId").s();
+      String sortKey = item.get(GSI1_SK).s();
+
+      boolean duplicate = documentIds.contains(documentId);
+      if (results.size() >= maxresults && !(duplicate && sortKey.equals(lastSortKey))) {
+        break;
+      }
+
+      queue.poll();
+      branch.cursor = branch.items.pollFirst();
+
+      if (!duplicate) {
+        documentIds.add(documentId);
+        results.add(item);
+        lastSortKey = sortKey;
+      }
+
+      if (branch.items.isEmpty() && branch.lastEvaluatedKey != null
+          && results.size() < maxresults) {
+        fetch(branch, maxresults);
+      }
+
+      if (!branch.items.isEmpty()) {
+        queue.add(branch);
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Query for Documents with Tag Key and any of the Tag Values.
+   * 
+   * @param siteId {@link String}
+   * @param key {@link String}
+   * @param values {@link List} {@link String}
+   * @param token {@link PaginationMapToken}
+   * @param maxresults int
+   * @param projectionExpression {@link String}
+   * @return {@link PaginationResults}
+   */
+  public PaginationResults<Map<String, AttributeValue>> query(final String siteId,
+      final String key, final List<String> values, final PaginationMapToken token,
+      final int maxresults, final String projectionExpression) {
+
+    String projection =
+        projectionExpression != null ? projectionExpression + "," + String.join(",", KEYS) : null;
+
+    List<Branch> branches = new ArrayList<>();
+    List<Callable<Branch>> tasks = new ArrayList<>();
+
+    for (int i = 0; i < values.size(); i++) {
+
+      Branch branch = new Branch(i);
+      branches.add(branch);
+
+      if (!isDone(token, i)) {
+
+        branch.lastEvaluatedKey = cursor(token, i);
+        branch.cursor = branch.lastEvaluatedKey;
+        branch.request = QueryRequest.builder().tableName(this.documentTableName).indexName(GSI1)
+            .keyConditionExpression(GSI1_PK + " = :pk")
+            .expressionAttributeValues(Map.of(":pk", AttributeValue.fromS(
+                createDatabaseKey(siteId, PREFIX_TAG + key + TAG_DELIMINATOR + values.get(i)))))
+            .projectionExpression(projection).scanIndexForward(Boolean.FALSE).build();
+
+        tasks.add(() -> {
+          fetch(branch, maxresults);
+          return branch;
+        });
+      }
+    }
+
+    PriorityQueue<Branch> queue = new PriorityQueue<>(Comparator
+        .comparing((Branch b) -> b.items.peekFirst().get(GSI1_SK).s(), Comparator.reverseOrder())
+        .thenComparingInt(b -> b.index));
+
+    BoundedExecutor.invokeAll(MAX_CONCURRENCY, tasks).stream().filter(b -> !b.items.isEmpty())
+        .forEach(b -> queue.add(b));
+
+    List<Map<String, AttributeValue>> results = merge(queue, maxresults);
+    return new PaginationResults<>(results, toToken(token, branches));
+  }
+
+  /**
+   * Create {@link PaginationMapToken} with the cursor of every {@link Branch}.
+   * 
+   * @param token {@link PaginationMapToken}
+   * @param branches {@link List} {@link Branch}
+   * @return {@link PaginationMapToken}
+   */
+  private PaginationMapToken toToken(final PaginationMapToken token,
+      final List<Branch> branches) {
+
+    boolean hasMore = false;
+    Map<String, Object> map = new HashMap<>();
+
+    for (Branch branch : branches) {
+
+      String prefix = TOKEN_PREFIX + branch.index;
+
+      if (isDone(token, branch.index)
+          || branch.items.isEmpty() && branch.lastEvaluatedKey == null) {
+        map.put(prefix, DONE);
+      } else {
+
+        hasMore = true;
+        if (branch.cursor != null) {
+          KEYS.forEach(k -> map.put(prefix + "." + k, branch.cursor.get(k).s()));
+        }
+      }
+    }
+
+    return hasMore ? new PaginationMapToken(map) : null;
+  }
+
+  /**
+   * Query of a single Tag Value.
+   */
+  private static class Branch {
+
+    /** Last consumed item, the cursor of the next page. */
+    private Map<String, AttributeValue> cursor;
+    /** Index of Tag Value. */
+    private final int index;
+    /** Fetched items not yet consumed. */
+    private final Deque<Map<String, AttributeValue>> items = new ArrayDeque<>();
+    /** Last Evaluated Key of the last query. */
+    private Map<String, AttributeValue> lastEvaluatedKey;
+    /** {@link QueryRequest}. */
+    private QueryRequest request;
+
+    /**
+     * constructor.
+     * 
+     * @param valueIndex int
+     */
+    Branch(final int valueIndex) {
+      this.index = valueIndex;
+    }
+  }
+}
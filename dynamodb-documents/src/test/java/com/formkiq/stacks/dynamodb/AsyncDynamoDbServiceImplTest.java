@@ -0,0 +1,150 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.dynamodb;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.formkiq.aws.dynamodb.AsyncDynamoDbService;
+import com.formkiq.aws.dynamodb.AsyncDynamoDbServiceExtension;
+import com.formkiq.aws.dynamodb.AsyncDynamoDbServiceImpl;
+import com.formkiq.aws.dynamodb.BatchGetConfig;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
+import com.formkiq.aws.dynamodb.QueryConfig;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+
+/**
+ * 
+ * Unit Tests for {@link AsyncDynamoDbServiceImpl}, built through the
+ * {@link DynamoDbAwsServiceRegistry} with its default async http client.
+ *
+ */
+@ExtendWith(DynamoDbExtension.class)
+public class AsyncDynamoDbServiceImplTest implements DbKeys {
+
+  /** {@link AsyncDynamoDbService}. */
+  private static AsyncDynamoDbService service;
+
+  /**
+   * Before Test.
+   *
+   * @throws Exception Exception
+   */
+  @BeforeAll
+  public static void beforeAll() throws Exception {
+
+    Map<String, String> env = Map.of("AWS_REGION", Region.US_EAST_1.id(), "DOCUMENTS_TABLE",
+        DOCUMENTS_TABLE, "DYNAMODB_MAX_CONCURRENCY", "10", "DYNAMODB_CONNECTION_TIMEOUT_MS",
+        "5000");
+
+    AwsServiceCache serviceCache = new AwsServiceCacheBuilder(env,
+        Map.of("dynamodb", DynamoDbTestServices.getEndpoint()),
+        StaticCredentialsProvider.create(AwsBasicCredentials.create("ACCESSKEY", "SECRETKEY")))
+        .addService(new DynamoDbAwsServiceRegistry()).build();
+
+    serviceCache.register(AsyncDynamoDbService.class, new AsyncDynamoDbServiceExtension());
+    service = serviceCache.getExtension(AsyncDynamoDbService.class);
+  }
+
+  /**
+   * Batch Get with a projection that does not include the keys.
+   */
+  @Test
+  void testGetBatch01() {
+    // given
+    final int count = 5;
+    AttributeValue pk = AttributeValue.fromS("asyncprojection");
+    List<Map<String, AttributeValue>> keys = new ArrayList<>();
+    List<Map<String, AttributeValue>> values = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      AttributeValue sk = AttributeValue.fromS("count_" + i);
+      keys.add(Map.of(PK, pk, SK, sk));
+      values.add(Map.of(PK, pk, SK, sk, "documentId", AttributeValue.fromS("doc" + i)));
+    }
+
+    service.putItems(values).join();
+
+    // when
+    List<Map<String, AttributeValue>> items =
+        service.getBatch(new BatchGetConfig().projectionExpression("documentId"), keys).join();
+
+    // then
+    assertEquals(count, items.size());
+    items.forEach(i -> assertEquals(1, i.size()));
+
+    service.deleteItems(keys).join();
+  }
+
+  /**
+   * Put, Batch Get, Query and Delete.
+   */
+  @Test
+  void testPutItems01() {
+    // given
+    final int count = 130;
+    AttributeValue pk = AttributeValue.fromS("async");
+    List<Map<String, AttributeValue>> keys = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      keys.add(Map.of(PK, pk, SK, AttributeValue.fromS("count_" + String.format("%03d", i))));
+    }
+
+    // when
+    service.putItems(keys).join();
+    List<Map<String, AttributeValue>> items =
+        service.getBatch(new BatchGetConfig(), keys).join();
+    QueryResponse response =
+        service.query(new QueryConfig().scanIndexForward(Boolean.TRUE), pk, null, count).join();
+
+    // then
+    assertEquals(count, items.size());
+    assertEquals(count, response.items().size());
+
+    for (int i = 0; i < count; i++) {
+      assertEquals(keys.get(i).get(SK), items.get(i).get(SK));
+    }
+
+    // when
+    assertTrue(service.deleteItems(keys).join().booleanValue());
+
+    // then
+    assertTrue(service.get(pk, keys.get(0).get(SK)).join().isEmpty());
+  }
+}
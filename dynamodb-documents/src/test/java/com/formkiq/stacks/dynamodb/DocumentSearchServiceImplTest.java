@@ -38,8 +38,10 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -168,10 +170,23 @@ public class DocumentSearchServiceImplTest {
    */
   private DynamicDocumentItem createTestDocumentWithTags(final Map<String, Object> tags,
       final boolean value) {
+    return createTestDocumentWithTags(tags, value, new Date());
+  }
+
+  /**
+   * Create a Test Document with 2 tags, inserted at a {@link Date}.
+   * 
+   * @param tags {@link Map}
+   * @param value whether to set value or values
+   * @param insertedDate {@link Date}
+   * @return {@link DynamicDocumentItem}
+   */
+  private DynamicDocumentItem createTestDocumentWithTags(final Map<String, Object> tags,
+      final boolean value, final Date insertedDate) {
     String username = "testuser";
     String content = UUID.randomUUID().toString();
     DynamicDocumentItem doc = new DynamicDocumentItem(Map.of("documentId",
-        UUID.randomUUID().toString(), "userId", username, "insertedDate", new Date(), "content",
+        UUID.randomUUID().toString(), "userId", username, "insertedDate", insertedDate, "content",
         Base64.getEncoder().encodeToString(content.getBytes(StandardCharsets.UTF_8))));
 
 
@@ -181,11 +196,11 @@ public class DocumentSearchServiceImplTest {
     for (Map.Entry<String, Object> e : tags.entrySet()) {
       if (value) {
         list.add(Map.of("documentId", doc.getDocumentId(), "key", e.getKey(), "value", e.getValue(),
-            "insertedDate", new Date(), "userId", username, "type",
+            "insertedDate", insertedDate, "userId", username, "type",
             DocumentTagType.USERDEFINED.name()));
       } else {
         list.add(Map.of("documentId", doc.getDocumentId(), "key", e.getKey(), "values",
-            e.getValue(), "insertedDate", new Date(), "userId", username, "type",
+            e.getValue(), "insertedDate", insertedDate, "userId", username, "type",
             DocumentTagType.USERDEFINED.name()));
       }
     }
@@ -653,9 +668,14 @@ public class DocumentSearchServiceImplTest {
   public void testSearch13() {
     for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
       // given
+      final long minute = 60000L;
+      Date now = new Date();
+      Date earlier = new Date(now.getTime() - minute);
       DynamicDocumentItem doc0 = createTestDocumentWithTags(Map.of("category", "person"), true);
-      DynamicDocumentItem doc1 = createTestDocumentWithTags(Map.of("category", "thing"), true);
-      DynamicDocumentItem doc2 = createTestDocumentWithTags(Map.of("category", "person1"), true);
+      DynamicDocumentItem doc1 =
+          createTestDocumentWithTags(Map.of("category", "thing"), true, now);
+      DynamicDocumentItem doc2 =
+          createTestDocumentWithTags(Map.of("category", "person1"), true, earlier);
       DynamicDocumentItem doc3 = createTestDocumentWithTags(Map.of("nocategory", "person"), true);
       this.service.saveDocumentItemWithTag(siteId, doc0);
       this.service.saveDocumentItemWithTag(siteId, doc1);
@@ -677,7 +697,10 @@ public class DocumentSearchServiceImplTest {
       assertEquals(2, list.size());
       assertNull(results.getToken());
 
+      // results are merged in descending inserted date order
+      assertEquals(doc1.getDocumentId(), list.get(0).getDocumentId());
       assertEquals("thing", list.get(0).getMap("matchedTag").get("value"));
+      assertEquals(doc2.getDocumentId(), list.get(1).getDocumentId());
       assertEquals("person1", list.get(1).getMap("matchedTag").get("value"));
 
       list.forEach(s -> {
@@ -979,4 +1002,121 @@ public class DocumentSearchServiceImplTest {
       assertEquals(documentId1, results.getResults().get(1).getDocumentId());
     }
   }
+
+  /** Search for tag 'eqOr' with pagination. */
+  @Test
+  public void testSearch20() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 5;
+      final int limit = 2;
+      List<String> values = Arrays.asList("red", "green", "blue");
+      Set<String> expected = new HashSet<>();
+
+      for (String value : values) {
+        for (int i = 0; i < count; i++) {
+          DynamicDocumentItem doc = createTestDocumentWithTags(Map.of("color", value), true);
+          this.service.saveDocumentItemWithTag(siteId, doc);
+          expected.add(doc.getDocumentId());
+        }
+      }
+
+      DynamicDocumentItem multi =
+          createTestDocumentWithTags(Map.of("color", Arrays.asList("red", "blue")), false);
+      this.service.saveDocumentItemWithTag(siteId, multi);
+      expected.add(multi.getDocumentId());
+
+      SearchQuery q = new SearchQuery().tag(new SearchTagCriteria("color").eqOr(values));
+
+      PaginationMapToken startkey = null;
+      List<String> documentIds = new ArrayList<>();
+
+      // when
+      do {
+        PaginationResults<DynamicDocumentItem> results =
+            this.searchService.search(siteId, q, startkey, limit);
+        assertTrue(results.getResults().size() <= limit);
+
+        results.getResults().forEach(r -> documentIds.add(r.getDocumentId()));
+        startkey = results.getToken();
+      } while (startkey != null);
+
+      // then
+      assertEquals(expected.size(), documentIds.size());
+      assertEquals(expected, new HashSet<>(documentIds));
+    }
+  }
+
+  /** Search by multiple Tags (AND) with pagination. */
+  @Test
+  public void testSearch21() {
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      final int count = 7;
+      final int limit = 2;
+      final int tagCount = 3;
+      Set<String> expected = new HashSet<>();
+
+      for (int i = 0; i < count; i++) {
+        String status = i % 2 == 0 ? "active" : "inactive";
+        DynamicDocumentItem doc = createTestDocumentWithTags(
+            Map.of("category", "person", "status", status, "name", "n" + i), true);
+        this.service.saveDocumentItemWithTag(siteId, doc);
+
+        if (i % 2 == 0) {
+          expected.add(doc.getDocumentId());
+        }
+      }
+
+      DynamicDocumentItem thing =
+          createTestDocumentWithTags(Map.of("category", "thing", "status", "active"), true);
+      this.service.saveDocumentItemWithTag(siteId, thing);
+
+      DynamicDocumentItem multi = createTestDocumentWithTags(
+          Map.of("category", Arrays.asList("person", "thing"), "status", Arrays.asList("active")),
+          false);
+      this.service.saveDocumentItemWithTag(siteId, multi);
+
+      DynamicDocumentItem multiName =
+          createTestDocumentWithTags(Map.of("category", Arrays.asList("thing", "person"), "status",
+              Arrays.asList("inactive", "active"), "name", Arrays.asList("m0", "m1")), false);
+      this.service.saveDocumentItemWithTag(siteId, multiName);
+      expected.add(multiName.getDocumentId());
+
+      SearchQuery q = new SearchQuery()
+          .tags(Arrays.asList(new SearchTagCriteria("category").eq("person"),
+              new SearchTagCriteria("status").eq("active"), new SearchTagCriteria("name")));
+
+      PaginationMapToken startkey = null;
+      List<String> documentIds = new ArrayList<>();
+
+      // when
+      do {
+        PaginationResults<DynamicDocumentItem> results =
+            this.searchService.search(siteId, q, startkey, limit);
+        assertTrue(results.getResults().size() <= limit);
+
+        results.getResults().forEach(r -> {
+          documentIds.add(r.getDocumentId());
+          assertEquals(tagCount, ((List<?>) r.get("matchedTags")).size());
+        });
+        startkey = results.getToken();
+      } while (startkey != null);
+
+      // then
+      assertEquals(expected.size(), documentIds.size());
+      assertEquals(expected, new HashSet<>(documentIds));
+
+      // given
+      q.documentsIds(Arrays.asList(thing.getDocumentId(), documentIds.get(0)));
+
+      // when
+      PaginationResults<DynamicDocumentItem> results =
+          this.searchService.search(siteId, q, null, MAX_RESULTS);
+
+      // then
+      assertEquals(1, results.getResults().size());
+      assertEquals(documentIds.get(0), results.getResults().get(0).getDocumentId());
+    }
+  }
 }
@@ -376,6 +376,67 @@ class FolderIndexProcessorTest implements DbKeys {
     }
   }
 
+  @Test
+  void testGetFolderByDocumentIds01() {
+    // given
+    final int expected = 3;
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      String documentId = UUID.randomUUID().toString();
+      DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+      item.setPath("/a/b/c/test.pdf");
+
+      List<Map<String, AttributeValue>> indexes = index.generateIndex(siteId, item);
+      dbService.putItems(indexes);
+
+      List<String> documentIds =
+          indexes.stream().map(i -> i.get("documentId").s()).collect(Collectors.toList());
+
+      // when
+      Map<String, FolderIndexRecord> folders = index.getFolderByDocumentIds(siteId, documentIds);
+
+      // then
+      assertEquals(expected, folders.size());
+      assertEquals("a", folders.get(documentIds.get(0)).path());
+      assertEquals("b", folders.get(documentIds.get(1)).path());
+      assertEquals("c", folders.get(documentIds.get(2)).path());
+      assertNull(folders.get(documentId));
+    }
+  }
+
+  /**
+   * Cached folders that were deleted outside of the {@link FolderIndexProcessor}.
+   */
+  @Test
+  void testGet01() {
+    // given
+    final int expected = 3;
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      List<Map<String, AttributeValue>> indexes =
+          index.generateIndex(siteId, createDocument("/a/b/test.pdf"));
+      dbService.putItems(indexes);
+
+      List<FolderIndexRecordExtended> records =
+          index.get(siteId, "/a/b/test2.pdf", "file", "joe", new Date());
+      assertEquals(expected, records.size());
+      assertEquals(indexes.get(0).get("documentId").s(), records.get(0).record().documentId());
+      assertEquals(indexes.get(1).get("documentId").s(), records.get(1).record().documentId());
+
+      dbService.deleteItem(indexes.get(1).get(PK), indexes.get(1).get(SK));
+
+      // when
+      records = index.get(siteId, "/a/b/test2.pdf", "file", "joe", new Date());
+
+      // then
+      assertEquals(expected, records.size());
+      assertEquals(indexes.get(0).get("documentId").s(), records.get(0).record().documentId());
+      assertTrue(records.get(1).isChanged());
+      assertNotEquals(indexes.get(1).get("documentId").s(), records.get(1).record().documentId());
+      assertTrue(records.get(2).isChanged());
+    }
+  }
+
   /**
    * Move Directory to another directory.
    * 
@@ -624,6 +685,12 @@ class FolderIndexProcessorTest implements DbKeys {
     }
   }
 
+  private DocumentItem createDocument(final String path) {
+    DocumentItem item = new DocumentItemDynamoDb(UUID.randomUUID().toString(), new Date(), "joe");
+    item.setPath(path);
+    return item;
+  }
+
   private void verifyIndex(final Map<String, AttributeValue> map, final String pk, final String sk,
       final String path, final boolean hasDates) {
 
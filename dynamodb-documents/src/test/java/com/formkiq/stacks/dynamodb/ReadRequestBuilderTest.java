@@ -151,4 +151,37 @@ public class ReadRequestBuilderTest implements DbKeys {
     // then
     assertEquals(1, items.get(DOCUMENTS_TABLE).size());
   }
+
+  /**
+   * Concurrent partitions keep input order.
+   */
+  @Test
+  void testDocuments04() {
+    // given
+    final int count = 350;
+    final int concurrency = 4;
+    BatchGetConfig config = new BatchGetConfig().maxConcurrency(concurrency);
+    ReadRequestBuilder builder = new ReadRequestBuilder();
+    List<Map<String, AttributeValue>> keys = new ArrayList<>();
+
+    for (int i = 0; i < count; i++) {
+      Map<String, AttributeValue> key =
+          Map.of(PK, AttributeValue.fromS("order"), SK, AttributeValue.fromS("count_" + i));
+      keys.add(key);
+      service.putItem(key);
+    }
+
+    builder.append(DOCUMENTS_TABLE, keys);
+
+    // when
+    Map<String, List<Map<String, AttributeValue>>> items = builder.batchReadItems(dbClient, config);
+
+    // then
+    List<Map<String, AttributeValue>> list = items.get(DOCUMENTS_TABLE);
+    assertEquals(count, list.size());
+
+    for (int i = 0; i < count; i++) {
+      assertEquals("count_" + i, list.get(i).get(SK).s());
+    }
+  }
 }
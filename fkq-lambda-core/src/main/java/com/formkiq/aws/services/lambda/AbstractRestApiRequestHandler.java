@@ -59,6 +59,7 @@ import com.formkiq.aws.services.lambda.exceptions.NotFoundException;
 import com.formkiq.aws.services.lambda.exceptions.NotImplementedException;
 import com.formkiq.aws.services.lambda.exceptions.TooManyRequestsException;
 import com.formkiq.aws.services.lambda.exceptions.UnauthorizedException;
+import com.formkiq.aws.services.lambda.services.CacheService;
 import com.formkiq.aws.sqs.SqsService;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.validation.ValidationException;
@@ -75,35 +76,33 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
   /** {@link Gson}. */
   protected Gson gson = GsonUtil.getInstance();
+  /** {@link ApiRoutes} compiled from the URL Map. */
+  private volatile ApiRoutes routes;
 
-  private void buildForbiddenException(final LambdaLogger logger, final AwsServiceCache awsServices,
-      final OutputStream output, final ForbiddenException e) throws IOException {
+  private ApiGatewayResponse buildForbiddenException(final LambdaLogger logger,
+      final AwsServiceCache awsServices, final ForbiddenException e) {
     if (awsServices.debug() && e.getDebug() != null) {
       logger.log(e.getDebug());
     }
 
-    buildResponse(logger, awsServices, output, SC_FORBIDDEN, Collections.emptyMap(),
+    return buildResponse(SC_FORBIDDEN, Collections.emptyMap(),
         new ApiResponseError(e.getMessage()));
   }
 
   /**
-   * Handle Exception.
+   * Build {@link ApiGatewayResponse}.
    *
-   * @param logger {@link LambdaLogger}
-   * @param awsServices {@link AwsServiceCache}
-   * @param output {@link OutputStream}
    * @param status {@link ApiResponseStatus}
    * @param headers {@link Map}
    * @param apiResponse {@link ApiResponse}
-   * @throws IOException IOException
+   * @return {@link ApiGatewayResponse}
    */
-  protected void buildResponse(final LambdaLogger logger, final AwsServiceCache awsServices,
-      final OutputStream output, final ApiResponseStatus status, final Map<String, String> headers,
-      final ApiResponse apiResponse) throws IOException {
+  protected ApiGatewayResponse buildResponse(final ApiResponseStatus status,
+      final Map<String, String> headers, final ApiResponse apiResponse) {
 
-    Map<String, Object> response = new HashMap<>();
+    ApiGatewayResponse response = new ApiGatewayResponse();
     Map<String, String> jsonheaders = createJsonHeaders();
-    response.put("statusCode", Integer.valueOf(status.getStatusCode()));
+    response.setStatusCode(status.getStatusCode());
 
     if (apiResponse instanceof ApiRedirectResponse) {
       jsonheaders.put("Location", ((ApiRedirectResponse) apiResponse).getRedirectUri());
@@ -111,16 +110,16 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
         && apiResponse instanceof ApiMessageResponse) {
       jsonheaders.put("Location", ((ApiMessageResponse) apiResponse).getMessage());
     } else if (apiResponse instanceof ApiMapResponse) {
-      response.put("body", this.gson.toJson(((ApiMapResponse) apiResponse).getMap()));
+      response.setBody(this.gson.toJson(((ApiMapResponse) apiResponse).getMap()));
       jsonheaders.putAll(headers);
     } else {
-      response.put("body", this.gson.toJson(apiResponse));
+      response.setBody(this.gson.toJson(apiResponse));
       jsonheaders.putAll(headers);
     }
 
-    response.put("headers", jsonheaders);
+    response.setHeaders(jsonheaders);
 
-    writeJson(logger, awsServices, output, response);
+    return response;
   }
 
   /**
@@ -257,7 +256,7 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
       final Map<String, ApiGatewayRequestHandler> urlMap, final String method,
       final String resource) throws NotFoundException {
     String s = "options".equals(method) ? method : resource;
-    ApiGatewayRequestHandler hander = urlMap.get(s);
+    ApiGatewayRequestHandler hander = findUrlMapHandler(urlMap, s);
     if (hander != null) {
       return hander;
     }
@@ -265,6 +264,27 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     throw new NotFoundException(resource + " request handler not found");
   }
 
+  /**
+   * Find {@link ApiGatewayRequestHandler} by resource template, falling back to matching the
+   * resource as a request path against the {@link ApiRoutes}.
+   * 
+   * @param urlMap {@link Map}
+   * @param resource {@link String}
+   * @return {@link ApiGatewayRequestHandler}, null if not found
+   */
+  protected ApiGatewayRequestHandler findUrlMapHandler(
+      final Map<String, ApiGatewayRequestHandler> urlMap, final String resource) {
+
+    ApiGatewayRequestHandler handler = resource != null ? urlMap.get(resource) : null;
+
+    if (handler == null && resource != null && urlMap == getUrlMap()) {
+      ApiRouteMatch match = getRoutes().find(resource);
+      handler = match != null ? match.getHandler() : null;
+    }
+
+    return handler;
+  }
+
   /**
    * Get {@link ApiGatewayRequestEvent}.
    *
@@ -322,6 +342,25 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     return body;
   }
 
+  /**
+   * Get {@link ApiRoutes} compiled from {@link #getUrlMap()}. The routes are built on first use
+   * and rebuilt if handlers have been added to the URL Map since.
+   * 
+   * @return {@link ApiRoutes}
+   */
+  public ApiRoutes getRoutes() {
+
+    ApiRoutes r = this.routes;
+    Map<String, ApiGatewayRequestHandler> urlMap = getUrlMap();
+
+    if (r == null || r.size() != urlMap.size()) {
+      r = new ApiRoutes(urlMap);
+      this.routes = r;
+    }
+
+    return r;
+  }
+
   /**
    * Get URL Map.
    * 
@@ -339,6 +378,27 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     // empty
   }
 
+  /**
+   * Handle an {@link ApiGatewayRequestEvent} in process, without encoding the request or the
+   * response as JSON.
+   * 
+   * @param event {@link ApiGatewayRequestEvent}
+   * @param context {@link Context}
+   * @return {@link ApiGatewayResponse}
+   */
+  public ApiGatewayResponse handleRequest(final ApiGatewayRequestEvent event,
+      final Context context) {
+
+    LambdaLogger logger = context.getLogger();
+    AwsServiceCache awsServices = getAwsServices();
+
+    if (awsServices.debug()) {
+      logger.log(this.gson.toJson(event));
+    }
+
+    return processApiGatewayRequest(logger, event, awsServices);
+  }
+
   @Override
   public void handleRequest(final InputStream input, final OutputStream output,
       final Context context) throws IOException {
@@ -353,7 +413,8 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
     if (!isEmpty(event)) {
 
-      processApiGatewayRequest(logger, event, awsServices, output);
+      ApiGatewayResponse response = processApiGatewayRequest(logger, event, awsServices);
+      writeJson(logger, awsServices, output, toMap(response));
 
     } else {
 
@@ -523,12 +584,12 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
    * @param logger {@link LambdaLogger}
    * @param event {@link ApiGatewayRequestEvent}
    * @param awsServices {@link AwsServiceCache}
-   * @param output {@link OutputStream}
-   * @throws IOException IOException
+   * @return {@link ApiGatewayResponse}
    */
-  private void processApiGatewayRequest(final LambdaLogger logger,
-      final ApiGatewayRequestEvent event, final AwsServiceCache awsServices,
-      final OutputStream output) throws IOException {
+  private ApiGatewayResponse processApiGatewayRequest(final LambdaLogger logger,
+      final ApiGatewayRequestEvent event, final AwsServiceCache awsServices) {
+
+    ApiGatewayResponse response = null;
 
     try {
 
@@ -550,37 +611,58 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
 
       sendWebNotify(authorization, event, object);
 
-      buildResponse(logger, awsServices, output, object.getStatus(), object.getHeaders(),
-          object.getResponse());
+      response = buildResponse(object.getStatus(), object.getHeaders(), object.getResponse());
 
     } catch (NotFoundException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_FOUND, Collections.emptyMap(),
+      response = buildResponse(SC_NOT_FOUND, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ConflictException e) {
-      buildResponse(logger, awsServices, output, SC_METHOD_CONFLICT, Collections.emptyMap(),
+      response = buildResponse(SC_METHOD_CONFLICT, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (TooManyRequestsException e) {
-      buildResponse(logger, awsServices, output, SC_TOO_MANY_REQUESTS, Collections.emptyMap(),
+      response = buildResponse(SC_TOO_MANY_REQUESTS, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (BadException | IllegalArgumentException | DateTimeException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
+      response = buildResponse(SC_BAD_REQUEST, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ForbiddenException e) {
-      buildForbiddenException(logger, awsServices, output, e);
+      response = buildForbiddenException(logger, awsServices, e);
     } catch (UnauthorizedException e) {
-      buildResponse(logger, awsServices, output, SC_UNAUTHORIZED, Collections.emptyMap(),
+      response = buildResponse(SC_UNAUTHORIZED, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (NotImplementedException e) {
-      buildResponse(logger, awsServices, output, SC_NOT_IMPLEMENTED, Collections.emptyMap(),
+      response = buildResponse(SC_NOT_IMPLEMENTED, Collections.emptyMap(),
           new ApiResponseError(e.getMessage()));
     } catch (ValidationException e) {
-      buildResponse(logger, awsServices, output, SC_BAD_REQUEST, Collections.emptyMap(),
-          new ApiResponseError(e.errors()));
+      response =
+          buildResponse(SC_BAD_REQUEST, Collections.emptyMap(), new ApiResponseError(e.errors()));
     } catch (Exception e) {
       logError(logger, e);
 
-      buildResponse(logger, awsServices, output, SC_ERROR, Collections.emptyMap(),
+      response = buildResponse(SC_ERROR, Collections.emptyMap(),
           new ApiResponseError("Internal Server Error"));
+    } finally {
+      flushCacheService(logger, awsServices);
+    }
+
+    return response;
+  }
+
+  /**
+   * Wait for the {@link CacheService} pending writes, so cached values are available to other
+   * instances once the response is returned. A failed flush is logged and does not replace the
+   * response.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param awsServices {@link AwsServiceCache}
+   */
+  private void flushCacheService(final LambdaLogger logger, final AwsServiceCache awsServices) {
+    if (awsServices.containsExtension(CacheService.class)) {
+      try {
+        awsServices.getExtension(CacheService.class).flush();
+      } catch (RuntimeException e) {
+        logError(logger, e);
+      }
     }
   }
 
@@ -664,6 +746,25 @@ public abstract class AbstractRestApiRequestHandler implements RequestStreamHand
     return awsServices.getExtensions(ApiAuthorizationInterceptor.class);
   }
 
+  /**
+   * Convert {@link ApiGatewayResponse} to the API Gateway Lambda proxy response {@link Map}.
+   * 
+   * @param response {@link ApiGatewayResponse}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toMap(final ApiGatewayResponse response) {
+
+    Map<String, Object> map = new HashMap<>();
+    map.put("statusCode", Integer.valueOf(response.getStatusCode()));
+
+    if (response.getBody() != null) {
+      map.put("body", response.getBody());
+    }
+
+    map.put("headers", response.getHeaders());
+    return map;
+  }
+
   private String toStringFromMap(final Map<String, String> map) {
     return map != null
         ? map.entrySet().stream().map(e -> String.format("\"%s\":\"%s\"", e.getKey(), e.getValue()))
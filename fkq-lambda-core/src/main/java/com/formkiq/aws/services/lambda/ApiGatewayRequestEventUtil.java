@@ -33,6 +33,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.DynamicObject;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
@@ -79,6 +80,7 @@ public interface ApiGatewayRequestEventUtil {
 
       String json = cacheService.read(q.get("previous"));
       current = gson.fromJson(json, ApiPagination.class);
+      current.setNext(q.get("previous"));
 
     } else {
 
@@ -89,7 +91,16 @@ public interface ApiGatewayRequestEventUtil {
       current.setStartkey(token);
       current.setHasNext(token != null);
 
-      cacheService.write(current.getNext(), gson.toJson(current), 1);
+      current.setNext(null);
+      String json = gson.toJson(current);
+      String key = cacheService.encode(json, 1);
+
+      if (key != null) {
+        current.setNext(key);
+      } else {
+        current.setNext(UUID.randomUUID().toString());
+        cacheService.write(current.getNext(), json, 1);
+      }
     }
 
     return current;
@@ -396,6 +407,7 @@ public interface ApiGatewayRequestEventUtil {
       if (isNotBlank(json)) {
         Gson gson = GsonUtil.getInstance();
         pagination = gson.fromJson(json, ApiPagination.class);
+        pagination.setNext(key);
       }
     }
 
@@ -66,6 +66,15 @@ public class ApiPagination {
     return this.next;
   }
 
+  /**
+   * Set Next Token.
+   * 
+   * @param token {@link String}
+   */
+  public void setNext(final String token) {
+    this.next = token;
+  }
+
   /**
    * Get Previous Token.
    * 
@@ -0,0 +1,82 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.util.Map;
+
+/**
+ * 
+ * {@link ApiRoutes} matched route.
+ *
+ */
+public class ApiRouteMatch {
+
+  /** {@link ApiGatewayRequestHandler}. */
+  private ApiGatewayRequestHandler handler;
+  /** Path Parameters. */
+  private Map<String, String> pathParameters;
+  /** Resource template. */
+  private String resource;
+
+  /**
+   * constructor.
+   * 
+   * @param routeResource {@link String}
+   * @param routeHandler {@link ApiGatewayRequestHandler}
+   * @param parameters {@link Map}
+   */
+  public ApiRouteMatch(final String routeResource, final ApiGatewayRequestHandler routeHandler,
+      final Map<String, String> parameters) {
+    this.resource = routeResource;
+    this.handler = routeHandler;
+    this.pathParameters = parameters;
+  }
+
+  /**
+   * Get {@link ApiGatewayRequestHandler}.
+   * 
+   * @return {@link ApiGatewayRequestHandler}
+   */
+  public ApiGatewayRequestHandler getHandler() {
+    return this.handler;
+  }
+
+  /**
+   * Get Path Parameters.
+   * 
+   * @return {@link Map}
+   */
+  public Map<String, String> getPathParameters() {
+    return this.pathParameters;
+  }
+
+  /**
+   * Get Resource template, ie: /documents/{documentId}.
+   * 
+   * @return {@link String}
+   */
+  public String getResource() {
+    return this.resource;
+  }
+}
@@ -0,0 +1,200 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 
+ * Route table of API resource templates, ie: /documents/{documentId}, compiled once into a
+ * segment trie. Literal segments take precedence over {param} segments, and a request path is
+ * matched and its path parameters extracted in a single pass.
+ *
+ */
+public class ApiRoutes {
+
+  /**
+   * Trie Node.
+   */
+  private static class Node {
+    /** {@link ApiGatewayRequestHandler} of the resource ending at this node. */
+    private ApiGatewayRequestHandler handler;
+    /** Literal segment children. */
+    private Map<String, Node> literals = new HashMap<>();
+    /** {param} segment child. */
+    private Node parameter;
+    /** Parameter names of the resource ending at this node. */
+    private List<String> parameterNames;
+    /** Resource template ending at this node. */
+    private String resource;
+  }
+
+  /**
+   * Is segment a {param} segment.
+   * 
+   * @param segment {@link String}
+   * @return boolean
+   */
+  private static boolean isParameter(final String segment) {
+    return segment.length() > 1 && segment.startsWith("{") && segment.endsWith("}");
+  }
+
+  /** Root {@link Node}. */
+  private Node root = new Node();
+  /** Number of Url Map entries the routes were built from. */
+  private int size;
+
+  /**
+   * constructor.
+   * 
+   * @param urlMap {@link Map} of resource template to {@link ApiGatewayRequestHandler}
+   */
+  public ApiRoutes(final Map<String, ApiGatewayRequestHandler> urlMap) {
+    this.size = urlMap.size();
+    for (Map.Entry<String, ApiGatewayRequestHandler> e : urlMap.entrySet()) {
+      if (e.getKey() != null) {
+        add(e.getKey(), e.getValue());
+      }
+    }
+  }
+
+  /**
+   * Add Route.
+   * 
+   * @param resource {@link String}
+   * @param handler {@link ApiGatewayRequestHandler}
+   */
+  private void add(final String resource, final ApiGatewayRequestHandler handler) {
+
+    Node node = this.root;
+    List<String> names = new ArrayList<>();
+
+    for (String segment : resource.split("/")) {
+
+      if (isParameter(segment)) {
+
+        names.add(segment.substring(1, segment.length() - 1));
+
+        if (node.parameter == null) {
+          node.parameter = new Node();
+        }
+
+        node = node.parameter;
+
+      } else {
+        node = node.literals.computeIfAbsent(segment, s -> new Node());
+      }
+    }
+
+    node.resource = resource;
+    node.handler = handler;
+    node.parameterNames = names;
+  }
+
+  /**
+   * Find the route matching a request path.
+   * 
+   * @param path {@link String}
+   * @return {@link ApiRouteMatch}, null if no route matches
+   */
+  public ApiRouteMatch find(final String path) {
+
+    String p = path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1)
+        : path;
+
+    List<String> values = new ArrayList<>();
+    Node node = match(this.root, p, 0, values);
+
+    ApiRouteMatch routeMatch = null;
+
+    if (node != null) {
+
+      Map<String, String> parameters = values.isEmpty() ? Collections.emptyMap() : new HashMap<>();
+      for (int i = 0; i < values.size(); i++) {
+        parameters.put(node.parameterNames.get(i), values.get(i));
+      }
+
+      routeMatch = new ApiRouteMatch(node.resource, node.handler, parameters);
+    }
+
+    return routeMatch;
+  }
+
+  /**
+   * Match the path segment starting at an index, trying the literal child before the {param}
+   * child.
+   * 
+   * @param node {@link Node}
+   * @param path {@link String}
+   * @param start int
+   * @param values {@link List} of matched {param} values
+   * @return {@link Node}
+   */
+  private Node match(final Node node, final String path, final int start,
+      final List<String> values) {
+
+    Node found = null;
+
+    if (start > path.length()) {
+
+      found = node.resource != null ? node : null;
+
+    } else {
+
+      int pos = path.indexOf('/', start);
+      int end = pos > -1 ? pos : path.length();
+      String segment = path.substring(start, end);
+
+      Node literal = node.literals.get(segment);
+      if (literal != null) {
+        found = match(literal, path, end + 1, values);
+      }
+
+      if (found == null && node.parameter != null && !segment.isEmpty()) {
+
+        values.add(segment);
+        found = match(node.parameter, path, end + 1, values);
+
+        if (found == null) {
+          values.remove(values.size() - 1);
+        }
+      }
+    }
+
+    return found;
+  }
+
+  /**
+   * Number of Url Map entries the routes were built from.
+   * 
+   * @return int
+   */
+  public int size() {
+    return this.size;
+  }
+}
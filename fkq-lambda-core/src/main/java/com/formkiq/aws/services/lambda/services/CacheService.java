@@ -31,6 +31,24 @@ import java.util.Date;
  */
 public interface CacheService {
 
+  /**
+   * Encode a value into a self-contained key, that can be read without being written to the cache.
+   * 
+   * @param value {@link String}
+   * @param cacheInDays int
+   * @return {@link String} key or null if encoding is not supported
+   */
+  default String encode(final String value, final int cacheInDays) {
+    return null;
+  }
+
+  /**
+   * Wait for any pending writes to complete.
+   */
+  default void flush() {
+    // empty
+  }
+
   /**
    * Get Cache Key Expiry Date.
    * 
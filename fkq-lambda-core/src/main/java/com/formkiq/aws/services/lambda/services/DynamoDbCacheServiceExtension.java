@@ -23,13 +23,16 @@
  */
 package com.formkiq.aws.services.lambda.services;
 
+import java.nio.charset.StandardCharsets;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceExtension;
 
 /**
  * 
- * {@link AwsServiceExtension} for {@link DynamoDbCacheService}.
+ * {@link AwsServiceExtension} for {@link DynamoDbCacheService}. The {@link DynamoDbCacheService}
+ * is fronted by a {@link TieredCacheService} and, when the 'PAGINATION_TOKEN_SECRET' environment
+ * variable is set, by a {@link SignedTokenCacheService}.
  *
  */
 public class DynamoDbCacheServiceExtension implements AwsServiceExtension<CacheService> {
@@ -47,8 +50,16 @@ public class DynamoDbCacheServiceExtension implements AwsServiceExtension<CacheS
     if (this.service == null) {
       DynamoDbConnectionBuilder connection =
           awsServiceCache.getExtension(DynamoDbConnectionBuilder.class);
-      this.service =
-          new DynamoDbCacheService(connection, awsServiceCache.environment("CACHE_TABLE"));
+
+      CacheService cache = new TieredCacheService(
+          new DynamoDbCacheService(connection, awsServiceCache.environment("CACHE_TABLE")),
+          TieredCacheService.DEFAULT_MAX_SIZE, TieredCacheService.DEFAULT_TTL, true);
+
+      String secret = awsServiceCache.environment("PAGINATION_TOKEN_SECRET");
+      this.service = secret != null && !secret.isEmpty()
+          ? new SignedTokenCacheService(cache, secret.getBytes(StandardCharsets.UTF_8),
+              SignedTokenCacheService.DEFAULT_MAX_KEY_LENGTH)
+          : cache;
     }
 
     return this.service;
@@ -0,0 +1,270 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda.services;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Date;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * 
+ * {@link CacheService} that encodes values into signed, compressed, stateless keys, so they can be
+ * read back without touching the underlying {@link CacheService}. Values that encode into a key
+ * longer than the max key length and all other keys are stored in the underlying
+ * {@link CacheService}.
+ *
+ */
+public class SignedTokenCacheService implements CacheService {
+
+  /** Default Max Key Length. */
+  public static final int DEFAULT_MAX_KEY_LENGTH = 2048;
+  /** Buffer Size. */
+  private static final int BUFFER_SIZE = 1024;
+  /** HMAC Algorithm. */
+  private static final String HMAC = "HmacSHA256";
+  /** Token Prefix. */
+  private static final String PREFIX = "s1.";
+  /** Token Parts Delimiter. */
+  private static final String DELIMITER = ".";
+
+  /**
+   * Deflate bytes.
+   * 
+   * @param data byte[]
+   * @return byte[]
+   */
+  private static byte[] deflate(final byte[] data) {
+    Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!deflater.finished()) {
+        os.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return os.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Inflate bytes.
+   * 
+   * @param data byte[]
+   * @return byte[]
+   * @throws DataFormatException DataFormatException
+   */
+  private static byte[] inflate(final byte[] data) throws DataFormatException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(data);
+
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (!inflater.finished()) {
+        int len = inflater.inflate(buffer);
+        if (len == 0 && inflater.needsInput()) {
+          throw new DataFormatException("truncated data");
+        }
+        os.write(buffer, 0, len);
+      }
+      return os.toByteArray();
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /** Underlying {@link CacheService}. */
+  private final CacheService delegate;
+  /** Max Key Length. */
+  private final int maxKeyLength;
+  /** {@link SecretKeySpec}. */
+  private final SecretKeySpec secretKey;
+
+  /**
+   * constructor.
+   * 
+   * @param cacheService {@link CacheService}
+   * @param secret byte[]
+   * @param maxLength int
+   */
+  public SignedTokenCacheService(final CacheService cacheService, final byte[] secret,
+      final int maxLength) {
+
+    if (secret == null || secret.length == 0) {
+      throw new IllegalArgumentException("secret is required");
+    }
+
+    this.delegate = cacheService;
+    this.secretKey = new SecretKeySpec(secret, HMAC);
+    this.maxKeyLength = maxLength;
+  }
+
+  /**
+   * Decode a signed key.
+   * 
+   * @param key {@link String}
+   * @return {@link Decoded} or null if the key is invalid or expired
+   */
+  private Decoded decode(final String key) {
+
+    Decoded decoded = null;
+    int pos = key.lastIndexOf(DELIMITER);
+
+    if (pos > PREFIX.length()) {
+
+      String payload = key.substring(PREFIX.length(), pos);
+
+      try {
+        byte[] signature = Base64.getUrlDecoder().decode(key.substring(pos + 1));
+
+        if (MessageDigest.isEqual(sign(payload), signature)) {
+
+          String s = new String(inflate(Base64.getUrlDecoder().decode(payload)),
+              StandardCharsets.UTF_8);
+          int nl = s.indexOf('\n');
+          Instant expires = Instant.ofEpochSecond(Long.parseLong(s.substring(0, nl)));
+
+          if (Instant.now().isBefore(expires)) {
+            decoded = new Decoded(s.substring(nl + 1), Date.from(expires));
+          }
+        }
+
+      } catch (IllegalArgumentException | DataFormatException | StringIndexOutOfBoundsException e) {
+        decoded = null;
+      }
+    }
+
+    return decoded;
+  }
+
+  @Override
+  public String encode(final String value, final int cacheInDays) {
+
+    long expires = Instant.now().plus(cacheInDays, ChronoUnit.DAYS).getEpochSecond();
+    byte[] data = (expires + "\n" + value).getBytes(StandardCharsets.UTF_8);
+
+    String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(deflate(data));
+    String key = PREFIX + payload + DELIMITER
+        + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(payload));
+
+    return key.length() <= this.maxKeyLength ? key : null;
+  }
+
+  @Override
+  public void flush() {
+    this.delegate.flush();
+  }
+
+  @Override
+  public Date getExpiryDate(final String key) {
+
+    Date date = null;
+
+    if (isSigned(key)) {
+      Decoded decoded = decode(key);
+      date = decoded != null ? decoded.expires : null;
+    } else {
+      date = this.delegate.getExpiryDate(key);
+    }
+
+    return date;
+  }
+
+  private boolean isSigned(final String key) {
+    return key != null && key.startsWith(PREFIX);
+  }
+
+  @Override
+  public String read(final String key) {
+
+    String value = null;
+
+    if (isSigned(key)) {
+      Decoded decoded = decode(key);
+      value = decoded != null ? decoded.value : null;
+    } else {
+      value = this.delegate.read(key);
+    }
+
+    return value;
+  }
+
+  /**
+   * Sign payload.
+   * 
+   * @param payload {@link String}
+   * @return byte[]
+   */
+  private byte[] sign(final String payload) {
+    try {
+      Mac mac = Mac.getInstance(HMAC);
+      mac.init(this.secretKey);
+      return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void write(final String key, final String value, final int cacheInDays) {
+    this.delegate.write(key, value, cacheInDays);
+  }
+
+  /**
+   * Decoded Key.
+   */
+  private static class Decoded {
+
+    /** Expiry {@link Date}. */
+    private final Date expires;
+    /** Value. */
+    private final String value;
+
+    /**
+     * constructor.
+     * 
+     * @param decodedValue {@link String}
+     * @param expiryDate {@link Date}
+     */
+    Decoded(final String decodedValue, final Date expiryDate) {
+      this.value = decodedValue;
+      this.expires = expiryDate;
+    }
+  }
+}
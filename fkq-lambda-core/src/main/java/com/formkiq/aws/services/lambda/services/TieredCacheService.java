@@ -0,0 +1,238 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda.services;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 
+ * {@link CacheService} with a size bounded, time to live, in-memory L1 cache in front of another
+ * {@link CacheService}. Writes go to the L1 cache and are written behind to the underlying
+ * {@link CacheService}; {@link #flush()} waits for them to complete.
+ *
+ */
+public class TieredCacheService implements CacheService {
+
+  /** Default Max L1 Entries. */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  /** Default L1 Time To Live. */
+  public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+  /** Initial Capacity. */
+  private static final int INITIAL_CAPACITY = 16;
+  /** Load Factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /** Underlying {@link CacheService}. */
+  private final CacheService delegate;
+  /** L1 Entries in access order. */
+  private final LinkedHashMap<String, Entry> entries;
+  /** Number of L1 hits. */
+  private final AtomicLong hits = new AtomicLong();
+  /** Number of L1 misses. */
+  private final AtomicLong misses = new AtomicLong();
+  /** Pending write behind. */
+  private final List<Future<?>> pending = new ArrayList<>();
+  /** L1 Time To Live in milliseconds. */
+  private final long ttl;
+  /** Write behind {@link ExecutorService}, null to write through. */
+  private final ExecutorService writer;
+
+  /**
+   * constructor.
+   * 
+   * @param cacheService {@link CacheService}
+   * @param maxSize int
+   * @param timeToLive {@link Duration}
+   * @param writeBehind boolean
+   */
+  public TieredCacheService(final CacheService cacheService, final int maxSize,
+      final Duration timeToLive, final boolean writeBehind) {
+
+    this.delegate = cacheService;
+    this.ttl = timeToLive.toMillis();
+    this.writer = writeBehind ? Executors.newSingleThreadExecutor(r -> {
+      Thread t = new Thread(r, "cache-write-behind");
+      t.setDaemon(true);
+      return t;
+    }) : null;
+
+    this.entries = new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  @Override
+  public String encode(final String value, final int cacheInDays) {
+    return this.delegate.encode(value, cacheInDays);
+  }
+
+  @Override
+  public void flush() {
+
+    List<Future<?>> list;
+    synchronized (this.pending) {
+      list = new ArrayList<>(this.pending);
+      this.pending.clear();
+    }
+
+    try {
+      for (Future<?> future : list) {
+        future.get();
+      }
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+          : new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    }
+
+    this.delegate.flush();
+  }
+
+  private synchronized Entry getEntry(final String key) {
+
+    Entry entry = this.entries.get(key);
+
+    if (entry != null && System.currentTimeMillis() > entry.expires) {
+      this.entries.remove(key);
+      entry = null;
+    }
+
+    return entry;
+  }
+
+  @Override
+  public Date getExpiryDate(final String key) {
+    Entry entry = getEntry(key);
+    return entry != null && entry.expiryDate != null ? entry.expiryDate
+        : this.delegate.getExpiryDate(key);
+  }
+
+  /**
+   * Number of L1 hits.
+   * 
+   * @return long
+   */
+  public long hits() {
+    return this.hits.get();
+  }
+
+  /**
+   * Number of L1 misses.
+   * 
+   * @return long
+   */
+  public long misses() {
+    return this.misses.get();
+  }
+
+  private synchronized void put(final String key, final String value, final Date expiryDate) {
+    long now = System.currentTimeMillis();
+    long expires = expiryDate != null ? Math.min(now + this.ttl, expiryDate.getTime())
+        : now + this.ttl;
+    this.entries.put(key, new Entry(value, expiryDate, expires));
+  }
+
+  @Override
+  public String read(final String key) {
+
+    Entry entry = getEntry(key);
+    String value = null;
+
+    if (entry != null) {
+      this.hits.incrementAndGet();
+      value = entry.value;
+    } else {
+      this.misses.incrementAndGet();
+      value = this.delegate.read(key);
+
+      if (value != null) {
+        put(key, value, null);
+      }
+    }
+
+    return value;
+  }
+
+  @Override
+  public void write(final String key, final String value, final int cacheInDays) {
+
+    Date expiryDate =
+        Date.from(ZonedDateTime.now(ZoneOffset.UTC).plusDays(cacheInDays).toInstant());
+    put(key, value, expiryDate);
+
+    if (this.writer != null) {
+      Future<?> future = this.writer.submit(() -> this.delegate.write(key, value, cacheInDays));
+      synchronized (this.pending) {
+        this.pending.add(future);
+      }
+    } else {
+      this.delegate.write(key, value, cacheInDays);
+    }
+  }
+
+  /**
+   * L1 Cache Entry.
+   */
+  private static class Entry {
+
+    /** Underlying cache expiry date. */
+    private final Date expiryDate;
+    /** L1 expiry in milliseconds. */
+    private final long expires;
+    /** Cached Value. */
+    private final String value;
+
+    /**
+     * constructor.
+     * 
+     * @param cacheValue {@link String}
+     * @param date {@link Date}
+     * @param expiresMillis long
+     */
+    Entry(final String cacheValue, final Date date, final long expiresMillis) {
+      this.value = cacheValue;
+      this.expiryDate = date;
+      this.expires = expiresMillis;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.aws.services.lambda.services.CacheService;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.testutils.aws.LambdaContextRecorder;
+import com.formkiq.testutils.aws.LambdaLoggerRecorder;
+
+/**
+ * Unit Tests for {@link AbstractRestApiRequestHandler}.
+ */
+public class AbstractRestApiRequestHandlerTest {
+
+  /**
+   * {@link CacheService} that fails to flush.
+   */
+  private static class FailingFlushCacheService implements CacheService {
+
+    @Override
+    public void flush() {
+      throw new IllegalStateException("flush failed");
+    }
+
+    @Override
+    public Date getExpiryDate(final String key) {
+      return null;
+    }
+
+    @Override
+    public String read(final String key) {
+      return null;
+    }
+
+    @Override
+    public void write(final String key, final String value, final int cacheInDays) {
+      // empty
+    }
+  }
+
+  /**
+   * Create {@link AbstractRestApiRequestHandler}.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @return {@link AbstractRestApiRequestHandler}
+   */
+  private AbstractRestApiRequestHandler createHandler(final AwsServiceCache awsServices) {
+    return new AbstractRestApiRequestHandler() {
+
+      @Override
+      public AwsServiceCache getAwsServices() {
+        return awsServices;
+      }
+
+      @Override
+      public Map<String, ApiGatewayRequestHandler> getUrlMap() {
+        return Collections.emptyMap();
+      }
+
+      @Override
+      public void handleSqsRequest(final LambdaLogger logger, final AwsServiceCache services,
+          final LambdaInputRecord record) {
+        // empty
+      }
+    };
+  }
+
+  /**
+   * Test a {@link CacheService} flush failure does not replace the response.
+   */
+  @Test
+  public void testHandleRequest01() {
+    // given
+    AwsServiceCache awsServices = new AwsServiceCache();
+    awsServices.register(CacheService.class, s -> new FailingFlushCacheService());
+
+    ApiGatewayRequestEvent event = new ApiGatewayRequestEvent();
+    event.setHttpMethod("GET");
+    event.setPath("/unknown");
+    event.setResource("/unknown");
+
+    LambdaContextRecorder context = new LambdaContextRecorder();
+
+    // when
+    ApiGatewayResponse response = createHandler(awsServices).handleRequest(event, context);
+
+    // then
+    final int notFound = 404;
+    assertEquals(notFound, response.getStatusCode());
+    assertTrue(response.getBody().contains("/unknown request handler not found"));
+    assertTrue(((LambdaLoggerRecorder) context.getLogger()).containsString("flush failed"));
+  }
+}
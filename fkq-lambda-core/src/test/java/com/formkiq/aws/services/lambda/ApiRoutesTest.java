@@ -0,0 +1,107 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.aws.services.lambda;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 
+ * Unit Test for {@link ApiRoutes}.
+ *
+ */
+class ApiRoutesTest {
+
+  /**
+   * Create {@link ApiRoutes}.
+   * 
+   * @param resources {@link String}
+   * @return {@link ApiRoutes}
+   */
+  private ApiRoutes createRoutes(final String... resources) {
+    Map<String, ApiGatewayRequestHandler> urlMap = new HashMap<>();
+    Arrays.asList(resources).forEach(r -> urlMap.put(r, () -> r));
+    return new ApiRoutes(urlMap);
+  }
+
+  /**
+   * Match literal and parameter routes.
+   */
+  @Test
+  void testFind01() {
+    // given
+    ApiRoutes routes = createRoutes("/documents", "/documents/{documentId}",
+        "/documents/{documentId}/tags/{tagKey}");
+
+    // when
+    ApiRouteMatch m0 = routes.find("/documents");
+    ApiRouteMatch m1 = routes.find("/documents/123");
+    ApiRouteMatch m2 = routes.find("/documents/123/tags/category");
+    ApiRouteMatch m3 = routes.find("/documents/123/tags");
+    ApiRouteMatch m4 = routes.find("/sites");
+
+    // then
+    assertEquals("/documents", m0.getResource());
+    assertEquals("/documents", m0.getHandler().getRequestUrl());
+    assertEquals(0, m0.getPathParameters().size());
+
+    assertEquals("/documents/{documentId}", m1.getResource());
+    assertEquals(Map.of("documentId", "123"), m1.getPathParameters());
+
+    assertEquals("/documents/{documentId}/tags/{tagKey}", m2.getResource());
+    assertEquals(Map.of("documentId", "123", "tagKey", "category"), m2.getPathParameters());
+
+    assertNull(m3);
+    assertNull(m4);
+  }
+
+  /**
+   * Literal segments take precedence, falling back to parameter segments.
+   */
+  @Test
+  void testFind02() {
+    // given
+    ApiRoutes routes = createRoutes("/documents/{documentId}", "/documents/upload",
+        "/documents/{documentId}/content");
+
+    // when
+    ApiRouteMatch m0 = routes.find("/documents/upload");
+    ApiRouteMatch m1 = routes.find("/documents/upload/content");
+    ApiRouteMatch m2 = routes.find("/documents/123/");
+
+    // then
+    assertEquals("/documents/upload", m0.getResource());
+    assertEquals(0, m0.getPathParameters().size());
+
+    assertEquals("/documents/{documentId}/content", m1.getResource());
+    assertEquals(Map.of("documentId", "upload"), m1.getPathParameters());
+
+    assertEquals("/documents/{documentId}", m2.getResource());
+    assertEquals(Map.of("documentId", "123"), m2.getPathParameters());
+  }
+}
@@ -24,7 +24,11 @@
 package com.formkiq.aws.services.lambda;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.Date;
@@ -34,10 +38,15 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import com.formkiq.aws.services.lambda.services.CacheService;
 import com.formkiq.aws.services.lambda.services.DynamoDbCacheService;
+import com.formkiq.aws.services.lambda.services.SignedTokenCacheService;
+import com.formkiq.aws.services.lambda.services.TieredCacheService;
 import com.formkiq.testutils.aws.DynamoDbExtension;
 import com.formkiq.testutils.aws.DynamoDbTestServices;
 
-/** Unit Tests for {@link DynamoDbCacheService}. */
+/**
+ * Unit Tests for {@link DynamoDbCacheService}, {@link TieredCacheService} and
+ * {@link SignedTokenCacheService}.
+ */
 @ExtendWith(DynamoDbExtension.class)
 public class DynamoDbCacheServiceTest {
 
@@ -81,4 +90,92 @@ public class DynamoDbCacheServiceTest {
     assertTrue(before.before(date));
     assertTrue(after.after(date));
   }
+
+  /**
+   * Test Write behind to Cache.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testWrite02() throws Exception {
+    // given
+    final int maxSize = 10;
+    TieredCacheService tiered =
+        new TieredCacheService(this.service, maxSize, Duration.ofMinutes(1), true);
+
+    String key = UUID.randomUUID().toString();
+    String value = UUID.randomUUID().toString();
+
+    // when
+    tiered.write(key, value, 1);
+
+    // then
+    assertEquals(value, tiered.read(key));
+    assertEquals(1, tiered.hits());
+    assertEquals(0, tiered.misses());
+
+    tiered.flush();
+    assertEquals(value, this.service.read(key));
+
+    assertNull(tiered.read(UUID.randomUUID().toString()));
+    assertEquals(1, tiered.misses());
+  }
+
+  /**
+   * Test Encode signed keys.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testEncode01() throws Exception {
+    // given
+    CacheService signed = new SignedTokenCacheService(this.service,
+        "secret".getBytes(StandardCharsets.UTF_8), SignedTokenCacheService.DEFAULT_MAX_KEY_LENGTH);
+    CacheService other = new SignedTokenCacheService(this.service,
+        "other".getBytes(StandardCharsets.UTF_8), SignedTokenCacheService.DEFAULT_MAX_KEY_LENGTH);
+
+    String value = "{\"limit\":10,\"startkey\":{\"PK\":\"docs#" + UUID.randomUUID() + "\"}}";
+
+    // when
+    String key = signed.encode(value, 1);
+
+    // then
+    assertNotNull(key);
+    assertEquals(value, signed.read(key));
+    assertNotNull(signed.getExpiryDate(key));
+    assertNull(this.service.read(key));
+
+    assertNull(other.read(key));
+    assertNull(signed.read(key.substring(0, key.length() - 2) + "AA"));
+    assertNull(signed.read(key.replace(".", "x")));
+  }
+
+  /**
+   * Test Encode values longer than max key length.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testEncode02() throws Exception {
+    // given
+    final int maxLength = 64;
+    CacheService signed = new SignedTokenCacheService(this.service,
+        "secret".getBytes(StandardCharsets.UTF_8), maxLength);
+
+    StringBuilder sb = new StringBuilder();
+    final int count = 10;
+    for (int i = 0; i < count; i++) {
+      sb.append(UUID.randomUUID());
+    }
+
+    String key = UUID.randomUUID().toString();
+
+    // when
+    String encoded = signed.encode(sb.toString(), 1);
+    signed.write(key, sb.toString(), 1);
+
+    // then
+    assertNull(encoded);
+    assertEquals(sb.toString(), signed.read(key));
+  }
 }
@@ -0,0 +1,135 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.testutils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local {@link HttpServer} for Http client tests, with a "/slow" endpoint that responds after
+ * {@link #SLOW_MS}.
+ */
+public class TestHttpServer {
+
+  /** Slow request time. */
+  public static final long SLOW_MS = 2000L;
+  /** Short request timeout, that "/slow" requests exceed. */
+  public static final Duration SHORT_TIMEOUT = Duration.ofMillis(200);
+
+  /**
+   * Send response.
+   * 
+   * @param exchange {@link HttpExchange}
+   * @param body {@link String}
+   * @throws IOException IOException
+   */
+  public static void respond(final HttpExchange exchange, final String body)
+      throws IOException {
+    final int ok = 200;
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(ok, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+
+  /**
+   * Sleep.
+   * 
+   * @param ms long
+   */
+  public static void sleep(final long ms) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /** {@link ExecutorService}. */
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  /** {@link HttpServer}. */
+  private final HttpServer server;
+
+  /**
+   * constructor.
+   * 
+   * @throws IOException IOException
+   */
+  public TestHttpServer() throws IOException {
+    this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.server.setExecutor(this.executor);
+
+    createContext("/slow", e -> {
+      sleep(SLOW_MS);
+      respond(e, "slow");
+    });
+  }
+
+  /**
+   * Add a request handler.
+   * 
+   * @param path {@link String}
+   * @param handler {@link HttpHandler}
+   * @return {@link TestHttpServer}
+   */
+  public TestHttpServer createContext(final String path, final HttpHandler handler) {
+    this.server.createContext(path, handler);
+    return this;
+  }
+
+  /**
+   * Get Server Url.
+   * 
+   * @return {@link String}
+   */
+  public String getUrl() {
+    return "http://localhost:" + this.server.getAddress().getPort();
+  }
+
+  /**
+   * Start the server.
+   * 
+   * @return {@link TestHttpServer}
+   */
+  public TestHttpServer start() {
+    this.server.start();
+    return this;
+  }
+
+  /**
+   * Stop the server.
+   */
+  public void stop() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+}
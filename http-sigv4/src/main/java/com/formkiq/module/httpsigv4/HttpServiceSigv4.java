@@ -29,9 +29,11 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Path;
 import java.time.Duration;
@@ -39,6 +41,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import com.formkiq.module.http.HttpHeaders;
 import com.formkiq.module.http.HttpService;
@@ -59,6 +62,13 @@ public class HttpServiceSigv4 implements HttpService {
   /** Headers that are not allowed to be added to {@link HttpClient}. */
   private static final Set<String> NOT_ALLOWED_HEADERS = Set.of("connection", "content-length",
       "date", "expect", "from", "host", "upgrade", "via", "warning");
+  /** Connect Timeout. */
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  /** Default Request Timeout. */
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+  /** {@link HttpClient} shared by instances without their own {@link Executor}. */
+  private static final HttpClient SHARED_CLIENT =
+      HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).build();
 
   /** {@link HttpClient}. */
   private HttpClient client;
@@ -66,6 +76,8 @@ public class HttpServiceSigv4 implements HttpService {
   private AwsCredentials signingCredentials;
   /** {@link Region}. */
   private Region signingRegion;
+  /** Default Request Timeout. */
+  private Duration timeout = DEFAULT_TIMEOUT;
 
   /**
    * constructor.
@@ -92,7 +104,7 @@ public class HttpServiceSigv4 implements HttpService {
    * @param awsCredentials {@link AwsCredentials}
    */
   public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials) {
-    this(HttpClient.newHttpClient(), region, awsCredentials);
+    this(SHARED_CLIENT, region, awsCredentials);
   }
 
   /**
@@ -104,7 +116,8 @@ public class HttpServiceSigv4 implements HttpService {
    */
   public HttpServiceSigv4(final Region region, final AwsCredentials awsCredentials,
       final Executor executor) {
-    this(HttpClient.newBuilder().executor(executor).build(), region, awsCredentials);
+    this(HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT).executor(executor).build(),
+        region, awsCredentials);
   }
 
   /**
@@ -161,41 +174,15 @@ public class HttpServiceSigv4 implements HttpService {
    * @param request {@link SdkHttpFullRequest}
    * @return {@link HttpResponse}
    * @throws IOException IOException
-   * @throws InterruptedException InterruptedException
    */
   private HttpResponse<String> execute(final SdkHttpFullRequest request) throws IOException {
 
-    Builder builder = HttpRequest.newBuilder().uri(request.getUri()).timeout(Duration.ofMinutes(1));
-
-    Map<String, List<String>> headers = request.headers();
-    for (Map.Entry<String, List<String>> e : headers.entrySet()) {
-
-      if (!NOT_ALLOWED_HEADERS.contains(e.getKey().toLowerCase())) {
-        String value = String.join(",", e.getValue());
-        builder = builder.setHeader(e.getKey(), value);
-      }
-    }
-
-    switch (request.method()) {
-      case GET:
-        builder = builder.GET();
-        break;
-      case POST:
-      case PUT:
-      case PATCH:
-        InputStream is = request.contentStreamProvider().get().newStream();
-        builder = builder.method(request.method().name(), BodyPublishers.ofInputStream(() -> is));
-        break;
-      case DELETE:
-        builder = builder.DELETE();
-        break;
-      default:
-        builder = builder.method(request.method().name(), HttpRequest.BodyPublishers.noBody());
-    }
+    HttpRequest req = toHttpRequest(request, Optional.empty());
 
     try {
-      return this.client.send(builder.build(), BodyHandlers.ofString());
+      return this.client.send(req, BodyHandlers.ofString());
     } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new IOException(e);
     }
   }
@@ -242,6 +229,28 @@ public class HttpServiceSigv4 implements HttpService {
     return execute(req);
   }
 
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(final String method, final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final Optional<String> payload, final BodyHandler<T> bodyHandler,
+      final Optional<Duration> requestTimeout) {
+
+    CompletableFuture<HttpResponse<T>> future;
+
+    try {
+
+      SdkHttpFullRequest.Builder request = buildRequest(url, SdkHttpMethod.fromValue(method),
+          headers, parameters, payload);
+      HttpRequest req = toHttpRequest(sign(request), requestTimeout);
+      future = this.client.sendAsync(req, bodyHandler);
+
+    } catch (IOException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+
+    return future;
+  }
+
   /**
    * AWS Signature Version 4 signing.
    * 
@@ -262,6 +271,73 @@ public class HttpServiceSigv4 implements HttpService {
     return req;
   }
 
+  /**
+   * Set the default request timeout.
+   * 
+   * @param requestTimeout {@link Duration}
+   * @return {@link HttpServiceSigv4}
+   */
+  public HttpServiceSigv4 timeout(final Duration requestTimeout) {
+    this.timeout = requestTimeout;
+    return this;
+  }
+
+  /**
+   * Convert {@link SdkHttpFullRequest} content to {@link BodyPublisher}.
+   * 
+   * @param request {@link SdkHttpFullRequest}
+   * @return {@link BodyPublisher}
+   */
+  private BodyPublisher toBodyPublisher(final SdkHttpFullRequest request) {
+    BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+    if (request.contentStreamProvider().isPresent()) {
+      InputStream is = request.contentStreamProvider().get().newStream();
+      body = BodyPublishers.ofInputStream(() -> is);
+    }
+    return body;
+  }
+
+  /**
+   * Convert signed {@link SdkHttpFullRequest} to {@link HttpRequest}. Cleartext requests use
+   * HTTP/1.1, so no HTTP/2 upgrade is attempted against servers that do not support it.
+   * 
+   * @param request {@link SdkHttpFullRequest}
+   * @param requestTimeout {@link Optional} {@link Duration}, empty for the default timeout
+   * @return {@link HttpRequest}
+   */
+  private HttpRequest toHttpRequest(final SdkHttpFullRequest request,
+      final Optional<Duration> requestTimeout) {
+
+    Builder builder = HttpRequest.newBuilder().uri(request.getUri())
+        .timeout(requestTimeout.orElse(this.timeout));
+
+    if ("http".equalsIgnoreCase(request.getUri().getScheme())) {
+      builder.version(HttpClient.Version.HTTP_1_1);
+    }
+
+    Map<String, List<String>> headers = request.headers();
+    for (Map.Entry<String, List<String>> e : headers.entrySet()) {
+
+      if (!NOT_ALLOWED_HEADERS.contains(e.getKey().toLowerCase())) {
+        String value = String.join(",", e.getValue());
+        builder = builder.setHeader(e.getKey(), value);
+      }
+    }
+
+    switch (request.method()) {
+      case GET:
+        builder = builder.GET();
+        break;
+      case DELETE:
+        builder = builder.DELETE();
+        break;
+      default:
+        builder = builder.method(request.method().name(), toBodyPublisher(request));
+    }
+
+    return builder.build();
+  }
+
   /**
    * Convert {@link String} to {@link URI}.
    * 
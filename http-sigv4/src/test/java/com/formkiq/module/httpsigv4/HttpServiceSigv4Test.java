@@ -0,0 +1,155 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.httpsigv4;
+
+import static com.formkiq.testutils.TestHttpServer.SHORT_TIMEOUT;
+import static com.formkiq.testutils.TestHttpServer.respond;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.formkiq.module.http.HttpService;
+import com.formkiq.testutils.TestHttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.regions.Region;
+
+/**
+ * Unit Tests for {@link HttpServiceSigv4}.
+ */
+public class HttpServiceSigv4Test {
+
+  /** {@link TestHttpServer}. */
+  private static TestHttpServer server;
+  /** Server Url. */
+  private static String url;
+
+  /**
+   * After All.
+   */
+  @AfterAll
+  public static void afterAll() {
+    server.stop();
+  }
+
+  /**
+   * Before All.
+   * 
+   * @throws IOException IOException
+   */
+  @BeforeAll
+  public static void beforeAll() throws IOException {
+
+    server = new TestHttpServer().createContext("/authorization",
+        e -> respond(e, String.valueOf(e.getRequestHeaders().getFirst("Authorization"))))
+        .start();
+
+    url = server.getUrl();
+  }
+
+  /**
+   * Create {@link HttpServiceSigv4}.
+   * 
+   * @return {@link HttpServiceSigv4}
+   */
+  private HttpServiceSigv4 createService() {
+    return new HttpServiceSigv4(Region.US_EAST_1, AwsBasicCredentials.create("key", "secret"));
+  }
+
+  /**
+   * Test the default request timeout is applied.
+   */
+  @Test
+  void testGet01() {
+    // given
+    HttpService service = createService().timeout(SHORT_TIMEOUT);
+
+    // when
+    IOException e = assertThrows(IOException.class,
+        () -> service.get(url + "/slow", Optional.empty(), Optional.empty()));
+
+    // then
+    assertTrue(e instanceof HttpTimeoutException);
+  }
+
+  /**
+   * Test getAsync sends a signed request.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetAsync01() throws Exception {
+    // given
+    HttpService service = createService();
+
+    // when
+    HttpResponse<String> response =
+        service.getAsync(url + "/authorization", Optional.empty(), Optional.empty()).get();
+
+    // then
+    assertTrue(response.body().startsWith("AWS4-HMAC-SHA256 Credential=key/"));
+  }
+
+  /**
+   * Test a request timeout passed to post overrides a shorter default timeout.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testPost01() throws Exception {
+    // given
+    HttpService service = createService().timeout(SHORT_TIMEOUT);
+
+    // when
+    HttpResponse<String> response = service.post(url + "/slow", Optional.empty(),
+        Optional.empty(), "data", Optional.of(Duration.ofMinutes(1)));
+
+    // then
+    assertEquals("slow", response.body());
+  }
+
+  /**
+   * Test sendAsync request timeout fails the future.
+   */
+  @Test
+  void testSendAsync01() {
+    // given
+    HttpService service = createService();
+
+    // when
+    Exception e = assertThrows(Exception.class,
+        () -> service.sendAsync("GET", url + "/slow", Optional.empty(), Optional.empty(),
+            Optional.empty(), BodyHandlers.ofString(), Optional.of(SHORT_TIMEOUT)).get());
+
+    // then
+    assertTrue(e.getCause() instanceof HttpTimeoutException);
+  }
+}
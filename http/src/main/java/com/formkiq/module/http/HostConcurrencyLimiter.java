@@ -0,0 +1,119 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * Limits the number of in flight requests to a single host. Requests over the limit are queued
+ * and started as earlier requests complete, so no thread is blocked waiting for a permit.
+ *
+ */
+class HostConcurrencyLimiter {
+
+  /** Available permits. */
+  private final Semaphore permits;
+  /** Requests waiting for a permit. */
+  private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+  /**
+   * constructor.
+   * 
+   * @param maxConcurrent int
+   */
+  HostConcurrencyLimiter(final int maxConcurrent) {
+    this.permits = new Semaphore(maxConcurrent);
+  }
+
+  /**
+   * Complete {@link CompletableFuture}.
+   * 
+   * @param <T> Type of result
+   * @param future {@link CompletableFuture}
+   * @param value T
+   * @param error {@link Throwable}
+   */
+  private static <T> void complete(final CompletableFuture<T> future, final T value,
+      final Throwable error) {
+    if (error != null) {
+      future.completeExceptionally(error);
+    } else {
+      future.complete(value);
+    }
+  }
+
+  /**
+   * Start as many waiting requests as there are permits available.
+   */
+  private void drain() {
+
+    while (!this.waiting.isEmpty() && this.permits.tryAcquire()) {
+
+      Runnable next = this.waiting.poll();
+
+      if (next != null) {
+        next.run();
+      } else {
+        this.permits.release();
+      }
+    }
+  }
+
+  /**
+   * Submit a request, which is started once a permit is available.
+   * 
+   * @param <T> Type of result
+   * @param request {@link Supplier} that starts the request
+   * @return {@link CompletableFuture}
+   */
+  <T> CompletableFuture<T> submit(final Supplier<CompletableFuture<T>> request) {
+
+    CompletableFuture<T> result = new CompletableFuture<>();
+
+    this.waiting.add(() -> {
+
+      try {
+
+        request.get().whenComplete((r, e) -> {
+          this.permits.release();
+          drain();
+          complete(result, r, e);
+        });
+
+      } catch (RuntimeException e) {
+        this.permits.release();
+        drain();
+        result.completeExceptionally(e);
+      }
+    });
+
+    drain();
+    return result;
+  }
+}
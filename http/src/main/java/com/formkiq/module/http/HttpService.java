@@ -25,9 +25,14 @@ package com.formkiq.module.http;
 
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 /**
  * 
@@ -60,6 +65,63 @@ public interface HttpService {
   HttpResponse<String> get(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters) throws IOException;
 
+  /**
+   * GET HTTP Request and return a {@link HttpResponse} using a {@link BodyHandler}, allowing the
+   * response to be streamed, ie: {@link BodyHandlers#ofInputStream()} or
+   * {@link BodyHandlers#ofFile(Path)}.
+   * 
+   * @param <T> Type of response body
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param bodyHandler {@link BodyHandler}
+   * @param timeout {@link Optional} {@link Duration}, empty for the default timeout
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  default <T> HttpResponse<T> get(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters, BodyHandler<T> bodyHandler,
+      Optional<Duration> timeout) throws IOException {
+
+    return join(
+        sendAsync("GET", url, headers, parameters, Optional.empty(), bodyHandler, timeout));
+  }
+
+  /**
+   * Asynchronous GET HTTP Request.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   */
+  default CompletableFuture<HttpResponse<String>> getAsync(String url,
+      Optional<HttpHeaders> headers, Optional<Map<String, String>> parameters) {
+    return sendAsync("GET", url, headers, parameters, Optional.empty(), BodyHandlers.ofString(),
+        Optional.empty());
+  }
+
+  /**
+   * Wait for an asynchronous request to complete.
+   * 
+   * @param <T> Type of response body
+   * @param future {@link CompletableFuture} {@link HttpResponse}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  private static <T> HttpResponse<T> join(final CompletableFuture<HttpResponse<T>> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    }
+  }
+
   /**
    * Patch HTTP Request and return a {@link HttpResponse}.
    * 
@@ -86,6 +148,40 @@ public interface HttpService {
   HttpResponse<String> post(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters, String payload) throws IOException;
 
+  /**
+   * Post HTTP Request with a request timeout, ie: for long running requests that exceed the
+   * default timeout.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link String}
+   * @param timeout {@link Optional} {@link Duration}, empty for the default timeout
+   * @return {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  default HttpResponse<String> post(String url, Optional<HttpHeaders> headers,
+      Optional<Map<String, String>> parameters, String payload, Optional<Duration> timeout)
+      throws IOException {
+    return join(sendAsync("POST", url, headers, parameters, Optional.ofNullable(payload),
+        BodyHandlers.ofString(), timeout));
+  }
+
+  /**
+   * Asynchronous POST HTTP Request.
+   * 
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link String}
+   * @return {@link CompletableFuture} {@link HttpResponse} {@link String}
+   */
+  default CompletableFuture<HttpResponse<String>> postAsync(String url,
+      Optional<HttpHeaders> headers, Optional<Map<String, String>> parameters, String payload) {
+    return sendAsync("POST", url, headers, parameters, Optional.ofNullable(payload),
+        BodyHandlers.ofString(), Optional.empty());
+  }
+
   /**
    * Put HTTP Request and return a {@link HttpResponse}.
    * 
@@ -111,4 +207,22 @@ public interface HttpService {
    */
   HttpResponse<String> put(String url, Optional<HttpHeaders> headers,
       Optional<Map<String, String>> parameters, String payload) throws IOException;
+
+  /**
+   * Send an asynchronous HTTP Request. I/O and request failures complete the returned
+   * {@link CompletableFuture} exceptionally.
+   * 
+   * @param <T> Type of response body
+   * @param method {@link String} HTTP method
+   * @param url {@link String}
+   * @param headers {@link HttpHeaders}
+   * @param parameters {@link Optional} {@link Map}
+   * @param payload {@link Optional} {@link String}
+   * @param bodyHandler {@link BodyHandler}
+   * @param timeout {@link Optional} {@link Duration}, empty for the default timeout
+   * @return {@link CompletableFuture} {@link HttpResponse}
+   */
+  <T> CompletableFuture<HttpResponse<T>> sendAsync(String method, String url,
+      Optional<HttpHeaders> headers, Optional<Map<String, String>> parameters,
+      Optional<String> payload, BodyHandler<T> bodyHandler, Optional<Duration> timeout);
 }
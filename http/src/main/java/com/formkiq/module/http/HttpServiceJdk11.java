@@ -24,6 +24,7 @@
 package com.formkiq.module.http;
 
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
@@ -33,11 +34,18 @@ import java.net.http.HttpRequest.BodyPublisher;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpRequest.Builder;
 import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandler;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 /**
@@ -47,14 +55,67 @@ import java.util.stream.Collectors;
  */
 public class HttpServiceJdk11 implements HttpService {
 
+  /** Connect Timeout. */
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  /** Default Request Timeout. */
+  private static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(1);
+  /** {@link HttpClient} shared by instances without their own {@link Executor}. */
+  private static final HttpClient SHARED_CLIENT = createClient(Optional.empty());
+
   /** {@link HttpClient}. */
   private HttpClient client;
+  /** {@link HostConcurrencyLimiter} by host. */
+  private Map<String, HostConcurrencyLimiter> hostLimiters = new ConcurrentHashMap<>();
+  /** Maximum concurrent requests per host, 0 for unlimited. */
+  private int maxRequestsPerHost = 0;
+  /** Default Request Timeout. */
+  private Duration timeout = DEFAULT_TIMEOUT;
+
+  /**
+   * Create {@link HttpClient}. Connections are pooled and HTTP/2 is negotiated on TLS connections,
+   * cleartext requests use HTTP/1.1 (see {@link #build(String, Optional, Optional)}).
+   * 
+   * @param executor {@link Optional} {@link Executor}
+   * @return {@link HttpClient}
+   */
+  private static HttpClient createClient(final Optional<Executor> executor) {
+    HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(CONNECT_TIMEOUT);
+    executor.ifPresent(builder::executor);
+    return builder.build();
+  }
+
+  /**
+   * Create {@link HttpServiceJdk11} running on a virtual thread per task {@link Executor} when
+   * the Java runtime supports virtual threads, otherwise on the shared {@link HttpClient}.
+   * 
+   * @return {@link HttpServiceJdk11}
+   */
+  public static HttpServiceJdk11 withVirtualThreads() {
+    Optional<Executor> executor = virtualThreadExecutor();
+    return executor.isPresent() ? new HttpServiceJdk11(executor.get()) : new HttpServiceJdk11();
+  }
+
+  /**
+   * Find the virtual thread per task {@link Executor}, available from Java 21.
+   * 
+   * @return {@link Optional} {@link Executor}
+   */
+  private static Optional<Executor> virtualThreadExecutor() {
+    Optional<Executor> executor;
+    try {
+      Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      executor = Optional.of((Executor) method.invoke(null));
+    } catch (ReflectiveOperationException e) {
+      executor = Optional.empty();
+    }
+    return executor;
+  }
 
   /**
    * constructor.
    */
   public HttpServiceJdk11() {
-    this.client = HttpClient.newHttpClient();
+    this.client = SHARED_CLIENT;
   }
 
   /**
@@ -63,11 +124,12 @@ public class HttpServiceJdk11 implements HttpService {
    * @param executor {@link Executor}
    */
   public HttpServiceJdk11(final Executor executor) {
-    this.client = HttpClient.newBuilder().executor(executor).build();
+    this.client = createClient(Optional.of(executor));
   }
 
   /**
-   * Build {@link Builder}.
+   * Build {@link Builder}. Cleartext requests use HTTP/1.1, so no HTTP/2 upgrade is attempted
+   * against servers that do not support it.
    * 
    * @param url {@link String}
    * @param headers {@link HttpHeaders}
@@ -86,7 +148,12 @@ public class HttpServiceJdk11 implements HttpService {
       u += "?" + q;
     }
 
-    Builder builder = HttpRequest.newBuilder().uri(toUri(u));
+    URI uri = toUri(u);
+    Builder builder = HttpRequest.newBuilder().uri(uri).timeout(this.timeout);
+
+    if ("http".equalsIgnoreCase(uri.getScheme())) {
+      builder.version(HttpClient.Version.HTTP_1_1);
+    }
 
     if (headers.isPresent()) {
       for (Map.Entry<String, String> e : headers.get().getAll().entrySet()) {
@@ -97,32 +164,61 @@ public class HttpServiceJdk11 implements HttpService {
     return builder;
   }
 
-  private String encode(final String s) {
-    return URLEncoder.encode(s, StandardCharsets.UTF_8);
-  }
-
   @Override
   public HttpResponse<String> delete(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters) throws IOException {
     HttpRequest request = build(url, headers, parameters).DELETE().build();
-    try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
+    return send(request);
+  }
+
+  private String encode(final String s) {
+    return URLEncoder.encode(s, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Send {@link HttpRequest}, limiting the number of concurrent requests per host when
+   * configured.
+   * 
+   * @param <T> Type of response body
+   * @param request {@link HttpRequest}
+   * @param bodyHandler {@link BodyHandler}
+   * @return {@link CompletableFuture} {@link HttpResponse}
+   */
+  private <T> CompletableFuture<HttpResponse<T>> execute(final HttpRequest request,
+      final BodyHandler<T> bodyHandler) {
+
+    CompletableFuture<HttpResponse<T>> future;
+
+    if (this.maxRequestsPerHost > 0) {
+      HostConcurrencyLimiter limiter = this.hostLimiters.computeIfAbsent(
+          request.uri().getAuthority(), h -> new HostConcurrencyLimiter(this.maxRequestsPerHost));
+      future = limiter.submit(() -> this.client.sendAsync(request, bodyHandler));
+    } else {
+      future = this.client.sendAsync(request, bodyHandler);
     }
+
+    return future;
   }
 
   @Override
   public HttpResponse<String> get(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters) throws IOException {
     HttpRequest request = build(url, headers, parameters).GET().build();
-    try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
-    }
+    return send(request);
   }
 
+  /**
+   * Set the maximum number of concurrent requests to a single host, 0 for unlimited. Requests
+   * over the limit wait, without blocking a thread, until an earlier request completes.
+   * 
+   * @param max int
+   * @return {@link HttpServiceJdk11}
+   */
+  public HttpServiceJdk11 maxRequestsPerHost(final int max) {
+    this.maxRequestsPerHost = max;
+    this.hostLimiters.clear();
+    return this;
+  }
 
   @Override
   public HttpResponse<String> patch(final String url, final Optional<HttpHeaders> headers,
@@ -132,15 +228,9 @@ public class HttpServiceJdk11 implements HttpService {
         payload != null ? BodyPublishers.ofString(payload) : HttpRequest.BodyPublishers.noBody();
 
     HttpRequest request = build(url, headers, parameters).method("PATCH", body).build();
-
-    try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
-    }
+    return send(request);
   }
 
-
   @Override
   public HttpResponse<String> post(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
@@ -148,29 +238,18 @@ public class HttpServiceJdk11 implements HttpService {
     BodyPublisher body =
         payload != null ? BodyPublishers.ofString(payload) : HttpRequest.BodyPublishers.noBody();
     HttpRequest request = build(url, headers, parameters).POST(body).build();
-    try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
-    }
+    return send(request);
   }
 
-
   @Override
   public HttpResponse<String> put(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final Path payload) throws IOException {
 
     HttpRequest request =
         build(url, headers, parameters).PUT(HttpRequest.BodyPublishers.ofFile(payload)).build();
-
-    try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
-    } catch (InterruptedException e) {
-      throw new IOException(e);
-    }
+    return send(request);
   }
 
-
   @Override
   public HttpResponse<String> put(final String url, final Optional<HttpHeaders> headers,
       final Optional<Map<String, String>> parameters, final String payload) throws IOException {
@@ -179,14 +258,63 @@ public class HttpServiceJdk11 implements HttpService {
         payload != null ? BodyPublishers.ofString(payload) : HttpRequest.BodyPublishers.noBody();
 
     HttpRequest request = build(url, headers, parameters).PUT(body).build();
+    return send(request);
+  }
 
+  /**
+   * Send {@link HttpRequest} and wait for the {@link HttpResponse}.
+   * 
+   * @param request {@link HttpRequest}
+   * @return {@link HttpResponse} {@link String}
+   * @throws IOException IOException
+   */
+  private HttpResponse<String> send(final HttpRequest request) throws IOException {
     try {
-      return this.client.send(request, HttpResponse.BodyHandlers.ofString());
+      return execute(request, BodyHandlers.ofString()).get();
     } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+          : new IOException(e.getCause());
     }
   }
 
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(final String method, final String url,
+      final Optional<HttpHeaders> headers, final Optional<Map<String, String>> parameters,
+      final Optional<String> payload, final BodyHandler<T> bodyHandler,
+      final Optional<Duration> requestTimeout) {
+
+    CompletableFuture<HttpResponse<T>> future;
+
+    try {
+
+      BodyPublisher body = payload.isPresent() ? BodyPublishers.ofString(payload.get())
+          : HttpRequest.BodyPublishers.noBody();
+
+      Builder builder = build(url, headers, parameters).method(method, body);
+      requestTimeout.ifPresent(builder::timeout);
+
+      future = execute(builder.build(), bodyHandler);
+
+    } catch (IOException e) {
+      future = CompletableFuture.failedFuture(e);
+    }
+
+    return future;
+  }
+
+  /**
+   * Set the default request timeout.
+   * 
+   * @param requestTimeout {@link Duration}
+   * @return {@link HttpServiceJdk11}
+   */
+  public HttpServiceJdk11 timeout(final Duration requestTimeout) {
+    this.timeout = requestTimeout;
+    return this;
+  }
 
   /**
    * Convert {@link String} to {@link URI}.
@@ -0,0 +1,104 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit Tests for {@link HostConcurrencyLimiter}.
+ */
+public class HostConcurrencyLimiterTest {
+
+  /**
+   * Test requests over the limit start as earlier requests complete.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSubmit01() throws Exception {
+    // given
+    final int max = 2;
+    final int requests = 3;
+    HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(max);
+    List<Integer> started = new ArrayList<>();
+    List<CompletableFuture<String>> requestFutures = new ArrayList<>();
+    List<CompletableFuture<String>> results = new ArrayList<>();
+
+    // when
+    for (int i = 0; i < requests; i++) {
+      final int index = i;
+      CompletableFuture<String> request = new CompletableFuture<>();
+      requestFutures.add(request);
+      results.add(limiter.submit(() -> {
+        started.add(Integer.valueOf(index));
+        return request;
+      }));
+    }
+
+    // then
+    assertEquals(Arrays.asList(Integer.valueOf(0), Integer.valueOf(1)), started);
+    assertFalse(results.get(2).isDone());
+
+    requestFutures.get(0).complete("0");
+    assertEquals("0", results.get(0).get());
+    assertEquals(Arrays.asList(Integer.valueOf(0), Integer.valueOf(1), Integer.valueOf(2)),
+        started);
+
+    requestFutures.get(1).complete("1");
+    requestFutures.get(2).complete("2");
+    assertEquals("1", results.get(1).get());
+    assertEquals("2", results.get(2).get());
+  }
+
+  /**
+   * Test a failed request completes exceptionally and releases its permit.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSubmit02() throws Exception {
+    // given
+    HostConcurrencyLimiter limiter = new HostConcurrencyLimiter(1);
+
+    // when
+    CompletableFuture<String> failed = limiter.submit(() -> {
+      throw new IllegalStateException("failed");
+    });
+    CompletableFuture<String> errored =
+        limiter.submit(() -> CompletableFuture.failedFuture(new IllegalStateException("error")));
+    CompletableFuture<String> next = limiter.submit(() -> CompletableFuture.completedFuture("ok"));
+
+    // then
+    assertTrue(failed.isCompletedExceptionally());
+    assertTrue(errored.isCompletedExceptionally());
+    assertEquals("ok", next.get());
+  }
+}
@@ -0,0 +1,231 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.http;
+
+import static com.formkiq.testutils.TestHttpServer.SHORT_TIMEOUT;
+import static com.formkiq.testutils.TestHttpServer.respond;
+import static com.formkiq.testutils.TestHttpServer.sleep;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import com.formkiq.testutils.TestHttpServer;
+
+/**
+ * Unit Tests for {@link HttpServiceJdk11}.
+ */
+public class HttpServiceJdk11Test {
+
+  /** Concurrent requests in flight. */
+  private static AtomicInteger active = new AtomicInteger();
+  /** Maximum concurrent requests in flight. */
+  private static AtomicInteger maxActive = new AtomicInteger();
+  /** {@link TestHttpServer}. */
+  private static TestHttpServer server;
+  /** Server Url. */
+  private static String url;
+
+  /**
+   * After All.
+   */
+  @AfterAll
+  public static void afterAll() {
+    server.stop();
+  }
+
+  /**
+   * Before All.
+   * 
+   * @throws IOException IOException
+   */
+  @BeforeAll
+  public static void beforeAll() throws IOException {
+
+    server = new TestHttpServer().createContext("/echo", e -> {
+      String body = new String(e.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+      String query = e.getRequestURI().getQuery();
+      respond(e, e.getRequestMethod() + " " + (query != null ? query + " " : "") + body);
+    }).createContext("/concurrent", e -> {
+      final long sleep = 200L;
+      maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+      sleep(sleep);
+      active.decrementAndGet();
+      respond(e, "ok");
+    }).start();
+
+    url = server.getUrl();
+  }
+
+  /**
+   * Test request timeout passed to get overrides the default timeout.
+   */
+  @Test
+  void testGet01() {
+    // given
+    HttpService service = new HttpServiceJdk11();
+
+    // when
+    IOException e = assertThrows(IOException.class, () -> service.get(url + "/slow",
+        Optional.empty(), Optional.empty(), BodyHandlers.ofString(), Optional.of(SHORT_TIMEOUT)));
+
+    // then
+    assertTrue(e instanceof HttpTimeoutException);
+  }
+
+  /**
+   * Test the default request timeout is applied to get.
+   */
+  @Test
+  void testGet02() {
+    // given
+    HttpService service = new HttpServiceJdk11().timeout(SHORT_TIMEOUT);
+
+    // when
+    IOException e = assertThrows(IOException.class,
+        () -> service.get(url + "/slow", Optional.empty(), Optional.empty()));
+
+    // then
+    assertTrue(e instanceof HttpTimeoutException);
+  }
+
+  /**
+   * Test getAsync.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testGetAsync01() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11();
+
+    // when
+    HttpResponse<String> response =
+        service.getAsync(url + "/echo", Optional.empty(), Optional.of(Map.of("a", "b"))).get();
+
+    // then
+    final int ok = 200;
+    assertEquals(ok, response.statusCode());
+    assertEquals("GET a=b ", response.body());
+  }
+
+  /**
+   * Test maxRequestsPerHost limits the in flight requests to a host.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testMaxRequestsPerHost01() throws Exception {
+    // given
+    final int requests = 6;
+    final int max = 2;
+    maxActive.set(0);
+    HttpService service = new HttpServiceJdk11().maxRequestsPerHost(max);
+
+    // when
+    List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+    for (int i = 0; i < requests; i++) {
+      futures.add(service.getAsync(url + "/concurrent", Optional.empty(), Optional.empty()));
+    }
+
+    // then
+    for (CompletableFuture<HttpResponse<String>> future : futures) {
+      assertEquals("ok", future.get().body());
+    }
+
+    assertEquals(max, maxActive.get());
+  }
+
+  /**
+   * Test a request timeout passed to post overrides a shorter default timeout.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testPost01() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11().timeout(SHORT_TIMEOUT);
+
+    // when
+    HttpResponse<String> response = service.post(url + "/slow", Optional.empty(),
+        Optional.empty(), "data", Optional.of(Duration.ofMinutes(1)));
+
+    // then
+    assertEquals("slow", response.body());
+  }
+
+  /**
+   * Test sendAsync with a streaming {@link java.net.http.HttpResponse.BodyHandler}.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testSendAsync01() throws Exception {
+    // given
+    HttpService service = new HttpServiceJdk11();
+    HttpHeaders headers = new HttpHeaders().add("Content-Type", "text/plain");
+
+    // when
+    HttpResponse<InputStream> response =
+        service.sendAsync("POST", url + "/echo", Optional.of(headers), Optional.empty(),
+            Optional.of("hello"), BodyHandlers.ofInputStream(), Optional.empty()).get();
+
+    // then
+    try (InputStream is = response.body()) {
+      assertEquals("POST hello", new String(is.readAllBytes(), StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * Test sendAsync request timeout fails the future.
+   */
+  @Test
+  void testSendAsync02() {
+    // given
+    HttpService service = new HttpServiceJdk11();
+
+    // when
+    CompletableFuture<HttpResponse<String>> future = service.sendAsync("GET", url + "/slow",
+        Optional.empty(), Optional.empty(), Optional.empty(), BodyHandlers.ofString(),
+        Optional.of(SHORT_TIMEOUT));
+
+    // then
+    Exception e = assertThrows(Exception.class, () -> future.get());
+    assertTrue(e.getCause() instanceof HttpTimeoutException);
+  }
+}
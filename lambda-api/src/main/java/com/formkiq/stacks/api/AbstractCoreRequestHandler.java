@@ -355,7 +355,7 @@ public abstract class AbstractCoreRequestHandler extends AbstractRestApiRequestH
       return new PrivateWebhooksRequestHandler();
     }
 
-    ApiGatewayRequestHandler hander = URL_MAP.get(s);
+    ApiGatewayRequestHandler hander = findUrlMapHandler(URL_MAP, s);
     if (hander != null) {
       return hander;
     }
@@ -26,6 +26,7 @@ package com.formkiq.stacks.api;
 import static com.formkiq.stacks.dynamodb.DocumentService.MAX_RESULTS;
 import java.util.Collections;
 import java.util.Map;
+import java.util.UUID;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.PaginationMapToken;
 import com.formkiq.aws.dynamodb.PaginationResults;
@@ -67,6 +68,7 @@ public final class ApiGatewayRequestEventUtil {
 
       String json = cacheService.read(q.get("previous"));
       current = gson.fromJson(json, ApiPagination.class);
+      current.setNext(q.get("previous"));
 
     } else {
 
@@ -77,7 +79,16 @@ public final class ApiGatewayRequestEventUtil {
       current.setStartkey(token);
       current.setHasNext(token != null);
 
-      cacheService.write(current.getNext(), gson.toJson(current), 1);
+      current.setNext(null);
+      String json = gson.toJson(current);
+      String key = cacheService.encode(json, 1);
+
+      if (key != null) {
+        current.setNext(key);
+      } else {
+        current.setNext(UUID.randomUUID().toString());
+        cacheService.write(current.getNext(), json, 1);
+      }
     }
 
     return current;
@@ -245,6 +256,7 @@ public final class ApiGatewayRequestEventUtil {
       if (isNotBlank(json)) {
         Gson gson = GsonUtil.getInstance();
         pagination = gson.fromJson(json, ApiPagination.class);
+        pagination.setNext(key);
       }
     }
 
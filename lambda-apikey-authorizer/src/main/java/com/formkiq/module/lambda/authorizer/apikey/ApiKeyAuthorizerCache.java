@@ -0,0 +1,201 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.authorizer.apikey;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import com.formkiq.stacks.dynamodb.ApiKey;
+import com.formkiq.stacks.dynamodb.ApiKeysService;
+
+/**
+ * 
+ * Warm container cache of API Key lookups. Found keys are kept for a short TTL, unknown keys
+ * for a shorter negative TTL, and cached keys are dropped when a revocation marker is written
+ * for them.
+ *
+ */
+public class ApiKeyAuthorizerCache {
+
+  /** Default time found API Keys are cached. */
+  public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+  /** Default time unknown API Keys are cached. */
+  public static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(10);
+  /** Default interval between revocation marker checks. */
+  public static final Duration DEFAULT_REVOCATION_INTERVAL = Duration.ofSeconds(5);
+  /** Default maximum number of entries, per positive / negative cache. */
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  /** {@link LinkedHashMap} initial capacity. */
+  private static final int INITIAL_CAPACITY = 16;
+  /** {@link LinkedHashMap} load factor. */
+  private static final float LOAD_FACTOR = 0.75f;
+
+  /**
+   * Create a bounded least recently used {@link Map}.
+   * 
+   * @param maxSize int
+   * @return {@link Map}
+   */
+  private static Map<String, Entry> createLru(final int maxSize) {
+    return new LinkedHashMap<>(INITIAL_CAPACITY, LOAD_FACTOR, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /** Last revocation check, epoch millis. */
+  private long lastRevocationCheck;
+  /** Unknown API Keys. */
+  private final Map<String, Entry> negative;
+  /** Negative TTL millis. */
+  private final long negativeTtl;
+  /** Found API Keys. */
+  private final Map<String, Entry> positive;
+  /** Revocation check interval millis. */
+  private final long revocationInterval;
+  /** Positive TTL millis. */
+  private final long ttl;
+
+  /**
+   * constructor.
+   */
+  public ApiKeyAuthorizerCache() {
+    this(DEFAULT_TTL, DEFAULT_NEGATIVE_TTL, DEFAULT_REVOCATION_INTERVAL, DEFAULT_MAX_SIZE);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param positiveTtl {@link Duration}
+   * @param negativeCacheTtl {@link Duration}
+   * @param revocationCheckInterval {@link Duration}
+   * @param maxSize int
+   */
+  public ApiKeyAuthorizerCache(final Duration positiveTtl, final Duration negativeCacheTtl,
+      final Duration revocationCheckInterval, final int maxSize) {
+    this.ttl = positiveTtl.toMillis();
+    this.negativeTtl = negativeCacheTtl.toMillis();
+    this.revocationInterval = revocationCheckInterval.toMillis();
+    this.positive = createLru(maxSize);
+    this.negative = createLru(maxSize);
+  }
+
+  /**
+   * Check for revocation markers written since the last check and drop matching keys.
+   * 
+   * @param service {@link ApiKeysService}
+   * @param now long
+   */
+  private void checkRevocations(final ApiKeysService service, final long now) {
+
+    if (now - this.lastRevocationCheck >= this.revocationInterval) {
+
+      if (!this.positive.isEmpty()) {
+        // look back over the previous interval as well to allow for clock skew between writers
+        long since = this.lastRevocationCheck - this.revocationInterval;
+        Collection<String> revoked = service.getRevokedApiKeys(new Date(since));
+        revoked.forEach(this.positive::remove);
+      }
+
+      this.lastRevocationCheck = now;
+    }
+  }
+
+  /**
+   * Clear Cache.
+   */
+  public synchronized void clear() {
+    this.positive.clear();
+    this.negative.clear();
+  }
+
+  /**
+   * Get {@link ApiKey}, using the cached lookup when it has not expired.
+   * 
+   * @param service {@link ApiKeysService}
+   * @param apiKey {@link String}
+   * @return {@link ApiKey}
+   */
+  public synchronized ApiKey get(final ApiKeysService service, final String apiKey) {
+
+    ApiKey result;
+
+    if (apiKey == null) {
+      result = null;
+    } else {
+
+      long now = System.currentTimeMillis();
+      checkRevocations(service, now);
+
+      String hash = new ApiKey().apiKey(apiKey).hash();
+      Entry entry = this.positive.get(hash);
+      entry = entry != null ? entry : this.negative.get(hash);
+
+      if (entry != null && entry.expires > now) {
+        result = entry.apiKey;
+      } else {
+
+        result = service.get(apiKey, false);
+
+        if (result != null) {
+          this.negative.remove(hash);
+          this.positive.put(hash, new Entry(result, now + this.ttl));
+        } else {
+          this.positive.remove(hash);
+          this.negative.put(hash, new Entry(null, now + this.negativeTtl));
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Cache Entry.
+   */
+  private static class Entry {
+
+    /** {@link ApiKey}, null when the key was not found. */
+    private final ApiKey apiKey;
+    /** Expiry time in epoch millis. */
+    private final long expires;
+
+    /**
+     * constructor.
+     * 
+     * @param key {@link ApiKey}
+     * @param expiresAt long
+     */
+    Entry(final ApiKey key, final long expiresAt) {
+      this.apiKey = key;
+      this.expires = expiresAt;
+    }
+  }
+}
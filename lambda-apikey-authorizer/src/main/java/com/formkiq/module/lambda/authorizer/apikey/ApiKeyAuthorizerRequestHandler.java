@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -55,6 +57,10 @@ public class ApiKeyAuthorizerRequestHandler implements RequestStreamHandler {
   private static final int MAX_APIKEY_LENGTH = 100;
   /** {@link AwsServiceCache}. */
   private static AwsServiceCache awsServices;
+  /** Warm container {@link ApiKeyAuthorizerCache}. */
+  private static final ApiKeyAuthorizerCache CACHE = new ApiKeyAuthorizerCache();
+  /** {@link ApiKeyAuthorizerCache}. */
+  private final ApiKeyAuthorizerCache cache;
   /** {@link Gson}. */
   private Gson gson = new GsonBuilder().disableHtmlEscaping().create();
 
@@ -81,7 +87,19 @@ public class ApiKeyAuthorizerRequestHandler implements RequestStreamHandler {
    *
    */
   public ApiKeyAuthorizerRequestHandler(final AwsServiceCache awsServiceCache) {
+    this(awsServiceCache, CACHE);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param awsServiceCache {@link AwsServiceCache}
+   * @param apiKeyCache {@link ApiKeyAuthorizerCache}
+   */
+  public ApiKeyAuthorizerRequestHandler(final AwsServiceCache awsServiceCache,
+      final ApiKeyAuthorizerCache apiKeyCache) {
     awsServices = awsServiceCache;
+    this.cache = apiKeyCache;
     awsServices.register(ApiKeysService.class, new ApiKeysServiceExtension());
   }
 
@@ -119,12 +137,13 @@ public class ApiKeyAuthorizerRequestHandler implements RequestStreamHandler {
     String apiKey = getIdentitySource(map);
     apiKey = apiKey != null && apiKey.length() < MAX_APIKEY_LENGTH ? apiKey : null;
 
-    ApiKey api = apiKeys.get(apiKey, false);
+    ApiKey api = this.cache.get(apiKeys, apiKey);
     api = api != null ? api
         : new ApiKey().name("").apiKey("").siteId("").permissions(Collections.emptyList());
 
     String siteId = api.siteId();
-    boolean isAuthorized = apiKey != null && apiKey.equals(api.apiKey());
+    boolean isAuthorized = apiKey != null && MessageDigest.isEqual(
+        apiKey.getBytes(StandardCharsets.UTF_8), api.apiKey().getBytes(StandardCharsets.UTF_8));
 
     String apiKeyName = api.name();
     String group = isAuthorized ? "[" + siteId + "]" : "[]";
@@ -25,12 +25,14 @@ package com.formkiq.module.lambda.authorizer.apikey;
 
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -243,4 +245,43 @@ class ApiKeyAuthorizerRequestHandlerTest {
       assertEquals("", claims.get("permissions"));
     }
   }
+
+  /**
+   * Test cached API Key is revoked after delete.
+   * 
+   * @throws Exception Exception
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testHandleRequest05() throws Exception {
+    // given
+    ApiKeyAuthorizerCache cache = new ApiKeyAuthorizerCache(ApiKeyAuthorizerCache.DEFAULT_TTL,
+        ApiKeyAuthorizerCache.DEFAULT_NEGATIVE_TTL, Duration.ZERO,
+        ApiKeyAuthorizerCache.DEFAULT_MAX_SIZE);
+    ApiKeyAuthorizerRequestHandler handler = new ApiKeyAuthorizerRequestHandler(awsServices, cache);
+
+    String siteId = UUID.randomUUID().toString();
+    String apiKey = apiKeysService.createApiKey(siteId, "test",
+        Arrays.asList(ApiKeyPermission.READ), "joe");
+
+    for (Boolean expected : Arrays.asList(Boolean.TRUE, Boolean.TRUE, Boolean.FALSE)) {
+
+      if (Boolean.FALSE.equals(expected)) {
+        assertTrue(apiKeysService.deleteApiKey(siteId, apiKey));
+      }
+
+      try (InputStream is = getInput(apiKey)) {
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+        // when
+        handler.handleRequest(is, os, this.context);
+
+        // then
+        String response = new String(os.toByteArray(), "UTF-8");
+        Map<String, Object> map = GSON.fromJson(response, Map.class);
+        assertEquals(expected, map.get("isAuthorized"));
+      }
+    }
+  }
 }
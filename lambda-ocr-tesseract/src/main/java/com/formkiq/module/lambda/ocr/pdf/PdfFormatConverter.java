@@ -23,12 +23,21 @@
  */
 package com.formkiq.module.lambda.ocr.pdf;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.List;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBufferedFile;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.filespecification.PDComplexFileSpecification;
+import org.apache.pdfbox.pdmodel.common.filespecification.PDEmbeddedFile;
 import org.apache.pdfbox.text.PDFTextStripper;
 import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
@@ -39,7 +48,9 @@ import com.formkiq.module.ocr.OcrSqsMessage;
 import com.formkiq.module.ocr.pdf.PdfPortfolio;
 
 /**
- * PDF {@link FormatConverter}.
+ * PDF {@link FormatConverter}. Text is extracted in a single pass and written page by page to a
+ * {@link Writer}, PDF Portfolio embedded files are extracted one at a time through a temporary
+ * file.
  */
 public class PdfFormatConverter implements FormatConverter {
 
@@ -50,43 +61,106 @@ public class PdfFormatConverter implements FormatConverter {
   public FormatConverterResult convert(final AwsServiceCache awsServices,
       final OcrSqsMessage sqsMessage, final File file) throws IOException {
 
-    StringBuilder sb = new StringBuilder();
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    OcrScanStatus status = convert(awsServices, sqsMessage, file, os);
 
-    PDFTextStripper pdfTextStripper = new PDFTextStripper();
+    return new FormatConverterResult().text(os.toString(StandardCharsets.UTF_8)).status(status);
+  }
+
+  @Override
+  public OcrScanStatus convert(final AwsServiceCache awsServices, final OcrSqsMessage sqsMessage,
+      final File file, final OutputStream os) throws IOException {
+
+    Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
 
     try (PDDocument document = Loader.loadPDF(file)) {
+      writeText(document, writer);
+    }
 
-      sb.append(pdfTextStripper.getText(document));
+    writer.flush();
+    return OcrScanStatus.SUCCESSFUL;
+  }
 
-      if (this.pdfPortfolio.isPdfPortfolio(document)) {
+  @Override
+  public boolean isSupported(final OcrSqsMessage sqsMessage, final MimeType mineType) {
+    return MimeType.MIME_PDF.equals(mineType);
+  }
 
-        List<Map<String, Object>> pdfEmbeddedFiles =
-            this.pdfPortfolio.getPdfEmbeddedFiles(document);
+  /**
+   * Write the text of a PDF Portfolio embedded PDF file.
+   * 
+   * @param embeddedFile {@link PDEmbeddedFile}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  private void writeEmbeddedText(final PDEmbeddedFile embeddedFile, final Writer writer)
+      throws IOException {
 
-        for (Map<String, Object> map : pdfEmbeddedFiles) {
-          String filename = map.get("fileName").toString();
+    File tmp = File.createTempFile("embedded", ".pdf");
 
-          if (filename.endsWith(".pdf")) {
-            byte[] data = (byte[]) map.get("data");
+    try {
 
-            try (PDDocument embeddedDocument = Loader.loadPDF(data)) {
-              sb.append(pdfTextStripper.getText(embeddedDocument));
-            }
-          }
-        }
+      try (InputStream is = embeddedFile.createInputStream();
+          OutputStream os = new FileOutputStream(tmp)) {
+        is.transferTo(os);
+      }
 
-      } else {
+      try (PDDocument document = Loader.loadPDF(new RandomAccessReadBufferedFile(tmp))) {
+        new PDFTextStripper().writeText(document, writer);
+      }
+
+    } finally {
 
-        sb.append(pdfTextStripper.getText(document));
+      if (!tmp.delete()) {
+        tmp.deleteOnExit();
       }
+    }
+  }
+
+  /**
+   * Write the text of a range of pages of a PDF file.
+   * 
+   * @param file {@link File}
+   * @param writer {@link Writer}
+   * @param startPage int first page, starting at 1
+   * @param endPage int last page, inclusive
+   * @throws IOException IOException
+   */
+  public void writeText(final File file, final Writer writer, final int startPage,
+      final int endPage) throws IOException {
+
+    try (PDDocument document = Loader.loadPDF(file)) {
 
-      String text = sb.toString();
-      return new FormatConverterResult().text(text).status(OcrScanStatus.SUCCESSFUL);
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(startPage);
+      stripper.setEndPage(endPage);
+      stripper.writeText(document, writer);
     }
   }
 
-  @Override
-  public boolean isSupported(final OcrSqsMessage sqsMessage, final MimeType mineType) {
-    return MimeType.MIME_PDF.equals(mineType);
+  /**
+   * Write the text of a {@link PDDocument}, followed by the text of any PDF Portfolio embedded PDF
+   * files.
+   * 
+   * @param document {@link PDDocument}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  public void writeText(final PDDocument document, final Writer writer) throws IOException {
+
+    new PDFTextStripper().writeText(document, writer);
+
+    if (this.pdfPortfolio.isPdfPortfolio(document)) {
+
+      for (Map.Entry<String, PDComplexFileSpecification> e : this.pdfPortfolio
+          .getEmbeddedFiles(document).entrySet()) {
+
+        PDEmbeddedFile embeddedFile = e.getValue().getEmbeddedFile();
+
+        if (e.getKey().endsWith(".pdf") && embeddedFile != null) {
+          writeEmbeddedText(embeddedFile, writer);
+        }
+      }
+    }
   }
 }
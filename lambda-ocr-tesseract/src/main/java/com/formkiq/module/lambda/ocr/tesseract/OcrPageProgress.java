@@ -0,0 +1,123 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.ocr.tesseract;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.formkiq.aws.s3.S3Service;
+import software.amazon.awssdk.services.s3.model.ListObjectsResponse;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * 
+ * Stores the text of each OCRed page in S3, so an OCR job that times out can resume from the
+ * pages it already completed.
+ *
+ */
+public class OcrPageProgress {
+
+  /** {@link S3Service}. */
+  private final S3Service s3;
+  /** S3 Bucket. */
+  private final String bucket;
+  /** S3 Key prefix of the page objects. */
+  private final String prefix;
+
+  /**
+   * constructor.
+   * 
+   * @param s3Service {@link S3Service}
+   * @param s3Bucket {@link String}
+   * @param s3Prefix {@link String}
+   */
+  public OcrPageProgress(final S3Service s3Service, final String s3Bucket,
+      final String s3Prefix) {
+    this.s3 = s3Service;
+    this.bucket = s3Bucket;
+    this.prefix = s3Prefix;
+  }
+
+  /**
+   * Delete all saved pages.
+   */
+  public void delete() {
+    for (String key : getKeys()) {
+      this.s3.deleteObject(this.bucket, key, null);
+    }
+  }
+
+  /**
+   * Get S3 Keys of saved pages.
+   * 
+   * @return {@link List} {@link String}
+   */
+  private List<String> getKeys() {
+
+    List<String> keys = new ArrayList<>();
+    String marker = null;
+    boolean isDone = false;
+
+    while (!isDone) {
+
+      ListObjectsResponse resp = this.s3.listObjects(this.bucket, this.prefix, marker);
+      resp.contents().stream().map(S3Object::key).forEach(keys::add);
+
+      isDone = !Boolean.TRUE.equals(resp.isTruncated()) || keys.isEmpty();
+      marker = !keys.isEmpty() ? keys.get(keys.size() - 1) : null;
+    }
+
+    return keys;
+  }
+
+  /**
+   * Load the text of saved pages.
+   * 
+   * @return {@link Map} of page index to text
+   */
+  public Map<Integer, String> load() {
+
+    Map<Integer, String> pages = new HashMap<>();
+
+    for (String key : getKeys()) {
+      int page = Integer.parseInt(key.substring(this.prefix.length()));
+      pages.put(Integer.valueOf(page), this.s3.getContentAsString(this.bucket, key, null));
+    }
+
+    return pages;
+  }
+
+  /**
+   * Save the text of a page.
+   * 
+   * @param page int page index
+   * @param text {@link String}
+   */
+  public void save(final int page, final String text) {
+    this.s3.putObject(this.bucket, this.prefix + page, text.getBytes(StandardCharsets.UTF_8),
+        "text/plain");
+  }
+}
@@ -29,18 +29,22 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.formkiq.aws.dynamodb.DynamoDbAwsServiceRegistry;
 import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
 import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
+import com.formkiq.aws.s3.S3MultipartUploader;
 import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.aws.s3.S3PresignerServiceExtension;
 import com.formkiq.aws.s3.S3Service;
@@ -64,13 +68,11 @@ import com.formkiq.module.lambda.ocr.docx.DocFormatConverter;
 import com.formkiq.module.lambda.ocr.docx.DocxFormatConverter;
 import com.formkiq.module.lambda.ocr.handlers.ObjectExaminePdfHandler;
 import com.formkiq.module.lambda.ocr.handlers.ObjectExaminePdfIdHandler;
-import com.formkiq.module.lambda.ocr.pdf.PdfFormatConverter;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
 import com.formkiq.module.ocr.DocumentOcrService;
 import com.formkiq.module.ocr.DocumentOcrServiceExtension;
 import com.formkiq.module.ocr.FormatConverter;
-import com.formkiq.module.ocr.FormatConverterResult;
 import com.formkiq.module.ocr.OcrScanStatus;
 import com.formkiq.module.ocr.OcrSqsMessage;
 import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
@@ -79,6 +81,8 @@ import software.amazon.awssdk.utils.IoUtils;
 /** {@link RequestHandler} for handling DynamoDb to Tesseract OCR Processor. */
 public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
 
+  /** {@link S3MultipartUploader}. */
+  private static S3MultipartUploader multipartUploader;
   /** {@link AwsServiceCache}. */
   private static AwsServiceCache serviceCache;
   /** Url Class Map. */
@@ -114,6 +118,8 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
     awsServiceCache.register(S3PresignerService.class, new S3PresignerServiceExtension());
 
     serviceCache = awsServiceCache;
+    multipartUploader =
+        new S3MultipartUploader(awsServiceCache.getExtension(S3ConnectionBuilder.class));
 
     addRequestHandler(new ObjectExaminePdfHandler());
     addRequestHandler(new ObjectExaminePdfIdHandler());
@@ -178,13 +184,24 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
   }
 
   /**
-   * Get Default Converters.
+   * Get Default Converters. PDF documents are handled by {@link TesseractFormatConverter}, which
+   * uses the text layer of pages that have one and OCRs the rest.
    * 
    * @return {@link List} {@link FormatConverter}
    */
   protected List<FormatConverter> getDefaultConverters() {
+    return getDefaultConverters(new TesseractWrapperImpl());
+  }
+
+  /**
+   * Get Default Converters using a {@link TesseractWrapper}.
+   * 
+   * @param tesseract {@link TesseractWrapper}
+   * @return {@link List} {@link FormatConverter}
+   */
+  protected static List<FormatConverter> getDefaultConverters(final TesseractWrapper tesseract) {
     return Arrays.asList(new DocxFormatConverter(), new DocFormatConverter(),
-        new PdfFormatConverter(), new TesseractFormatConverter(new TesseractWrapperImpl()));
+        new TesseractFormatConverter(tesseract));
   }
 
   protected OcrSqsMessage getSqsMessage(final String body) {
@@ -260,20 +277,10 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
 
       try {
 
-        FormatConverterResult result = fc.get().convert(serviceCache, sqsMessage, file);
-
-        if (result.text() != null) {
+        String ocrS3Key = ocrService.getS3Key(siteId, documentId, jobId);
+        OcrScanStatus status = writeOcr(awsServices, fc.get(), sqsMessage, file, ocrS3Key);
 
-          S3Service s3Service = serviceCache.getExtension(S3Service.class);
-          String ocrS3Key = ocrService.getS3Key(siteId, documentId, jobId);
-
-          String ocrDocumentsBucket = awsServices.environment("OCR_S3_BUCKET");
-
-          s3Service.putObject(ocrDocumentsBucket, ocrS3Key,
-              result.text().getBytes(StandardCharsets.UTF_8), "text/plain");
-        }
-
-        if (OcrScanStatus.SUCCESSFUL.equals(result.status())) {
+        if (OcrScanStatus.SUCCESSFUL.equals(status)) {
           ocrService.updateOcrScanStatus(serviceCache, siteId, documentId,
               OcrScanStatus.SUCCESSFUL);
         }
@@ -301,4 +308,46 @@ public class OcrTesseractProcessor extends AbstractRestApiRequestHandler {
       }
     }
   }
+
+  /**
+   * Convert the document and stream the OCR text into the OCR S3 Bucket using a multipart upload.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @param converter {@link FormatConverter}
+   * @param sqsMessage {@link OcrSqsMessage}
+   * @param file {@link File}
+   * @param ocrS3Key {@link String}
+   * @return {@link OcrScanStatus}
+   * @throws IOException IOException
+   */
+  private OcrScanStatus writeOcr(final AwsServiceCache awsServices,
+      final FormatConverter converter, final OcrSqsMessage sqsMessage, final File file,
+      final String ocrS3Key) throws IOException {
+
+    S3Service s3Service = serviceCache.getExtension(S3Service.class);
+    String ocrDocumentsBucket = awsServices.environment("OCR_S3_BUCKET");
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(S3MultipartOutputStream.DEFAULT_MAX_PARTS_IN_FLIGHT);
+    S3MultipartOutputStream os = new S3MultipartOutputStream(s3Service, multipartUploader,
+        executor, ocrDocumentsBucket, ocrS3Key).contentType("text/plain");
+
+    OcrScanStatus status;
+
+    try {
+
+      status = converter.convert(serviceCache, sqsMessage, file, os);
+
+      // only close on success, closing completes the upload
+      os.close();
+
+    } catch (IOException | RuntimeException e) {
+      os.abort();
+      throw e;
+    } finally {
+      executor.shutdownNow();
+    }
+
+    return status;
+  }
 }
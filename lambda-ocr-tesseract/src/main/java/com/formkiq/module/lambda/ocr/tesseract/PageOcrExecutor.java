@@ -0,0 +1,340 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.ocr.tesseract;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import net.sourceforge.tess4j.TesseractException;
+
+/**
+ * 
+ * OCRs multi-page documents a page at a time. Pages are rendered in order on the calling thread
+ * and OCRed in parallel on a pool of one thread per core, then the text is written out in page
+ * order. Pool threads live until {@link #shutdown()}, so their Tesseract resources are reused
+ * across documents.
+ *
+ */
+public class PageOcrExecutor {
+
+  /**
+   * Minimum number of non whitespace characters for a page's text layer to be used instead of
+   * OCRing the page, so scanned pages with only a stray page number or header are still OCRed.
+   */
+  private static final int MIN_TEXT_LAYER_LENGTH = 20;
+  /** Render DPI for PDF pages. */
+  private static final float PDF_DPI = 300;
+
+  /**
+   * Source of document pages.
+   */
+  private interface PageSource {
+
+    /**
+     * Render page image.
+     * 
+     * @param page int
+     * @return {@link BufferedImage}
+     * @throws IOException IOException
+     */
+    BufferedImage getImage(int page) throws IOException;
+
+    /**
+     * Get number of pages.
+     * 
+     * @return int
+     * @throws IOException IOException
+     */
+    int getPageCount() throws IOException;
+
+    /**
+     * Get the existing text layer of a page.
+     * 
+     * @param page int
+     * @return {@link String}
+     * @throws IOException IOException
+     */
+    String getText(int page) throws IOException;
+  }
+
+  /** OCR {@link ExecutorService}. */
+  private final ExecutorService executor;
+  /** Maximum number of rendered pages waiting on or running OCR. */
+  private final int maxPagesInFlight;
+  /** {@link TesseractWrapper}. */
+  private final TesseractWrapper tesseract;
+
+  /**
+   * constructor.
+   * 
+   * @param tesseractWrapper {@link TesseractWrapper}
+   */
+  public PageOcrExecutor(final TesseractWrapper tesseractWrapper) {
+    this(tesseractWrapper, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param tesseractWrapper {@link TesseractWrapper}
+   * @param threads int
+   */
+  public PageOcrExecutor(final TesseractWrapper tesseractWrapper, final int threads) {
+    this.tesseract = tesseractWrapper;
+    this.maxPagesInFlight = 2 * threads;
+    this.executor = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(() -> {
+        try {
+          r.run();
+        } finally {
+          this.tesseract.release();
+        }
+      }, "ocr-page");
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  /**
+   * Whether a page's text layer has enough text to be used instead of OCRing the page.
+   * 
+   * @param text {@link String}
+   * @return boolean
+   */
+  private boolean hasTextLayer(final String text) {
+    return text != null && text.chars().filter(c -> !Character.isWhitespace(c))
+        .count() >= MIN_TEXT_LAYER_LENGTH;
+  }
+
+  /**
+   * Write page results in page order.
+   * 
+   * @param pages {@link List} {@link Future}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  private void join(final List<Future<String>> pages, final Writer writer) throws IOException {
+
+    try {
+
+      for (Future<String> page : pages) {
+        writer.write(page.get());
+      }
+
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+
+    } finally {
+      pages.forEach(p -> p.cancel(true));
+    }
+  }
+
+  /**
+   * OCR a page.
+   * 
+   * @param progress {@link OcrPageProgress}
+   * @param page int
+   * @param image {@link BufferedImage}
+   * @return {@link String}
+   * @throws IOException IOException
+   */
+  private String ocr(final OcrPageProgress progress, final int page, final BufferedImage image)
+      throws IOException {
+    try {
+      String text = this.tesseract.doOcr(image);
+      progress.save(page, text);
+      return text;
+    } catch (TesseractException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * OCR pages, skipping pages that were already OCRed or that have a text layer.
+   * 
+   * @param source {@link PageSource}
+   * @param progress {@link OcrPageProgress}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  private void ocr(final PageSource source, final OcrPageProgress progress, final Writer writer)
+      throws IOException {
+
+    Map<Integer, String> completed = progress.load();
+    Semaphore inFlight = new Semaphore(this.maxPagesInFlight);
+    List<Future<String>> pages = new ArrayList<>();
+
+    try {
+
+      int count = source.getPageCount();
+
+      for (int i = 0; i < count; i++) {
+
+        final int page = i;
+        boolean done = completed.containsKey(Integer.valueOf(page));
+        String text = done ? completed.get(Integer.valueOf(page)) : source.getText(page);
+
+        if (done || hasTextLayer(text)) {
+          pages.add(CompletableFuture.completedFuture(text));
+        } else {
+
+          BufferedImage image = source.getImage(page);
+          inFlight.acquire();
+
+          pages.add(this.executor.submit(() -> {
+            try {
+              return ocr(progress, page, image);
+            } finally {
+              inFlight.release();
+            }
+          }));
+        }
+      }
+
+    } catch (InterruptedException e) {
+      pages.forEach(p -> p.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+
+    } catch (IOException | RuntimeException e) {
+      pages.forEach(p -> p.cancel(true));
+      throw e;
+    }
+
+    join(pages, writer);
+  }
+
+  /**
+   * OCR PDF {@link PDDocument}, pages with a text layer are not OCRed.
+   * 
+   * @param document {@link PDDocument}
+   * @param progress {@link OcrPageProgress}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  public void ocrPdf(final PDDocument document, final OcrPageProgress progress,
+      final Writer writer) throws IOException {
+
+    PDFRenderer renderer = new PDFRenderer(document);
+    PDFTextStripper stripper = new PDFTextStripper();
+
+    ocr(new PageSource() {
+
+      @Override
+      public BufferedImage getImage(final int page) throws IOException {
+        return renderer.renderImageWithDPI(page, PDF_DPI, ImageType.GRAY);
+      }
+
+      @Override
+      public int getPageCount() {
+        return document.getNumberOfPages();
+      }
+
+      @Override
+      public String getText(final int page) throws IOException {
+        stripper.setStartPage(page + 1);
+        stripper.setEndPage(page + 1);
+        return stripper.getText(document);
+      }
+    }, progress, writer);
+  }
+
+  /**
+   * OCR multi-page TIFF.
+   * 
+   * @param file {@link File}
+   * @param progress {@link OcrPageProgress}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  public void ocrTiff(final File file, final OcrPageProgress progress, final Writer writer)
+      throws IOException {
+
+    try (ImageInputStream is = ImageIO.createImageInputStream(file)) {
+
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(is);
+      if (!readers.hasNext()) {
+        throw new IOException("unable to read TIFF " + file.getName());
+      }
+
+      ImageReader reader = readers.next();
+      reader.setInput(is);
+
+      try {
+
+        ocr(new PageSource() {
+
+          @Override
+          public BufferedImage getImage(final int page) throws IOException {
+            return reader.read(page);
+          }
+
+          @Override
+          public int getPageCount() throws IOException {
+            return reader.getNumImages(true);
+          }
+
+          @Override
+          public String getText(final int page) {
+            return null;
+          }
+        }, progress, writer);
+
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Shutdown the OCR threads, each thread releases its {@link TesseractWrapper} resources as it
+   * exits.
+   */
+  public void shutdown() {
+    this.executor.shutdown();
+  }
+}
@@ -32,20 +32,32 @@ import static com.formkiq.aws.dynamodb.objects.MimeType.MIME_PNG;
 import static com.formkiq.aws.dynamodb.objects.MimeType.MIME_TIF;
 import static com.formkiq.aws.dynamodb.objects.MimeType.MIME_TIFF;
 import static com.formkiq.aws.dynamodb.objects.MimeType.MIME_WEBP;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
 import com.formkiq.aws.dynamodb.objects.MimeType;
+import com.formkiq.aws.s3.S3Service;
+import com.formkiq.module.lambda.ocr.pdf.PdfFormatConverter;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.ocr.DocumentOcrService;
 import com.formkiq.module.ocr.FormatConverter;
 import com.formkiq.module.ocr.FormatConverterResult;
 import com.formkiq.module.ocr.OcrScanStatus;
 import com.formkiq.module.ocr.OcrSqsMessage;
+import com.formkiq.module.ocr.pdf.PdfPortfolio;
 import net.sourceforge.tess4j.TesseractException;
 
 /**
- * Tesseract {@link FormatConverter}.
+ * Tesseract {@link FormatConverter}. Multi-page PDF and TIFF documents are OCRed page by page in
+ * parallel.
  */
 public class TesseractFormatConverter implements FormatConverter {
 
@@ -53,6 +65,12 @@ public class TesseractFormatConverter implements FormatConverter {
   private static final List<MimeType> SUPPORTED = Arrays.asList(MIME_PNG, MIME_JPEG, MIME_JPG,
       MIME_TIF, MIME_TIFF, MIME_GIF, MIME_WEBP, MIME_BMP, MIME_PDF);
 
+  /** {@link PageOcrExecutor}. */
+  private PageOcrExecutor pageOcr;
+  /** {@link PdfFormatConverter} for PDF Portfolios. */
+  private PdfFormatConverter pdfConverter = new PdfFormatConverter();
+  /** {@link PdfPortfolio}. */
+  private PdfPortfolio pdfPortfolio = new PdfPortfolio();
   /** {@link TesseractWrapper}. */
   private TesseractWrapper tesseract;
 
@@ -63,17 +81,92 @@ public class TesseractFormatConverter implements FormatConverter {
    */
   public TesseractFormatConverter(final TesseractWrapper tesseractWrapper) {
     this.tesseract = tesseractWrapper;
+    this.pageOcr = new PageOcrExecutor(tesseractWrapper);
   }
 
   @Override
   public FormatConverterResult convert(final AwsServiceCache awsServices,
       final OcrSqsMessage sqsMessage, final File file) throws IOException {
-    try {
-      String text = this.tesseract.doOcr(file);
-      return new FormatConverterResult().text(text).status(OcrScanStatus.SUCCESSFUL);
-    } catch (TesseractException e) {
-      throw new IOException(e);
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    OcrScanStatus status = convert(awsServices, sqsMessage, file, os);
+
+    return new FormatConverterResult().text(os.toString(StandardCharsets.UTF_8)).status(status);
+  }
+
+  @Override
+  public OcrScanStatus convert(final AwsServiceCache awsServices, final OcrSqsMessage sqsMessage,
+      final File file, final OutputStream os) throws IOException {
+
+    Writer writer = new OutputStreamWriter(os, StandardCharsets.UTF_8);
+    MimeType mt = MimeType.fromContentType(sqsMessage.contentType());
+
+    if (MIME_PDF.equals(mt)) {
+
+      convertPdf(awsServices, sqsMessage, file, writer);
+
+    } else if (MIME_TIF.equals(mt) || MIME_TIFF.equals(mt)) {
+
+      OcrPageProgress progress = getProgress(awsServices, sqsMessage);
+      this.pageOcr.ocrTiff(file, progress, writer);
+      progress.delete();
+
+    } else {
+
+      try {
+        writer.write(this.tesseract.doOcr(file));
+      } catch (TesseractException e) {
+        throw new IOException(e);
+      }
     }
+
+    writer.flush();
+    return OcrScanStatus.SUCCESSFUL;
+  }
+
+  /**
+   * Convert PDF, PDF Portfolios are converted by {@link PdfFormatConverter}.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @param sqsMessage {@link OcrSqsMessage}
+   * @param file {@link File}
+   * @param writer {@link Writer}
+   * @throws IOException IOException
+   */
+  private void convertPdf(final AwsServiceCache awsServices, final OcrSqsMessage sqsMessage,
+      final File file, final Writer writer) throws IOException {
+
+    try (PDDocument document = Loader.loadPDF(file)) {
+
+      if (this.pdfPortfolio.isPdfPortfolio(document)) {
+
+        this.pdfConverter.writeText(document, writer);
+
+      } else {
+
+        OcrPageProgress progress = getProgress(awsServices, sqsMessage);
+        this.pageOcr.ocrPdf(document, progress, writer);
+        progress.delete();
+      }
+    }
+  }
+
+  /**
+   * Get {@link OcrPageProgress} of the OCR job.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @param sqsMessage {@link OcrSqsMessage}
+   * @return {@link OcrPageProgress}
+   */
+  private OcrPageProgress getProgress(final AwsServiceCache awsServices,
+      final OcrSqsMessage sqsMessage) {
+
+    DocumentOcrService ocrService = awsServices.getExtension(DocumentOcrService.class);
+    String key =
+        ocrService.getS3Key(sqsMessage.siteId(), sqsMessage.documentId(), sqsMessage.jobId());
+
+    return new OcrPageProgress(awsServices.getExtension(S3Service.class),
+        awsServices.environment("OCR_S3_BUCKET"), key + ".pages/");
   }
 
   @Override
@@ -23,6 +23,7 @@
  */
 package com.formkiq.module.lambda.ocr.tesseract;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import net.sourceforge.tess4j.TesseractException;
 
@@ -41,4 +42,20 @@ public interface TesseractWrapper {
    * @throws TesseractException TesseractException
    */
   String doOcr(File imageFile) throws TesseractException;
+
+  /**
+   * Performs OCR operation on a single page image.
+   *
+   * @param image {@link BufferedImage}
+   * @return the recognized text
+   * @throws TesseractException TesseractException
+   */
+  String doOcr(BufferedImage image) throws TesseractException;
+
+  /**
+   * Release the resources held for the calling thread, called by OCR threads as they exit.
+   */
+  default void release() {
+    // nothing to release by default
+  }
 }
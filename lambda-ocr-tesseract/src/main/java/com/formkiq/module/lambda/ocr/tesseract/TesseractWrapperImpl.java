@@ -23,28 +23,156 @@
  */
 package com.formkiq.module.lambda.ocr.tesseract;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
-import net.sourceforge.tess4j.Tesseract;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.IIOImage;
+import com.sun.jna.Pointer;
+import net.sourceforge.tess4j.ITessAPI.TessBaseAPI;
+import net.sourceforge.tess4j.ITessAPI.TessOcrEngineMode;
+import net.sourceforge.tess4j.ITessAPI.TessPageSegMode;
+import net.sourceforge.tess4j.TessAPI1;
 import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.util.ImageIOHelper;
 
 /**
  * 
- * {@link Tesseract} implement of {@link TesseractWrapper}.
+ * Tesseract implement of {@link TesseractWrapper}. A native {@link TessBaseAPI} handle is created
+ * and initialized once per OCR thread, then reused across pages and documents, so each page only
+ * sets the image and reads back the text.
  *
  */
-public class TesseractWrapperImpl implements TesseractWrapper {
+public class TesseractWrapperImpl implements TesseractWrapper, AutoCloseable {
+
+  /** Tesseract data path. */
+  private static final String DATAPATH = "/opt/tesseract/share/tessdata/";
+  /** Tesseract language. */
+  private static final String LANGUAGE = "eng";
+  /** Bits per byte. */
+  private static final double BITS_PER_BYTE = 8.0;
+
+  /** {@link TessBaseAPI} handle per thread. */
+  private final Map<Thread, TessBaseAPI> handles = new ConcurrentHashMap<>();
+
+  /**
+   * Delete all {@link TessBaseAPI} handles.
+   */
+  @Override
+  public void close() {
+    for (Thread thread : this.handles.keySet()) {
+      TessBaseAPI handle = this.handles.remove(thread);
+      if (handle != null) {
+        deleteHandle(handle);
+      }
+    }
+  }
+
+  /**
+   * Create and initialize a {@link TessBaseAPI} handle.
+   * 
+   * @return {@link TessBaseAPI}
+   * @throws TesseractException TesseractException
+   */
+  private static TessBaseAPI createHandle() throws TesseractException {
+
+    TessBaseAPI handle = TessAPI1.TessBaseAPICreate();
+
+    if (TessAPI1.TessBaseAPIInit2(handle, DATAPATH, LANGUAGE,
+        TessOcrEngineMode.OEM_LSTM_ONLY) != 0) {
+      TessAPI1.TessBaseAPIDelete(handle);
+      throw new TesseractException("unable to initialize tesseract");
+    }
+
+    TessAPI1.TessBaseAPISetPageSegMode(handle, TessPageSegMode.PSM_AUTO_OSD);
+    return handle;
+  }
+
+  /**
+   * Delete a {@link TessBaseAPI} handle.
+   * 
+   * @param handle {@link TessBaseAPI}
+   */
+  private static void deleteHandle(final TessBaseAPI handle) {
+    TessAPI1.TessBaseAPIEnd(handle);
+    TessAPI1.TessBaseAPIDelete(handle);
+  }
+
+  @Override
+  public String doOcr(final BufferedImage image) throws TesseractException {
+
+    TessBaseAPI handle = getHandle();
+
+    int bpp = image.getColorModel().getPixelSize();
+    int bytesPerLine = (int) Math.ceil(image.getWidth() * bpp / BITS_PER_BYTE);
+
+    String result;
+
+    try {
+
+      TessAPI1.TessBaseAPISetImage(handle, ImageIOHelper.convertImageData(image),
+          image.getWidth(), image.getHeight(), (int) (bpp / BITS_PER_BYTE), bytesPerLine);
+
+      Pointer text = TessAPI1.TessBaseAPIGetUTF8Text(handle);
+      if (text == null) {
+        throw new TesseractException("unable to OCR image");
+      }
+
+      try {
+        result = text.getString(0, StandardCharsets.UTF_8.name());
+      } finally {
+        TessAPI1.TessDeleteText(text);
+      }
+
+    } finally {
+      TessAPI1.TessBaseAPIClear(handle);
+    }
+
+    return result;
+  }
 
   @Override
   public String doOcr(final File imageFile) throws TesseractException {
 
-    Tesseract tesseract = new Tesseract();
-    tesseract.setDatapath("/opt/tesseract/share/tessdata/");
-    tesseract.setLanguage("eng");
-    tesseract.setPageSegMode(1);
-    tesseract.setOcrEngineMode(1);
+    StringBuilder sb = new StringBuilder();
 
-    String text = tesseract.doOCR(imageFile);
-    return text;
+    try {
+      for (IIOImage image : ImageIOHelper.getIIOImageList(imageFile)) {
+        sb.append(doOcr((BufferedImage) image.getRenderedImage()));
+      }
+    } catch (IOException e) {
+      throw new TesseractException(e);
+    }
+
+    return sb.toString();
+  }
+
+  /**
+   * Get the calling thread's {@link TessBaseAPI} handle, creating it on first use.
+   * 
+   * @return {@link TessBaseAPI}
+   * @throws TesseractException TesseractException
+   */
+  private TessBaseAPI getHandle() throws TesseractException {
+
+    Thread thread = Thread.currentThread();
+    TessBaseAPI handle = this.handles.get(thread);
+
+    if (handle == null) {
+      handle = createHandle();
+      this.handles.put(thread, handle);
+    }
+
+    return handle;
   }
 
+  @Override
+  public void release() {
+    TessBaseAPI handle = this.handles.remove(Thread.currentThread());
+    if (handle != null) {
+      deleteHandle(handle);
+    }
+  }
 }
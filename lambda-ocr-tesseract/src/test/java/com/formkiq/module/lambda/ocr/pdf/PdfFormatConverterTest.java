@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.lambda.ocr.pdf;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.formkiq.aws.dynamodb.objects.MimeType;
+import com.formkiq.module.ocr.FormatConverterResult;
+import com.formkiq.module.ocr.OcrScanStatus;
+import com.formkiq.module.ocr.OcrSqsMessage;
+
+/**
+ * Unit Tests for {@link PdfFormatConverter}.
+ */
+public class PdfFormatConverterTest {
+
+  /** Temporary Directory. */
+  @TempDir
+  private File tempDir;
+
+  /**
+   * Count the occurrences of a {@link String}.
+   * 
+   * @param text {@link String}
+   * @param s {@link String}
+   * @return int
+   */
+  private static int count(final String text, final String s) {
+    int count = 0;
+    for (int i = text.indexOf(s); i >= 0; i = text.indexOf(s, i + 1)) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Create PDF file, with a page for each text.
+   * 
+   * @param pages {@link List} {@link String}
+   * @return {@link File}
+   * @throws IOException IOException
+   */
+  private File createPdf(final List<String> pages) throws IOException {
+
+    final int x = 50;
+    final int y = 700;
+    final float fontSize = 12;
+    File file = new File(this.tempDir, "test.pdf");
+
+    try (PDDocument document = new PDDocument()) {
+
+      for (String text : pages) {
+
+        PDPage page = new PDPage();
+        document.addPage(page);
+
+        try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+          cs.beginText();
+          cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
+          cs.newLineAtOffset(x, y);
+          cs.showText(text);
+          cs.endText();
+        }
+      }
+
+      document.save(file);
+    }
+
+    return file;
+  }
+
+  /**
+   * Test each page's text is written exactly once and in page order.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testConvert01() throws Exception {
+    // given
+    List<String> pages = Arrays.asList("first page text", "second page text", "third page text");
+    File file = createPdf(pages);
+    OcrSqsMessage sqsMessage = new OcrSqsMessage().contentType(MimeType.MIME_PDF.getContentType());
+
+    // when
+    FormatConverterResult result = new PdfFormatConverter().convert(null, sqsMessage, file);
+
+    // then
+    assertEquals(OcrScanStatus.SUCCESSFUL, result.status());
+
+    String text = result.text();
+    int last = -1;
+    for (String page : pages) {
+      assertEquals(1, count(text, page));
+      assertTrue(text.indexOf(page) > last);
+      last = text.indexOf(page);
+    }
+  }
+
+  /**
+   * Test writing the text of a range of pages.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testWriteText01() throws Exception {
+    // given
+    final int startPage = 2;
+    final int endPage = 3;
+    List<String> pages =
+        Arrays.asList("first page text", "second page text", "third page text", "last page text");
+    File file = createPdf(pages);
+    StringWriter writer = new StringWriter();
+
+    // when
+    new PdfFormatConverter().writeText(file, writer, startPage, endPage);
+
+    // then
+    String text = writer.toString();
+    assertEquals(0, count(text, pages.get(0)));
+    assertEquals(1, count(text, pages.get(1)));
+    assertEquals(1, count(text, pages.get(2)));
+    assertEquals(0, count(text, pages.get(pages.size() - 1)));
+    assertTrue(text.indexOf(pages.get(1)) < text.indexOf(pages.get(2)));
+  }
+}
@@ -30,13 +30,29 @@ import static com.formkiq.testutils.aws.TestServices.BUCKET_NAME;
 import static com.formkiq.testutils.aws.TestServices.OCR_BUCKET_NAME;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -52,9 +68,6 @@ import com.formkiq.module.actions.Action;
 import com.formkiq.module.actions.ActionStatus;
 import com.formkiq.module.actions.ActionType;
 import com.formkiq.module.actions.services.ActionsService;
-import com.formkiq.module.lambda.ocr.docx.DocFormatConverter;
-import com.formkiq.module.lambda.ocr.docx.DocxFormatConverter;
-import com.formkiq.module.lambda.ocr.pdf.PdfFormatConverter;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
 import com.formkiq.module.ocr.DocumentOcrService;
@@ -109,17 +122,132 @@ class OcrTesseractProcessorTest {
         .build();
 
     TesseractWrapperData wrapper = new TesseractWrapperData(OCR_TEXT);
-    processor = new OcrTesseractProcessor(services, Arrays.asList(new DocxFormatConverter(),
-        new DocFormatConverter(), new PdfFormatConverter(), new TesseractFormatConverter(wrapper)));
+    processor =
+        new OcrTesseractProcessor(services, OcrTesseractProcessor.getDefaultConverters(wrapper));
 
     ocrService = services.getExtension(DocumentOcrService.class);
     s3 = services.getExtension(S3Service.class);
     actionsService = services.getExtension(ActionsService.class);
   }
 
+  /**
+   * Create multi-page TIFF.
+   * 
+   * @param pages int
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  private static byte[] createTiff(final int pages) throws IOException {
+
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
+
+    try (ImageOutputStream ios = ImageIO.createImageOutputStream(os)) {
+      writer.setOutput(ios);
+      writer.prepareWriteSequence(null);
+
+      for (int i = 0; i < pages; i++) {
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_BYTE_GRAY);
+        writer.writeToSequence(new IIOImage(image, null, null), null);
+      }
+
+      writer.endWriteSequence();
+    } finally {
+      writer.dispose();
+    }
+
+    return os.toByteArray();
+  }
+
+  /**
+   * Create PDF, a page for each text. Pages with a null text only contain an image, like a scanned
+   * page.
+   * 
+   * @param pages {@link String}
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  private static byte[] createPdf(final String... pages) throws IOException {
+
+    final int size = 100;
+    final int x = 50;
+    final int y = 600;
+    final float fontSize = 12;
+
+    try (PDDocument document = new PDDocument()) {
+
+      for (String text : pages) {
+
+        PDPage page = new PDPage();
+        document.addPage(page);
+
+        try (PDPageContentStream cs = new PDPageContentStream(document, page)) {
+
+          if (text != null) {
+            cs.beginText();
+            cs.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), fontSize);
+            cs.newLineAtOffset(x, y);
+            cs.showText(text);
+            cs.endText();
+          } else {
+            BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_BYTE_GRAY);
+            PDImageXObject img = LosslessFactory.createFromImage(document, image);
+            cs.drawImage(img, x, y);
+          }
+        }
+      }
+
+      ByteArrayOutputStream os = new ByteArrayOutputStream();
+      document.save(os);
+      return os.toByteArray();
+    }
+  }
+
   /** {@link Context}. */
   private Context context = new LambdaContextRecorder();
 
+  /**
+   * OCR application/pdf document.
+   * 
+   * @param siteId {@link String}
+   * @param pdf byte[]
+   * @return {@link String} OCR content
+   * @throws Exception Exception
+   */
+  private String ocrPdf(final String siteId, final byte[] pdf) throws Exception {
+
+    String documentId = UUID.randomUUID().toString();
+    String jobId = UUID.randomUUID().toString();
+
+    List<Action> actions = Arrays
+        .asList(new Action().type(ActionType.OCR).status(ActionStatus.RUNNING).userId("joe"));
+    actionsService.saveNewActions(siteId, documentId, actions);
+
+    String documentS3Key = createS3Key(siteId, documentId);
+    s3.putObject(BUCKET_NAME, documentS3Key, pdf, MimeType.MIME_PDF.getContentType());
+
+    Ocr ocr = new Ocr().documentId(documentId).jobId(jobId).engine(OcrEngine.TESSERACT)
+        .status(OcrScanStatus.REQUESTED);
+    ocrService.save(siteId, ocr);
+
+    SqsMessageRecord record = new SqsMessageRecord().eventSource("aws:sqs")
+        .body(GSON.toJson(Map.of("siteId", siteId, "documentId", documentId, "jobId", jobId,
+            "contentType", MimeType.MIME_PDF.getContentType())));
+    SqsMessageRecords records = new SqsMessageRecords().records(Arrays.asList(record));
+
+    String json = GSON.toJson(records);
+    InputStream is = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+
+    processor.handleRequest(is, null, this.context);
+
+    assertEquals("SUCCESSFUL", ocrService.get(siteId, documentId).status().name());
+    assertEquals(ActionStatus.COMPLETE,
+        actionsService.getActions(siteId, documentId).get(0).status());
+
+    String ocrS3Key = ocrService.getS3Key(siteId, documentId, jobId);
+    return s3.getContentAsString(OCR_BUCKET_NAME, ocrS3Key, null);
+  }
+
   /**
    * Test S3 File doesn't exist.
    * 
@@ -449,4 +577,157 @@ class OcrTesseractProcessorTest {
       assertEquals(ActionStatus.COMPLETE, actions.get(0).status());
     }
   }
+
+  /**
+   * Test Successful multi-page image/tiff OCR resuming from saved pages.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest08() throws Exception {
+    // given
+    final int pages = 3;
+    for (String siteId : Arrays.asList("default", UUID.randomUUID().toString())) {
+
+      String documentId = UUID.randomUUID().toString();
+      String jobId = UUID.randomUUID().toString();
+
+      List<Action> actions = Arrays
+          .asList(new Action().type(ActionType.OCR).status(ActionStatus.RUNNING).userId("joe"));
+      actionsService.saveNewActions(siteId, documentId, actions);
+
+      String documentS3Key = createS3Key(siteId, documentId);
+      s3.putObject(BUCKET_NAME, documentS3Key, createTiff(pages),
+          MimeType.MIME_TIFF.getContentType());
+
+      String ocrS3Key = ocrService.getS3Key(siteId, documentId, jobId);
+      s3.putObject(OCR_BUCKET_NAME, ocrS3Key + ".pages/0",
+          "page one ".getBytes(StandardCharsets.UTF_8), "text/plain");
+
+      Ocr ocr = new Ocr().documentId(documentId).jobId(jobId).engine(OcrEngine.TESSERACT)
+          .status(OcrScanStatus.REQUESTED);
+      ocrService.save(siteId, ocr);
+
+      SqsMessageRecord record = new SqsMessageRecord().eventSource("aws:sqs")
+          .body(GSON.toJson(Map.of("siteId", siteId, "documentId", documentId, "jobId", jobId,
+              "contentType", MimeType.MIME_TIFF.getContentType())));
+      SqsMessageRecords records = new SqsMessageRecords().records(Arrays.asList(record));
+
+      String json = GSON.toJson(records);
+      InputStream is = new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+
+      // when
+      processor.handleRequest(is, null, this.context);
+
+      // then
+      Ocr obj = ocrService.get(siteId, documentId);
+      assertEquals("SUCCESSFUL", obj.status().name());
+
+      assertEquals("page one " + OCR_TEXT + OCR_TEXT,
+          s3.getContentAsString(OCR_BUCKET_NAME, ocrS3Key, null));
+      assertTrue(
+          s3.listObjects(OCR_BUCKET_NAME, ocrS3Key + ".pages/").contents().isEmpty());
+
+      actions = actionsService.getActions(siteId, documentId);
+      assertEquals(ActionStatus.COMPLETE, actions.get(0).status());
+    }
+  }
+
+  /**
+   * Test scanned application/pdf is OCRed.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest09() throws Exception {
+    // given
+    for (String siteId : Arrays.asList("default", UUID.randomUUID().toString())) {
+
+      byte[] pdf = createPdf(null, null);
+
+      // when
+      String content = ocrPdf(siteId, pdf);
+
+      // then
+      assertEquals(OCR_TEXT + OCR_TEXT, content);
+    }
+  }
+
+  /**
+   * Test application/pdf pages with a text layer are not OCRed, pages with less text than the
+   * minimum are.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testHandleRequest10() throws Exception {
+    // given
+    final String text = "This page has a text layer of its own";
+    for (String siteId : Arrays.asList("default", UUID.randomUUID().toString())) {
+
+      byte[] pdf = createPdf(text, "7");
+
+      // when
+      String content = ocrPdf(siteId, pdf);
+
+      // then
+      assertTrue(content.startsWith(text));
+      assertTrue(content.endsWith(OCR_TEXT));
+      assertEquals(content.indexOf(OCR_TEXT), content.lastIndexOf(OCR_TEXT));
+    }
+  }
+
+  /**
+   * Test {@link OcrPageProgress} loads and deletes more pages than a single S3 listing returns.
+   */
+  @Test
+  void testOcrPageProgress01() {
+    // given
+    final int pages = 1001;
+    String prefix = UUID.randomUUID() + ".pages/";
+    OcrPageProgress progress = new OcrPageProgress(s3, OCR_BUCKET_NAME, prefix);
+
+    for (int i = 0; i < pages; i++) {
+      progress.save(i, "page " + i);
+    }
+
+    // when
+    Map<Integer, String> loaded = progress.load();
+    progress.delete();
+
+    // then
+    assertEquals(pages, loaded.size());
+    assertEquals("page " + (pages - 1), loaded.get(Integer.valueOf(pages - 1)));
+    assertTrue(s3.listObjects(OCR_BUCKET_NAME, prefix).contents().isEmpty());
+  }
+
+  /**
+   * Test {@link PageOcrExecutor} threads release their {@link TesseractWrapper} resources on
+   * shutdown.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testPageOcrExecutor01() throws Exception {
+    // given
+    final int threads = 2;
+    final long timeout = 10;
+    TesseractWrapperData wrapper = new TesseractWrapperData(OCR_TEXT);
+    PageOcrExecutor executor = new PageOcrExecutor(wrapper, threads);
+    OcrPageProgress progress =
+        new OcrPageProgress(s3, OCR_BUCKET_NAME, UUID.randomUUID() + ".pages/");
+    StringWriter writer = new StringWriter();
+
+    try (PDDocument document = Loader.loadPDF(createPdf(null, null, null))) {
+      executor.ocrPdf(document, progress, writer);
+    }
+
+    // when
+    executor.shutdown();
+
+    // then
+    assertEquals(OCR_TEXT + OCR_TEXT + OCR_TEXT, writer.toString());
+    assertTrue(wrapper.awaitRelease(threads, timeout));
+    progress.delete();
+  }
 }
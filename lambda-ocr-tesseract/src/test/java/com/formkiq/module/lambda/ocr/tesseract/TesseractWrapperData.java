@@ -23,7 +23,10 @@
  */
 package com.formkiq.module.lambda.ocr.tesseract;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import net.sourceforge.tess4j.TesseractException;
 
 /**
@@ -35,6 +38,8 @@ public class TesseractWrapperData implements TesseractWrapper {
 
   /** {@link String}. */
   private String data;
+  /** Released threads. */
+  private final Semaphore released = new Semaphore(0);
 
   /**
    * constructor.
@@ -45,9 +50,31 @@ public class TesseractWrapperData implements TesseractWrapper {
     this.data = s;
   }
 
+  /**
+   * Wait for threads to release their resources.
+   * 
+   * @param threads int
+   * @param seconds long
+   * @return boolean
+   * @throws InterruptedException InterruptedException
+   */
+  public boolean awaitRelease(final int threads, final long seconds)
+      throws InterruptedException {
+    return this.released.tryAcquire(threads, seconds, TimeUnit.SECONDS);
+  }
+
+  @Override
+  public String doOcr(final BufferedImage image) throws TesseractException {
+    return this.data;
+  }
+
   @Override
   public String doOcr(final File imageFile) throws TesseractException {
     return this.data;
   }
 
+  @Override
+  public void release() {
+    this.released.release();
+  }
 }
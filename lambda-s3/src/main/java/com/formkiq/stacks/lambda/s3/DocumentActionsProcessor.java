@@ -40,10 +40,13 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -105,10 +108,22 @@ import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsPro
 
 /** {@link RequestHandler} for handling Document Actions. */
 @Reflectable
-public class DocumentActionsProcessor implements RequestHandler<Map<String, Object>, Void>, DbKeys {
+public class DocumentActionsProcessor
+    implements RequestHandler<Map<String, Object>, Map<String, Object>>, DbKeys {
 
   /** Default Maximum for Typesense Content. */
   private static final int DEFAULT_TYPESENSE_CHARACTER_MAX = 32768;
+  /** Actions that run inside this function and can run one after another without a queue hop. */
+  private static final Set<ActionType> LOCAL_ACTIONS =
+      EnumSet.of(ActionType.DOCUMENTTAGGING, ActionType.NOTIFICATION, ActionType.QUEUE);
+  /** Minimum remaining Lambda time in milliseconds to start another local action. */
+  private static final long MIN_REMAINING_TIME = 20000;
+  /** Lease time of a claimed action, the maximum Lambda run time. */
+  private static final long LEASE_TIME = TimeUnit.MINUTES.toMillis(15);
+  /** Lease time of an action handed off to another service to complete. */
+  private static final long HANDOFF_LEASE_TIME = TimeUnit.HOURS.toMillis(1);
+  /** {@link RecordBatchExecutor}. */
+  private static RecordBatchExecutor batchExecutor;
   /** {@link AwsServiceCache}. */
   private static AwsServiceCache serviceCache;
 
@@ -167,6 +182,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     AwsCredentials awsCredentials = awsServiceCache.getExtension(AwsCredentials.class);
     awsServiceCache.register(HttpService.class, new ClassServiceExtension<HttpService>(
         new HttpServiceSigv4(awsServiceCache.region(), awsCredentials)));
+
+    batchExecutor = new RecordBatchExecutor(awsServiceCache);
   }
 
   /** {@link Gson}. */
@@ -293,22 +310,12 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
    * @param action {@link Action}
    * @param contentUrls {@link List} {@link String}
    * @return {@link String}
-   * @throws URISyntaxException URISyntaxException
    * @throws IOException IOException
-   * @throws InterruptedException InterruptedException
    */
   private String getContent(final DocumentContentFunction dcFunc, final Action action,
-      final List<String> contentUrls) throws URISyntaxException, IOException, InterruptedException {
-
-    StringBuilder sb = dcFunc.getContentUrls(contentUrls);
-
-    int characterMax = getCharacterMax(action);
+      final List<String> contentUrls) throws IOException {
 
-    String content =
-        characterMax != -1 && sb.length() > characterMax ? sb.substring(0, characterMax)
-            : sb.toString();
-
-    return content;
+    return dcFunc.getContent(contentUrls, getCharacterMax(action));
   }
 
   private ActionsNotificationService getNotificationService() {
@@ -357,7 +364,8 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
   @SuppressWarnings("unchecked")
   @Override
-  public Void handleRequest(final Map<String, Object> map, final Context context) {
+  public Map<String, Object> handleRequest(final Map<String, Object> map,
+      final Context context) {
 
     LambdaLogger logger = context.getLogger();
 
@@ -366,21 +374,47 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
       logger.log(json);
     }
 
+    final long deadline = System.currentTimeMillis() + context.getRemainingTimeInMillis();
+
     List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
-    try {
-      processRecords(logger, records);
-    } catch (IOException | InterruptedException e) {
-      e.printStackTrace();
-      throw new RuntimeException(e);
-    }
+    return batchExecutor.execute(logger, records, r -> (String) r.get("messageId"), r -> {
+      DocumentEvent event = toDocumentEvent(r);
+      return event != null ? event.siteId() + "/" + event.documentId() : null;
+    }, r -> processRecord(logger, r, deadline));
+  }
 
-    return null;
+  /**
+   * Find the next PENDING {@link Action} if it can run in this invocation.
+   * 
+   * @param actions {@link List} {@link Action}
+   * @param deadline long
+   * @return {@link Action}
+   */
+  private Action findNextLocalAction(final List<Action> actions, final long deadline) {
+
+    Optional<Action> o =
+        actions.stream().filter(new ActionStatusPredicate(ActionStatus.PENDING)).findFirst();
+
+    boolean hasTime = deadline - System.currentTimeMillis() > MIN_REMAINING_TIME;
+
+    return o.isPresent() && LOCAL_ACTIONS.contains(o.get().type()) && hasTime ? o.get() : null;
   }
 
   private boolean isDebug() {
     return serviceCache.debug();
   }
 
+  /**
+   * Is the lease of a RUNNING {@link Action} expired, actions without a lease never expire.
+   * 
+   * @param action {@link Action}
+   * @return boolean
+   */
+  private boolean isLeaseExpired(final Action action) {
+    Date leaseExpiry = action.leaseExpiry();
+    return leaseExpiry != null && leaseExpiry.before(new Date());
+  }
+
   /**
    * Log Start of {@link Action}.
    * 
@@ -412,10 +446,12 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
    * @param documentId {@link String}
    * @param actions {@link List} {@link Action}
    * @param action {@link Action}
+   * @return {@link ActionStatus} to complete a local {@link Action} with, null when the
+   *         {@link Action} completes itself
    * @throws IOException IOException
    * @throws InterruptedException InterruptedException
    */
-  private void processAction(final LambdaLogger logger, final String siteId,
+  private ActionStatus processAction(final LambdaLogger logger, final String siteId,
       final String documentId, final List<Action> actions, final Action action)
       throws IOException, InterruptedException {
 
@@ -464,13 +500,11 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
     logAction(logger, "action complete", siteId, documentId, action);
 
-    if (updateComplete) {
-      updateComplete(logger, siteId, documentId, actions, action, completeStatus);
-    }
+    return updateComplete ? completeStatus : null;
   }
 
   /**
-   * Process {@link DocumentEvent}.
+   * Process {@link DocumentEvent}, with no limit on running consecutive local actions.
    * 
    * @param logger {@link LambdaLogger}
    * @param event {@link DocumentEvent}
@@ -479,6 +513,22 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
    */
   public void processEvent(final LambdaLogger logger, final DocumentEvent event)
       throws IOException, InterruptedException {
+    processEvent(logger, event, Long.MAX_VALUE);
+  }
+
+  /**
+   * Process {@link DocumentEvent}. Runs the next PENDING action and keeps running the following
+   * actions in this invocation while they are local and there is time left before the deadline,
+   * other actions are handed off to the actions queue.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param event {@link DocumentEvent}
+   * @param deadline long time in milliseconds the invocation must finish by
+   * @throws InterruptedException InterruptedException
+   * @throws IOException IOException
+   */
+  public void processEvent(final LambdaLogger logger, final DocumentEvent event,
+      final long deadline) throws IOException, InterruptedException {
 
     ActionsService actionsService = getActionsService();
 
@@ -491,36 +541,21 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
       Optional<Action> running =
           actions.stream().filter(new ActionStatusPredicate(ActionStatus.RUNNING)).findAny();
-      Optional<Action> o =
-          actions.stream().filter((new ActionStatusPredicate(ActionStatus.PENDING))).findFirst();
-
-      if (running.isPresent()) {
-
-        logger.log(
-            String.format("ACTIONS already RUNNING for SiteId %s Document %s", siteId, documentId));
+      Optional<Action> o = running.isPresent() ? running.filter(this::isLeaseExpired)
+          : actions.stream().filter((new ActionStatusPredicate(ActionStatus.PENDING))).findFirst();
 
-      } else if (o.isPresent()) {
+      if (o.isPresent() && actionsService.claimAction(siteId, documentId, o.get(), LEASE_TIME)) {
 
         Action action = o.get();
-        action.status(ActionStatus.RUNNING);
 
-        actionsService.updateActionStatus(siteId, documentId, action);
-
-        try {
-
-          processAction(logger, siteId, documentId, actions, action);
-
-        } catch (Exception e) {
-          e.printStackTrace();
-          action.status(ActionStatus.FAILED);
-          action.message(e.getMessage());
-
-          updateDocumentWorkflow(siteId, documentId, action);
+        while (action != null) {
+          action = runAction(logger, siteId, documentId, actions, action, deadline);
+        }
 
-          logger.log(String.format("Updating Action Status to %s", action.status()));
+      } else if (o.isPresent() || running.isPresent()) {
 
-          actionsService.updateActionStatus(siteId, documentId, action);
-        }
+        logger.log(
+            String.format("ACTIONS already RUNNING for SiteId %s Document %s", siteId, documentId));
 
       } else {
         logger
@@ -583,40 +618,99 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
   }
 
   /**
-   * Process Event Records.
+   * Process Event Record.
    * 
    * @param logger {@link LambdaLogger}
-   * @param records {@link List} {@link Map}
+   * @param record {@link Map}
+   * @param deadline long
    * @throws InterruptedException InterruptedException
    * @throws IOException IOException
    */
-  @SuppressWarnings("unchecked")
-  private void processRecords(final LambdaLogger logger, final List<Map<String, Object>> records)
-      throws IOException, InterruptedException {
+  private void processRecord(final LambdaLogger logger, final Map<String, Object> record,
+      final long deadline) throws IOException, InterruptedException {
 
-    for (Map<String, Object> e : records) {
+    DocumentEvent event = toDocumentEvent(record);
 
-      if (e.containsKey("body")) {
+    if (event != null) {
 
-        String body = e.get("body").toString();
+      String s = String.format(
+          "{\"siteId\": \"%s\",\"documentId\": \"%s\",\"s3key\": \"%s\",\"s3bucket\": \"%s\","
+              + "\"type\": \"%s\",\"userId\": %s,"
+              + "\"contentType\": \"%s\",\"path\":\"%s\",\"content\":%s}",
+          event.siteId(), event.documentId(), event.s3key(), event.s3bucket(), event.type(),
+          event.userId(), event.contentType(), event.path(), event.content());
 
-        Map<String, Object> map = this.gson.fromJson(body, Map.class);
-        if (map.containsKey("Message")) {
-          DocumentEvent event =
-              this.gson.fromJson(map.get("Message").toString(), DocumentEvent.class);
+      logger.log(s);
+      processEvent(logger, event, deadline);
+    }
+  }
+
+  /**
+   * Run a RUNNING {@link Action}.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param actions {@link List} {@link Action}
+   * @param action {@link Action}
+   * @param deadline long
+   * @return {@link Action} the next {@link Action} to run in this invocation, null if none
+   */
+  private Action runAction(final LambdaLogger logger, final String siteId,
+      final String documentId, final List<Action> actions, final Action action,
+      final long deadline) {
+
+    Action next = null;
+
+    try {
+
+      ActionStatus completeStatus = processAction(logger, siteId, documentId, actions, action);
+
+      if (completeStatus == null && ActionStatus.RUNNING.equals(action.status())) {
 
-          String s = String.format(
-              "{\"siteId\": \"%s\",\"documentId\": \"%s\",\"s3key\": \"%s\",\"s3bucket\": \"%s\","
-                  + "\"type\": \"%s\",\"userId\": %s,"
-                  + "\"contentType\": \"%s\",\"path\":\"%s\",\"content\":%s}",
-              event.siteId(), event.documentId(), event.s3key(), event.s3bucket(), event.type(),
-              event.userId(), event.contentType(), event.path(), event.content());
+        if (!getActionsService().renewActionLease(siteId, documentId, action,
+            HANDOFF_LEASE_TIME)) {
+          logger.log(String.format("unable to renew lease of action %s for %s, stopping",
+              action.type(), documentId));
+        }
+
+      } else if (completeStatus != null) {
+
+        action.status(completeStatus);
+        next = ActionStatus.COMPLETE.equals(completeStatus) ? findNextLocalAction(actions, deadline)
+            : null;
 
-          logger.log(s);
-          processEvent(logger, event);
+        if (next != null) {
+          next.status(ActionStatus.RUNNING)
+              .leaseExpiry(new Date(System.currentTimeMillis() + LEASE_TIME));
+
+          if (getActionsService().updateActionStatus(siteId, documentId, action, next)) {
+            logger.log(String.format("running next action %s for %s in process", next.type(),
+                documentId));
+          } else {
+            logger.log(String.format("lost the claim on action %s for %s, stopping",
+                action.type(), documentId));
+            next = null;
+          }
+        } else {
+          updateComplete(logger, siteId, documentId, actions, action, completeStatus);
         }
       }
+
+    } catch (Exception e) {
+      e.printStackTrace();
+      action.status(ActionStatus.FAILED);
+      action.message(e.getMessage());
+
+      updateDocumentWorkflow(siteId, documentId, action);
+
+      logger.log(String.format("Updating Action Status to %s", action.status()));
+
+      getActionsService().updateActionStatus(siteId, documentId, action);
+      next = null;
     }
+
+    return next;
   }
 
   private HttpResponse<String> sendRequest(final String siteId, final String method,
@@ -694,6 +788,30 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
     }
   }
 
+  /**
+   * Convert SQS Record to {@link DocumentEvent}.
+   * 
+   * @param record {@link Map}
+   * @return {@link DocumentEvent}, null if record is not a {@link DocumentEvent}
+   */
+  @SuppressWarnings("unchecked")
+  private DocumentEvent toDocumentEvent(final Map<String, Object> record) {
+
+    DocumentEvent event = null;
+
+    if (record.containsKey("body")) {
+
+      String body = record.get("body").toString();
+      Map<String, Object> map = this.gson.fromJson(body, Map.class);
+
+      if (map.containsKey("Message")) {
+        event = this.gson.fromJson(map.get("Message").toString(), DocumentEvent.class);
+      }
+    }
+
+    return event;
+  }
+
   /**
    * Update Complete Action.
    * 
@@ -797,21 +915,15 @@ public class DocumentActionsProcessor implements RequestHandler<Map<String, Obje
 
     TypeSenseService typesense = serviceCache.getExtension(TypeSenseService.class);
 
-    try {
-
-      String content = getContent(dcFunc, action, contentUrls);
-      Map<String, String> data = Map.of("content", content);
+    String content = getContent(dcFunc, action, contentUrls);
+    Map<String, String> data = Map.of("content", content);
 
-      Map<String, Object> document = new DocumentMapToDocument().apply(data);
+    Map<String, Object> document = new DocumentMapToDocument().apply(data);
 
-      HttpResponse<String> response = typesense.addOrUpdateDocument(siteId, documentId, document);
+    HttpResponse<String> response = typesense.addOrUpdateDocument(siteId, documentId, document);
 
-      if (!is2XX(response)) {
-        throw new IOException(response.body());
-      }
-
-    } catch (URISyntaxException | InterruptedException e) {
-      throw new IOException(e);
+    if (!is2XX(response)) {
+      throw new IOException(response.body());
     }
   }
 }
@@ -23,42 +23,73 @@
  */
 package com.formkiq.stacks.lambda.s3;
 
-import java.io.ByteArrayOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
 import com.formkiq.aws.dynamodb.model.DocumentItem;
 import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
 import com.formkiq.aws.s3.S3MultipartUploader;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.stacks.dynamodb.DocumentService;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
 /**
- * Class to Compress Document Contents into a zip file.
+ * Class to Compress Document Contents into a zip file. Documents are downloaded a bounded number
+ * ahead of the zip writer and the zip is uploaded in parts as it is written, so memory use does
+ * not depend on the number or size of documents.
  */
 public class DocumentCompressor {
-  /**
-   * Used to determine whether to use S3 multipart upload.
-   */
-  private static final long MAX_IN_MEMORY_CHUNK_SIZE = 64 * 1024 * 1024;
+
+  /** Default number of documents downloaded ahead of the zip writer. */
+  public static final int DEFAULT_PREFETCH = 4;
+  /** Extensions of already compressed files, which are stored without compression. */
+  private static final Set<String> COMPRESSED_EXTENSIONS = Set.of("7z", "avi", "bz2", "docx",
+      "gif", "gz", "jpeg", "jpg", "mov", "mp3", "mp4", "png", "pptx", "rar", "webp", "xlsx", "zip");
+  /** Content Types of already compressed files, which are stored without compression. */
+  private static final Set<String> COMPRESSED_CONTENT_TYPES =
+      Set.of("application/gzip", "application/x-7z-compressed", "application/x-bzip2",
+          "application/x-rar-compressed", "application/zip", "image/gif", "image/jpeg",
+          "image/png", "image/webp");
+  /** Maximum zip parts uploading at once. */
+  private static final int MAX_PARTS_IN_FLIGHT = 4;
+  /** Zip part size. */
+  private static final int PART_SIZE = 8 * 1024 * 1024;
+  /** Bytes of each document read ahead of the zip writer. */
+  private static final int PREFETCH_SIZE = 4 * 1024 * 1024;
+  /** Range Not Satisfiable, requested range starts past the end of the object. */
+  private static final int STATUS_RANGE_NOT_SATISFIABLE = 416;
+
+  /** Compression level of compressible documents. */
+  private final int compressionLevel;
   /**
    * To get documents S3 object keys.
    */
   private final DocumentService documentService;
-  /**
-   * Used to determine whether to use S3 multipart upload.
-   */
-  private final long maxInMemoryChunkSize;
   /**
    * For chunked upload of large files.
    */
   private final S3MultipartUploader multipartUploader;
+  /** Number of documents downloaded ahead of the zip writer. */
+  private final int prefetch;
   /**
    * S3 Service.
    */
@@ -70,56 +101,69 @@ public class DocumentCompressor {
    * @param serviceCache {@link AwsServiceCache}
    */
   public DocumentCompressor(final AwsServiceCache serviceCache) {
+    this(serviceCache, Deflater.DEFAULT_COMPRESSION, DEFAULT_PREFETCH);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param serviceCache {@link AwsServiceCache}
+   * @param level int, {@link Deflater} compression level of compressible documents
+   * @param prefetchCount int, number of documents downloaded ahead of the zip writer
+   */
+  public DocumentCompressor(final AwsServiceCache serviceCache, final int level,
+      final int prefetchCount) {
 
     this.s3 = serviceCache.getExtension(S3Service.class);
     this.multipartUploader =
         new S3MultipartUploader(serviceCache.getExtension(S3ConnectionBuilder.class));
     this.documentService = serviceCache.getExtension(DocumentService.class);
-    this.maxInMemoryChunkSize = MAX_IN_MEMORY_CHUNK_SIZE;
+    this.compressionLevel = level;
+    this.prefetch = Math.max(1, prefetchCount);
   }
 
-  private void archiveS3Objects(final String siteId, final String docsBucket,
-      final String archiveBucket, final String archiveKey,
-      final Map<DocumentItem, Long> documentSizeMap) throws IOException {
-
-    Long totalFilesSize = documentSizeMap.values().stream().reduce(Long.valueOf(0), Long::sum);
-    boolean isMultiPartUpload = totalFilesSize.longValue() > this.maxInMemoryChunkSize;
+  /**
+   * Write all documents to the zip.
+   * 
+   * @param zip {@link ZipOutputStream}
+   * @param executor {@link ExecutorService}
+   * @param siteId {@link String}
+   * @param docsBucket {@link String}
+   * @param documents {@link List} {@link DocumentItem}
+   * @throws IOException IOException
+   */
+  private void archiveS3Objects(final ZipOutputStream zip, final ExecutorService executor,
+      final String siteId, final String docsBucket, final List<DocumentItem> documents)
+      throws IOException {
 
-    ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    Deque<Future<InputStream>> window = new ArrayDeque<>();
+    Iterator<DocumentItem> pending = documents.iterator();
 
-    String multipartUploadId =
-        isMultiPartUpload ? this.multipartUploader.initializeUpload(archiveBucket, archiveKey)
-            : null;
+    try {
 
-    ZipOutputStream zipOutputStream = new ZipOutputStream(byteArrayOutputStream);
+      while (window.size() < this.prefetch && pending.hasNext()) {
+        window.add(submit(executor, siteId, docsBucket, pending.next()));
+      }
 
-    for (Map.Entry<DocumentItem, Long> docSizePair : documentSizeMap.entrySet()) {
-      DocumentItem document = docSizePair.getKey();
-      Long objectSize = docSizePair.getValue();
-      String s3Key = SiteIdKeyGenerator.createS3Key(siteId, document.getDocumentId());
-      ZipEntry zipEntry = new ZipEntry(document.getPath());
+      for (DocumentItem document : documents) {
 
-      zipOutputStream.putNextEntry(zipEntry);
+        Future<InputStream> next = window.poll();
+        if (pending.hasNext()) {
+          window.add(submit(executor, siteId, docsBucket, pending.next()));
+        }
 
-      if (isMultiPartUpload) {
-        transferObjectToZipInChunks(zipOutputStream, docsBucket, s3Key, byteArrayOutputStream,
-            multipartUploadId, objectSize);
-      } else {
-        transferObjectToZip(zipOutputStream, docsBucket, s3Key);
-      }
+        zip.setLevel(isCompressed(document) ? Deflater.NO_COMPRESSION : this.compressionLevel);
+        zip.putNextEntry(new ZipEntry(document.getPath()));
 
-      zipOutputStream.closeEntry();
-    }
+        try (InputStream content = get(next)) {
+          content.transferTo(zip);
+        }
 
-    zipOutputStream.close();
+        zip.closeEntry();
+      }
 
-    if (!isMultiPartUpload) {
-      this.s3.putObject(archiveBucket, archiveKey, byteArrayOutputStream.toByteArray(),
-          "application/zip");
-    } else {
-      zipOutputStream.flush();
-      this.uploadChunkIfNeeded(multipartUploadId, byteArrayOutputStream, true);
-      this.multipartUploader.completeUpload(multipartUploadId);
+    } finally {
+      window.forEach(f -> f.cancel(true));
     }
   }
 
@@ -137,65 +181,178 @@ public class DocumentCompressor {
       final String archiveBucket, final String archiveKey, final List<String> documentIds)
       throws IOException {
 
-    Map<DocumentItem, Long> documentContentSize =
-        getDocumentContentSizeMap(siteId, docsBucket, documentIds);
+    List<DocumentItem> documents = this.documentService.findDocuments(siteId, documentIds);
+    ExecutorService executor = Executors.newFixedThreadPool(this.prefetch + MAX_PARTS_IN_FLIGHT);
+
+    S3MultipartOutputStream out =
+        new S3MultipartOutputStream(this.s3, this.multipartUploader, executor, archiveBucket,
+            archiveKey).contentType("application/zip").partSize(PART_SIZE)
+            .maxPartsInFlight(MAX_PARTS_IN_FLIGHT);
+
+    try {
+
+      ZipOutputStream zip = new ZipOutputStream(out);
+      archiveS3Objects(zip, executor, siteId, docsBucket, documents);
 
-    archiveS3Objects(siteId, docsBucket, archiveBucket, archiveKey, documentContentSize);
+      // only close on success, closing completes the upload
+      zip.close();
+
+    } catch (IOException | RuntimeException e) {
+      out.abort();
+      throw e;
+    } finally {
+      executor.shutdownNow();
+    }
   }
 
-  private Map<DocumentItem, Long> getDocumentContentSizeMap(final String siteId,
-      final String bucket, final List<String> documentIds) {
+  /**
+   * Get a prefetched document.
+   * 
+   * @param future {@link Future}
+   * @return {@link InputStream}
+   * @throws IOException IOException
+   */
+  private InputStream get(final Future<InputStream> future) throws IOException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+  }
 
-    List<DocumentItem> documents = this.documentService.findDocuments(siteId, documentIds);
+  /**
+   * Whether the document is already compressed, so compressing again would only cost time.
+   * 
+   * @param document {@link DocumentItem}
+   * @return boolean
+   */
+  private boolean isCompressed(final DocumentItem document) {
+
+    String contentType = document.getContentType() != null ? document.getContentType() : "";
+    String path = document.getPath() != null ? document.getPath().toLowerCase(Locale.ROOT) : "";
+    int pos = path.lastIndexOf('.');
+    String extension = pos > -1 ? path.substring(pos + 1) : "";
+
+    boolean compressedType = COMPRESSED_CONTENT_TYPES.contains(contentType)
+        || contentType.startsWith("video/") || contentType.startsWith("audio/");
 
-    return documents.stream().collect(Collectors.toMap(item -> item,
-        item -> this.s3.getObjectMetadata(bucket,
-            SiteIdKeyGenerator.createS3Key(siteId, item.getDocumentId()), null)
-            .getContentLength()));
+    return compressedType || COMPRESSED_EXTENSIONS.contains(extension);
   }
 
-  private void transferObjectToZip(final ZipOutputStream outputStream, final String bucket,
-      final String key) throws IOException {
-    try (InputStream content = this.s3.getContentAsInputStream(bucket, key)) {
-      content.transferTo(outputStream);
+  /**
+   * Download the start of a document. Documents larger than the prefetch size return a stream
+   * that reads the rest of the document only when the zip writer reaches it.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param contentLength {@link Long}, length stored on the document, may be null
+   * @return {@link InputStream}
+   * @throws IOException IOException
+   */
+  private InputStream prefetch(final String bucket, final String key, final Long contentLength)
+      throws IOException {
+
+    InputStream result;
+
+    if (contentLength != null && contentLength.longValue() <= PREFETCH_SIZE) {
+
+      result = new ByteArrayInputStream(this.s3.getContentAsBytes(bucket, key));
+
+    } else {
+
+      byte[] head = readRange(bucket, key, "bytes=0-" + (PREFETCH_SIZE - 1));
+
+      if (head.length < PREFETCH_SIZE
+          || (contentLength != null && contentLength.longValue() == PREFETCH_SIZE)) {
+        result = new ByteArrayInputStream(head);
+      } else {
+
+        Iterator<Supplier<InputStream>> parts =
+            List.<Supplier<InputStream>>of(() -> new ByteArrayInputStream(head),
+                () -> remaining(bucket, key)).iterator();
+
+        // SequenceInputStream only requests the next stream once the previous one is read
+        result = new SequenceInputStream(new Enumeration<InputStream>() {
+          @Override
+          public boolean hasMoreElements() {
+            return parts.hasNext();
+          }
+
+          @Override
+          public InputStream nextElement() {
+            return parts.next().get();
+          }
+        });
+      }
     }
+
+    return result;
   }
 
-  private void transferObjectToZipInChunks(final ZipOutputStream zipOutputStream,
-      final String bucket, final String key, final ByteArrayOutputStream byteOutputStream,
-      final String uploadId, final Long objectSize) throws IOException {
-
-    final long maxChunkSize = this.maxInMemoryChunkSize;
-    final long lastByte = objectSize.longValue() - 1;
-    long start = 0L;
-    long end = Math.min(start + maxChunkSize, lastByte);
-    for (; start <= lastByte; start += maxChunkSize + 1, end =
-        Math.min(start + maxChunkSize, lastByte)) {
-
-      String rangeHeader = String.format("bytes=%d-%d", Long.valueOf(start), Long.valueOf(end));
-
-      try (InputStream chunk = this.s3.getContentPartAsInputStream(bucket, key, rangeHeader)) {
-
-        try {
-          chunk.transferTo(zipOutputStream);
-          zipOutputStream.flush();
-          this.uploadChunkIfNeeded(uploadId, byteOutputStream, false);
-        } catch (IOException e) {
-          this.multipartUploader.abortMultipartUpload(uploadId);
-          chunk.close();
-          throw e;
-        }
+  /**
+   * Read a byte range of a document.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @param range {@link String}
+   * @return byte[]
+   * @throws IOException IOException
+   */
+  private byte[] readRange(final String bucket, final String key, final String range)
+      throws IOException {
+
+    byte[] bytes;
+
+    try (InputStream is = this.s3.getContentStream(bucket, key, range)) {
+      bytes = is.readAllBytes();
+    } catch (S3Exception e) {
+      if (e.statusCode() != STATUS_RANGE_NOT_SATISFIABLE) {
+        throw e;
       }
+      bytes = new byte[0];
     }
+
+    return bytes;
   }
 
-  private void uploadChunkIfNeeded(final String uploadId, final ByteArrayOutputStream outputStream,
-      final boolean isFinal) {
-    // The minimum S3 part size for non-final chunk is 5MB
-    final long minS3MultipartUploadChunkSize = 5 * 1024 * 1024;
-    if (isFinal || outputStream.size() > minS3MultipartUploadChunkSize) {
-      this.multipartUploader.uploadChunk(uploadId, outputStream.toByteArray());
-      outputStream.reset();
+  /**
+   * Stream the rest of a document after the prefetched bytes.
+   * 
+   * @param bucket {@link String}
+   * @param key {@link String}
+   * @return {@link InputStream}
+   */
+  private InputStream remaining(final String bucket, final String key) {
+
+    InputStream is;
+
+    try {
+      is = this.s3.getContentStream(bucket, key, "bytes=" + PREFETCH_SIZE + "-");
+    } catch (S3Exception e) {
+      if (e.statusCode() != STATUS_RANGE_NOT_SATISFIABLE) {
+        throw e;
+      }
+      is = InputStream.nullInputStream();
     }
+
+    return is;
+  }
+
+  /**
+   * Start downloading a document.
+   * 
+   * @param executor {@link ExecutorService}
+   * @param siteId {@link String}
+   * @param bucket {@link String}
+   * @param document {@link DocumentItem}
+   * @return {@link Future}
+   */
+  private Future<InputStream> submit(final ExecutorService executor, final String siteId,
+      final String bucket, final DocumentItem document) {
+    String key = SiteIdKeyGenerator.createS3Key(siteId, document.getDocumentId());
+    return executor.submit(() -> prefetch(bucket, key, document.getContentLength()));
   }
 }
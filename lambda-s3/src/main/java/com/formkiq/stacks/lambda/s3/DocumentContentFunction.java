@@ -24,19 +24,24 @@
 package com.formkiq.stacks.lambda.s3;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Function;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
 import com.formkiq.aws.dynamodb.SiteIdKeyGenerator;
@@ -45,6 +50,7 @@ import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.aws.s3.PresignGetUrlConfig;
 import com.formkiq.aws.s3.S3PresignerService;
 import com.formkiq.module.http.HttpService;
+import com.formkiq.module.http.HttpServiceJdk11;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -56,6 +62,12 @@ import com.google.gson.GsonBuilder;
  */
 public class DocumentContentFunction {
 
+  /** Size of the buffer content is read with. */
+  private static final int BUFFER_SIZE = 8192;
+  /** Maximum number of content urls downloaded concurrently. */
+  private static final int MAX_CONCURRENT_DOWNLOADS = 4;
+  /** {@link HttpService} for unsigned content urls, shares a pooled connection client. */
+  private static final HttpService CONTENT_HTTP = new HttpServiceJdk11();
   /** S3 Documents Bucket. */
   private String documentsBucket;
   /** {@link Gson}. */
@@ -138,28 +150,90 @@ public class DocumentContentFunction {
   }
 
   /**
-   * Get Content from external urls.
+   * Download content from external urls into a {@link StringBuilder}, in url order, reading no
+   * more than the character maximum. Up to {@link #MAX_CONCURRENT_DOWNLOADS} urls are requested
+   * concurrently and their bodies streamed, so only the characters needed are read; once the
+   * maximum is reached outstanding downloads are cancelled and their streams closed, and the
+   * remaining urls are not fetched.
    * 
    * @param contentUrls {@link List} {@link String}
-   * @return {@link StringBuilder}
+   * @param sb {@link StringBuilder}
+   * @param characterMax int, -1 for no maximum
    * @throws IOException IOException
    */
-  public StringBuilder getContentUrls(final List<String> contentUrls) throws IOException {
+  private void appendContent(final List<String> contentUrls, final StringBuilder sb,
+      final int characterMax) throws IOException {
 
-    StringBuilder sb = new StringBuilder();
+    Deque<CompletableFuture<HttpResponse<InputStream>>> downloads = new ArrayDeque<>();
+    Iterator<String> itr = contentUrls.iterator();
 
     try {
-      for (String contentUrl : contentUrls) {
-        HttpRequest req =
-            HttpRequest.newBuilder(new URI(contentUrl)).timeout(Duration.ofMinutes(1)).build();
-        HttpResponse<String> response =
-            HttpClient.newBuilder().build().send(req, BodyHandlers.ofString());
-        sb.append(response.body());
+
+      while (!isFull(sb, characterMax) && (itr.hasNext() || !downloads.isEmpty())) {
+
+        while (itr.hasNext() && downloads.size() < MAX_CONCURRENT_DOWNLOADS) {
+          downloads.add(CONTENT_HTTP.sendAsync("GET", itr.next(), Optional.empty(),
+              Optional.empty(), Optional.empty(), BodyHandlers.ofInputStream(), Optional.empty()));
+        }
+
+        try (InputStream is = downloads.poll().get().body()) {
+          read(is, sb, characterMax);
+        }
       }
-    } catch (URISyntaxException | InterruptedException e) {
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+          : new IOException(e.getCause());
+    } finally {
+      downloads.forEach(d -> {
+        d.cancel(true);
+        d.thenAccept(r -> close(r.body()));
+      });
+    }
+  }
+
+  /**
+   * Close {@link InputStream}, ignoring errors.
+   * 
+   * @param is {@link InputStream}
+   */
+  private static void close(final InputStream is) {
+    try {
+      is.close();
+    } catch (IOException e) {
+      // ignore, the stream is not needed
     }
+  }
+
+  /**
+   * Get Content from external urls, truncated to a character maximum. Urls past the maximum
+   * are not fetched.
+   * 
+   * @param contentUrls {@link List} {@link String}
+   * @param characterMax int, -1 for no maximum
+   * @return {@link String}
+   * @throws IOException IOException
+   */
+  public String getContent(final List<String> contentUrls, final int characterMax)
+      throws IOException {
+    StringBuilder sb = new StringBuilder();
+    appendContent(contentUrls, sb, characterMax);
+    return sb.toString();
+  }
 
+  /**
+   * Get Content from external urls.
+   * 
+   * @param contentUrls {@link List} {@link String}
+   * @return {@link StringBuilder}
+   * @throws IOException IOException
+   */
+  public StringBuilder getContentUrls(final List<String> contentUrls) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    appendContent(contentUrls, sb, -1);
     return sb;
   }
 
@@ -182,4 +256,39 @@ public class DocumentContentFunction {
     return contentUrls;
   }
 
+  /**
+   * Whether the character maximum has been reached.
+   * 
+   * @param sb {@link StringBuilder}
+   * @param characterMax int, -1 for no maximum
+   * @return boolean
+   */
+  private boolean isFull(final StringBuilder sb, final int characterMax) {
+    return characterMax != -1 && sb.length() >= characterMax;
+  }
+
+  /**
+   * Read {@link InputStream} into a {@link StringBuilder}, stopping at the character maximum.
+   * 
+   * @param is {@link InputStream}
+   * @param sb {@link StringBuilder}
+   * @param characterMax int, -1 for no maximum
+   * @throws IOException IOException
+   */
+  private void read(final InputStream is, final StringBuilder sb, final int characterMax)
+      throws IOException {
+
+    Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+    char[] buffer = new char[BUFFER_SIZE];
+
+    int len = 0;
+    while (len != -1 && !isFull(sb, characterMax)) {
+      int max = characterMax != -1 ? Math.min(buffer.length, characterMax - sb.length())
+          : buffer.length;
+      len = reader.read(buffer, 0, max);
+      if (len > 0) {
+        sb.append(buffer, 0, len);
+      }
+    }
+  }
 }
@@ -35,7 +35,6 @@ import static com.formkiq.stacks.dynamodb.DocumentVersionService.S3VERSION_ATTRI
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.http.HttpResponse;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
@@ -91,10 +90,14 @@ import software.amazon.awssdk.utils.http.SdkHttpUtils;
 
 /** {@link RequestHandler} for writing MetaData for Documents to DynamoDB. */
 @Reflectable
-public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Void> {
+public class DocumentsS3Update
+    implements RequestHandler<Map<String, Object>, Map<String, Object>> {
 
   /** {@link ActionsService}. */
   private static ActionsService actionsService;
+
+  /** {@link RecordBatchExecutor}. */
+  private static RecordBatchExecutor batchExecutor;
   /** Bad Request. */
   static final int BAD_REQUEST = 400;
   /** {@link EventService}. */
@@ -186,6 +189,7 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     s3service = awsServiceCache.getExtension(S3Service.class);
     documentEventService = awsServiceCache.getExtension(EventService.class);
     notificationService = awsServiceCache.getExtension(ActionsNotificationService.class);
+    batchExecutor = new RecordBatchExecutor(awsServiceCache);
 
     if (isEmpty(awsServiceCache.environment("DOCUMENTS_IAM_URL"))) {
       SsmService ssm = awsServiceCache.getExtension(SsmService.class);
@@ -208,9 +212,6 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     return SdkHttpUtils.urlDecode(value);
   }
 
-  /** {@link SimpleDateFormat} in ISO Standard format. */
-  private SimpleDateFormat df = DateUtil.getIsoDateFormatter();
-
   /** {@link Gson}. */
   private Gson gson = new GsonBuilder().create();
 
@@ -305,8 +306,23 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
     return tags;
   }
 
+  /**
+   * Get the S3 Key of the Document a record is for.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param record {@link Map}
+   * @return {@link String}
+   */
+  private String getDocumentKey(final LambdaLogger logger, final Map<String, Object> record) {
+    List<Map<String, Object>> events = processRecords(logger, List.of(record));
+    Object key = !events.isEmpty() ? events.get(0).get("s3key") : null;
+    return key != null ? key.toString() : null;
+  }
+
+  @SuppressWarnings("unchecked")
   @Override
-  public Void handleRequest(final Map<String, Object> map, final Context context) {
+  public Map<String, Object> handleRequest(final Map<String, Object> map,
+      final Context context) {
 
     LambdaLogger logger = context.getLogger();
 
@@ -316,7 +332,31 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
       logger.log(json);
     }
 
-    List<Map<String, Object>> list = processRecords(logger, map);
+    List<Map<String, Object>> records = map.containsKey("Records")
+        ? (List<Map<String, Object>>) map.get("Records")
+        : List.of(map);
+
+    return batchExecutor.execute(logger, records, r -> (String) r.get("messageId"),
+        r -> getDocumentKey(logger, r),
+        r -> processEvents(logger, processRecords(logger, List.of(r)), debug));
+  }
+
+  private boolean isChecksumChanged(final S3ObjectMetadata resp, final DocumentItem doc) {
+    String s3Checksum = resp.getMetadata().getOrDefault("checksum", "");
+    return doc.getChecksum() != null && !s3Checksum.contains(doc.getChecksum());
+  }
+
+  /**
+   * Process S3 Events.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param list {@link List} {@link Map}
+   * @param debug boolean
+   * @throws IOException IOException
+   * @throws InterruptedException InterruptedException
+   */
+  private void processEvents(final LambdaLogger logger, final List<Map<String, Object>> list,
+      final boolean debug) throws IOException, InterruptedException {
 
     for (Map<String, Object> e : list) {
 
@@ -341,28 +381,13 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
               bucket, key));
         }
 
-        try {
-
-          if (remove) {
-
-            processS3Delete(logger, bucket.toString(), key.toString());
-
-          } else {
-            processS3File(logger, create, bucket.toString(), key.toString(), debug);
-          }
-
-        } catch (IOException | InterruptedException ex) {
-          throw new RuntimeException(ex);
+        if (remove) {
+          processS3Delete(logger, bucket.toString(), key.toString());
+        } else {
+          processS3File(logger, create, bucket.toString(), key.toString(), debug);
         }
       }
     }
-
-    return null;
-  }
-
-  private boolean isChecksumChanged(final S3ObjectMetadata resp, final DocumentItem doc) {
-    String s3Checksum = resp.getMetadata().getOrDefault("checksum", "");
-    return doc.getChecksum() != null && !s3Checksum.contains(doc.getChecksum());
   }
 
   /**
@@ -553,7 +578,8 @@ public class DocumentsS3Update implements RequestHandler<Map<String, Object>, Vo
       }
 
       if (isChecksumChanged) {
-        attributes.put("lastModifiedDate", AttributeValue.fromS(this.df.format(new Date())));
+        String lastModifiedDate = DateUtil.getIsoDateFormatter().format(new Date());
+        attributes.put("lastModifiedDate", AttributeValue.fromS(lastModifiedDate));
       }
 
       if (contentType != null && contentType.length() > 0) {
@@ -0,0 +1,266 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+
+/**
+ * Processes a batch of SQS records concurrently. Records with the same group key (usually the
+ * DocumentId) run one after another in batch order, so a document's events are never reordered.
+ * Once a record fails, the records after it in the same group are not processed. All of them are
+ * reported as SQS partial batch failures, so only they are retried.
+ */
+public class RecordBatchExecutor {
+
+  /**
+   * Processes a single record.
+   *
+   * @param <T> Type of record
+   */
+  @FunctionalInterface
+  public interface RecordProcessor<T> {
+    /**
+     * Process record.
+     *
+     * @param record T
+     * @throws Exception Exception
+     */
+    void process(T record) throws Exception;
+  }
+
+  /** Environment variable for the number of records processed at once. */
+  public static final String CONCURRENCY_ENV = "RECORD_CONCURRENCY";
+  /** Default number of records processed at once. */
+  public static final int DEFAULT_CONCURRENCY = 4;
+
+  /**
+   * Create SQS partial batch response.
+   *
+   * @param messageIds {@link Collection} {@link String}
+   * @return {@link Map}
+   */
+  public static Map<String, Object> toBatchResponse(final Collection<String> messageIds) {
+    List<Map<String, String>> failures = messageIds.stream()
+        .map(id -> Map.of("itemIdentifier", id)).collect(Collectors.toList());
+    return Map.of("batchItemFailures", failures);
+  }
+
+  /** Maximum number of records processed at once. */
+  private final int concurrency;
+
+  /**
+   * constructor.
+   *
+   * @param serviceCache {@link AwsServiceCache}
+   */
+  public RecordBatchExecutor(final AwsServiceCache serviceCache) {
+    this(parseConcurrency(serviceCache.environment(CONCURRENCY_ENV)));
+  }
+
+  /**
+   * constructor.
+   *
+   * @param maxConcurrency int
+   */
+  public RecordBatchExecutor(final int maxConcurrency) {
+    this.concurrency = Math.max(1, maxConcurrency);
+  }
+
+  /**
+   * Parse concurrency setting.
+   *
+   * @param value {@link String}
+   * @return int
+   */
+  private static int parseConcurrency(final String value) {
+    int result = DEFAULT_CONCURRENCY;
+    if (value != null && !value.isBlank()) {
+      result = Integer.parseInt(value.trim());
+    }
+    return result;
+  }
+
+  /**
+   * Process records.
+   *
+   * @param <T> Type of record
+   * @param logger {@link LambdaLogger}
+   * @param records {@link List}
+   * @param messageId {@link Function} returning the SQS messageId of a record
+   * @param groupKey {@link Function} returning the key records are ordered by, null when the
+   *        record does not need ordering
+   * @param processor {@link RecordProcessor}
+   * @return {@link Map} SQS partial batch response
+   */
+  public <T> Map<String, Object> execute(final LambdaLogger logger, final List<T> records,
+      final Function<T, String> messageId, final Function<T, String> groupKey,
+      final RecordProcessor<T> processor) {
+
+    Map<String, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i = 0; i < records.size(); i++) {
+      String key = getGroupKey(groupKey, records.get(i));
+      groups.computeIfAbsent(key != null ? key : "#" + i, k -> new ArrayList<>())
+          .add(Integer.valueOf(i));
+    }
+
+    Set<Integer> failed = ConcurrentHashMap.newKeySet();
+    Map<Integer, Exception> errors = new ConcurrentHashMap<>();
+
+    if (this.concurrency == 1 || groups.size() == 1) {
+      groups.values().forEach(g -> runGroup(logger, records, g, processor, failed, errors));
+    } else {
+      runGroups(logger, records, groups.values(), processor, failed, errors);
+    }
+
+    List<String> failedIds = new ArrayList<>();
+    for (int i = 0; i < records.size(); i++) {
+
+      if (failed.contains(Integer.valueOf(i))) {
+
+        String id = messageId.apply(records.get(i));
+        if (id == null) {
+          // not an SQS record, the failure can only be reported by failing the invocation
+          Exception e = errors.get(Integer.valueOf(i));
+          throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+        }
+
+        failedIds.add(id);
+      }
+    }
+
+    return toBatchResponse(failedIds);
+  }
+
+  /**
+   * Get record group key, a record the key cannot be found for does not need ordering and fails
+   * when processed.
+   *
+   * @param <T> Type of record
+   * @param groupKey {@link Function}
+   * @param record T
+   * @return {@link String}
+   */
+  private <T> String getGroupKey(final Function<T, String> groupKey, final T record) {
+    String key = null;
+    try {
+      key = groupKey.apply(record);
+    } catch (RuntimeException e) {
+      key = null;
+    }
+    return key;
+  }
+
+  /**
+   * Process a group of records in order, skipping the rest of the group after a failure.
+   *
+   * @param <T> Type of record
+   * @param logger {@link LambdaLogger}
+   * @param records {@link List}
+   * @param group {@link List} record indexes
+   * @param processor {@link RecordProcessor}
+   * @param failed {@link Set} failed record indexes
+   * @param errors {@link Map} record index errors
+   */
+  private <T> void runGroup(final LambdaLogger logger, final List<T> records,
+      final List<Integer> group, final RecordProcessor<T> processor, final Set<Integer> failed,
+      final Map<Integer, Exception> errors) {
+
+    Exception error = null;
+
+    for (Integer index : group) {
+
+      if (error == null) {
+        try {
+          processor.process(records.get(index.intValue()));
+        } catch (Exception e) {
+          StringWriter sw = new StringWriter();
+          e.printStackTrace(new PrintWriter(sw));
+          logger.log("record " + index + " failed: " + sw);
+          error = e;
+        }
+      }
+
+      if (error != null) {
+        failed.add(index);
+        errors.put(index, error);
+      }
+    }
+  }
+
+  /**
+   * Process groups concurrently.
+   *
+   * @param <T> Type of record
+   * @param logger {@link LambdaLogger}
+   * @param records {@link List}
+   * @param groups {@link Collection} of record index groups
+   * @param processor {@link RecordProcessor}
+   * @param failed {@link Set} failed record indexes
+   * @param errors {@link Map} record index errors
+   */
+  private <T> void runGroups(final LambdaLogger logger, final List<T> records,
+      final Collection<List<Integer>> groups, final RecordProcessor<T> processor,
+      final Set<Integer> failed, final Map<Integer, Exception> errors) {
+
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(this.concurrency, groups.size()));
+
+    try {
+
+      List<Future<?>> futures = new ArrayList<>();
+      for (List<Integer> group : groups) {
+        futures.add(executor
+            .submit(() -> runGroup(logger, records, group, processor, failed, errors)));
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
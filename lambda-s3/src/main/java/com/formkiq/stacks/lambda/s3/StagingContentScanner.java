@@ -0,0 +1,333 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Scans a staging document for its "content" values, in the same order as
+ * {@link StagingDocumentParser#getContentOwners()}, exposing each value as a stream so it never
+ * has to be held in memory.
+ */
+public class StagingContentScanner {
+
+  /** Hex radix. */
+  private static final int HEX = 16;
+  /** Unicode escape length. */
+  private static final int UNICODE_LENGTH = 4;
+
+  /**
+   * Open JSON Object or Array.
+   */
+  private static class Frame {
+    /** Whether values in this object are document content / array holds child documents. */
+    private final boolean content;
+    /** Whether the next string in the object is a name. */
+    private boolean expectName;
+    /** Last name read in the object. */
+    private String name;
+    /** Whether this is an object. */
+    private final boolean object;
+
+    /**
+     * constructor.
+     * 
+     * @param isObject boolean
+     * @param isContent boolean
+     */
+    Frame(final boolean isObject, final boolean isContent) {
+      this.object = isObject;
+      this.content = isContent;
+      this.expectName = isObject;
+    }
+  }
+
+  /**
+   * {@link Reader} of a JSON string value, unescaping as it reads and ending at the closing quote.
+   */
+  private class StringValueReader extends Reader {
+
+    /** Whether the closing quote was read. */
+    private boolean done;
+
+    @Override
+    public void close() {
+      // underlying reader is owned by the scanner
+    }
+
+    @Override
+    public int read() throws IOException {
+
+      int c = -1;
+
+      if (!this.done) {
+
+        int ch = readChar();
+
+        if (ch == '"') {
+          this.done = true;
+        } else if (ch == '\\') {
+          c = unescape(readChar());
+        } else {
+          c = ch;
+        }
+      }
+
+      return c;
+    }
+
+    @Override
+    public int read(final char[] cbuf, final int off, final int len) throws IOException {
+
+      int count = 0;
+      int c = 0;
+
+      while (count < len && (c = read()) != -1) {
+        cbuf[off + count] = (char) c;
+        count++;
+      }
+
+      return count == 0 && len > 0 ? -1 : count;
+    }
+
+    /**
+     * Skip the rest of the value.
+     * 
+     * @throws IOException IOException
+     */
+    void skipRemaining() throws IOException {
+      while (read() != -1) {
+        // skip
+      }
+    }
+
+    /**
+     * Unescape character.
+     * 
+     * @param ch int
+     * @return int
+     * @throws IOException IOException
+     */
+    private int unescape(final int ch) throws IOException {
+
+      int c = ch;
+
+      switch (ch) {
+        case 'b':
+          c = '\b';
+          break;
+        case 'f':
+          c = '\f';
+          break;
+        case 'n':
+          c = '\n';
+          break;
+        case 'r':
+          c = '\r';
+          break;
+        case 't':
+          c = '\t';
+          break;
+        case 'u':
+          char[] hex = new char[UNICODE_LENGTH];
+          for (int i = 0; i < UNICODE_LENGTH; i++) {
+            hex[i] = (char) readChar();
+          }
+          c = Integer.parseInt(new String(hex), HEX);
+          break;
+        default:
+          break;
+      }
+
+      return c;
+    }
+  }
+
+  /** Current "content" value. */
+  private StringValueReader current;
+  /** Open Objects / Arrays. */
+  private final Deque<Frame> frames = new ArrayDeque<>();
+  /** {@link Reader}. */
+  private final Reader reader;
+
+  /**
+   * constructor.
+   * 
+   * @param jsonReader {@link Reader}, should be buffered
+   */
+  public StagingContentScanner(final Reader jsonReader) {
+    this.reader = jsonReader;
+  }
+
+  /**
+   * Get current "content" value as an ASCII {@link InputStream}, suitable for base64 content.
+   * 
+   * @return {@link InputStream}
+   */
+  public InputStream asciiContent() {
+    final Reader content = this.current;
+    return new InputStream() {
+      @Override
+      public int read() throws IOException {
+        return content.read();
+      }
+    };
+  }
+
+  /**
+   * Get current "content" value.
+   * 
+   * @return {@link Reader}
+   */
+  public Reader content() {
+    return this.current;
+  }
+
+  /**
+   * Is Frame the parent of a content object.
+   * 
+   * @param parent {@link Frame}
+   * @return boolean
+   */
+  private boolean isContentParent(final Frame parent) {
+    return parent == null || (!parent.object && parent.content);
+  }
+
+  /**
+   * Is Frame the parent of the child documents array.
+   * 
+   * @param parent {@link Frame}
+   * @return boolean
+   */
+  private boolean isDocumentsParent(final Frame parent) {
+    return parent != null && this.frames.size() == 1
+        && StagingDocumentParser.DOCUMENTS.equals(parent.name);
+  }
+
+  /**
+   * Advance to the next "content" value, skipping anything unread of the current one.
+   * 
+   * @return boolean whether a value was found
+   * @throws IOException IOException
+   */
+  public boolean next() throws IOException {
+
+    if (this.current != null) {
+      this.current.skipRemaining();
+      this.current = null;
+    }
+
+    int c = this.reader.read();
+    while (c != -1) {
+
+      process(c);
+
+      c = this.current == null ? this.reader.read() : -1;
+    }
+
+    return this.current != null;
+  }
+
+  /**
+   * Process the next structural character.
+   * 
+   * @param c int
+   * @throws IOException IOException
+   */
+  private void process(final int c) throws IOException {
+
+    Frame top = this.frames.peek();
+
+    switch (c) {
+      case '{':
+        this.frames.push(new Frame(true, isContentParent(top)));
+        break;
+      case '[':
+        this.frames.push(new Frame(false, isDocumentsParent(top)));
+        break;
+      case '}':
+      case ']':
+        this.frames.pop();
+        break;
+      case ',':
+        top.expectName = top.object;
+        break;
+      case ':':
+        top.expectName = false;
+        break;
+      case '"':
+        processString(top);
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * Process a JSON string.
+   * 
+   * @param top {@link Frame}
+   * @throws IOException IOException
+   */
+  private void processString(final Frame top) throws IOException {
+
+    StringValueReader value = new StringValueReader();
+
+    if (top != null && top.expectName) {
+
+      StringBuilder sb = new StringBuilder();
+      int c = value.read();
+      while (c != -1) {
+        sb.append((char) c);
+        c = value.read();
+      }
+      top.name = sb.toString();
+
+    } else if (top != null && top.object && top.content
+        && StagingDocumentParser.CONTENT.equals(top.name)) {
+      this.current = value;
+    } else {
+      value.skipRemaining();
+    }
+  }
+
+  /**
+   * Read a character, failing at end of stream.
+   * 
+   * @return int
+   * @throws IOException IOException
+   */
+  private int readChar() throws IOException {
+    int c = this.reader.read();
+    if (c == -1) {
+      throw new EOFException("unterminated JSON string");
+    }
+    return c;
+  }
+}
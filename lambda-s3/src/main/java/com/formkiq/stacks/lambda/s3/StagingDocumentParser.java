@@ -0,0 +1,189 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Streaming parser of the metadata of a staging document. The "content" of the document and of
+ * each of its child "documents" is skipped without being buffered, its owner is recorded instead
+ * so the content can be streamed separately using {@link StagingContentScanner}.
+ */
+public class StagingDocumentParser {
+
+  /** Content key. */
+  static final String CONTENT = "content";
+  /** Child Documents key. */
+  static final String DOCUMENTS = "documents";
+
+  /** Objects owning a "content" value, in document order. */
+  private final List<Map<String, Object>> contentOwners = new ArrayList<>();
+  /** Root object. */
+  private Map<String, Object> root;
+
+  /**
+   * constructor.
+   */
+  public StagingDocumentParser() {}
+
+  /**
+   * Get the objects owning a "content" value, in the order the values appear in the document.
+   * 
+   * @return {@link List} {@link Map}
+   */
+  public List<Map<String, Object>> getContentOwners() {
+    return Collections.unmodifiableList(this.contentOwners);
+  }
+
+  /**
+   * Is {@link Map} the root object.
+   * 
+   * @param map {@link Map}
+   * @return boolean
+   */
+  public boolean isRoot(final Map<String, Object> map) {
+    return map == this.root;
+  }
+
+  /**
+   * Parse staging document.
+   * 
+   * @param reader {@link Reader}
+   * @return {@link Map}
+   * @throws IOException IOException
+   */
+  public Map<String, Object> parse(final Reader reader) throws IOException {
+    try (JsonReader json = new JsonReader(reader)) {
+      this.root = readObject(json, true, true);
+    }
+    return this.root;
+  }
+
+  /**
+   * Read child "documents" array.
+   * 
+   * @param json {@link JsonReader}
+   * @return {@link List}
+   * @throws IOException IOException
+   */
+  private List<Object> readDocuments(final JsonReader json) throws IOException {
+
+    List<Object> list = new ArrayList<>();
+
+    json.beginArray();
+    while (json.hasNext()) {
+      if (JsonToken.BEGIN_OBJECT.equals(json.peek())) {
+        list.add(readObject(json, true, false));
+      } else {
+        list.add(readValue(json));
+      }
+    }
+    json.endArray();
+
+    return list;
+  }
+
+  /**
+   * Read JSON Object.
+   * 
+   * @param json {@link JsonReader}
+   * @param contentParent whether a "content" value in this object is document content
+   * @param isRoot whether this is the root object
+   * @return {@link Map}
+   * @throws IOException IOException
+   */
+  private Map<String, Object> readObject(final JsonReader json, final boolean contentParent,
+      final boolean isRoot) throws IOException {
+
+    Map<String, Object> map = new LinkedHashMap<>();
+
+    json.beginObject();
+    while (json.hasNext()) {
+
+      String name = json.nextName();
+      JsonToken token = json.peek();
+
+      if (contentParent && CONTENT.equals(name) && JsonToken.STRING.equals(token)) {
+        json.skipValue();
+        this.contentOwners.add(map);
+      } else if (isRoot && DOCUMENTS.equals(name) && JsonToken.BEGIN_ARRAY.equals(token)) {
+        map.put(name, readDocuments(json));
+      } else {
+        map.put(name, readValue(json));
+      }
+    }
+    json.endObject();
+
+    return map;
+  }
+
+  /**
+   * Read any JSON value, numbers are read as {@link Double}.
+   * 
+   * @param json {@link JsonReader}
+   * @return {@link Object}
+   * @throws IOException IOException
+   */
+  private Object readValue(final JsonReader json) throws IOException {
+
+    Object value = null;
+
+    switch (json.peek()) {
+      case BEGIN_OBJECT:
+        value = readObject(json, false, false);
+        break;
+      case BEGIN_ARRAY:
+        List<Object> list = new ArrayList<>();
+        json.beginArray();
+        while (json.hasNext()) {
+          list.add(readValue(json));
+        }
+        json.endArray();
+        value = list;
+        break;
+      case NUMBER:
+        value = Double.valueOf(json.nextDouble());
+        break;
+      case BOOLEAN:
+        value = Boolean.valueOf(json.nextBoolean());
+        break;
+      case NULL:
+        json.nextNull();
+        break;
+      default:
+        value = json.nextString();
+        break;
+    }
+
+    return value;
+  }
+}
@@ -28,7 +28,13 @@ import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.getSiteId;
 import static com.formkiq.aws.dynamodb.SiteIdKeyGenerator.resetDatabaseKey;
 import static com.formkiq.aws.dynamodb.objects.Strings.isUuid;
 import static software.amazon.awssdk.utils.StringUtils.isEmpty;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
@@ -37,10 +43,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.LambdaLogger;
@@ -61,6 +71,9 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.model.SearchTagCriteria;
 import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3ConnectionBuilder;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
+import com.formkiq.aws.s3.S3MultipartUploader;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
@@ -112,11 +125,15 @@ import software.amazon.awssdk.utils.http.SdkHttpUtils;
 
 /** {@link RequestHandler} for handling Document Staging Create Events. */
 @Reflectable
-public class StagingS3Create implements RequestHandler<Map<String, Object>, Void> {
+public class StagingS3Create
+    implements RequestHandler<Map<String, Object>, Map<String, Object>> {
 
   /** {@link ActionsService}. */
   private static ActionsService actionsService;
 
+  /** {@link RecordBatchExecutor}. */
+  private static RecordBatchExecutor batchExecutor;
+
   /** {@link DynamoDbService}. */
   private static DynamoDbService db;
 
@@ -128,6 +145,8 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
 
   /** Extension for FormKiQ config file. */
   public static final String FORMKIQ_B64_EXT = ".fkb64";
+  /** {@link S3MultipartUploader}. */
+  private static S3MultipartUploader multipartUploader;
   /** {@link ActionsNotificationService}. */
   private static ActionsNotificationService notificationService;
   /** {@link S3Service}. */
@@ -211,11 +230,14 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     service = awsServiceCache.getExtension(DocumentService.class);
     actionsService = awsServiceCache.getExtension(ActionsService.class);
     s3 = awsServiceCache.getExtension(S3Service.class);
+    multipartUploader =
+        new S3MultipartUploader(awsServiceCache.getExtension(S3ConnectionBuilder.class));
     db = awsServiceCache.getExtension(DynamoDbService.class);
 
     snsDocumentEvent = awsServiceCache.environment("SNS_DOCUMENT_EVENT");
     notificationService = awsServiceCache.getExtension(ActionsNotificationService.class);
     folderIndexProcesor = awsServiceCache.getExtension(FolderIndexProcessor.class);
+    batchExecutor = new RecordBatchExecutor(awsServiceCache);
 
     if (isEmpty(awsServiceCache.environment("DOCUMENTS_IAM_URL"))) {
       SsmService ssm = awsServiceCache.getExtension(SsmService.class);
@@ -263,29 +285,20 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
   }
 
   /**
-   * Generate {@link Map} of DocumentId / Content.
+   * Generate {@link List} of DocumentIds, one for each "content" value in document order, null
+   * when the content has no DocumentId.
    *
    * @param doc {@link DynamicDocumentItem}
-   * @return {@link Map}
+   * @param parser {@link StagingDocumentParser}
+   * @return {@link List} {@link String}
    */
-  private Map<String, String> createContentMap(final DynamicDocumentItem doc) {
-
-    Map<String, String> map = new HashMap<>();
-
-    if (doc.hasString("content")) {
-      if (doc.hasString("documentId")) {
-        map.put(doc.getString("documentId"), doc.getString("content"));
-      }
-    }
-
-    List<DynamicObject> documents = doc.getList("documents");
-    for (DynamicObject document : documents) {
-      if (document.hasString("content") && document.hasString("documentId")) {
-        map.put(document.getString("documentId"), document.getString("content"));
-      }
-    }
+  private List<String> createContentDocumentIds(final DynamicDocumentItem doc,
+      final StagingDocumentParser parser) {
 
-    return map;
+    return parser.getContentOwners().stream().map(owner -> {
+      Object documentId = parser.isRoot(owner) ? doc.getDocumentId() : owner.get("documentId");
+      return documentId instanceof String ? (String) documentId : null;
+    }).collect(Collectors.toList());
   }
 
   /**
@@ -426,9 +439,37 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     documentCompressor.compressDocuments(siteId, documentsBucket, bucket, archiveKey, documentIds);
   }
 
+  /**
+   * Get the S3 Key of the staging object a record is for.
+   *
+   * @param record {@link Map}
+   * @return {@link String}
+   */
+  @SuppressWarnings("unchecked")
+  private String getStagingKey(final Map<String, Object> record) {
+
+    String key = null;
+
+    if (record.containsKey("body")) {
+
+      Map<String, Object> map = this.gson.fromJson(record.get("body").toString(), Map.class);
+      List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
+
+      if (records != null && !records.isEmpty()) {
+        key = getStagingKey(records.get(0));
+      }
+
+    } else if (record.containsKey("s3")) {
+      key = getObjectKey(record);
+    }
+
+    return key;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
-  public Void handleRequest(final Map<String, Object> map, final Context context) {
+  public Map<String, Object> handleRequest(final Map<String, Object> map,
+      final Context context) {
 
     String json = null;
     Date date = new Date();
@@ -441,9 +482,10 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     }
 
     List<Map<String, Object>> records = (List<Map<String, Object>>) map.get("Records");
-    processRecords(logger, date, records);
+    logger.log("handling " + records.size() + " record(s).");
 
-    return null;
+    return batchExecutor.execute(logger, records, r -> (String) r.get("messageId"),
+        r -> getStagingKey(r), r -> processRecord(logger, date, r));
   }
 
   private boolean isDebug() {
@@ -457,19 +499,27 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
    * @param bucket {@link String}
    * @param siteId {@link String}
    * @param s3Key {@link String}
+   * @param parser {@link StagingDocumentParser}
    * @return {@link DynamicDocumentItem}
+   * @throws IOException IOException
    */
-  @SuppressWarnings("unchecked")
   private DynamicDocumentItem loadDocument(final LambdaLogger logger, final String bucket,
-      final String siteId, final String s3Key) {
+      final String siteId, final String s3Key, final StagingDocumentParser parser)
+      throws IOException {
 
     DynamicDocumentItem doc = null;
 
     if (s3Key.endsWith(FORMKIQ_B64_EXT)) {
 
-      String s = getContentFromS3(logger, bucket, s3Key);
+      Map<String, Object> map = null;
+      try (Reader reader = openStagingDocument(bucket, s3Key)) {
+        map = parser.parse(reader);
+      }
+
+      if (isDebug()) {
+        logger.log(this.gson.toJson(map));
+      }
 
-      Map<String, Object> map = this.gson.fromJson(s, Map.class);
       doc = new DynamicDocumentItem(map);
 
     } else {
@@ -500,6 +550,18 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     return doc;
   }
 
+  /**
+   * Open a staging document for reading.
+   *
+   * @param bucket {@link String}
+   * @param s3Key {@link String}
+   * @return {@link Reader}
+   */
+  private Reader openStagingDocument(final String bucket, final String s3Key) {
+    InputStream is = s3.getContentStream(bucket, s3Key, null);
+    return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+  }
+
   /**
    * If document has a tagschema that needs to be processed.
    *
@@ -545,12 +607,13 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
       final String bucket, final String s3Key, final Date date)
       throws IOException, InterruptedException {
 
-    DynamicDocumentItem loadDocument = loadDocument(logger, bucket, siteId, s3Key);
+    StagingDocumentParser parser = new StagingDocumentParser();
+    DynamicDocumentItem loadDocument = loadDocument(logger, bucket, siteId, s3Key, parser);
 
-    Map<String, String> contentMap = createContentMap(loadDocument);
+    List<String> contentDocumentIds = createContentDocumentIds(loadDocument, parser);
     Map<String, String> contentTypeMap = createContentTypeMap(loadDocument);
 
-    boolean hasContent = !contentMap.isEmpty();
+    boolean hasContent = contentDocumentIds.stream().anyMatch(Objects::nonNull);
 
     DocumentItem existingDocument = service.findDocument(siteId, loadDocument.getDocumentId());
     DynamicDocumentItem item =
@@ -565,9 +628,9 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
         postDocumentTags(siteId, item);
       }
 
-      writeS3Document(logger, bucket, s3Key, siteId, item, contentMap, contentTypeMap);
+      writeS3Document(logger, bucket, s3Key, siteId, item, contentDocumentIds, contentTypeMap);
 
-      if (contentMap.isEmpty()) {
+      if (!hasContent) {
         logger.log(String.format("Skipping %s no content", item.getPath()));
       }
 
@@ -668,34 +731,28 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
   }
 
   /**
-   * Process Event Records.
+   * Process Event Record.
    *
    * @param logger {@link LambdaLogger}
    * @param date {@link Date}
-   * @param records {@link List} {@link Map}
+   * @param record {@link Map}
+   * @throws Exception Exception
    */
   @SuppressWarnings("unchecked")
-  private void processRecords(final LambdaLogger logger, final Date date,
-      final List<Map<String, Object>> records) {
-
-    for (Map<String, Object> event : records) {
-
-      if (event.containsKey("body")) {
-
-        String body = event.get("body").toString();
+  private void processRecord(final LambdaLogger logger, final Date date,
+      final Map<String, Object> record) throws Exception {
 
-        Map<String, Object> map = this.gson.fromJson(body, Map.class);
-        processRecords(logger, date, (List<Map<String, Object>>) map.get("Records"));
+    if (record.containsKey("body")) {
 
-      } else {
-        logger.log("handling " + records.size() + " record(s).");
+      String body = record.get("body").toString();
 
-        try {
-          processEvent(logger, date, event);
-        } catch (Exception e) {
-          e.printStackTrace();
-        }
+      Map<String, Object> map = this.gson.fromJson(body, Map.class);
+      for (Map<String, Object> event : (List<Map<String, Object>>) map.get("Records")) {
+        processRecord(logger, date, event);
       }
+
+    } else {
+      processEvent(logger, date, record);
     }
   }
 
@@ -876,28 +933,93 @@ public class StagingS3Create implements RequestHandler<Map<String, Object>, Void
     return response;
   }
 
+  /**
+   * Stream a "content" value into a Documents Bucket Object.
+   *
+   * @param scanner {@link StagingContentScanner} positioned at the content
+   * @param isBase64 boolean
+   * @param key {@link String}
+   * @param contentType {@link String}
+   * @param metadata {@link Map}
+   * @param executor {@link ExecutorService}
+   * @throws IOException IOException
+   */
+  private void writeContent(final StagingContentScanner scanner, final boolean isBase64,
+      final String key, final String contentType, final Map<String, String> metadata,
+      final ExecutorService executor) throws IOException {
+
+    S3MultipartOutputStream out =
+        new S3MultipartOutputStream(s3, multipartUploader, executor, documentsBucket, key)
+            .contentType(contentType).metadata(metadata);
+
+    try {
+
+      if (isBase64) {
+        try (InputStream is = Base64.getDecoder().wrap(scanner.asciiContent())) {
+          is.transferTo(out);
+        }
+      } else {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        scanner.content().transferTo(writer);
+        writer.flush();
+      }
+
+      // only close on success, closing completes the upload
+      out.close();
+
+    } catch (IOException | RuntimeException e) {
+      out.abort();
+      throw e;
+    }
+  }
+
+  /**
+   * Write Documents to the Documents Bucket. A staging document's content is streamed straight
+   * from the staging object, decoding base64 as it goes, so memory use does not depend on the
+   * document size.
+   *
+   * @param logger {@link LambdaLogger}
+   * @param bucket {@link String}
+   * @param s3Key {@link String}
+   * @param siteId {@link String}
+   * @param item {@link DynamicDocumentItem}
+   * @param contentDocumentIds {@link List} {@link String}
+   * @param contentTypeMap {@link Map}
+   * @throws IOException IOException
+   */
   private void writeS3Document(final LambdaLogger logger, final String bucket, final String s3Key,
-      final String siteId, final DynamicDocumentItem item, final Map<String, String> contentMap,
-      final Map<String, String> contentTypeMap) {
+      final String siteId, final DynamicDocumentItem item, final List<String> contentDocumentIds,
+      final Map<String, String> contentTypeMap) throws IOException {
 
     Map<String, String> map = Map.of("checksum", item.getChecksum());
 
     if (s3Key.endsWith(FORMKIQ_B64_EXT)) {
 
-      for (Map.Entry<String, String> e : contentMap.entrySet()) {
+      boolean isBase64 = item.getBoolean("isBase64").booleanValue();
+      ExecutorService executor =
+          Executors.newFixedThreadPool(S3MultipartOutputStream.DEFAULT_MAX_PARTS_IN_FLIGHT);
+
+      try (Reader reader = openStagingDocument(bucket, s3Key)) {
 
-        boolean isBase64 = item.getBoolean("isBase64").booleanValue();
-        byte[] bytes =
-            isBase64 ? Base64.getDecoder().decode(e.getValue().getBytes(StandardCharsets.UTF_8))
-                : e.getValue().getBytes(StandardCharsets.UTF_8);
+        StagingContentScanner scanner = new StagingContentScanner(reader);
+        Iterator<String> itr = contentDocumentIds.iterator();
 
-        String key = createDatabaseKey(siteId, e.getKey());
-        String contentType = contentTypeMap.get(e.getKey());
+        while (itr.hasNext() && scanner.next()) {
 
-        logger.log(String.format("Inserted %s into bucket %s as %s", item.getPath(),
-            documentsBucket, createDatabaseKey(siteId, item.getDocumentId())));
+          String documentId = itr.next();
+
+          if (documentId != null) {
+            String key = createDatabaseKey(siteId, documentId);
+
+            logger.log(String.format("Inserted %s into bucket %s as %s", item.getPath(),
+                documentsBucket, createDatabaseKey(siteId, item.getDocumentId())));
+
+            writeContent(scanner, isBase64, key, contentTypeMap.get(documentId), map, executor);
+          }
+        }
 
-        s3.putObject(documentsBucket, key, bytes, contentType, map);
+      } finally {
+        executor.shutdownNow();
       }
 
     } else {
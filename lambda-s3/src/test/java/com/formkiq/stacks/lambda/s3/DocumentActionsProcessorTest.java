@@ -130,6 +130,8 @@ public class DocumentActionsProcessorTest implements DbKeys {
   private static final String DOCUMENT_ID_404 = UUID.randomUUID().toString();
   /** Document Id with OCR. */
   private static final String DOCUMENT_ID_OCR = UUID.randomUUID().toString();
+  /** Document Id with multiple OCR content urls. */
+  private static final String DOCUMENT_ID_OCR_PAGES = UUID.randomUUID().toString();
   /** {@link DocumentService}. */
   private static DocumentService documentService;
   /** {@link Gson}. */
@@ -138,6 +140,8 @@ public class DocumentActionsProcessorTest implements DbKeys {
   private static ClientAndServer mockServer;
   /** Port to run Test server. */
   private static final int PORT = 8888;
+  /** OCR content url page length. */
+  private static final int PAGE_LENGTH = 20000;
   /** {@link DocumentActionsProcessor}. */
   private static DocumentActionsProcessor processor;
   /** {@link S3Service}. */
@@ -227,6 +231,20 @@ public class DocumentActionsProcessorTest implements DbKeys {
     mockServer.when(request().withMethod("GET").withPath("/documents/" + DOCUMENT_ID_OCR + "/ocr*"))
         .respond(org.mockserver.model.HttpResponse
             .response("{\"contentUrls\":[\"" + URL + "/" + DOCUMENT_ID_OCR + "\"]}"));
+
+    List<String> pages = Arrays.asList("a", "b", "c");
+    String pageUrls =
+        pages.stream().map(p -> "\"" + URL + "/pages/" + p + "\"").collect(Collectors.joining(","));
+    mockServer
+        .when(request().withMethod("GET").withPath("/documents/" + DOCUMENT_ID_OCR_PAGES + "/ocr*"))
+        .respond(
+            org.mockserver.model.HttpResponse.response("{\"contentUrls\":[" + pageUrls + "]}"));
+
+    for (String page : pages) {
+      mockServer.when(request().withMethod("GET").withPath("/pages/" + page))
+          .respond(org.mockserver.model.HttpResponse.response(page.repeat(PAGE_LENGTH)));
+    }
+
     mockServer.when(request().withMethod("PATCH")).respond(callback);
     mockServer.when(request().withMethod("POST")).respond(callback);
     mockServer.when(request().withMethod("PUT")).respond(callback);
@@ -742,6 +760,50 @@ public class DocumentActionsProcessorTest implements DbKeys {
     }
   }
 
+  /**
+   * Handle documentTagging Action followed by a Queue Action in the same invocation.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  public void testDocumentTaggingAction09() throws Exception {
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      configService.save(siteId, new DynamicObject(Map.of(CHATGPT_API_KEY, "asd")));
+
+      String documentId = UUID.randomUUID().toString();
+
+      DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+      item.setContentType("text/plain");
+
+      String s3Key = SiteIdKeyGenerator.createS3Key(siteId, documentId);
+      s3Service.putObject(BUCKET_NAME, s3Key,
+          "this is some data".getBytes(StandardCharsets.UTF_8), "text/plain");
+
+      documentService.saveDocument(siteId, item, null);
+
+      List<Action> actions = Arrays.asList(
+          new Action().type(ActionType.DOCUMENTTAGGING).userId("joe").parameters(Map.of("engine",
+              "chatgpt", "tags", "organization,location,person,subject,sentiment,document type")),
+          new Action().type(ActionType.QUEUE).userId("joe").queueId("testqueue#" + documentId));
+      actionsService.saveNewActions(siteId, documentId, actions);
+
+      Map<String, Object> map =
+          loadFileAsMap(this, "/actions-event01.json", "c2695f67-d95e-4db0-985e-574168b12e57",
+              documentId, "default", siteId != null ? siteId : "default");
+
+      // when
+      processor.handleRequest(map, this.context);
+
+      // then
+      List<Action> list = actionsService.getActions(siteId, documentId);
+      assertEquals(2, list.size());
+      assertEquals(ActionStatus.COMPLETE, list.get(0).status());
+      assertEquals(ActionStatus.IN_QUEUE, list.get(1).status());
+    }
+  }
+
   /**
    * Test converting Ocr Parse Types.
    */
@@ -1189,6 +1251,49 @@ public class DocumentActionsProcessorTest implements DbKeys {
     }
   }
 
+  /**
+   * Handle Fulltext(Typesense) application/pdf document with multiple content urls.
+   * 
+   * @throws IOException IOException
+   * @throws URISyntaxException URISyntaxException
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testHandle10() throws IOException, URISyntaxException {
+    initProcessor("typesense", "chatgpt1");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+      // given
+      String documentId = DOCUMENT_ID_OCR_PAGES;
+
+      DocumentItem item = new DocumentItemDynamoDb(documentId, new Date(), "joe");
+      item.setContentType("application/pdf");
+      documentService.saveDocument(siteId, item, null);
+
+      List<Action> actions = Arrays.asList(new Action().type(ActionType.FULLTEXT).userId("joe"));
+      actionsService.saveNewActions(siteId, documentId, actions);
+
+      Map<String, Object> map =
+          loadFileAsMap(this, "/actions-event01.json", "c2695f67-d95e-4db0-985e-574168b12e57",
+              documentId, "default", siteId != null ? siteId : "default");
+
+      // when
+      processor.handleRequest(map, this.context);
+
+      // then
+      assertEquals(ActionStatus.COMPLETE,
+          actionsService.getActions(siteId, documentId).get(0).status());
+
+      HttpResponse<String> response = typesense.getDocument(siteId, documentId);
+      assertEquals("200", String.valueOf(response.statusCode()));
+
+      final int characterMax = 32768;
+      Map<String, String> body = gson.fromJson(response.body(), Map.class);
+      assertEquals("a".repeat(PAGE_LENGTH) + "b".repeat(characterMax - PAGE_LENGTH),
+          body.get("content"));
+    }
+  }
+
   /**
    * Handle Fulltext that needs OCR Action.
    * 
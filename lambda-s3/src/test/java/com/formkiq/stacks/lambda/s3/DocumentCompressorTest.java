@@ -32,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -175,9 +176,51 @@ public class DocumentCompressorTest {
     }
   }
 
+  /**
+   * Already compressed file types are stored without compression.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testDocumentsCompressLevel() throws Exception {
+    // given
+    final int size = 100000;
+    final byte[] content = "a".repeat(size).getBytes(StandardCharsets.UTF_8);
+    final String textDocumentId = createDocument(null, "JaneDoe", content, "test.txt");
+    final String imageDocumentId = createDocument(null, "JaneDoe", content, "test.png");
+    final String archiveKey = "tempfiles/" + UUID.randomUUID() + ".zip";
+
+    // when
+    this.compressor.compressDocuments("default", BUCKET_NAME, STAGE_BUCKET_NAME, archiveKey,
+        Arrays.asList(textDocumentId, imageDocumentId));
+
+    // then
+    Map<String, Long> compressedSizes = new HashMap<>();
+    try (ZipInputStream zip =
+        new ZipInputStream(s3.getContentAsInputStream(STAGE_BUCKET_NAME, archiveKey))) {
+      for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+        assertEquals(size, zip.readAllBytes().length);
+        zip.closeEntry();
+        compressedSizes.put(entry.getName(), Long.valueOf(entry.getCompressedSize()));
+      }
+    }
+
+    assertEquals(2, compressedSizes.size());
+    assertTrue(compressedSizes.get("test.txt").longValue() < size);
+    assertTrue(compressedSizes.get("test.png").longValue() >= size);
+  }
+
   private String createDocument(final String siteId, final String userId, final byte[] content) {
+    return createDocument(siteId, userId, content, null);
+  }
+
+  private String createDocument(final String siteId, final String userId, final byte[] content,
+      final String path) {
     final DynamicDocumentItem item = new DynamicDocumentItem(new HashMap<>());
     item.setDocumentId(UUID.randomUUID().toString());
+    if (path != null) {
+      item.setPath(path);
+    }
     item.setUserId(userId);
     item.setInsertedDate(new Date());
     final String documentId = item.getDocumentId();
@@ -0,0 +1,158 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockserver.integration.ClientAndServer.startClientAndServer;
+import static org.mockserver.model.ConnectionOptions.connectionOptions;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.mockserver.integration.ClientAndServer;
+import com.formkiq.aws.s3.S3PresignerConnectionBuilder;
+import com.formkiq.aws.s3.S3PresignerService;
+import com.formkiq.module.http.HttpService;
+import com.formkiq.module.http.HttpServiceJdk11;
+import com.formkiq.module.lambdaservices.AwsServiceCache;
+import com.formkiq.module.lambdaservices.ClassServiceExtension;
+
+/**
+ * Unit Tests for {@link DocumentContentFunction}.
+ */
+public class DocumentContentFunctionTest {
+
+  /** Page Length. */
+  private static final int PAGE_LENGTH = 20000;
+  /** Port to run Test server. */
+  private static final int PORT = 8888;
+  /** Test Timeout. */
+  private static final long TEST_TIMEOUT = 30;
+  /** Server Url. */
+  private static final String URL = "http://localhost:" + PORT;
+
+  /** {@link DocumentContentFunction}. */
+  private static DocumentContentFunction function;
+  /** {@link ClientAndServer}. */
+  private static ClientAndServer mockServer;
+
+  /**
+   * After All.
+   */
+  @AfterAll
+  public static void afterAll() {
+    mockServer.stop();
+  }
+
+  /**
+   * Before All.
+   */
+  @BeforeAll
+  public static void beforeAll() {
+
+    mockServer = startClientAndServer(Integer.valueOf(PORT));
+
+    mockServer.when(request().withMethod("GET").withPath("/pages/a"))
+        .respond(response("a".repeat(PAGE_LENGTH)));
+
+    // the content length is longer than the body, so the page never completes
+    mockServer.when(request().withMethod("GET").withPath("/pages/b"))
+        .respond(response("b".repeat(PAGE_LENGTH)).withConnectionOptions(connectionOptions()
+            .withContentLengthHeaderOverride(Integer.valueOf(2 * PAGE_LENGTH))
+            .withKeepAliveOverride(Boolean.TRUE)));
+
+    mockServer.when(request().withMethod("GET").withPath("/pages/c"))
+        .respond(response("c".repeat(PAGE_LENGTH)));
+
+    AwsServiceCache serviceCache = new AwsServiceCache().environment(Collections.emptyMap());
+    serviceCache.register(S3PresignerService.class, new ClassServiceExtension<S3PresignerService>(
+        new S3PresignerService(new S3PresignerConnectionBuilder())));
+    serviceCache.register(HttpService.class,
+        new ClassServiceExtension<HttpService>(new HttpServiceJdk11()));
+
+    function = new DocumentContentFunction(serviceCache);
+  }
+
+  /**
+   * Test content is read in page order.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT, unit = TimeUnit.SECONDS)
+  void testGetContent01() throws IOException {
+    // given
+    final int characterMax = PAGE_LENGTH + PAGE_LENGTH / 2;
+
+    // when
+    String content = function.getContent(Arrays.asList(URL + "/pages/a", URL + "/pages/c"),
+        characterMax);
+
+    // then
+    assertEquals("a".repeat(PAGE_LENGTH) + "c".repeat(PAGE_LENGTH / 2), content);
+  }
+
+  /**
+   * Test a page past the character maximum is not read in full. The second page never completes,
+   * so reading it past the maximum blocks until the test times out.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT, unit = TimeUnit.SECONDS)
+  void testGetContent02() throws IOException {
+    // given
+    final int characterMax = PAGE_LENGTH + PAGE_LENGTH / 2;
+
+    // when
+    String content = function.getContent(
+        Arrays.asList(URL + "/pages/a", URL + "/pages/b", URL + "/pages/c"), characterMax);
+
+    // then
+    assertEquals("a".repeat(PAGE_LENGTH) + "b".repeat(PAGE_LENGTH / 2), content);
+  }
+
+  /**
+   * Test all content is read with no character maximum.
+   * 
+   * @throws IOException IOException
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT, unit = TimeUnit.SECONDS)
+  void testGetContentUrls01() throws IOException {
+    // given
+    // when
+    StringBuilder content =
+        function.getContentUrls(Arrays.asList(URL + "/pages/a", URL + "/pages/c"));
+
+    // then
+    assertEquals("a".repeat(PAGE_LENGTH) + "c".repeat(PAGE_LENGTH), content.toString());
+  }
+}
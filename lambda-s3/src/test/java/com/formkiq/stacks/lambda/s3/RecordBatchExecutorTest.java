@@ -0,0 +1,116 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.stacks.lambda.s3;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.junit.jupiter.api.Test;
+import com.formkiq.stacks.lambda.s3.util.LambdaLoggerRecorder;
+
+/**
+ * Unit Tests for {@link RecordBatchExecutor}.
+ */
+public class RecordBatchExecutorTest {
+
+  /** {@link LambdaLoggerRecorder}. */
+  private LambdaLoggerRecorder logger = new LambdaLoggerRecorder();
+
+  /**
+   * Records for the same document are processed in order, concurrently across documents.
+   */
+  @Test
+  void testExecute01() {
+    // given
+    final int concurrency = 4;
+    RecordBatchExecutor executor = new RecordBatchExecutor(concurrency);
+    List<String> records = Arrays.asList("a/1", "b/1", "a/2", "c/1", "b/2", "a/3");
+    Map<String, List<String>> processed = new ConcurrentHashMap<>();
+
+    // when
+    Map<String, Object> response = executor.execute(this.logger, records, r -> r,
+        r -> r.split("/")[0], r -> processed
+            .computeIfAbsent(r.split("/")[0], k -> Collections.synchronizedList(new ArrayList<>()))
+            .add(r));
+
+    // then
+    assertEquals(Collections.emptyList(), response.get("batchItemFailures"));
+    assertEquals(Arrays.asList("a/1", "a/2", "a/3"), processed.get("a"));
+    assertEquals(Arrays.asList("b/1", "b/2"), processed.get("b"));
+    assertEquals(Arrays.asList("c/1"), processed.get("c"));
+  }
+
+  /**
+   * A failed record and the records after it for the same document are reported as failures.
+   */
+  @Test
+  void testExecute02() {
+    // given
+    final int concurrency = 2;
+    RecordBatchExecutor executor = new RecordBatchExecutor(concurrency);
+    List<String> records = Arrays.asList("a/1", "b/1", "a/2", "b/2", "a/3");
+    List<String> processed = Collections.synchronizedList(new ArrayList<>());
+
+    // when
+    Map<String, Object> response =
+        executor.execute(this.logger, records, r -> r, r -> r.split("/")[0], r -> {
+          if ("a/2".equals(r)) {
+            throw new IOException("failed " + r);
+          }
+          processed.add(r);
+        });
+
+    // then
+    assertEquals(
+        Arrays.asList(Map.of("itemIdentifier", "a/2"), Map.of("itemIdentifier", "a/3")),
+        response.get("batchItemFailures"));
+    Collections.sort(processed);
+    assertEquals(Arrays.asList("a/1", "b/1", "b/2"), processed);
+  }
+
+  /**
+   * A failed record without a messageId fails the invocation.
+   */
+  @Test
+  void testExecute03() {
+    // given
+    RecordBatchExecutor executor = new RecordBatchExecutor(1);
+    List<String> records = Arrays.asList("a/1");
+
+    // when
+    RuntimeException e = assertThrows(RuntimeException.class,
+        () -> executor.execute(this.logger, records, r -> null, r -> r, r -> {
+          throw new IOException("failed");
+        }));
+
+    // then
+    assertEquals("failed", e.getCause().getMessage());
+  }
+}
@@ -38,6 +38,7 @@ import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_TABLE;
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENTS_VERSION_TABLE;
 import static com.formkiq.testutils.aws.DynamoDbExtension.DOCUMENT_SYNCS_TABLE;
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -63,6 +64,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -95,6 +97,7 @@ import com.formkiq.aws.dynamodb.model.DynamicDocumentItem;
 import com.formkiq.aws.dynamodb.objects.DateUtil;
 import com.formkiq.aws.dynamodb.schema.DocumentSchema;
 import com.formkiq.aws.s3.S3AwsServiceRegistry;
+import com.formkiq.aws.s3.S3MultipartOutputStream;
 import com.formkiq.aws.s3.S3ObjectMetadata;
 import com.formkiq.aws.s3.S3Service;
 import com.formkiq.aws.s3.S3ServiceExtension;
@@ -525,8 +528,8 @@ public class StagingS3CreateTest implements DbKeys {
   private void handleRequest(final Map<String, Object> map) {
     final StagingS3Create handler = new StagingS3Create(awsServices);
 
-    Void result = handler.handleRequest(map, this.context);
-    assertNull(result);
+    Map<String, Object> result = handler.handleRequest(map, this.context);
+    assertEquals(Collections.emptyList(), result.get("batchItemFailures"));
   }
 
   /**
@@ -1458,6 +1461,53 @@ public class StagingS3CreateTest implements DbKeys {
     }
   }
 
+  /**
+   * Test .fkb64 file streaming content larger than a multipart part, with content before the
+   * documentId and escaped base64 padding.
+   *
+   * @throws IOException IOException
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIMEOUT)
+  void testFkB64Extension18() throws IOException {
+
+    final int contentLength = S3MultipartOutputStream.MIN_PART_SIZE + 1;
+    byte[] data = new byte[contentLength];
+    new Random().nextBytes(data);
+    String base64 = Base64.getEncoder().encodeToString(data).replace("=", "\\u003d");
+
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      // given
+      this.logger.reset();
+      String documentId = UUID.randomUUID().toString();
+      String key = createDatabaseKey(siteId, documentId + FORMKIQ_B64_EXT);
+
+      String json = "{\"content\":\"" + base64 + "\",\"documentId\":\"" + documentId
+          + "\",\"isBase64\":true,\"path\":\"large.bin\",\"userId\":\"joe\","
+          + "\"contentType\":\"application/octet-stream\"}";
+      s3.putObject(STAGING_BUCKET, key, json.getBytes(UTF_8), null, null);
+
+      // when
+      handleRequest(loadFileAsMap(this, "/objectcreate-event4.json", UUID1, key));
+
+      // then
+      DocumentItem item = service.findDocument(siteId, documentId);
+      assertEquals("large.bin", item.getPath());
+
+      String k = createDatabaseKey(siteId, documentId);
+      S3ObjectMetadata metadata = s3.getObjectMetadata(DOCUMENTS_BUCKET, k, null);
+      assertEquals("application/octet-stream", metadata.getContentType());
+      assertEquals(item.getChecksum(), metadata.getMetadata().get("checksum"));
+
+      try (InputStream is = s3.getContentStream(DOCUMENTS_BUCKET, k, null)) {
+        assertArrayEquals(data, is.readAllBytes());
+      }
+
+      assertFalse(s3.getObjectMetadata(STAGING_BUCKET, key, null).isObjectExists());
+    }
+  }
+
   /**
    * Test processing S3 file from PATCH /documents/tags.
    */
@@ -1594,10 +1644,10 @@ public class StagingS3CreateTest implements DbKeys {
     final StagingS3Create handler = new StagingS3Create(awsServices);
 
     // when
-    Void result = handler.handleRequest(map, this.context);
+    Map<String, Object> result = handler.handleRequest(map, this.context);
 
     // then
-    assertNull(result);
+    assertEquals(Collections.emptyList(), result.get("batchItemFailures"));
 
     assertTrue(this.logger.containsString("handling 1 record(s)."));
     assertTrue(this.logger.containsString("skipping event ObjectUnknwn:Delete"));
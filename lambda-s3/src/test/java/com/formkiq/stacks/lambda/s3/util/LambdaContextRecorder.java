@@ -35,6 +35,9 @@ import com.amazonaws.services.lambda.runtime.LambdaLogger;
  */
 public class LambdaContextRecorder implements Context {
 
+  /** Remaining time in milliseconds, a full Lambda timeout. */
+  private static final int REMAINING_TIME = 300000;
+
   /** {@link LambdaLoggerRecorder}. */
   private final LambdaLoggerRecorder loggerRecorder = new LambdaLoggerRecorder();
 
@@ -80,7 +83,7 @@ public class LambdaContextRecorder implements Context {
 
   @Override
   public int getRemainingTimeInMillis() {
-    throw new UnsupportedOperationException("Method is not implemented.");
+    return REMAINING_TIME;
   }
 
   @Override
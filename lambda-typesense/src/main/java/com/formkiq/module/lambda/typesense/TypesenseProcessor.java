@@ -34,6 +34,7 @@ import static com.formkiq.module.http.HttpResponseStatus.is2XX;
 import java.io.IOException;
 import java.net.http.HttpResponse;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import com.amazonaws.services.lambda.runtime.Context;
@@ -47,6 +48,9 @@ import com.formkiq.aws.dynamodb.model.DocumentSyncType;
 import com.formkiq.graalvm.annotations.Reflectable;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.module.lambdaservices.AwsServiceCacheBuilder;
+import com.formkiq.module.typesense.TypeSenseBatchIndexer;
+import com.formkiq.module.typesense.TypeSenseIndexOperation;
+import com.formkiq.module.typesense.TypeSenseIndexResult;
 import com.formkiq.module.typesense.TypeSenseService;
 import com.formkiq.module.typesense.TypeSenseServiceExtension;
 import com.formkiq.stacks.dynamodb.DocumentSyncService;
@@ -103,12 +107,11 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     initialize(awsServices);
   }
 
-  private void addDocumentSync(final HttpResponse<String> response, final String siteId,
+  private void addDocumentSync(final boolean success, final String siteId,
       final String documentId, final String userId, final boolean s3VersionChanged,
       final boolean added) {
 
-    DocumentSyncStatus status =
-        is2XX(response) ? DocumentSyncStatus.COMPLETE : DocumentSyncStatus.FAILED;
+    DocumentSyncStatus status = success ? DocumentSyncStatus.COMPLETE : DocumentSyncStatus.FAILED;
 
     DocumentSyncType syncType =
         s3VersionChanged ? DocumentSyncType.CONTENT : DocumentSyncType.METADATA;
@@ -142,10 +145,43 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     if (is2XX(response)) {
 
       boolean added = "POST".equals(response.request().method());
-      addDocumentSync(response, siteId, documentId, userId, s3VersionChanged, added);
+      addDocumentSync(true, siteId, documentId, userId, s3VersionChanged, added);
 
     } else {
-      addDocumentSync(response, siteId, documentId, userId, s3VersionChanged, true);
+      addDocumentSync(false, siteId, documentId, userId, s3VersionChanged, true);
+    }
+  }
+
+  /**
+   * Record the sync status of an indexed document.
+   * 
+   * @param logger {@link LambdaLogger}
+   * @param result {@link TypeSenseIndexResult}
+   * @param syncs {@link Map} {@link PendingSync}
+   */
+  private void addDocumentSync(final LambdaLogger logger, final TypeSenseIndexResult result,
+      final Map<String, PendingSync> syncs) {
+
+    String siteId = result.siteId();
+    String documentId = result.documentId();
+
+    if (!result.success()) {
+      logger.log("unable to " + result.operation() + " document " + siteId + " " + documentId
+          + ": " + result.error());
+    }
+
+    if (TypeSenseIndexOperation.DELETED.equals(result.operation())) {
+
+      if (result.success()) {
+        deleteSyncs(siteId, documentId);
+      }
+
+    } else {
+
+      PendingSync sync = syncs.get(getSyncKey(siteId, documentId));
+      boolean added = !result.success() || TypeSenseIndexOperation.ADDED.equals(result.operation());
+      addDocumentSync(result.success(), siteId, documentId, sync.userId, sync.s3VersionChanged,
+          added);
     }
   }
 
@@ -188,6 +224,17 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
     return getAttributeStringValue(field);
   }
 
+  /**
+   * Get key for a pending document sync.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @return {@link String}
+   */
+  private String getSyncKey(final String siteId, final String documentId) {
+    return siteId + "/" + documentId;
+  }
+
   /**
    * Get User Id.
    * 
@@ -245,10 +292,12 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
    * Process Record.
    * 
    * @param logger {@link LambdaLogger}
-   * 
    * @param record {@link Map}
+   * @param indexer {@link TypeSenseBatchIndexer}
+   * @param syncs {@link Map} {@link PendingSync}
    */
-  private void processRecord(final LambdaLogger logger, final Map<String, Object> record) {
+  private void processRecord(final LambdaLogger logger, final Map<String, Object> record,
+      final TypeSenseBatchIndexer indexer, final Map<String, PendingSync> syncs) {
 
     String eventName = record.get("eventName").toString();
     Map<String, Object> dynamodb = toMap(record.get("dynamodb"));
@@ -266,28 +315,24 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
 
     if (documentId != null) {
 
-      try {
-
-        if ("INSERT".equalsIgnoreCase(eventName) || "MODIFY".equalsIgnoreCase(eventName)) {
-
-          logger
-              .log("processing event " + eventName + " for document " + siteId + " " + documentId);
+      if ("INSERT".equalsIgnoreCase(eventName) || "MODIFY".equalsIgnoreCase(eventName)) {
 
-          boolean s3VersionChanged = isS3VersionChanged(eventName, oldImage, newImage);
+        logger.log("processing event " + eventName + " for document " + siteId + " " + documentId);
 
-          String userId = getUserId(newImage, oldImage);
-          writeToIndex(logger, siteId, documentId, newImage, userId, s3VersionChanged);
+        boolean s3VersionChanged = isS3VersionChanged(eventName, oldImage, newImage);
 
-        } else if ("REMOVE".equalsIgnoreCase(eventName)) {
+        String userId = getUserId(newImage, oldImage);
+        if (writeToIndex(logger, indexer, siteId, documentId, newImage)) {
+          syncs.merge(getSyncKey(siteId, documentId), new PendingSync(userId, s3VersionChanged),
+              (a, b) -> new PendingSync(b.userId, a.s3VersionChanged || b.s3VersionChanged));
+        }
 
-          removeDocument(siteId, documentId, oldImage);
+      } else if ("REMOVE".equalsIgnoreCase(eventName)) {
 
-        } else {
-          logger.log("skipping event " + eventName + " for document " + siteId + " " + documentId);
-        }
+        removeDocument(indexer, siteId, documentId, oldImage);
 
-      } catch (IOException e) {
-        e.printStackTrace();
+      } else {
+        logger.log("skipping event " + eventName + " for document " + siteId + " " + documentId);
       }
 
     } else {
@@ -302,29 +347,36 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
    * @param records {@link List} {@link Map}
    */
   private void processRecords(final LambdaLogger logger, final List<Map<String, Object>> records) {
+
+    TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
+    TypeSenseBatchIndexer indexer = new TypeSenseBatchIndexer(typeSenseService);
+    Map<String, PendingSync> syncs = new HashMap<>();
+
     for (Map<String, Object> record : records) {
 
       if (record.containsKey("eventName")) {
-        processRecord(logger, record);
+        processRecord(logger, record, indexer, syncs);
       }
     }
+
+    for (TypeSenseIndexResult result : indexer.flush()) {
+      addDocumentSync(logger, result, syncs);
+    }
   }
 
   /**
    * Remove Document from TypeSense.
    * 
+   * @param indexer {@link TypeSenseBatchIndexer}
    * @param siteId {@link String}
    * @param documentId {@link String}
    * @param oldImage {@link Map}
-   * @throws IOException IOException
    */
-  private void removeDocument(final String siteId, final String documentId,
-      final Map<String, Object> oldImage) throws IOException {
+  private void removeDocument(final TypeSenseBatchIndexer indexer, final String siteId,
+      final String documentId, final Map<String, Object> oldImage) {
     boolean isDocument = isDocumentSk(oldImage);
     if (isDocument) {
-      TypeSenseService typeSenseService = serviceCache.getExtension(TypeSenseService.class);
-      typeSenseService.deleteDocument(siteId, documentId);
-      deleteSyncs(siteId, documentId);
+      indexer.delete(siteId, documentId);
     }
   }
 
@@ -351,17 +403,14 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
    * Write Data to Typesense Index.
    * 
    * @param logger {@link LambdaLogger}
-   * 
+   * @param indexer {@link TypeSenseBatchIndexer}
    * @param siteId {@link String}
    * @param documentId {@link String}
    * @param data {@link Map}
-   * @param userId {@link String}
-   * @param s3VersionChanged boolean
-   * @throws IOException IOException
+   * @return boolean whether the document was added to the index batch
    */
-  private void writeToIndex(final LambdaLogger logger, final String siteId, final String documentId,
-      final Map<String, Object> data, final String userId, final boolean s3VersionChanged)
-      throws IOException {
+  private boolean writeToIndex(final LambdaLogger logger, final TypeSenseBatchIndexer indexer,
+      final String siteId, final String documentId, final Map<String, Object> data) {
 
     boolean isDocument = isDocumentSk(data);
 
@@ -374,9 +423,33 @@ public class TypesenseProcessor implements RequestHandler<Map<String, Object>, V
       }
 
       Map<String, Object> document = new DocumentMapToDocument().apply(data);
-      addOrUpdate(siteId, documentId, document, userId, s3VersionChanged);
+      indexer.addOrUpdate(siteId, documentId, document);
     } else if (serviceCache.debug()) {
       logger.log("skipping dynamodb record");
     }
+
+    return isDocument;
+  }
+
+  /**
+   * Sync details of a document waiting in the index batch.
+   */
+  private static class PendingSync {
+
+    /** Whether the S3 version changed. */
+    private final boolean s3VersionChanged;
+    /** User Id. */
+    private final String userId;
+
+    /**
+     * constructor.
+     * 
+     * @param user {@link String}
+     * @param versionChanged boolean
+     */
+    PendingSync(final String user, final boolean versionChanged) {
+      this.userId = user;
+      this.s3VersionChanged = versionChanged;
+    }
   }
 }
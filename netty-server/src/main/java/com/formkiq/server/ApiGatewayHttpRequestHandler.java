@@ -23,28 +23,26 @@
  */
 package com.formkiq.server;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
 import com.amazonaws.services.lambda.runtime.Context;
-import com.formkiq.aws.dynamodb.objects.Strings;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestContext;
 import com.formkiq.aws.services.lambda.ApiGatewayRequestEvent;
+import com.formkiq.aws.services.lambda.ApiGatewayResponse;
+import com.formkiq.aws.services.lambda.ApiRouteMatch;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import io.netty.buffer.Unpooled;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpChunkedInput;
+import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.HttpVersion;
@@ -55,66 +53,39 @@ import io.netty.handler.codec.http.QueryStringDecoder;
  */
 public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
 
+  /** Response body length over which the response is written in chunks. */
+  private static final int CHUNKED_RESPONSE_LENGTH = 65536;
+
   /** API Key. */
   private String apiKey = null;
-  /** {@link Gson}. */
-  private Gson gson = new GsonBuilder().create();
   /** {@link NettyRequestHandler}. */
   private NettyRequestHandler handler;
-  /** {@link NettyRequestHandler} Urls. */
-  private Collection<String> urls;
 
   /**
    * constructor.
    * 
    * @param reqestHandler {@link NettyRequestHandler}
    * @param requestApiKey {@link String}
-   * @param handlerUrls {@link Collection} {@link String}
    * 
    */
   public ApiGatewayHttpRequestHandler(final NettyRequestHandler reqestHandler,
-      final String requestApiKey, final Collection<String> handlerUrls) {
+      final String requestApiKey) {
     this.apiKey = requestApiKey;
     this.handler = reqestHandler;
-    this.urls = handlerUrls;
   }
 
-  @SuppressWarnings("unchecked")
-  private DefaultFullHttpResponse buildResponse(final ByteArrayOutputStream os) {
-
-    String output = new String(os.toByteArray(), StandardCharsets.UTF_8);
-    Map<String, Object> map = this.gson.fromJson(output, Map.class);
-    String body = map.getOrDefault("body", "").toString();
-    String statusCode = map.getOrDefault("statusCode", "404").toString().replaceAll("\\.0", "");
-
-    DefaultFullHttpResponse response =
-        new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.parseLine(statusCode),
-            Unpooled.copiedBuffer(body, StandardCharsets.UTF_8));
-
-    Map<String, String> headers = (Map<String, String>) map.get("headers");
-    for (Map.Entry<String, String> e : headers.entrySet()) {
-      response.headers().add(e.getKey(), e.getValue());
-    }
-
-    return response;
-  }
-
-  private Map<String, String> createPathParameters(final String resource, final String uri) {
-
-    Map<String, String> map = new HashMap<>();
-
-    if (resource != null && uri != null) {
-      String[] s0 = resource.split("/");
-      String[] s1 = uri.split("/");
-
-      for (int i = 0; i < s0.length; i++) {
-        if (s0[i].startsWith("{") && s0[i].endsWith("}")) {
-          map.put(s0[i].substring(1, s0[i].length() - 1), s1[i]);
-        }
+  /**
+   * Add {@link ApiGatewayResponse} headers to {@link HttpResponse}.
+   * 
+   * @param response {@link HttpResponse}
+   * @param apiResponse {@link ApiGatewayResponse}
+   */
+  private void addHeaders(final HttpResponse response, final ApiGatewayResponse apiResponse) {
+    if (apiResponse.getHeaders() != null) {
+      for (Map.Entry<String, String> e : apiResponse.getHeaders().entrySet()) {
+        response.headers().add(e.getKey(), e.getValue());
       }
     }
-
-    return map;
   }
 
   private Map<String, String> createQueryParameters(final FullHttpRequest request) {
@@ -158,13 +129,14 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
       final FullHttpRequest request) throws IOException {
     String uri = getUri(request);
 
-    String resource = Strings.findUrlMatch(this.urls, uri);
-    Map<String, String> pathParams = createPathParameters(resource, uri);
+    ApiRouteMatch route = this.handler.getRoutes().find(uri);
+    Map<String, String> pathParams =
+        route != null ? new HashMap<>(route.getPathParameters()) : new HashMap<>();
     Map<String, String> queryParameters = createQueryParameters(request);
 
     ApiGatewayRequestEvent apiEvent = new ApiGatewayRequestEvent();
     apiEvent.setPath(request.uri());
-    apiEvent.setResource(resource != null ? resource : uri);
+    apiEvent.setResource(route != null ? route.getResource() : uri);
     apiEvent.setHttpMethod(request.method().name());
     apiEvent.setPathParameters(pathParams);
     apiEvent.setQueryStringParameters(queryParameters);
@@ -175,21 +147,13 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
         Map.of("claims", Map.of("cognito:username", "admin", "cognito:groups", "[" + group + "]")));
     apiEvent.setRequestContext(requestContext);
 
-    String body = getBody(request.content());
+    String body = getBody(request);
     apiEvent.setBody(body);
 
-    String event = this.gson.toJson(apiEvent);
-
-    InputStream is = new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8));
-    ByteArrayOutputStream os = new ByteArrayOutputStream();
     Context context = new LambdaContext(UUID.randomUUID().toString());
+    ApiGatewayResponse apiResponse = this.handler.handleRequest(apiEvent, context);
 
-    this.handler.handleRequest(is, os, context);
-
-    DefaultFullHttpResponse response = buildResponse(os);
-    HttpUtil.setContentLength(response, response.content().readableBytes());
-
-    ctx.writeAndFlush(response);
+    writeResponse(ctx, apiResponse);
   }
 
   @Override
@@ -217,4 +181,40 @@ public class ApiGatewayHttpRequestHandler implements HttpRequestHandler {
 
     return proceed;
   }
+
+  /**
+   * Write {@link ApiGatewayResponse}. Small bodies are written into a single pooled
+   * {@link ByteBuf}, large bodies are encoded and written in chunks by the
+   * {@link io.netty.handler.stream.ChunkedWriteHandler}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param apiResponse {@link ApiGatewayResponse}
+   */
+  private void writeResponse(final ChannelHandlerContext ctx,
+      final ApiGatewayResponse apiResponse) {
+
+    String body = apiResponse.getBody() != null ? apiResponse.getBody() : "";
+    HttpResponseStatus status = HttpResponseStatus.valueOf(apiResponse.getStatusCode());
+
+    if (body.length() > CHUNKED_RESPONSE_LENGTH) {
+
+      StringChunkedInput input = new StringChunkedInput(body);
+      HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, status);
+      addHeaders(response, apiResponse);
+      HttpUtil.setContentLength(response, input.length());
+
+      ctx.write(response);
+      ctx.writeAndFlush(new HttpChunkedInput(input));
+
+    } else {
+
+      ByteBuf content = ByteBufUtil.writeUtf8(ctx.alloc(), body);
+      DefaultFullHttpResponse response =
+          new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, content);
+      addHeaders(response, apiResponse);
+      HttpUtil.setContentLength(response, content.readableBytes());
+
+      ctx.writeAndFlush(response);
+    }
+  }
 }
@@ -66,7 +66,7 @@ public class AuthenticationLoginHttpRequestHandler implements HttpRequestHandler
   public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request)
       throws IOException {
 
-    String body = getBody(request.content());
+    String body = getBody(request);
     Map<String, String> map = this.gson.fromJson(body, Map.class);
 
     if (!map.containsKey("username") && !map.containsKey("password")) {
@@ -0,0 +1,139 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static software.amazon.awssdk.services.dynamodb.model.AttributeValue.fromS;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.formkiq.aws.dynamodb.DbKeys;
+import com.formkiq.aws.dynamodb.DynamoDbConnectionBuilder;
+import com.formkiq.aws.dynamodb.DynamoDbService;
+import com.formkiq.aws.dynamodb.DynamoDbServiceImpl;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * 
+ * Per shard DynamoDb Stream checkpoints, persisted so a restart resumes after the last processed
+ * sequence number instead of replaying the stream.
+ *
+ */
+public class DynamoDbStreamCheckpoints implements DbKeys {
+
+  /** Completed attribute. */
+  private static final String COMPLETED = "completed";
+  /** Sequence Number attribute. */
+  private static final String SEQUENCE_NUMBER = "sequenceNumber";
+
+  /** Checkpoints by shard id. */
+  private final Map<String, Map<String, AttributeValue>> checkpoints = new ConcurrentHashMap<>();
+  /** {@link DynamoDbService}. */
+  private final DynamoDbService db;
+  /** Partition key of the stream. */
+  private final String pk;
+
+  /**
+   * constructor.
+   * 
+   * @param connection {@link DynamoDbConnectionBuilder}
+   * @param tableName {@link String}
+   * @param streamArn {@link String}
+   */
+  public DynamoDbStreamCheckpoints(final DynamoDbConnectionBuilder connection,
+      final String tableName, final String streamArn) {
+    this.db = new DynamoDbServiceImpl(connection, tableName);
+    this.pk = "streams" + TAG_DELIMINATOR + streamArn;
+  }
+
+  /**
+   * Save the last processed sequence number of a shard.
+   * 
+   * @param shardId {@link String}
+   * @param sequenceNumber {@link String}
+   */
+  public void checkpoint(final String shardId, final String sequenceNumber) {
+    save(shardId, Map.of(PK, fromS(this.pk), SK, fromS(shardId), SEQUENCE_NUMBER,
+        fromS(sequenceNumber)));
+  }
+
+  /**
+   * Mark a closed shard as fully processed, so its child shards can be read.
+   * 
+   * @param shardId {@link String}
+   */
+  public void complete(final String shardId) {
+
+    String sequenceNumber = getSequenceNumber(shardId);
+    Map<String, AttributeValue> item = sequenceNumber != null
+        ? Map.of(PK, fromS(this.pk), SK, fromS(shardId), SEQUENCE_NUMBER, fromS(sequenceNumber),
+            COMPLETED, AttributeValue.fromBool(Boolean.TRUE))
+        : Map.of(PK, fromS(this.pk), SK, fromS(shardId), COMPLETED,
+            AttributeValue.fromBool(Boolean.TRUE));
+
+    save(shardId, item);
+  }
+
+  /**
+   * Get Checkpoint.
+   * 
+   * @param shardId {@link String}
+   * @return {@link Map}
+   */
+  private Map<String, AttributeValue> get(final String shardId) {
+    return this.checkpoints.computeIfAbsent(shardId,
+        s -> this.db.get(fromS(this.pk), fromS(shardId)));
+  }
+
+  /**
+   * Get the last processed sequence number of a shard.
+   * 
+   * @param shardId {@link String}
+   * @return {@link String}, null when the shard has not been read
+   */
+  public String getSequenceNumber(final String shardId) {
+    AttributeValue value = get(shardId).get(SEQUENCE_NUMBER);
+    return value != null ? value.s() : null;
+  }
+
+  /**
+   * Whether a shard has been closed and fully processed.
+   * 
+   * @param shardId {@link String}
+   * @return boolean
+   */
+  public boolean isCompleted(final String shardId) {
+    AttributeValue value = get(shardId).get(COMPLETED);
+    return value != null && Boolean.TRUE.equals(value.bool());
+  }
+
+  /**
+   * Save Checkpoint.
+   * 
+   * @param shardId {@link String}
+   * @param item {@link Map}
+   */
+  private void save(final String shardId, final Map<String, AttributeValue> item) {
+    this.db.putItem(item);
+    this.checkpoints.put(shardId, item);
+  }
+}
@@ -26,45 +26,74 @@ package com.formkiq.server;
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.URI;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.formkiq.lambda.runtime.graalvm.LambdaContext;
 import com.formkiq.module.lambda.typesense.TypesenseProcessor;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
 import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExpiredIteratorException;
 import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
 import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
 import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.Record;
 import software.amazon.awssdk.services.dynamodb.model.Shard;
 import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
 import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
 
 /**
- * Polls DynamoDb Stream and sends stream to Http Endpoint.
+ * Consumes a DynamoDb Stream and sends each shard's records to the {@link TypesenseProcessor}.
+ * Shards are polled in parallel with an adaptive delay, child shards are only read once their
+ * parent shard is complete, and the last processed sequence number of each shard is checkpointed
+ * so a restart resumes where it left off.
+ * 
+ * <p>
+ * The {@link ScheduledExecutorService} only times the polls, stream requests are asynchronous and
+ * the records are processed and checkpointed on the worker {@link ExecutorService}.
+ * </p>
  */
 public class DynamoDbStreamToTypesense implements Closeable {
 
-  /** {@link Gson}. */
-  private Gson gson = new GsonBuilder().create();
-  /** {@link Map}. */
-  private Map<String, String> nextShardIteratorMap = new HashMap<>();
+  /** Maximum delay between polls of an idle shard. */
+  private static final long MAX_POLL_DELAY_MS = 5000L;
+  /** Minimum delay between polls of an idle shard. */
+  private static final long MIN_POLL_DELAY_MS = 100L;
+  /** Interval between checks for new shards. */
+  private static final long SHARD_REFRESH_MS = 30000L;
+
+  /** {@link DynamoDbStreamCheckpoints}. */
+  private final DynamoDbStreamCheckpoints checkpoints;
+  /** Shard ids with a running consumer. */
+  private final Set<String> consuming = ConcurrentHashMap.newKeySet();
   /** {@link TypesenseProcessor}. */
-  private TypesenseProcessor processor;
+  private final RequestHandler<Map<String, Object>, Void> processor;
+  /** Whether the consumer is running. */
+  private volatile boolean running;
+  /** {@link ScheduledExecutorService}. */
+  private ScheduledExecutorService scheduler;
+  /** Known {@link Shard} by shard id. */
+  private final Map<String, Shard> shards = new ConcurrentHashMap<>();
   /** {@link String}. */
-  private String streamArn;
+  private final String streamArn;
   /** {@link DynamoDbStreamsAsyncClient}. */
-  private DynamoDbStreamsAsyncClient streamsClient = null;
+  private final DynamoDbStreamsAsyncClient streamsClient;
+  /** {@link ExecutorService} processing the records. */
+  private ExecutorService workers;
 
   /**
    * constructor.
@@ -74,120 +103,266 @@ public class DynamoDbStreamToTypesense implements Closeable {
    * @param dynamoDbStreamArn {@link String}
    * @param dynamodbUri {@link String}
    * @param typesenseProcessor {@link String}
+   * @param streamCheckpoints {@link DynamoDbStreamCheckpoints}
    */
   public DynamoDbStreamToTypesense(final Region awsRegion,
       final AwsCredentialsProvider awsCredentialsProvider, final String dynamoDbStreamArn,
-      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor) {
+      final URI dynamodbUri, final TypesenseProcessor typesenseProcessor,
+      final DynamoDbStreamCheckpoints streamCheckpoints) {
+    this(DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri).region(awsRegion)
+        .credentialsProvider(awsCredentialsProvider).build(), dynamoDbStreamArn,
+        typesenseProcessor, streamCheckpoints);
+  }
 
+  /**
+   * constructor.
+   * 
+   * @param client {@link DynamoDbStreamsAsyncClient}
+   * @param dynamoDbStreamArn {@link String}
+   * @param recordsProcessor {@link RequestHandler} of the DynamoDb Stream Lambda event
+   * @param streamCheckpoints {@link DynamoDbStreamCheckpoints}
+   */
+  DynamoDbStreamToTypesense(final DynamoDbStreamsAsyncClient client,
+      final String dynamoDbStreamArn,
+      final RequestHandler<Map<String, Object>, Void> recordsProcessor,
+      final DynamoDbStreamCheckpoints streamCheckpoints) {
+    this.streamsClient = client;
     this.streamArn = dynamoDbStreamArn;
-    this.processor = typesenseProcessor;
-
-    this.streamsClient = DynamoDbStreamsAsyncClient.builder().endpointOverride(dynamodbUri)
-        .region(awsRegion).credentialsProvider(awsCredentialsProvider).build();
+    this.processor = recordsProcessor;
+    this.checkpoints = streamCheckpoints;
   }
 
   @Override
   public void close() throws IOException {
-    if (this.streamsClient != null) {
-      this.streamsClient.close();
-    }
+    this.running = false;
+    this.streamsClient.close();
   }
 
-  private String getShardIterator(final String shardId, final String iteratorType) {
+  /**
+   * Describe the stream, following pagination, and record any new shards.
+   */
+  private void describeShards() {
+
+    String lastShardId = null;
 
-    GetShardIteratorRequest getShardIteratorRequest = GetShardIteratorRequest.builder()
-        .streamArn(this.streamArn).shardId(shardId).shardIteratorType(iteratorType).build();
+    do {
+      DescribeStreamRequest request = DescribeStreamRequest.builder().streamArn(this.streamArn)
+          .exclusiveStartShardId(lastShardId).build();
 
-    return this.streamsClient.getShardIterator(getShardIteratorRequest).join().shardIterator();
+      DescribeStreamResponse response = this.streamsClient.describeStream(request).join();
+      response.streamDescription().shards().forEach(s -> this.shards.putIfAbsent(s.shardId(), s));
+      lastShardId = response.streamDescription().lastEvaluatedShardId();
+
+    } while (lastShardId != null);
   }
 
-  private List<Shard> getShards() {
+  /**
+   * Get the shard iterator to resume a shard from its checkpoint.
+   * 
+   * @param shardId {@link String}
+   * @param fromStart boolean, ignore the checkpoint and read from the oldest available record
+   * @return {@link CompletableFuture} {@link String}
+   */
+  private CompletableFuture<String> getShardIterator(final String shardId,
+      final boolean fromStart) {
 
-    List<Shard> shards = Collections.emptyList();
-    try {
-      DescribeStreamRequest streamRequest =
-          DescribeStreamRequest.builder().streamArn(this.streamArn).build();
+    String sequenceNumber = fromStart ? null : this.checkpoints.getSequenceNumber(shardId);
 
-      DescribeStreamResponse streamResponse =
-          this.streamsClient.describeStream(streamRequest).get();
-      shards = streamResponse.streamDescription().shards();
+    GetShardIteratorRequest.Builder request =
+        GetShardIteratorRequest.builder().streamArn(this.streamArn).shardId(shardId);
 
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
+    if (sequenceNumber != null) {
+      request.shardIteratorType(ShardIteratorType.AFTER_SEQUENCE_NUMBER)
+          .sequenceNumber(sequenceNumber);
+    } else {
+      request.shardIteratorType(ShardIteratorType.TRIM_HORIZON);
+    }
+
+    return this.streamsClient.getShardIterator(request.build())
+        .thenApply(r -> r.shardIterator());
+  }
+
+  /**
+   * Whether a shard's parent has been fully processed, or is no longer in the stream.
+   * 
+   * @param shard {@link Shard}
+   * @return boolean
+   */
+  private boolean isParentComplete(final Shard shard) {
+    String parentId = shard.parentShardId();
+    return parentId == null || !this.shards.containsKey(parentId)
+        || this.checkpoints.isCompleted(parentId);
+  }
+
+  /**
+   * Poll a shard once and schedule the next poll, runs on the worker {@link ExecutorService}.
+   * 
+   * @param consumer {@link ShardConsumer}
+   */
+  private void poll(final ShardConsumer consumer) {
+
+    if (this.running) {
+
+      CompletableFuture<String> iterator =
+          consumer.iterator != null ? CompletableFuture.completedFuture(consumer.iterator)
+              : getShardIterator(consumer.shardId, consumer.fromStart);
+      consumer.fromStart = false;
+
+      iterator
+          .thenCompose(i -> this.streamsClient
+              .getRecords(GetRecordsRequest.builder().shardIterator(i).build()))
+          .thenAcceptAsync(response -> processRecords(consumer, response), this.workers)
+          .whenCompleteAsync((v, e) -> {
+            if (e != null) {
+              handlePollError(consumer, e);
+            }
+            scheduleNext(consumer);
+          }, this.workers);
     }
+  }
 
-    return shards;
+  /**
+   * Handle a failed poll. The iterator is reset, so the shard resumes from its checkpoint and
+   * records that failed to process are read again.
+   * 
+   * @param consumer {@link ShardConsumer}
+   * @param e {@link Throwable}
+   */
+  private void handlePollError(final ShardConsumer consumer, final Throwable e) {
+
+    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+    consumer.iterator = null;
+
+    if (cause instanceof ExpiredIteratorException) {
+      consumer.delay = MIN_POLL_DELAY_MS;
+    } else if (cause instanceof TrimmedDataAccessException) {
+      // checkpoint is older than the stream retention, resume from the oldest record
+      consumer.fromStart = true;
+      consumer.delay = MIN_POLL_DELAY_MS;
+    } else {
+      e.printStackTrace();
+      consumer.delay = MAX_POLL_DELAY_MS;
+    }
   }
 
   /**
-   * Run Stream Poller.
+   * Send a whole batch of records to the processor, checkpoint the last one and move the
+   * consumer to the next shard iterator.
+   * 
+   * @param consumer {@link ShardConsumer}
+   * @param response {@link GetRecordsResponse}
    */
-  public void run() {
+  private void processRecords(final ShardConsumer consumer, final GetRecordsResponse response) {
 
-    // Describe the stream to get shard information
-    List<Shard> shards = getShards();
+    List<Record> records = response.records();
 
-    // Iterate through each shard in the stream
-    for (Shard shard : shards) {
+    if (!records.isEmpty()) {
 
-      String shardId = shard.shardId();
+      List<Map<String, Object>> list = records.stream().map(this::toEventRecord).toList();
+      Context context = new LambdaContext(UUID.randomUUID().toString());
 
-      try {
-        String shardIterator = this.nextShardIteratorMap.get(shardId);
-        if (shardIterator == null) {
+      this.processor.handleRequest(Map.of("Records", list), context);
 
-          String iteratorType = ShardIteratorType.TRIM_HORIZON.toString();
-          shardIterator = getShardIterator(shardId, iteratorType);
-        }
+      String sequenceNumber = records.get(records.size() - 1).dynamodb().sequenceNumber();
+      this.checkpoints.checkpoint(consumer.shardId, sequenceNumber);
+      consumer.delay = 0;
 
-        GetRecordsRequest getRecordsRequest =
-            GetRecordsRequest.builder().shardIterator(shardIterator).build();
+    } else {
+      consumer.delay =
+          Math.min(Math.max(consumer.delay * 2, MIN_POLL_DELAY_MS), MAX_POLL_DELAY_MS);
+    }
 
-        GetRecordsResponse getRecordsResponse =
-            this.streamsClient.getRecords(getRecordsRequest).get();
+    consumer.iterator = response.nextShardIterator();
+    consumer.closed = consumer.iterator == null;
+  }
 
-        List<software.amazon.awssdk.services.dynamodb.model.Record> records =
-            getRecordsResponse.records();
+  /**
+   * Check for new shards and start a consumer for each shard that is ready to be read.
+   */
+  public synchronized void refreshShards() {
+
+    if (this.running) {
 
-        for (software.amazon.awssdk.services.dynamodb.model.Record record : records) {
+      try {
+        describeShards();
 
-          Map<String, Object> map = transform(record);
+        for (Shard shard : this.shards.values()) {
 
-          Context context = new LambdaContext(UUID.randomUUID().toString());
+          String shardId = shard.shardId();
 
-          try {
-            this.processor.handleRequest(map, context);
-          } catch (Exception e) {
-            e.printStackTrace();
+          if (!this.consuming.contains(shardId) && !this.checkpoints.isCompleted(shardId)
+              && isParentComplete(shard)) {
+            this.consuming.add(shardId);
+            ShardConsumer consumer = new ShardConsumer(shardId);
+            this.workers.execute(() -> poll(consumer));
           }
         }
 
-        // Update the shard iterator
-        String nextShardIterator = getRecordsResponse.nextShardIterator();
-        this.nextShardIteratorMap.put(shardId, nextShardIterator);
-
-      } catch (InterruptedException | ExecutionException e) {
-        this.nextShardIteratorMap.remove(shardId);
+      } catch (RuntimeException e) {
         e.printStackTrace();
       }
     }
   }
 
-  private Map<String, Object> transform(
-      final software.amazon.awssdk.services.dynamodb.model.Record record) {
+  /**
+   * Schedule the next poll of a shard, or complete a closed shard.
+   * 
+   * @param consumer {@link ShardConsumer}
+   */
+  private void scheduleNext(final ShardConsumer consumer) {
+
+    if (consumer.closed) {
+
+      // closed shard has been fully read, its children can now be read
+      this.checkpoints.complete(consumer.shardId);
+      this.consuming.remove(consumer.shardId);
+      this.workers.execute(this::refreshShards);
+
+    } else if (this.running) {
+      this.scheduler.schedule(() -> this.workers.execute(() -> poll(consumer)), consumer.delay,
+          TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * Start consuming the stream.
+   * 
+   * @param executor {@link ScheduledExecutorService} timing the shard refreshes and polls
+   * @param workerExecutor {@link ExecutorService} refreshing shards and processing records
+   */
+  public void start(final ScheduledExecutorService executor,
+      final ExecutorService workerExecutor) {
+    this.scheduler = executor;
+    this.workers = workerExecutor;
+    this.running = true;
+    executor.scheduleWithFixedDelay(() -> this.workers.execute(this::refreshShards), 0,
+        SHARD_REFRESH_MS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Stop consuming the stream, in flight polls are not rescheduled.
+   */
+  public void stop() {
+    this.running = false;
+  }
+
+  /**
+   * Convert a stream {@link Record} to a DynamoDb Stream Lambda event record.
+   * 
+   * @param record {@link Record}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toEventRecord(final Record record) {
+
     Map<String, Object> dynamodb = new HashMap<>();
-    dynamodb.put("Keys", record.dynamodb().keys());
+    dynamodb.put("Keys", toEventImage(record.dynamodb().keys()));
 
-    if (!record.dynamodb().newImage().isEmpty()) {
-      Map<String, AttributeValue> newImage = record.dynamodb().newImage();
-      String json = this.gson.toJson(newImage);
-      dynamodb.put("NewImage", this.gson.fromJson(json, Map.class));
+    if (record.dynamodb().hasNewImage()) {
+      dynamodb.put("NewImage", toEventImage(record.dynamodb().newImage()));
     }
 
-    if (!record.dynamodb().newImage().isEmpty()) {
-      Map<String, AttributeValue> oldImage = record.dynamodb().oldImage();
-      String json = this.gson.toJson(oldImage);
-      dynamodb.put("OldImage", this.gson.fromJson(json, Map.class));
+    if (record.dynamodb().hasOldImage()) {
+      dynamodb.put("OldImage", toEventImage(record.dynamodb().oldImage()));
     }
 
     Map<String, Object> map = new HashMap<>();
@@ -198,8 +373,86 @@ public class DynamoDbStreamToTypesense implements Closeable {
     map.put("awsRegion", record.awsRegion());
     map.put("dynamodb", dynamodb);
 
-    map = Map.of("Records", Arrays.asList(map));
     return map;
   }
-}
 
+  /**
+   * Convert a DynamoDb image to the Lambda event format.
+   * 
+   * @param image {@link Map}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toEventImage(final Map<String, AttributeValue> image) {
+    Map<String, Object> map = new HashMap<>();
+    image.forEach((k, v) -> map.put(k, toEventValue(v)));
+    return map;
+  }
+
+  /**
+   * Convert a {@link AttributeValue} to the Lambda event format, ie: {"S": "value"}.
+   * 
+   * @param value {@link AttributeValue}
+   * @return {@link Map}
+   */
+  private Map<String, Object> toEventValue(final AttributeValue value) {
+
+    Map<String, Object> map = new HashMap<>();
+
+    switch (value.type()) {
+      case S:
+        map.put("S", value.s());
+        break;
+      case N:
+        map.put("N", value.n());
+        break;
+      case BOOL:
+        map.put("BOOL", value.bool());
+        break;
+      case NUL:
+        map.put("NULL", Boolean.TRUE);
+        break;
+      case SS:
+        map.put("SS", value.ss());
+        break;
+      case NS:
+        map.put("NS", value.ns());
+        break;
+      case L:
+        map.put("L", value.l().stream().map(this::toEventValue).toList());
+        break;
+      case M:
+        map.put("M", toEventImage(value.m()));
+        break;
+      default:
+        break;
+    }
+
+    return map;
+  }
+
+  /**
+   * Read position of a single shard.
+   */
+  private static class ShardConsumer {
+
+    /** Whether the shard is closed and has been fully read. */
+    private boolean closed;
+    /** Delay before the next poll, in milliseconds. */
+    private long delay;
+    /** Whether to ignore the checkpoint and read from the oldest record. */
+    private boolean fromStart;
+    /** Shard iterator, null when one needs to be requested. */
+    private String iterator;
+    /** Shard Id. */
+    private final String shardId;
+
+    /**
+     * constructor.
+     * 
+     * @param id {@link String}
+     */
+    ShardConsumer(final String id) {
+      this.shardId = id;
+    }
+  }
+}
@@ -0,0 +1,195 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.multipart.HttpData;
+import io.netty.handler.codec.http.multipart.MixedAttribute;
+import io.netty.util.ReferenceCountUtil;
+
+/**
+ * Aggregates a {@link HttpRequest} and its {@link HttpContent} chunks into a
+ * {@link SpooledFullHttpRequest}. Unlike {@link io.netty.handler.codec.http.HttpObjectAggregator}
+ * the body is only kept on the heap up to the memory threshold, larger bodies are written to a
+ * temporary file as the chunks arrive. Bodies over the maximum content length are rejected with
+ * 413 'Request Entity Too Large', the rest of the body is discarded when the Content-Length was too
+ * large, otherwise the connection is closed.
+ */
+public class HttpRequestBodyAggregator extends ChannelInboundHandlerAdapter {
+
+  /** Default maximum request body length, the API Gateway payload limit. */
+  public static final int DEFAULT_MAX_CONTENT_LENGTH = 10485760;
+  /** Default request body length kept in memory before spooling to a temporary file. */
+  public static final int DEFAULT_MEMORY_THRESHOLD = 65536;
+
+  /** Body of the {@link HttpRequest} being aggregated. */
+  private HttpData body;
+  /** Maximum request body length. */
+  private long maxContentLength;
+  /** Request body length kept in memory. */
+  private long memoryThreshold;
+  /** {@link HttpRequest} being aggregated. */
+  private HttpRequest request;
+
+  /**
+   * constructor.
+   * 
+   * @param maxLength long
+   * @param threshold long
+   */
+  public HttpRequestBodyAggregator(final long maxLength, final long threshold) {
+    this.maxContentLength = maxLength;
+    this.memoryThreshold = threshold;
+  }
+
+  /**
+   * Add {@link HttpContent} to the request body, firing the {@link SpooledFullHttpRequest} on the
+   * {@link LastHttpContent}. Content is discarded while no request is being aggregated.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param content {@link HttpContent}
+   * @throws IOException IOException
+   */
+  private void addContent(final ChannelHandlerContext ctx, final HttpContent content)
+      throws IOException {
+
+    if (this.body != null) {
+
+      if (this.body.length() + content.content().readableBytes() > this.maxContentLength) {
+
+        reset();
+        reject(ctx, true);
+
+      } else {
+
+        boolean last = content instanceof LastHttpContent;
+        this.body.addContent(content.content().retain(), last);
+
+        if (last) {
+          FullHttpRequest full = new SpooledFullHttpRequest(this.request, this.body,
+              ((LastHttpContent) content).trailingHeaders());
+          this.request = null;
+          this.body = null;
+          ctx.fireChannelRead(full);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+    reset();
+    super.channelInactive(ctx);
+  }
+
+  @Override
+  public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+
+    if (msg instanceof FullHttpRequest) {
+
+      ctx.fireChannelRead(msg);
+
+    } else if (msg instanceof HttpRequest) {
+
+      startRequest(ctx, (HttpRequest) msg);
+
+    } else if (msg instanceof HttpContent) {
+
+      try {
+        addContent(ctx, (HttpContent) msg);
+      } finally {
+        ReferenceCountUtil.release(msg);
+      }
+
+    } else {
+      ctx.fireChannelRead(msg);
+    }
+  }
+
+  /**
+   * Respond 413 'Request Entity Too Large'.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param close whether to close the connection
+   */
+  private void reject(final ChannelHandlerContext ctx, final boolean close) {
+
+    FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
+        HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE, Unpooled.buffer(0));
+    HttpUtil.setContentLength(response, 0);
+
+    if (close) {
+      response.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+      ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    } else {
+      ctx.writeAndFlush(response);
+    }
+  }
+
+  /**
+   * Release any partially aggregated request body.
+   */
+  private void reset() {
+    if (this.body != null) {
+      this.body.release();
+    }
+    this.body = null;
+    this.request = null;
+  }
+
+  /**
+   * Start aggregating a {@link HttpRequest}, rejecting it upfront when the Content-Length is over
+   * the maximum content length.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param req {@link HttpRequest}
+   */
+  private void startRequest(final ChannelHandlerContext ctx, final HttpRequest req) {
+
+    reset();
+
+    if (HttpUtil.getContentLength(req, 0L) > this.maxContentLength) {
+      reject(ctx, !HttpUtil.isKeepAlive(req));
+    } else {
+      this.request = req;
+      this.body = new MixedAttribute("body", this.memoryThreshold, StandardCharsets.UTF_8);
+    }
+  }
+}
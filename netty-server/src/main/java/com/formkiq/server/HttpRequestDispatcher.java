@@ -0,0 +1,152 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Dispatches Http Request handling off the Netty event loops onto an {@link ExecutorService},
+ * limiting the number of requests in flight.
+ */
+public class HttpRequestDispatcher {
+
+  /** Default maximum number of requests in flight. */
+  public static final int DEFAULT_MAX_INFLIGHT_REQUESTS = 1000;
+  /** Default number of threads for the platform thread executor. */
+  public static final int DEFAULT_REQUEST_THREADS = 64;
+  /** Platform thread executor type. */
+  public static final String EXECUTOR_PLATFORM = "platform";
+  /** Virtual thread executor type. */
+  public static final String EXECUTOR_VIRTUAL = "virtual";
+  /** {@link Logger}. */
+  private static Logger logger = Logger.getLogger(HttpRequestDispatcher.class.getName());
+
+  /**
+   * Create {@link ExecutorService}. A virtual thread per task executor is used for
+   * {@link #EXECUTOR_VIRTUAL} when the Java runtime supports it, otherwise a fixed pool of platform
+   * threads.
+   * 
+   * @param type {@link String}
+   * @param threads int
+   * @return {@link ExecutorService}
+   */
+  public static ExecutorService createExecutor(final String type, final int threads) {
+
+    ExecutorService executor = null;
+
+    if (EXECUTOR_VIRTUAL.equals(type)) {
+      try {
+        Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        executor = (ExecutorService) method.invoke(null);
+      } catch (ReflectiveOperationException e) {
+        logger.info("virtual threads not supported, using " + threads + " platform threads");
+      }
+    }
+
+    return executor != null ? executor : Executors.newFixedThreadPool(threads);
+  }
+
+  /** {@link ExecutorService}. */
+  private ExecutorService executor;
+  /** Available in flight request permits. */
+  private Semaphore inFlight;
+
+  /**
+   * constructor.
+   * 
+   * @param executorService {@link ExecutorService}
+   * @param maxInFlightRequests int
+   */
+  public HttpRequestDispatcher(final ExecutorService executorService,
+      final int maxInFlightRequests) {
+    this.executor = executorService;
+    this.inFlight = new Semaphore(maxInFlightRequests);
+  }
+
+  /**
+   * Whether a request failed because the {@link ExecutorService} rejected it.
+   * 
+   * @param e {@link Throwable}
+   * @return boolean
+   */
+  private boolean isRejected(final Throwable e) {
+    return e instanceof RejectedExecutionException
+        || e != null && e.getCause() instanceof RejectedExecutionException;
+  }
+
+  /**
+   * Shutdown the {@link ExecutorService}, waiting for in flight requests to complete.
+   * 
+   * @throws InterruptedException InterruptedException
+   */
+  public void shutdown() throws InterruptedException {
+    this.executor.shutdown();
+    this.executor.awaitTermination(1, TimeUnit.MINUTES);
+  }
+
+  /**
+   * Submit request to run after the previous request on the same connection completes, so
+   * responses to pipelined requests stay in order. Returns null when the maximum number of
+   * requests are already in flight.
+   * 
+   * @param previous {@link CompletableFuture} of the previous request on the connection
+   * @param request {@link Runnable}
+   * @return {@link CompletableFuture}
+   */
+  public CompletableFuture<Void> submit(final CompletableFuture<Void> previous,
+      final Runnable request) {
+
+    CompletableFuture<Void> future = null;
+
+    if (this.inFlight.tryAcquire()) {
+
+      future = previous.exceptionally(e -> null).thenRunAsync(() -> {
+        try {
+          request.run();
+        } catch (RuntimeException e) {
+          logger.log(Level.SEVERE, "request failed", e);
+        } finally {
+          this.inFlight.release();
+        }
+      }, this.executor);
+
+      // a rejected request never runs, so its permit is released here
+      future.whenComplete((v, e) -> {
+        if (isRejected(e)) {
+          this.inFlight.release();
+        }
+      });
+    }
+
+    return future;
+  }
+}
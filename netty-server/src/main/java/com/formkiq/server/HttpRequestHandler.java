@@ -70,6 +70,20 @@ public interface HttpRequestHandler {
     }
   }
 
+  /**
+   * Get Request Body, reading it from the {@link SpooledFullHttpRequest} body when aggregated by
+   * the {@link HttpRequestBodyAggregator}.
+   * 
+   * @param request {@link FullHttpRequest}
+   * @return {@link String}
+   * @throws IOException IOException
+   */
+  default String getBody(final FullHttpRequest request) throws IOException {
+    return request instanceof SpooledFullHttpRequest
+        ? ((SpooledFullHttpRequest) request).getBody().getString(StandardCharsets.UTF_8)
+        : getBody(request.content());
+  }
+
   /**
    * Handle Http Request.
    * 
@@ -34,7 +34,12 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.logging.LogLevel;
@@ -47,6 +52,16 @@ public class HttpServer {
 
   /** Default Server Port. */
   private static final int DEFAULT_PORT = 8080;
+  /** Default pending connection backlog. */
+  private static final int DEFAULT_SO_BACKLOG = 1024;
+  /** Default write buffer high water mark. */
+  private static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 65536;
+  /** Default write buffer low water mark. */
+  private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32768;
+  /** Epoll transport. */
+  private static final String TRANSPORT_EPOLL = "epoll";
+  /** NIO transport. */
+  private static final String TRANSPORT_NIO = "nio";
   /** {@link Logger}. */
   private static Logger logger = Logger.getLogger(HttpServer.class.getName());
 
@@ -98,6 +113,31 @@ public class HttpServer {
     typesenseApiKey.setRequired(true);
     options.addOption(typesenseApiKey);
 
+    options.addOption(new Option(null, "request-executor", true,
+        "request executor, 'virtual' (default) or 'platform' threads"));
+    options.addOption(
+        new Option(null, "request-threads", true, "number of 'platform' request threads"));
+    options.addOption(new Option(null, "max-inflight-requests", true,
+        "maximum requests in flight before responding 503"));
+    options.addOption(new Option(null, "max-content-length", true,
+        "maximum request body length in bytes, larger requests are rejected with 413"));
+    options.addOption(new Option(null, "transport", true,
+        "network transport, 'epoll' or 'nio', defaults to epoll when available"));
+    options.addOption(
+        new Option(null, "so-backlog", true, "maximum pending connections, default 1024"));
+    options.addOption(
+        new Option(null, "tcp-nodelay", true, "disable Nagle's algorithm, default true"));
+    options.addOption(new Option(null, "write-buffer-low-water-mark", true,
+        "write buffer length in bytes when a connection becomes writable again"));
+    options.addOption(new Option(null, "write-buffer-high-water-mark", true,
+        "write buffer length in bytes when a connection stops being writable"));
+    options.addOption(new Option(null, "idle-timeout", true,
+        "seconds without reads or writes before an idle connection is closed, default 60"));
+    options.addOption(
+        new Option(null, "http2", true, "support cleartext HTTP/2 (h2c), default false"));
+    options.addOption(
+        new Option(null, "compression", true, "compress responses, default false"));
+
     return options;
   }
 
@@ -141,6 +181,62 @@ public class HttpServer {
     this.commandLine = line;
   }
 
+  /**
+   * Configure the {@link ServerBootstrap} channel and socket options.
+   * 
+   * @param b {@link ServerBootstrap}
+   * @param epoll whether to use the epoll transport
+   */
+  private void configure(final ServerBootstrap b, final boolean epoll) {
+
+    int backlog =
+        HttpServerInitializer.getIntOptionValue(this.commandLine, "so-backlog", DEFAULT_SO_BACKLOG);
+    boolean tcpNoDelay =
+        HttpServerInitializer.getBooleanOptionValue(this.commandLine, "tcp-nodelay", true);
+    int lowWaterMark = HttpServerInitializer.getIntOptionValue(this.commandLine,
+        "write-buffer-low-water-mark", DEFAULT_WRITE_BUFFER_LOW_WATER_MARK);
+    int highWaterMark = HttpServerInitializer.getIntOptionValue(this.commandLine,
+        "write-buffer-high-water-mark", DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK);
+
+    b.channel(epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class);
+    b.handler(new LoggingHandler(LogLevel.DEBUG));
+
+    b.option(ChannelOption.SO_BACKLOG, Integer.valueOf(backlog));
+    b.option(ChannelOption.SO_REUSEADDR, Boolean.TRUE);
+    b.childOption(ChannelOption.TCP_NODELAY, Boolean.valueOf(tcpNoDelay));
+    b.childOption(ChannelOption.SO_KEEPALIVE, Boolean.TRUE);
+    b.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK,
+        new WriteBufferWaterMark(lowWaterMark, highWaterMark));
+  }
+
+  /**
+   * Create {@link EventLoopGroup}.
+   * 
+   * @param epoll whether to use the epoll transport
+   * @param threads number of threads, 0 for the Netty default
+   * @return {@link EventLoopGroup}
+   */
+  private EventLoopGroup createEventLoopGroup(final boolean epoll, final int threads) {
+    return epoll ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads);
+  }
+
+  /**
+   * Whether to use the epoll transport, the default when the native transport is available.
+   * 
+   * @return boolean
+   */
+  private boolean isEpoll() {
+
+    String transport = this.commandLine.getOptionValue("transport", TRANSPORT_EPOLL);
+    boolean epoll = !TRANSPORT_NIO.equals(transport) && Epoll.isAvailable();
+
+    if (!epoll && TRANSPORT_EPOLL.equals(transport)) {
+      logger.info("epoll transport not available, using nio: " + Epoll.unavailabilityCause());
+    }
+
+    return epoll;
+  }
+
   /**
    * Load Args from Environment and commandline.
    * 
@@ -172,15 +268,15 @@ public class HttpServer {
   public Channel run() throws InterruptedException {
 
     HttpServerInitializer childHandler = null;
-    EventLoopGroup bossGroup = new NioEventLoopGroup(1);
-    EventLoopGroup workerGroup = new NioEventLoopGroup();
+    boolean epoll = isEpoll();
+    EventLoopGroup bossGroup = createEventLoopGroup(epoll, 1);
+    EventLoopGroup workerGroup = createEventLoopGroup(epoll, 0);
 
     try {
 
       ServerBootstrap b = new ServerBootstrap();
       b.group(bossGroup, workerGroup);
-      b.channel(NioServerSocketChannel.class);
-      b.handler(new LoggingHandler(LogLevel.INFO));
+      configure(b, epoll);
 
       childHandler = new HttpServerInitializer(this.commandLine);
       b.childHandler(childHandler);
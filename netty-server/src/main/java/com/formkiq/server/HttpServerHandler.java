@@ -25,25 +25,43 @@ package com.formkiq.server;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 import com.formkiq.stacks.lambda.s3.DocumentsS3Update;
 import com.formkiq.stacks.lambda.s3.StagingS3Create;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http2.Http2StreamChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.AttributeKey;
 
 /**
- * {@link SimpleChannelInboundHandler} for Http Server.
+ * {@link SimpleChannelInboundHandler} for Http Server. Requests are handled by the
+ * {@link HttpRequestDispatcher} so the event loop is never blocked; responses written through the
+ * {@link ChannelHandlerContext} are sent on the channel's event loop.
  */
 public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
 
+  /** Number of requests being handled on a connection, including its HTTP/2 streams. */
+  private static final AttributeKey<AtomicInteger> ACTIVE_REQUESTS =
+      AttributeKey.valueOf("activeRequests");
+
+  /** {@link HttpRequestDispatcher}. */
+  private HttpRequestDispatcher dispatcher;
   /** {@link List} {@link HttpRequestHandler}. */
   private List<HttpRequestHandler> handlers;
   /** {@link NotSupportedHttpRequestHandler}. */
   private NotSupportedHttpRequestHandler notSupported = new NotSupportedHttpRequestHandler();
+  /** Last request dispatched on this channel. */
+  private CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+  /** {@link ServiceUnavailableHttpRequestHandler}. */
+  private ServiceUnavailableHttpRequestHandler unavailable =
+      new ServiceUnavailableHttpRequestHandler();
 
   /**
    * constructor.
@@ -51,8 +69,35 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
    * @param requestHandler {@link NettyRequestHandler}
    * @param stagingS3Create {@link StagingS3Create}
    * @param documentS3Update {@link DocumentsS3Update}
+   * @param requestDispatcher {@link HttpRequestDispatcher}
    */
   public HttpServerHandler(final NettyRequestHandler requestHandler,
+      final StagingS3Create stagingS3Create, final DocumentsS3Update documentS3Update,
+      final HttpRequestDispatcher requestDispatcher) {
+    this(createHandlers(requestHandler, stagingS3Create, documentS3Update), requestDispatcher);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param requestHandlers {@link List} {@link HttpRequestHandler}
+   * @param requestDispatcher {@link HttpRequestDispatcher}
+   */
+  HttpServerHandler(final List<HttpRequestHandler> requestHandlers,
+      final HttpRequestDispatcher requestDispatcher) {
+    this.handlers = requestHandlers;
+    this.dispatcher = requestDispatcher;
+  }
+
+  /**
+   * Create {@link HttpRequestHandler}.
+   * 
+   * @param requestHandler {@link NettyRequestHandler}
+   * @param stagingS3Create {@link StagingS3Create}
+   * @param documentS3Update {@link DocumentsS3Update}
+   * @return {@link List} {@link HttpRequestHandler}
+   */
+  private static List<HttpRequestHandler> createHandlers(final NettyRequestHandler requestHandler,
       final StagingS3Create stagingS3Create, final DocumentsS3Update documentS3Update) {
 
     AwsServiceCache awsServices = requestHandler.getAwsServices();
@@ -60,11 +105,9 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     String adminUser = awsServices.environment("ADMIN_USERNAME");
     String adminPassword = awsServices.environment("ADMIN_PASSWORD");
 
-    Collection<String> urls = requestHandler.getUrlMap().keySet();
-
-    this.handlers = Arrays.asList(new OptionsHttpRequestHandler(),
+    return Arrays.asList(new OptionsHttpRequestHandler(),
         new MinioS3HttpRequestHandler(stagingS3Create, documentS3Update),
-        new ApiGatewayHttpRequestHandler(requestHandler, apiKey, urls),
+        new ApiGatewayHttpRequestHandler(requestHandler, apiKey),
         new AuthenticationLoginHttpRequestHandler(adminUser, adminPassword, apiKey));
   }
 
@@ -72,20 +115,30 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
   protected void channelRead0(final ChannelHandlerContext ctx, final FullHttpRequest req)
       throws Exception {
 
-    Optional<HttpRequestHandler> o =
-        this.handlers.stream().filter(h -> h.isSupported(req)).findFirst();
+    req.retain();
 
-    if (!o.isEmpty()) {
+    AtomicInteger active = getActiveRequests(ctx.channel());
+    active.incrementAndGet();
 
+    CompletableFuture<Void> future = this.dispatcher.submit(this.previous, () -> {
       try {
-        o.get().handle(ctx, req);
-      } catch (IOException e) {
-        this.notSupported.handle(ctx, req);
+        handle(ctx, req);
+      } catch (RuntimeException e) {
+        exceptionCaught(ctx, e);
+      } finally {
+        req.release();
       }
+    });
 
+    if (future != null) {
+      this.previous = future;
     } else {
-      this.notSupported.handle(ctx, req);
+      req.release();
+      // respond after earlier requests on this connection, keeping responses in order
+      this.previous = this.previous.whenComplete((v, e) -> this.unavailable.handle(ctx));
     }
+
+    this.previous.whenComplete((v, e) -> active.decrementAndGet());
   }
 
   @Override
@@ -98,4 +151,54 @@ public class HttpServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     cause.printStackTrace();
     ctx.close();
   }
+
+  /**
+   * Get the number of requests being handled on a connection. HTTP/2 streams share the count of
+   * their parent connection, which is the channel idle events are fired on.
+   * 
+   * @param channel {@link Channel}
+   * @return {@link AtomicInteger}
+   */
+  private static AtomicInteger getActiveRequests(final Channel channel) {
+    Channel connection = channel instanceof Http2StreamChannel ? channel.parent() : channel;
+    AtomicInteger active = new AtomicInteger();
+    AtomicInteger existing = connection.attr(ACTIVE_REQUESTS).setIfAbsent(active);
+    return existing != null ? existing : active;
+  }
+
+  /**
+   * Handle {@link FullHttpRequest}.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   * @param req {@link FullHttpRequest}
+   */
+  private void handle(final ChannelHandlerContext ctx, final FullHttpRequest req) {
+
+    Optional<HttpRequestHandler> o =
+        this.handlers.stream().filter(h -> h.isSupported(req)).findFirst();
+
+    if (!o.isEmpty()) {
+
+      try {
+        o.get().handle(ctx, req);
+      } catch (IOException e) {
+        this.notSupported.handle(ctx, req);
+      }
+
+    } else {
+      this.notSupported.handle(ctx, req);
+    }
+  }
+
+  @Override
+  public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt)
+      throws Exception {
+
+    // close idle connections, unless a request on the connection or its streams is being handled
+    if (evt instanceof IdleStateEvent && getActiveRequests(ctx.channel()).get() == 0) {
+      ctx.close();
+    } else {
+      super.userEventTriggered(ctx, evt);
+    }
+  }
 }
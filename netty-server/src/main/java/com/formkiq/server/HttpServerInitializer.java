@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -71,12 +72,28 @@ import io.minio.messages.NotificationConfiguration;
 import io.minio.messages.QueueConfiguration;
 import io.minio.messages.VersioningConfiguration;
 import io.minio.messages.VersioningConfiguration.Status;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
 import io.netty.channel.socket.SocketChannel;
-import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpContentCompressor;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.netty.handler.codec.http.HttpServerExpectContinueHandler;
+import io.netty.handler.codec.http.HttpServerKeepAliveHandler;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler.UpgradeCodec;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler;
+import io.netty.handler.codec.http2.Http2CodecUtil;
+import io.netty.handler.codec.http2.Http2FrameCodecBuilder;
+import io.netty.handler.codec.http2.Http2MultiplexHandler;
+import io.netty.handler.codec.http2.Http2ServerUpgradeCodec;
+import io.netty.handler.codec.http2.Http2StreamFrameToHttpObjectCodec;
 import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AsciiString;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
@@ -92,6 +109,10 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
   /** AWS Region. */
   private static final Region AWS_REGION = Region.US_EAST_2;
+  /** Minimum response length compressed when compression is enabled. */
+  private static final int COMPRESSION_THRESHOLD = 1024;
+  /** Default seconds without reads or writes before an idle connection is closed. */
+  private static final int DEFAULT_IDLE_TIMEOUT = 60;
   /** Cache Table. */
   private static final String CACHE_TABLE = "Cache";
   /** Document Syncs Table Name. */
@@ -100,16 +121,17 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
   private static final String DOCUMENTS_BUCKET = "documents";
   /** Documents Table. */
   private static final String DOCUMENTS_TABLE = "Documents";
-  /** Initial Time Delay. */
-  private static final int INITIAL_TIME_DELAY_IN_SECONDS = 0;
-  /** Max Content Length. */
-  private static final int MAX_CONTENT_LENGTH = 5242880;
-  /** Scheduled Time Delay. */
-  private static final int SCHEDULED_TIME_DELAY_IN_SECONDS = 5;
+  /** Number of threads scheduling the DynamoDb Stream polls. */
+  private static final int STREAM_THREADS = 4;
+  /** DynamoDb Stream Checkpoints Table. */
+  private static final String STREAM_CHECKPOINTS_TABLE = "StreamCheckpoints";
   /** Documents Stating S3 Bucket. */
   private static final String STAGING_DOCUMENTS_BUCKET = "stagingdocuments";
   /** {@link ScheduledExecutorService}. */
-  private ScheduledExecutorService executorService = Executors.newScheduledThreadPool(1);
+  private ScheduledExecutorService executorService =
+      Executors.newScheduledThreadPool(STREAM_THREADS);
+  /** {@link ExecutorService} processing the DynamoDb Stream records. */
+  private ExecutorService streamWorkers = Executors.newCachedThreadPool();
   /** {@link NettyRequestHandler}. */
   private NettyRequestHandler handler;
   /** {@link StagingS3Create}. */
@@ -118,6 +140,16 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
   private DocumentsS3Update s3Update;
   /** {@link DynamoDbStreamToTypesense}. */
   private DynamoDbStreamToTypesense streams;
+  /** {@link HttpRequestDispatcher}. */
+  private HttpRequestDispatcher dispatcher;
+  /** Maximum request body length. */
+  private int maxContentLength;
+  /** Whether to compress responses. */
+  private boolean compression;
+  /** Whether to support cleartext HTTP/2. */
+  private boolean http2;
+  /** Seconds without reads or writes before an idle connection is closed. */
+  private int idleTimeout;
 
   /**
    * constructor.
@@ -136,6 +168,8 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
     setupHandler(commandLine, credentialsProvider, awsServiceEndpoints);
     setupS3Lambda(commandLine, credentialsProvider);
+    setupDispatcher(commandLine);
+    setupChannelOptions(commandLine);
     setupStreamToHttpEndpoint(credentialsProvider, awsServiceEndpoints);
   }
 
@@ -152,13 +186,31 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
 
       TypesenseProcessor processor = new TypesenseProcessor(this.handler.getAwsServices());
 
+      DynamoDbStreamCheckpoints checkpoints =
+          new DynamoDbStreamCheckpoints(db, STREAM_CHECKPOINTS_TABLE, streamArn);
+
       this.streams = new DynamoDbStreamToTypesense(AWS_REGION, credentialsProvider, streamArn,
-          awsServiceEndpoints.get("dynamodb"), processor);
+          awsServiceEndpoints.get("dynamodb"), processor, checkpoints);
+      this.streams.start(this.executorService, this.streamWorkers);
+    }
+  }
+
+  /**
+   * Add the Http Request handlers shared by HTTP/1.1 connections and HTTP/2 streams.
+   * 
+   * @param pipeline {@link ChannelPipeline}
+   */
+  private void addHttpHandlers(final ChannelPipeline pipeline) {
 
-      // Schedule a task to read the stream every 5 seconds
-      this.executorService.scheduleWithFixedDelay(() -> this.streams.run(),
-          INITIAL_TIME_DELAY_IN_SECONDS, SCHEDULED_TIME_DELAY_IN_SECONDS, TimeUnit.SECONDS);
+    if (this.compression) {
+      pipeline.addLast(new HttpContentCompressor(COMPRESSION_THRESHOLD));
     }
+
+    pipeline.addLast(new HttpServerExpectContinueHandler());
+    pipeline.addLast(new HttpRequestBodyAggregator(this.maxContentLength,
+        HttpRequestBodyAggregator.DEFAULT_MEMORY_THRESHOLD));
+    pipeline.addLast(new ChunkedWriteHandler());
+    pipeline.addLast(createServerHandler());
   }
 
   /**
@@ -228,8 +280,68 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
     }
   }
 
+  /**
+   * Create handler for cleartext HTTP/2 connections, each stream is handled by its own
+   * {@link HttpServerHandler}.
+   * 
+   * @return {@link ChannelHandler}
+   */
+  private ChannelHandler createHttp2Handler() {
+    return new ChannelHandlerAdapter() {
+      @Override
+      public void handlerAdded(final ChannelHandlerContext ctx) {
+        // replace in place, ahead of the HTTP/1.1 handlers
+        ctx.pipeline().addAfter(ctx.name(), null,
+            new Http2MultiplexHandler(createHttp2StreamHandler()));
+        ctx.pipeline().replace(this, null, Http2FrameCodecBuilder.forServer().build());
+      }
+    };
+  }
+
+  /**
+   * Create handler for a HTTP/2 stream, converting HTTP/2 frames to and from Http Objects.
+   * 
+   * @return {@link ChannelHandler}
+   */
+  private ChannelHandler createHttp2StreamHandler() {
+    return new ChannelInitializer<Channel>() {
+      @Override
+      protected void initChannel(final Channel ch) {
+        ch.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(true));
+        addHttpHandlers(ch.pipeline());
+      }
+    };
+  }
+
   private HttpServerHandler createServerHandler() {
-    return new HttpServerHandler(this.handler, this.s3Create, this.s3Update);
+    return new HttpServerHandler(this.handler, this.s3Create, this.s3Update, this.dispatcher);
+  }
+
+  /**
+   * Create {@link UpgradeCodec} for a 'Upgrade: h2c' request.
+   * 
+   * @param protocol {@link CharSequence}
+   * @return {@link UpgradeCodec}
+   */
+  private UpgradeCodec createUpgradeCodec(final CharSequence protocol) {
+    return AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)
+        ? new Http2ServerUpgradeCodec(Http2FrameCodecBuilder.forServer().build(),
+            new Http2MultiplexHandler(createHttp2StreamHandler()))
+        : null;
+  }
+
+  /**
+   * Get Boolean Option Value.
+   * 
+   * @param commandLine {@link CommandLine}
+   * @param option {@link String}
+   * @param defaultValue boolean
+   * @return boolean
+   */
+  static boolean getBooleanOptionValue(final CommandLine commandLine, final String option,
+      final boolean defaultValue) {
+    String value = commandLine.getOptionValue(option);
+    return !Strings.isEmpty(value) ? Boolean.parseBoolean(value) : defaultValue;
   }
 
   private Map<String, URI> getEndpoints(final CommandLine commandLine) {
@@ -289,13 +401,41 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
     return env;
   }
 
+  /**
+   * Get Integer Option Value.
+   * 
+   * @param commandLine {@link CommandLine}
+   * @param option {@link String}
+   * @param defaultValue int
+   * @return int
+   */
+  static int getIntOptionValue(final CommandLine commandLine, final String option,
+      final int defaultValue) {
+    String value = commandLine.getOptionValue(option);
+    return !Strings.isEmpty(value) ? Integer.parseInt(value) : defaultValue;
+  }
+
   @Override
   public void initChannel(final SocketChannel ch) {
-    ch.pipeline().addLast(new HttpServerCodec());
-    ch.pipeline().addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH));
-    ch.pipeline().addLast(new ChunkedWriteHandler());
-    ch.pipeline().addLast(new HttpServerExpectContinueHandler());
-    ch.pipeline().addLast(createServerHandler());
+
+    ChannelPipeline pipeline = ch.pipeline();
+
+    if (this.idleTimeout > 0) {
+      pipeline.addLast(new IdleStateHandler(0, 0, this.idleTimeout));
+    }
+
+    if (this.http2) {
+      // HTTP/2 with prior knowledge or 'Upgrade: h2c', otherwise HTTP/1.1
+      HttpServerCodec codec = new HttpServerCodec();
+      pipeline.addLast(new CleartextHttp2ServerUpgradeHandler(codec,
+          new HttpServerUpgradeHandler(codec, this::createUpgradeCodec, this.maxContentLength),
+          createHttp2Handler()));
+    } else {
+      pipeline.addLast(new HttpServerCodec());
+    }
+
+    pipeline.addLast(new HttpServerKeepAliveHandler());
+    addHttpHandlers(pipeline);
   }
 
   private void makeBucket(final MinioClient mc, final String bucket, final Boolean versioning)
@@ -310,6 +450,37 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
     }
   }
 
+  /**
+   * Setup Http Channel options.
+   * 
+   * @param commandLine {@link CommandLine}
+   */
+  private void setupChannelOptions(final CommandLine commandLine) {
+    this.maxContentLength = getIntOptionValue(commandLine, "max-content-length",
+        HttpRequestBodyAggregator.DEFAULT_MAX_CONTENT_LENGTH);
+    this.compression = getBooleanOptionValue(commandLine, "compression", false);
+    this.http2 = getBooleanOptionValue(commandLine, "http2", false);
+    this.idleTimeout = getIntOptionValue(commandLine, "idle-timeout", DEFAULT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Setup {@link HttpRequestDispatcher}.
+   * 
+   * @param commandLine {@link CommandLine}
+   */
+  private void setupDispatcher(final CommandLine commandLine) {
+
+    String executorType =
+        commandLine.getOptionValue("request-executor", HttpRequestDispatcher.EXECUTOR_VIRTUAL);
+    int threads = getIntOptionValue(commandLine, "request-threads",
+        HttpRequestDispatcher.DEFAULT_REQUEST_THREADS);
+    int maxInFlight = getIntOptionValue(commandLine, "max-inflight-requests",
+        HttpRequestDispatcher.DEFAULT_MAX_INFLIGHT_REQUESTS);
+
+    this.dispatcher = new HttpRequestDispatcher(
+        HttpRequestDispatcher.createExecutor(executorType, threads), maxInFlight);
+  }
+
   /**
    * Setup FormKiQ.
    * 
@@ -340,6 +511,8 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
         schema.createDocumentsTable(DOCUMENTS_TABLE);
         schema.createCacheTable(CACHE_TABLE);
         schema.createDocumentSyncsTable(DOCUMENT_SYNCS_TABLE);
+        // same PK / SK key schema as the cache table
+        schema.createCacheTable(STREAM_CHECKPOINTS_TABLE);
       }
 
       String minioAccessKey = commandLine.getOptionValue("minio-access-key");
@@ -378,8 +551,17 @@ public class HttpServerInitializer extends ChannelInitializer<SocketChannel> {
    * Shutdown Http Server.
    */
   public void shutdownGracefully() {
+
+    if (this.streams != null) {
+      this.streams.stop();
+    }
+
     try {
+      this.dispatcher.shutdown();
+      this.executorService.shutdown();
       this.executorService.awaitTermination(1, TimeUnit.MINUTES);
+      this.streamWorkers.shutdown();
+      this.streamWorkers.awaitTermination(1, TimeUnit.MINUTES);
     } catch (InterruptedException e) {
       e.printStackTrace();
     }
@@ -65,7 +65,7 @@ public class MinioS3HttpRequestHandler implements HttpRequestHandler {
   public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request)
       throws IOException {
 
-    String body = getBody(request.content());
+    String body = getBody(request);
     Context context = new LambdaContext(UUID.randomUUID().toString());
 
     Map<String, Object> map = this.gson.fromJson(body, Map.class);
@@ -0,0 +1,54 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+/**
+ * Server at capacity {@link HttpRequestHandler}.
+ */
+public class ServiceUnavailableHttpRequestHandler implements HttpRequestHandler {
+
+  /**
+   * Send the server at capacity response, the request is not needed so it can be released
+   * before the response is sent.
+   * 
+   * @param ctx {@link ChannelHandlerContext}
+   */
+  public void handle(final ChannelHandlerContext ctx) {
+    sendResponse(ctx, HttpResponseStatus.SERVICE_UNAVAILABLE, "server is busy, try again");
+  }
+
+  @Override
+  public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request) {
+    handle(ctx);
+  }
+
+  @Override
+  public boolean isSupported(final FullHttpRequest request) {
+    return true;
+  }
+}
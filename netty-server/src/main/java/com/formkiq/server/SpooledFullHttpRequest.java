@@ -0,0 +1,88 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.multipart.HttpData;
+
+/**
+ * {@link FullHttpRequest} with its body held in a {@link HttpData}, in memory for small bodies and
+ * in a temporary file for large ones. The {@link HttpData} is deleted when the request is released.
+ */
+public class SpooledFullHttpRequest extends DefaultFullHttpRequest {
+
+  /** Request Body. */
+  private HttpData body;
+
+  /**
+   * constructor.
+   * 
+   * @param request {@link HttpRequest}
+   * @param requestBody {@link HttpData}
+   * @param trailingHeaders {@link HttpHeaders}
+   */
+  public SpooledFullHttpRequest(final HttpRequest request, final HttpData requestBody,
+      final HttpHeaders trailingHeaders) {
+    super(request.protocolVersion(), request.method(), request.uri(), Unpooled.buffer(0),
+        request.headers(), trailingHeaders);
+    setDecoderResult(request.decoderResult());
+    this.body = requestBody;
+  }
+
+  /**
+   * Get Request Body. {@link #content()} is always empty.
+   * 
+   * @return {@link HttpData}
+   */
+  public HttpData getBody() {
+    return this.body;
+  }
+
+  @Override
+  public boolean release() {
+    return releaseBody(super.release());
+  }
+
+  @Override
+  public boolean release(final int decrement) {
+    return releaseBody(super.release(decrement));
+  }
+
+  /**
+   * Release the {@link HttpData} once the request has been released.
+   * 
+   * @param released boolean
+   * @return boolean
+   */
+  private boolean releaseBody(final boolean released) {
+    if (released) {
+      this.body.release();
+    }
+    return released;
+  }
+}
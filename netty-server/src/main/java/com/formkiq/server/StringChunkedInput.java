@@ -0,0 +1,109 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+/**
+ * {@link ChunkedInput} that encodes a {@link String} to UTF-8 one chunk at a time, so a large
+ * response body is never copied into a single {@link ByteBuf}.
+ */
+public class StringChunkedInput implements ChunkedInput<ByteBuf> {
+
+  /** Number of characters per chunk. */
+  private static final int CHUNK_SIZE = 8192;
+
+  /** Length of the UTF-8 encoded text. */
+  private long length;
+  /** Offset of the next character to encode. */
+  private int offset = 0;
+  /** Number of bytes encoded. */
+  private long progress = 0;
+  /** Text to encode. */
+  private String text;
+
+  /**
+   * constructor.
+   * 
+   * @param s {@link String}
+   */
+  public StringChunkedInput(final String s) {
+    this.text = s;
+    this.length = ByteBufUtil.utf8Bytes(s);
+  }
+
+  @Override
+  public void close() {
+    this.offset = this.text.length();
+  }
+
+  @Override
+  public boolean isEndOfInput() {
+    return this.offset >= this.text.length();
+  }
+
+  @Override
+  public long length() {
+    return this.length;
+  }
+
+  @Override
+  public long progress() {
+    return this.progress;
+  }
+
+  @Override
+  public ByteBuf readChunk(final ByteBufAllocator allocator) {
+
+    ByteBuf chunk = null;
+
+    if (!isEndOfInput()) {
+
+      int end = Math.min(this.offset + CHUNK_SIZE, this.text.length());
+
+      // never split a surrogate pair across chunks
+      if (end < this.text.length() && Character.isHighSurrogate(this.text.charAt(end - 1))) {
+        end--;
+      }
+
+      chunk = allocator.buffer(ByteBufUtil.utf8Bytes(this.text, this.offset, end));
+      ByteBufUtil.writeUtf8(chunk, this.text, this.offset, end);
+
+      this.progress += chunk.readableBytes();
+      this.offset = end;
+    }
+
+    return chunk;
+  }
+
+  @SuppressWarnings("deprecation")
+  @Override
+  public ByteBuf readChunk(final ChannelHandlerContext ctx) {
+    return readChunk(ctx.alloc());
+  }
+}
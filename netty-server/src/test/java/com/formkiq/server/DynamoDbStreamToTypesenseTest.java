@@ -0,0 +1,360 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static com.formkiq.testutils.aws.DynamoDbExtension.CACHE_TABLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.formkiq.testutils.aws.DynamoDbExtension;
+import com.formkiq.testutils.aws.DynamoDbTestServices;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorResponse;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+import software.amazon.awssdk.services.dynamodb.model.StreamDescription;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsAsyncClient;
+
+/**
+ * Unit Tests for {@link DynamoDbStreamToTypesense}.
+ */
+@ExtendWith(DynamoDbExtension.class)
+public class DynamoDbStreamToTypesenseTest {
+
+  /** Scheduler Thread name. */
+  private static final String SCHEDULER_THREAD = "stream-scheduler";
+  /** Test Time. */
+  private static final int TEST_TIME = 30;
+
+  /** {@link DynamoDbStreamCheckpoints}. */
+  private DynamoDbStreamCheckpoints checkpoints;
+  /** {@link InMemoryStreamsClient}. */
+  private InMemoryStreamsClient client;
+  /** {@link RecordingProcessor}. */
+  private RecordingProcessor processor;
+  /** {@link ScheduledExecutorService}. */
+  private ScheduledExecutorService scheduler;
+  /** Stream Arn. */
+  private String streamArn;
+  /** {@link DynamoDbStreamToTypesense}. */
+  private DynamoDbStreamToTypesense streams;
+  /** {@link ExecutorService}. */
+  private ExecutorService workers;
+
+  /**
+   * After Test.
+   * 
+   * @throws Exception Exception
+   */
+  @AfterEach
+  public void after() throws Exception {
+    this.streams.close();
+    this.scheduler.shutdownNow();
+    this.workers.shutdownNow();
+  }
+
+  /**
+   * Before Test.
+   * 
+   * @throws Exception Exception
+   */
+  @BeforeEach
+  public void before() throws Exception {
+    this.streamArn = "arn:aws:dynamodb:us-east-1:000000000000:table/Documents/stream/"
+        + UUID.randomUUID();
+    this.checkpoints = new DynamoDbStreamCheckpoints(DynamoDbTestServices.getDynamoDbConnection(),
+        CACHE_TABLE, this.streamArn);
+    this.client = new InMemoryStreamsClient();
+    this.processor = new RecordingProcessor();
+    this.streams = new DynamoDbStreamToTypesense(this.client, this.streamArn, this.processor,
+        this.checkpoints);
+    this.scheduler = Executors.newScheduledThreadPool(1, r -> new Thread(r, SCHEDULER_THREAD));
+    this.workers = Executors.newCachedThreadPool();
+  }
+
+  /**
+   * Create {@link Record}.
+   * 
+   * @param sequenceNumber {@link String}
+   * @return {@link Record}
+   */
+  private static Record createRecord(final String sequenceNumber) {
+    StreamRecord streamRecord = StreamRecord.builder().sequenceNumber(sequenceNumber)
+        .keys(Map.of("PK", AttributeValue.fromS(sequenceNumber))).build();
+    return Record.builder().eventID(sequenceNumber).eventName(OperationType.INSERT)
+        .dynamodb(streamRecord).build();
+  }
+
+  /**
+   * Wait for a condition.
+   * 
+   * @param condition {@link BooleanSupplier}
+   * @throws InterruptedException InterruptedException
+   */
+  private static void waitFor(final BooleanSupplier condition) throws InterruptedException {
+    final long sleep = 50L;
+    while (!condition.getAsBoolean()) {
+      TimeUnit.MILLISECONDS.sleep(sleep);
+    }
+  }
+
+  /**
+   * Test a shard resumes after its checkpoint.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testStart01() throws Exception {
+    // given
+    this.client.addShard("shard-0", null, false, "100", "200", "300");
+    this.checkpoints.checkpoint("shard-0", "100");
+
+    // when
+    this.streams.start(this.scheduler, this.workers);
+
+    // then
+    waitFor(() -> "300".equals(this.checkpoints.getSequenceNumber("shard-0")));
+    assertEquals(Arrays.asList("200", "300"), this.processor.getKeys());
+
+    GetShardIteratorRequest request = this.client.getIteratorRequests().get(0);
+    assertEquals(ShardIteratorType.AFTER_SEQUENCE_NUMBER, request.shardIteratorType());
+    assertEquals("100", request.sequenceNumber());
+    assertFalse(this.processor.getThreads().contains(SCHEDULER_THREAD));
+  }
+
+  /**
+   * Test a child shard is only read once its closed parent shard is complete.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testStart02() throws Exception {
+    // given
+    this.client.addShard("shard-1", "shard-0", false, "300");
+    this.client.addShard("shard-0", null, true, "100", "200");
+
+    // when
+    this.streams.start(this.scheduler, this.workers);
+
+    // then
+    waitFor(() -> "300".equals(this.checkpoints.getSequenceNumber("shard-1")));
+    assertEquals(Arrays.asList("100", "200", "300"), this.processor.getKeys());
+    assertTrue(this.checkpoints.isCompleted("shard-0"));
+    assertFalse(this.checkpoints.isCompleted("shard-1"));
+    assertEquals(ShardIteratorType.TRIM_HORIZON,
+        this.client.getIteratorRequests().get(0).shardIteratorType());
+    assertFalse(this.processor.getThreads().contains(SCHEDULER_THREAD));
+  }
+
+  /**
+   * Test a completed shard is not read again.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testStart03() throws Exception {
+    // given
+    this.client.addShard("shard-0", null, true, "100", "200");
+    this.client.addShard("shard-1", "shard-0", false, "300");
+    this.checkpoints.checkpoint("shard-0", "200");
+    this.checkpoints.complete("shard-0");
+
+    // when
+    this.streams.start(this.scheduler, this.workers);
+
+    // then
+    waitFor(() -> "300".equals(this.checkpoints.getSequenceNumber("shard-1")));
+    assertEquals(Arrays.asList("300"), this.processor.getKeys());
+    assertEquals(1, this.client.getIteratorRequests().size());
+    assertEquals("shard-1", this.client.getIteratorRequests().get(0).shardId());
+  }
+
+  /**
+   * In memory {@link DynamoDbStreamsAsyncClient}, a shard iterator is the shard id and the index
+   * of the next record.
+   */
+  private static class InMemoryStreamsClient implements DynamoDbStreamsAsyncClient {
+
+    /** Closed shard ids. */
+    private final List<String> closed = Collections.synchronizedList(new ArrayList<>());
+    /** {@link GetShardIteratorRequest}. */
+    private final List<GetShardIteratorRequest> iteratorRequests =
+        Collections.synchronizedList(new ArrayList<>());
+    /** Records by shard id. */
+    private final Map<String, List<Record>> records = new ConcurrentHashMap<>();
+    /** {@link Shard}. */
+    private final List<Shard> shards = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Add Shard.
+     * 
+     * @param shardId {@link String}
+     * @param parentShardId {@link String}
+     * @param isClosed boolean
+     * @param sequenceNumbers {@link String}
+     */
+    void addShard(final String shardId, final String parentShardId, final boolean isClosed,
+        final String... sequenceNumbers) {
+      this.records.put(shardId,
+          Arrays.stream(sequenceNumbers).map(DynamoDbStreamToTypesenseTest::createRecord).toList());
+      this.shards.add(Shard.builder().shardId(shardId).parentShardId(parentShardId).build());
+      if (isClosed) {
+        this.closed.add(shardId);
+      }
+    }
+
+    @Override
+    public void close() {
+      // empty
+    }
+
+    @Override
+    public CompletableFuture<DescribeStreamResponse> describeStream(
+        final DescribeStreamRequest request) {
+      StreamDescription description = StreamDescription.builder().streamArn(request.streamArn())
+          .shards(new ArrayList<>(this.shards)).build();
+      return CompletableFuture
+          .completedFuture(DescribeStreamResponse.builder().streamDescription(description).build());
+    }
+
+    /**
+     * Get {@link GetShardIteratorRequest}.
+     * 
+     * @return {@link List} {@link GetShardIteratorRequest}
+     */
+    List<GetShardIteratorRequest> getIteratorRequests() {
+      return new ArrayList<>(this.iteratorRequests);
+    }
+
+    @Override
+    public CompletableFuture<GetRecordsResponse> getRecords(final GetRecordsRequest request) {
+
+      String[] iterator = request.shardIterator().split(":");
+      String shardId = iterator[0];
+      int index = Integer.parseInt(iterator[1]);
+
+      List<Record> list = this.records.get(shardId);
+      String next = this.closed.contains(shardId) ? null : shardId + ":" + list.size();
+
+      return CompletableFuture.completedFuture(GetRecordsResponse.builder()
+          .records(list.subList(index, list.size())).nextShardIterator(next).build());
+    }
+
+    @Override
+    public CompletableFuture<GetShardIteratorResponse> getShardIterator(
+        final GetShardIteratorRequest request) {
+
+      this.iteratorRequests.add(request);
+
+      List<String> sequenceNumbers = this.records.get(request.shardId()).stream()
+          .map(r -> r.dynamodb().sequenceNumber()).toList();
+      int index = ShardIteratorType.AFTER_SEQUENCE_NUMBER.equals(request.shardIteratorType())
+          ? sequenceNumbers.indexOf(request.sequenceNumber()) + 1
+          : 0;
+
+      return CompletableFuture.completedFuture(GetShardIteratorResponse.builder()
+          .shardIterator(request.shardId() + ":" + index).build());
+    }
+
+    @Override
+    public String serviceName() {
+      return SERVICE_NAME;
+    }
+  }
+
+  /**
+   * {@link RequestHandler} recording the processed record keys and threads.
+   */
+  private static class RecordingProcessor implements RequestHandler<Map<String, Object>, Void> {
+
+    /** Processed record keys. */
+    private final List<String> keys = Collections.synchronizedList(new ArrayList<>());
+    /** Processing thread names. */
+    private final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Get Keys.
+     * 
+     * @return {@link List} {@link String}
+     */
+    List<String> getKeys() {
+      return new ArrayList<>(this.keys);
+    }
+
+    /**
+     * Get Threads.
+     * 
+     * @return {@link List} {@link String}
+     */
+    List<String> getThreads() {
+      return new ArrayList<>(this.threads);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Void handleRequest(final Map<String, Object> map, final Context context) {
+
+      this.threads.add(Thread.currentThread().getName());
+
+      for (Map<String, Object> record : (List<Map<String, Object>>) map.get("Records")) {
+        Map<String, Object> dynamodb = (Map<String, Object>) record.get("dynamodb");
+        Map<String, Object> keys = (Map<String, Object>) dynamodb.get("Keys");
+        this.keys.add(((Map<String, Object>) keys.get("PK")).get("S").toString());
+      }
+
+      return null;
+    }
+  }
+}
@@ -0,0 +1,187 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * Unit Tests for {@link HttpRequestDispatcher}.
+ */
+public class HttpRequestDispatcherTest {
+
+  /** Test Timeout. */
+  private static final long TEST_TIMEOUT = 30;
+
+  /**
+   * Test requests over the in flight maximum are rejected until a request completes.
+   */
+  @Test
+  void testSubmit01() {
+    // given
+    ManualExecutorService executor = new ManualExecutorService();
+    HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 2);
+    CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+    List<String> handled = new ArrayList<>();
+
+    // when
+    CompletableFuture<Void> f0 = dispatcher.submit(done, () -> handled.add("0"));
+    CompletableFuture<Void> f1 = dispatcher.submit(done, () -> handled.add("1"));
+    CompletableFuture<Void> f2 = dispatcher.submit(done, () -> handled.add("2"));
+
+    // then
+    assertNotNull(f0);
+    assertNotNull(f1);
+    assertNull(f2);
+    assertEquals(2, executor.runAll());
+    assertEquals(List.of("0", "1"), handled);
+    assertTrue(f0.isDone() && f1.isDone());
+
+    // when
+    CompletableFuture<Void> f3 = dispatcher.submit(done, () -> handled.add("3"));
+
+    // then
+    assertNotNull(f3);
+    assertEquals(1, executor.runAll());
+    assertEquals(List.of("0", "1", "3"), handled);
+  }
+
+  /**
+   * Test a failed request releases its in flight permit and does not block the next request on
+   * the connection.
+   */
+  @Test
+  void testSubmit02() {
+    // given
+    ManualExecutorService executor = new ManualExecutorService();
+    HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 1);
+    List<String> handled = new ArrayList<>();
+
+    // when
+    CompletableFuture<Void> f0 =
+        dispatcher.submit(CompletableFuture.completedFuture(null), () -> {
+          throw new IllegalStateException("failed");
+        });
+    executor.runAll();
+    CompletableFuture<Void> f1 = dispatcher.submit(f0, () -> handled.add("1"));
+    executor.runAll();
+
+    // then
+    assertNotNull(f1);
+    assertTrue(f1.isDone());
+    assertEquals(List.of("1"), handled);
+  }
+
+  /**
+   * Test requests on the same connection are handled in order, one at a time, on a multi
+   * threaded executor.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(value = TEST_TIMEOUT, unit = TimeUnit.SECONDS)
+  void testSubmit03() throws Exception {
+    // given
+    final int count = 20;
+    final int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, count);
+    List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+
+    try {
+
+      // when
+      CompletableFuture<Void> previous = CompletableFuture.completedFuture(null);
+      for (int i = 0; i < count; i++) {
+        final int request = i;
+        previous = dispatcher.submit(previous, () -> {
+          sleep(count - request);
+          handled.add(Integer.valueOf(request));
+        });
+      }
+      previous.get();
+
+      // then
+      assertEquals(IntStream.range(0, count).boxed().collect(Collectors.toList()), handled);
+
+    } finally {
+      dispatcher.shutdown();
+    }
+  }
+
+  /**
+   * Test a request rejected by the executor releases its in flight permit, whether it is
+   * rejected on submit or once the previous request on the connection completes.
+   */
+  @Test
+  void testSubmit04() {
+    // given
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    executor.shutdown();
+    HttpRequestDispatcher dispatcher = new HttpRequestDispatcher(executor, 1);
+    CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+    CompletableFuture<Void> pending = new CompletableFuture<>();
+
+    // when
+    CompletableFuture<Void> f0 = dispatcher.submit(done, () -> {
+    });
+    CompletableFuture<Void> f1 = dispatcher.submit(pending, () -> {
+    });
+    pending.complete(null);
+    CompletableFuture<Void> f2 = dispatcher.submit(done, () -> {
+    });
+
+    // then
+    assertTrue(f0.isCompletedExceptionally());
+    assertNotNull(f1);
+    assertTrue(f1.isCompletedExceptionally());
+    assertNotNull(f2);
+  }
+
+  /**
+   * Sleep.
+   * 
+   * @param ms long
+   */
+  private static void sleep(final long ms) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,232 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.timeout.IdleStateEvent;
+
+/**
+ * Unit Tests for {@link HttpServerHandler}.
+ */
+public class HttpServerHandlerTest {
+
+  /** {@link HttpRequestHandler} responding with the request uri. */
+  private static final HttpRequestHandler URI_HANDLER = new HttpRequestHandler() {
+
+    @Override
+    public void handle(final ChannelHandlerContext ctx, final FullHttpRequest request) {
+      sendResponse(ctx, HttpResponseStatus.OK, request.uri());
+    }
+
+    @Override
+    public boolean isSupported(final FullHttpRequest request) {
+      return true;
+    }
+  };
+
+  /** {@link EmbeddedChannel}. */
+  private EmbeddedChannel channel;
+  /** {@link ManualExecutorService}. */
+  private ManualExecutorService executor;
+
+  /**
+   * After Each.
+   */
+  @AfterEach
+  public void afterEach() {
+    this.channel.finishAndReleaseAll();
+  }
+
+  /**
+   * Assert next response on the channel.
+   * 
+   * @param status {@link HttpResponseStatus}
+   * @param body {@link String}
+   */
+  private void assertResponse(final HttpResponseStatus status, final String body) {
+    FullHttpResponse response = this.channel.readOutbound();
+    try {
+      assertEquals(status, response.status());
+      assertEquals(body, response.content().toString(StandardCharsets.UTF_8));
+    } finally {
+      response.release();
+    }
+  }
+
+  /**
+   * Before Each.
+   */
+  @BeforeEach
+  public void beforeEach() {
+    this.executor = new ManualExecutorService();
+  }
+
+  /**
+   * Create {@link EmbeddedChannel} with a {@link HttpServerHandler}.
+   * 
+   * @param maxInFlightRequests int
+   */
+  private void createChannel(final int maxInFlightRequests) {
+    HttpRequestDispatcher dispatcher =
+        new HttpRequestDispatcher(this.executor, maxInFlightRequests);
+    this.channel =
+        new EmbeddedChannel(new HttpServerHandler(List.of(URI_HANDLER), dispatcher));
+  }
+
+  /**
+   * Create {@link FullHttpRequest}.
+   * 
+   * @param uri {@link String}
+   * @return {@link FullHttpRequest}
+   */
+  private FullHttpRequest request(final String uri) {
+    return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+  }
+
+  /**
+   * Test pipelined requests on a connection are responded to in order.
+   */
+  @Test
+  void testChannelRead01() {
+    // given
+    final int maxInFlightRequests = 10;
+    createChannel(maxInFlightRequests);
+
+    // when
+    this.channel.writeInbound(request("/1"), request("/2"), request("/3"));
+    this.executor.runAll();
+
+    // then
+    assertResponse(HttpResponseStatus.OK, "/1");
+    assertResponse(HttpResponseStatus.OK, "/2");
+    assertResponse(HttpResponseStatus.OK, "/3");
+    assertNull(this.channel.readOutbound());
+  }
+
+  /**
+   * Test a request over the in flight maximum is released, and its 503 is sent after the earlier
+   * requests on the connection.
+   */
+  @Test
+  void testChannelRead02() {
+    // given
+    createChannel(1);
+    FullHttpRequest req1 = request("/1");
+    FullHttpRequest req2 = request("/2");
+
+    // when
+    this.channel.writeInbound(req1, req2);
+
+    // then
+    assertEquals(1, req1.refCnt());
+    assertEquals(0, req2.refCnt());
+    assertNull(this.channel.readOutbound());
+
+    // when
+    this.executor.runAll();
+
+    // then
+    assertEquals(0, req1.refCnt());
+    assertResponse(HttpResponseStatus.OK, "/1");
+    assertResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, "server is busy, try again");
+    assertNull(this.channel.readOutbound());
+  }
+
+  /**
+   * Test a request accepted after a 503 is not responded to before the 503.
+   */
+  @Test
+  void testChannelRead03() {
+    // given
+    createChannel(2);
+
+    // when
+    this.channel.writeInbound(request("/1"), request("/2"), request("/3"));
+    assertTrue(this.executor.runNext());
+    this.channel.writeInbound(request("/4"));
+    this.executor.runAll();
+
+    // then
+    assertResponse(HttpResponseStatus.OK, "/1");
+    assertResponse(HttpResponseStatus.OK, "/2");
+    assertResponse(HttpResponseStatus.SERVICE_UNAVAILABLE, "server is busy, try again");
+    assertResponse(HttpResponseStatus.OK, "/4");
+    assertNull(this.channel.readOutbound());
+  }
+
+  /**
+   * Test an idle connection with no requests being handled is closed.
+   */
+  @Test
+  void testUserEventTriggered01() {
+    // given
+    createChannel(1);
+
+    // when
+    this.channel.pipeline().fireUserEventTriggered(IdleStateEvent.ALL_IDLE_STATE_EVENT);
+
+    // then
+    assertFalse(this.channel.isOpen());
+  }
+
+  /**
+   * Test an idle connection is not closed while a request is being handled.
+   */
+  @Test
+  void testUserEventTriggered02() {
+    // given
+    createChannel(1);
+    this.channel.writeInbound(request("/1"));
+
+    // when
+    this.channel.pipeline().fireUserEventTriggered(IdleStateEvent.ALL_IDLE_STATE_EVENT);
+
+    // then
+    assertTrue(this.channel.isOpen());
+
+    // when
+    this.executor.runAll();
+    this.channel.pipeline().fireUserEventTriggered(IdleStateEvent.ALL_IDLE_STATE_EVENT);
+
+    // then
+    assertResponse(HttpResponseStatus.OK, "/1");
+    assertFalse(this.channel.isOpen());
+  }
+}
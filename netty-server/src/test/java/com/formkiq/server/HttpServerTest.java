@@ -122,6 +122,54 @@ public class HttpServerTest {
     assertEquals(path, fulltext.getPath());
   }
 
+  /**
+   * Test add document larger than the request body memory threshold.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testAddDocument02() throws Exception {
+    // given
+    final int contentLength = 6 * 1024 * 1024;
+    String siteId = null;
+    String content = "a".repeat(contentLength);
+    AddDocumentRequest req =
+        new AddDocumentRequest().path("large.txt").content(content).contentType("text/plain");
+
+    // when
+    AddDocumentResponse addDocument = this.documentsApi.addDocument(req, siteId, null);
+
+    // then
+    String documentId = addDocument.getDocumentId();
+    assertNotNull(documentId);
+
+    GetDocumentResponse response = waitForDocumentContentLength(this.apiClient, siteId, documentId);
+    assertEquals(contentLength, response.getContentLength().intValue());
+  }
+
+  /**
+   * Test add document larger than the maximum content length.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testAddDocument03() throws Exception {
+    // given
+    byte[] content = new byte[HttpRequestBodyAggregator.DEFAULT_MAX_CONTENT_LENGTH + 1];
+    HttpClient client = HttpClient.newHttpClient();
+    HttpRequest request = HttpRequest.newBuilder().POST(BodyPublishers.ofByteArray(content))
+        .header("Authorization", NettyExtension.API_KEY).uri(new URI(BASE_URL + "/documents"))
+        .build();
+
+    // when
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code(), response.statusCode());
+  }
+
   /**
    * Test get documents by date.
    * 
@@ -139,6 +187,28 @@ public class HttpServerTest {
     assertEquals(0, documents.getDocuments().size());
   }
 
+  /**
+   * Test cleartext HTTP/2 upgrade.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  @Timeout(unit = TimeUnit.SECONDS, value = TEST_TIME)
+  void testHttp2() throws Exception {
+    // given
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+    HttpRequest request = HttpRequest.newBuilder().header("Authorization", NettyExtension.API_KEY)
+        .uri(new URI(BASE_URL + "/hello")).build();
+
+    // when
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+    // then
+    assertEquals(HttpClient.Version.HTTP_2, response.version());
+    assertEquals(HttpResponseStatus.NOT_FOUND.code(), response.statusCode());
+    assertEquals("{\"message\":\"/hello not found\"}", response.body());
+  }
+
   /**
    * Test non existing endpoints.
    * 
@@ -0,0 +1,103 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.server;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link java.util.concurrent.ExecutorService} that queues tasks until they are run by the test
+ * thread, so tests can control when dispatched requests complete.
+ */
+public class ManualExecutorService extends AbstractExecutorService {
+
+  /** Queued tasks. */
+  private Deque<Runnable> tasks = new ArrayDeque<>();
+  /** Whether the executor is shutdown. */
+  private boolean shutdown;
+
+  @Override
+  public boolean awaitTermination(final long timeout, final TimeUnit unit) {
+    return this.tasks.isEmpty();
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    this.tasks.add(command);
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return this.shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return this.shutdown && this.tasks.isEmpty();
+  }
+
+  /**
+   * Run the queued tasks, including tasks queued while running, in order.
+   * 
+   * @return int number of tasks run
+   */
+  public int runAll() {
+    int count = 0;
+    while (!this.tasks.isEmpty()) {
+      this.tasks.poll().run();
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   * Run the next queued task.
+   * 
+   * @return boolean whether a task was run
+   */
+  public boolean runNext() {
+    Runnable task = this.tasks.poll();
+    if (task != null) {
+      task.run();
+    }
+    return task != null;
+  }
+
+  @Override
+  public void shutdown() {
+    this.shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    this.shutdown = true;
+    List<Runnable> list = Collections.unmodifiableList(List.copyOf(this.tasks));
+    this.tasks.clear();
+    return list;
+  }
+}
@@ -74,6 +74,8 @@ public class NettyExtension implements BeforeAllCallback, AfterAllCallback {
     params.add("--api-key=" + API_KEY);
     params.add("--typesense-host=http://localhost:" + TypesenseExtension.getMappedPort());
     params.add("--typesense-api-key=" + TypesenseExtension.API_KEY);
+    params.add("--http2=true");
+    params.add("--compression=true");
 
     this.serverThread = new Thread(() -> {
       try {
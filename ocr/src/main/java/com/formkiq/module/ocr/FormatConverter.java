@@ -25,6 +25,8 @@ package com.formkiq.module.ocr;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import com.formkiq.aws.dynamodb.objects.MimeType;
 import com.formkiq.module.lambdaservices.AwsServiceCache;
 
@@ -45,6 +47,29 @@ public interface FormatConverter {
   FormatConverterResult convert(AwsServiceCache awsServices, OcrSqsMessage sqsMessage, File file)
       throws IOException;
 
+  /**
+   * Convert File, writing the UTF-8 text to an {@link OutputStream}. Converters that can produce
+   * text incrementally should override this so the text is never held in memory as a whole.
+   * 
+   * @param awsServices {@link AwsServiceCache}
+   * @param sqsMessage {@link OcrSqsMessage}
+   * @param file {@link File}
+   * @param os {@link OutputStream}
+   * @return {@link OcrScanStatus}
+   * @throws IOException IOException
+   */
+  default OcrScanStatus convert(final AwsServiceCache awsServices, final OcrSqsMessage sqsMessage,
+      final File file, final OutputStream os) throws IOException {
+
+    FormatConverterResult result = convert(awsServices, sqsMessage, file);
+
+    if (result.text() != null) {
+      os.write(result.text().getBytes(StandardCharsets.UTF_8));
+    }
+
+    return result.status();
+  }
+
   /**
    * Is {@link MimeType} supported in converter.
    * 
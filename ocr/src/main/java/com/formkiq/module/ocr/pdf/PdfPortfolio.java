@@ -25,6 +25,7 @@ package com.formkiq.module.ocr.pdf;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -159,8 +160,20 @@ public class PdfPortfolio {
    */
   public List<Map<String, Object>> getPdfEmbeddedFiles(final PDDocument document)
       throws IOException {
+    return getPdfEmbeddedFiles(getEmbeddedFiles(document));
+  }
 
-    List<Map<String, Object>> list = new ArrayList<>();
+  /**
+   * Get Portfolio embedded file specifications by file name, without reading the file contents.
+   * 
+   * @param document {@link PDDocument}
+   * @return {@link Map}
+   * @throws IOException IOException
+   */
+  public Map<String, PDComplexFileSpecification> getEmbeddedFiles(final PDDocument document)
+      throws IOException {
+
+    Map<String, PDComplexFileSpecification> files = new LinkedHashMap<>();
 
     PDDocumentNameDictionary names = new PDDocumentNameDictionary(document.getDocumentCatalog());
     PDEmbeddedFilesNameTreeNode efTree = names.getEmbeddedFiles();
@@ -171,19 +184,18 @@ public class PdfPortfolio {
 
       if (namesMap != null) {
 
-        list.addAll(getPdfEmbeddedFiles(namesMap));
+        files.putAll(namesMap);
 
       } else {
 
         List<PDNameTreeNode<PDComplexFileSpecification>> kids = efTree.getKids();
         for (PDNameTreeNode<PDComplexFileSpecification> node : kids) {
-          namesMap = node.getNames();
-          list.addAll(getPdfEmbeddedFiles(namesMap));
+          files.putAll(node.getNames());
         }
       }
     }
 
-    return list;
+    return files;
   }
 
   /**
@@ -0,0 +1,438 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.typesense;
+
+import static com.formkiq.module.http.HttpResponseStatus.is2XX;
+import static com.formkiq.module.http.HttpResponseStatus.is404;
+import static com.formkiq.module.http.HttpResponseStatus.is409;
+import static com.formkiq.module.http.HttpResponseStatus.is429;
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.formkiq.module.http.JsonService;
+import com.formkiq.module.http.JsonServiceGson;
+
+/**
+ * 
+ * Batches Typesense document writes and deletes by site collection. Writes are sent through the
+ * JSONL 'documents/import' endpoint, first with 'create' and then with 'update' for documents
+ * that already exist, so only the failed lines are retried. Deletes are sent as a single
+ * 'filter_by' request per collection.
+ *
+ */
+public class TypeSenseBatchIndexer {
+
+  /** Default number of retries for throttled documents. */
+  public static final int DEFAULT_MAX_RETRIES = 3;
+  /** Maximum document ids per bulk delete. */
+  private static final int MAX_DELETE_IDS = 100;
+  /** Maximum documents per import request. */
+  private static final int MAX_IMPORT_DOCUMENTS = 500;
+  /** Initial retry delay in milliseconds. */
+  private static final long RETRY_DELAY_MS = 100L;
+  /** Document already exists status code. */
+  private static final int STATUS_CONFLICT = 409;
+  /** Throttled status code. */
+  private static final int STATUS_TOO_MANY_REQUESTS = 429;
+  /** Not ready status code. */
+  private static final int STATUS_UNAVAILABLE = 503;
+
+  /** Pending deletes by site. */
+  private final Map<String, Set<String>> deletes = new LinkedHashMap<>();
+  /** {@link JsonService}. */
+  private final JsonService json = new JsonServiceGson();
+  /** Maximum retries. */
+  private final int maxRetries;
+  /** {@link TypeSenseService}. */
+  private final TypeSenseService service;
+  /** Pending writes by site and document id. */
+  private final Map<String, Map<String, Map<String, Object>>> writes = new LinkedHashMap<>();
+
+  /**
+   * constructor.
+   * 
+   * @param typeSenseService {@link TypeSenseService}
+   */
+  public TypeSenseBatchIndexer(final TypeSenseService typeSenseService) {
+    this(typeSenseService, DEFAULT_MAX_RETRIES);
+  }
+
+  /**
+   * constructor.
+   * 
+   * @param typeSenseService {@link TypeSenseService}
+   * @param retries int
+   */
+  public TypeSenseBatchIndexer(final TypeSenseService typeSenseService, final int retries) {
+    this.service = typeSenseService;
+    this.maxRetries = retries;
+  }
+
+  /**
+   * Add or Update Document. Multiple writes of the same document are merged.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   * @param data {@link Map}
+   */
+  public void addOrUpdate(final String siteId, final String documentId,
+      final Map<String, Object> data) {
+
+    Map<String, Object> document =
+        this.writes.computeIfAbsent(siteId, s -> new LinkedHashMap<>())
+            .computeIfAbsent(documentId, d -> new HashMap<>());
+
+    document.putAll(data);
+    document.remove("documentId");
+    document.put("id", documentId);
+  }
+
+  /**
+   * Delete Document. Any pending write of the document is discarded.
+   * 
+   * @param siteId {@link String}
+   * @param documentId {@link String}
+   */
+  public void delete(final String siteId, final String documentId) {
+
+    Map<String, Map<String, Object>> siteWrites = this.writes.get(siteId);
+    if (siteWrites != null) {
+      siteWrites.remove(documentId);
+    }
+
+    this.deletes.computeIfAbsent(siteId, s -> new LinkedHashSet<>()).add(documentId);
+  }
+
+  /**
+   * Bulk delete documents.
+   * 
+   * @param siteId {@link String}
+   * @param documentIds {@link Set} {@link String}
+   * @param results {@link List} {@link TypeSenseIndexResult}
+   */
+  private void deleteAll(final String siteId, final Set<String> documentIds,
+      final List<TypeSenseIndexResult> results) {
+
+    List<String> ids = new ArrayList<>(documentIds);
+
+    for (int i = 0; i < ids.size(); i += MAX_DELETE_IDS) {
+
+      List<String> chunk = ids.subList(i, Math.min(i + MAX_DELETE_IDS, ids.size()));
+      String error = null;
+
+      try {
+        HttpResponse<String> response = this.service.deleteDocuments(siteId, chunk);
+
+        // missing collection means there is nothing to delete
+        if (!is2XX(response) && !is404(response)) {
+          error = response.body();
+        }
+
+      } catch (IOException e) {
+        error = e.getMessage();
+      }
+
+      for (String documentId : chunk) {
+        results.add(new TypeSenseIndexResult().siteId(siteId).documentId(documentId)
+            .operation(TypeSenseIndexOperation.DELETED).success(error == null).error(error));
+      }
+    }
+  }
+
+  /**
+   * Send all pending writes and deletes. Deletes are sent before writes, so a document deleted
+   * and then written in the same batch is recreated.
+   * 
+   * @return {@link List} {@link TypeSenseIndexResult}
+   */
+  public List<TypeSenseIndexResult> flush() {
+
+    List<TypeSenseIndexResult> results = new ArrayList<>();
+
+    Set<String> siteIds = new LinkedHashSet<>(this.deletes.keySet());
+    siteIds.addAll(this.writes.keySet());
+
+    for (String siteId : siteIds) {
+
+      Set<String> siteDeletes = this.deletes.get(siteId);
+      if (siteDeletes != null && !siteDeletes.isEmpty()) {
+        deleteAll(siteId, siteDeletes, results);
+      }
+
+      Map<String, Map<String, Object>> siteWrites = this.writes.get(siteId);
+      if (siteWrites != null && !siteWrites.isEmpty()) {
+        importAll(siteId, siteWrites, results);
+      }
+    }
+
+    this.deletes.clear();
+    this.writes.clear();
+
+    return results;
+  }
+
+  /**
+   * Import documents with 'create', then re-import the ones that already exist with 'update'.
+   * 
+   * @param siteId {@link String}
+   * @param documents {@link Map}
+   * @param results {@link List} {@link TypeSenseIndexResult}
+   */
+  private void importAll(final String siteId, final Map<String, Map<String, Object>> documents,
+      final List<TypeSenseIndexResult> results) {
+
+    Map<String, Map<String, Object>> existing =
+        importWithRetry(siteId, "create", documents, TypeSenseIndexOperation.ADDED, results);
+
+    if (!existing.isEmpty()) {
+      importWithRetry(siteId, "update", existing, TypeSenseIndexOperation.UPDATED, results);
+    }
+  }
+
+  /**
+   * Send an import request, creating the collection when it does not exist.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link String}
+   * @param documents {@link List} {@link Map}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  private HttpResponse<String> sendImport(final String siteId, final String action,
+      final List<Map<String, Object>> documents) throws IOException {
+
+    HttpResponse<String> response = this.service.importDocuments(siteId, action, documents);
+
+    if (is404(response)) {
+
+      HttpResponse<String> collection = this.service.addCollection(siteId);
+      if (!is2XX(collection) && !is409(collection)) {
+        throw new IOException(collection.body());
+      }
+
+      response = this.service.importDocuments(siteId, action, documents);
+    }
+
+    return response;
+  }
+
+  /**
+   * Import documents, retrying only the throttled lines.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link String}
+   * @param documents {@link Map}
+   * @param operation {@link TypeSenseIndexOperation}
+   * @param results {@link List} {@link TypeSenseIndexResult}
+   * @return {@link Map} documents that already exist, when action is 'create'
+   */
+  private Map<String, Map<String, Object>> importWithRetry(final String siteId,
+      final String action, final Map<String, Map<String, Object>> documents,
+      final TypeSenseIndexOperation operation, final List<TypeSenseIndexResult> results) {
+
+    ImportState state = new ImportState(siteId, action, operation, results);
+    Map<String, Map<String, Object>> pending = documents;
+
+    for (int attempt = 0; !pending.isEmpty() && attempt <= this.maxRetries; attempt++) {
+
+      if (attempt > 0) {
+        sleep(RETRY_DELAY_MS << (attempt - 1));
+      }
+
+      state.retry = new LinkedHashMap<>();
+      List<String> ids = new ArrayList<>(pending.keySet());
+
+      for (int i = 0; i < ids.size(); i += MAX_IMPORT_DOCUMENTS) {
+
+        List<String> chunk = ids.subList(i, Math.min(i + MAX_IMPORT_DOCUMENTS, ids.size()));
+        importChunk(state, chunk, pending);
+      }
+
+      pending = state.retry;
+    }
+
+    addFailures(siteId, pending.keySet(), operation, "retries exhausted", results);
+
+    return state.existing;
+  }
+
+  /**
+   * Import a chunk of documents and sort each document into the results, the existing documents
+   * or the documents to retry.
+   * 
+   * @param state {@link ImportState}
+   * @param chunk {@link List} {@link String}
+   * @param pending {@link Map}
+   */
+  private void importChunk(final ImportState state, final List<String> chunk,
+      final Map<String, Map<String, Object>> pending) {
+
+    List<Map<String, Object>> payload = chunk.stream().map(pending::get).toList();
+
+    try {
+      HttpResponse<String> response = sendImport(state.siteId, state.action, payload);
+
+      if (is2XX(response)) {
+        processLines(state, chunk, pending, response.body());
+      } else if (is429(response) || response.statusCode() == STATUS_UNAVAILABLE) {
+        chunk.forEach(id -> state.retry.put(id, pending.get(id)));
+      } else {
+        addFailures(state.siteId, chunk, state.operation, response.body(), state.results);
+      }
+
+    } catch (IOException e) {
+      addFailures(state.siteId, chunk, state.operation, e.getMessage(), state.results);
+    }
+  }
+
+  /**
+   * Add failed results.
+   * 
+   * @param siteId {@link String}
+   * @param documentIds {@link Iterable} {@link String}
+   * @param operation {@link TypeSenseIndexOperation}
+   * @param error {@link String}
+   * @param results {@link List} {@link TypeSenseIndexResult}
+   */
+  private void addFailures(final String siteId, final Iterable<String> documentIds,
+      final TypeSenseIndexOperation operation, final String error,
+      final List<TypeSenseIndexResult> results) {
+    for (String documentId : documentIds) {
+      results.add(new TypeSenseIndexResult().siteId(siteId).documentId(documentId)
+          .operation(operation).success(false).error(error));
+    }
+  }
+
+  /**
+   * Whether there are no pending writes or deletes.
+   * 
+   * @return boolean
+   */
+  public boolean isEmpty() {
+    return this.writes.values().stream().allMatch(Map::isEmpty)
+        && this.deletes.values().stream().allMatch(Set::isEmpty);
+  }
+
+  /**
+   * Whether an import result line failed because the document already exists.
+   * 
+   * @param code int
+   * @param error {@link String}
+   * @return boolean
+   */
+  private boolean isConflict(final int code, final String error) {
+    return code == STATUS_CONFLICT || (error != null && error.contains("already exists"));
+  }
+
+  /**
+   * Match import result lines to documents. Typesense returns one line per document, in the order
+   * they were sent.
+   * 
+   * @param state {@link ImportState}
+   * @param chunk {@link List} {@link String}
+   * @param pending {@link Map}
+   * @param body {@link String}
+   */
+  private void processLines(final ImportState state, final List<String> chunk,
+      final Map<String, Map<String, Object>> pending, final String body) {
+
+    String[] lines = body != null ? body.split("\n") : new String[0];
+
+    for (int i = 0; i < chunk.size(); i++) {
+
+      String documentId = chunk.get(i);
+      Map<String, Object> line =
+          i < lines.length ? this.json.fromJsonToMap(lines[i]) : Map.of("error", "no result");
+
+      boolean success = Boolean.TRUE.equals(line.get("success"));
+      String error = (String) line.get("error");
+      int code = line.get("code") instanceof Number n ? n.intValue() : 0;
+
+      if (success) {
+        state.results.add(new TypeSenseIndexResult().siteId(state.siteId).documentId(documentId)
+            .operation(state.operation).success(true));
+      } else if ("create".equals(state.action) && isConflict(code, error)) {
+        state.existing.put(documentId, pending.get(documentId));
+      } else if (code == STATUS_TOO_MANY_REQUESTS || code == STATUS_UNAVAILABLE) {
+        state.retry.put(documentId, pending.get(documentId));
+      } else {
+        addFailures(state.siteId, List.of(documentId), state.operation, error, state.results);
+      }
+    }
+  }
+
+  /**
+   * Sleep before retrying.
+   * 
+   * @param millis long
+   */
+  private void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * State of a single import action.
+   */
+  private static class ImportState {
+
+    /** Import action. */
+    private final String action;
+    /** Documents that already exist. */
+    private final Map<String, Map<String, Object>> existing = new LinkedHashMap<>();
+    /** {@link TypeSenseIndexOperation}. */
+    private final TypeSenseIndexOperation operation;
+    /** {@link List} {@link TypeSenseIndexResult}. */
+    private final List<TypeSenseIndexResult> results;
+    /** Documents to retry. */
+    private Map<String, Map<String, Object>> retry = new LinkedHashMap<>();
+    /** Site Id. */
+    private final String siteId;
+
+    /**
+     * constructor.
+     * 
+     * @param site {@link String}
+     * @param importAction {@link String}
+     * @param op {@link TypeSenseIndexOperation}
+     * @param list {@link List} {@link TypeSenseIndexResult}
+     */
+    ImportState(final String site, final String importAction, final TypeSenseIndexOperation op,
+        final List<TypeSenseIndexResult> list) {
+      this.siteId = site;
+      this.action = importAction;
+      this.operation = op;
+      this.results = list;
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * MIT License
+ * 
+ * Copyright (c) 2018 - 2020 FormKiQ
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.formkiq.module.typesense;
+
+/**
+ * 
+ * Result of indexing a single document with {@link TypeSenseBatchIndexer}.
+ *
+ */
+public class TypeSenseIndexResult {
+
+  /** Document Id. */
+  private String documentId;
+  /** Error message, when not successful. */
+  private String error;
+  /** {@link TypeSenseIndexOperation}. */
+  private TypeSenseIndexOperation operation;
+  /** Site Id. */
+  private String siteId;
+  /** Whether the operation succeeded. */
+  private boolean success;
+
+  /**
+   * constructor.
+   */
+  public TypeSenseIndexResult() {}
+
+  /**
+   * Get Document Id.
+   * 
+   * @return {@link String}
+   */
+  public String documentId() {
+    return this.documentId;
+  }
+
+  /**
+   * Set Document Id.
+   * 
+   * @param id {@link String}
+   * @return {@link TypeSenseIndexResult}
+   */
+  public TypeSenseIndexResult documentId(final String id) {
+    this.documentId = id;
+    return this;
+  }
+
+  /**
+   * Get Error.
+   * 
+   * @return {@link String}
+   */
+  public String error() {
+    return this.error;
+  }
+
+  /**
+   * Set Error.
+   * 
+   * @param message {@link String}
+   * @return {@link TypeSenseIndexResult}
+   */
+  public TypeSenseIndexResult error(final String message) {
+    this.error = message;
+    return this;
+  }
+
+  /**
+   * Get Operation.
+   * 
+   * @return {@link TypeSenseIndexOperation}
+   */
+  public TypeSenseIndexOperation operation() {
+    return this.operation;
+  }
+
+  /**
+   * Set Operation.
+   * 
+   * @param op {@link TypeSenseIndexOperation}
+   * @return {@link TypeSenseIndexResult}
+   */
+  public TypeSenseIndexResult operation(final TypeSenseIndexOperation op) {
+    this.operation = op;
+    return this;
+  }
+
+  /**
+   * Get Site Id.
+   * 
+   * @return {@link String}
+   */
+  public String siteId() {
+    return this.siteId;
+  }
+
+  /**
+   * Set Site Id.
+   * 
+   * @param id {@link String}
+   * @return {@link TypeSenseIndexResult}
+   */
+  public TypeSenseIndexResult siteId(final String id) {
+    this.siteId = id;
+    return this;
+  }
+
+  /**
+   * Whether the operation succeeded.
+   * 
+   * @return boolean
+   */
+  public boolean success() {
+    return this.success;
+  }
+
+  /**
+   * Set whether the operation succeeded.
+   * 
+   * @param succeeded boolean
+   * @return {@link TypeSenseIndexResult}
+   */
+  public TypeSenseIndexResult success(final boolean succeeded) {
+    this.success = succeeded;
+    return this;
+  }
+}
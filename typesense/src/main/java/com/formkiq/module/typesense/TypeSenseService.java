@@ -25,6 +25,7 @@ package com.formkiq.module.typesense;
 
 import java.io.IOException;
 import java.net.http.HttpResponse;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -78,6 +79,17 @@ public interface TypeSenseService {
    */
   HttpResponse<String> deleteDocument(String siteId, String documentId) throws IOException;
 
+  /**
+   * Delete Documents in bulk, using a 'filter_by' on the document ids.
+   * 
+   * @param siteId {@link String}
+   * @param documentIds {@link Collection} {@link String}
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> deleteDocuments(String siteId, Collection<String> documentIds)
+      throws IOException;
+
   /**
    * Get Document.
    * 
@@ -88,6 +100,19 @@ public interface TypeSenseService {
    */
   HttpResponse<String> getDocument(String siteId, String documentId) throws IOException;
 
+  /**
+   * Import Documents using the JSONL 'documents/import' endpoint. The response body contains one
+   * JSON result line per document, in the same order as the documents.
+   * 
+   * @param siteId {@link String}
+   * @param action {@link String} 'create', 'update', 'upsert' or 'emplace'
+   * @param documents {@link List} {@link Map}, each containing an 'id'
+   * @return {@link HttpResponse}
+   * @throws IOException IOException
+   */
+  HttpResponse<String> importDocuments(String siteId, String action,
+      List<Map<String, Object>> documents) throws IOException;
+
   /**
    * Full text search.
    * 
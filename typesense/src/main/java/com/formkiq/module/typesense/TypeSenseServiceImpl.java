@@ -31,7 +31,9 @@ import java.io.IOException;
 import java.net.URLEncoder;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -53,6 +55,9 @@ import software.amazon.awssdk.regions.Region;
  */
 public class TypeSenseServiceImpl implements TypeSenseService {
 
+  /** Timeout of bulk document imports, which run longer than the default request timeout. */
+  private static final Duration IMPORT_TIMEOUT = Duration.ofMinutes(10);
+
   /** {@link Map}. */
   private Map<String, String> additionalHeaders = Collections.emptyMap();
   /** {@link String}. */
@@ -181,6 +186,24 @@ public class TypeSenseServiceImpl implements TypeSenseService {
     return response;
   }
 
+  @Override
+  public HttpResponse<String> deleteDocuments(final String siteId,
+      final Collection<String> documentIds) throws IOException {
+
+    String site = getCollectionName(siteId);
+    String url = String.format("%s/collections/%s/documents", this.host, encode(site));
+
+    String filter = "id:[" + documentIds.stream().map(id -> "`" + id + "`")
+        .collect(Collectors.joining(",")) + "]";
+
+    HttpHeaders headers = getHeader();
+
+    HttpResponse<String> response =
+        this.service.delete(url, Optional.of(headers), Optional.of(Map.of("filter_by", filter)));
+
+    return response;
+  }
+
   private String encode(final String s) {
     return URLEncoder.encode(s, StandardCharsets.UTF_8);
   }
@@ -219,6 +242,27 @@ public class TypeSenseServiceImpl implements TypeSenseService {
     return headers;
   }
 
+  @Override
+  public HttpResponse<String> importDocuments(final String siteId, final String action,
+      final List<Map<String, Object>> documents) throws IOException {
+
+    String site = getCollectionName(siteId);
+    String url = String.format("%s/collections/%s/documents/import", this.host, encode(site));
+
+    String payload = documents.stream().map(d -> {
+      Map<String, Object> document = new HashMap<>(d);
+      document.remove("documentId");
+      return this.json.toJson(document);
+    }).collect(Collectors.joining("\n"));
+
+    HttpHeaders headers = getHeader();
+
+    HttpResponse<String> response = this.service.post(url, Optional.of(headers),
+        Optional.of(Map.of("action", action)), payload, Optional.of(IMPORT_TIMEOUT));
+
+    return response;
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public List<String> searchFulltext(final String siteId, final String text, final int maxResults)
@@ -24,6 +24,7 @@
 package com.formkiq.module.typesense;
 
 import static com.formkiq.testutils.aws.TypesenseExtension.API_KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import java.util.Arrays;
@@ -98,6 +99,62 @@ class TypeSenseServiceImplTest {
     }
   }
 
+  /**
+   * Bulk import, update and delete documents.
+   * 
+   * @throws Exception Exception
+   */
+  @Test
+  void testBatchIndexer01() throws Exception {
+    // given
+    final int maxResults = 10;
+    for (String siteId : Arrays.asList(null, UUID.randomUUID().toString())) {
+
+      String text = UUID.randomUUID().toString();
+      String documentId0 = UUID.randomUUID().toString();
+      String documentId1 = UUID.randomUUID().toString();
+      TypeSenseBatchIndexer indexer = new TypeSenseBatchIndexer(this.service);
+
+      indexer.addOrUpdate(siteId, documentId0, Map.of("path", text + "/a.pdf"));
+      indexer.addOrUpdate(siteId, documentId1, Map.of("path", text + "/b.pdf"));
+
+      // when
+      List<TypeSenseIndexResult> results = indexer.flush();
+
+      // then
+      assertEquals(2, results.size());
+      results.forEach(r -> assertEquals(TypeSenseIndexOperation.ADDED, r.operation()));
+      results.forEach(r -> assertTrue(r.success()));
+      assertEquals(2, this.service.searchFulltext(siteId, text, maxResults).size());
+      assertTrue(indexer.isEmpty());
+
+      // given
+      indexer.addOrUpdate(siteId, documentId0, Map.of("content", "updated"));
+
+      // when
+      results = indexer.flush();
+
+      // then
+      assertEquals(1, results.size());
+      assertEquals(documentId0, results.get(0).documentId());
+      assertEquals(TypeSenseIndexOperation.UPDATED, results.get(0).operation());
+      assertTrue(results.get(0).success());
+
+      // given
+      indexer.delete(siteId, documentId0);
+      indexer.delete(siteId, documentId1);
+
+      // when
+      results = indexer.flush();
+
+      // then
+      assertEquals(2, results.size());
+      results.forEach(r -> assertEquals(TypeSenseIndexOperation.DELETED, r.operation()));
+      results.forEach(r -> assertTrue(r.success()));
+      assertTrue(this.service.searchFulltext(siteId, text, maxResults).isEmpty());
+    }
+  }
+
   /**
    * Add a document.
    * 